@@ -0,0 +1,32 @@
+-- Index de la base Sorciers (SQL Server).
+-- Chaque index de tri se termine par l'id, qui départage les égalités
+-- et sert de curseur à la pagination des listes.
+
+-- Pagination et tri des sorciers (nom, attaque, santé).
+CREATE INDEX IX_sorcier_nom_id ON sorcier (nom, id);
+CREATE INDEX IX_sorcier_attaque_id ON sorcier (attaque, id);
+CREATE INDEX IX_sorcier_sante_id ON sorcier (sante, id);
+
+-- Pagination et tri des maisons (nom, bonus d'attaque, bonus de santé).
+CREATE INDEX IX_maison_nom_id ON maison (nom, id);
+CREATE INDEX IX_maison_bonusAttaque_id ON maison (bonusAttaque, id);
+CREATE INDEX IX_maison_bonusSante_id ON maison (bonusSante, id);
+
+-- Recherche par début de nom ou de prénom (LIKE 'terme%') : le nom est servi par
+-- IX_sorcier_nom_id, le prénom par cet index, le nom des maisons par UX_maison_nom.
+CREATE INDEX IX_sorcier_prenom_id ON sorcier (prenom, id);
+
+-- Statistiques par maison : le regroupement lit cet index couvrant au lieu de la table.
+CREATE INDEX IX_sorcier_id_maison ON sorcier (id_maison) INCLUDE (attaque, sante);
+
+-- Suppression conditionnelle des sorciers : test d'existence d'un utilisateur lie.
+CREATE INDEX IX_utilisateur_id_sorcier ON utilisateur (id_sorcier);
+
+-- Unicité des sorciers (nom, prénom) et des maisons (nom) : les ajouts détectent
+-- les doublons à l'insertion, y compris entre deux ajouts concurrents.
+-- Les doublons éventuellement présents doivent être supprimés avant la création.
+CREATE UNIQUE INDEX UX_sorcier_nom_prenom ON sorcier (nom, prenom);
+CREATE UNIQUE INDEX UX_maison_nom ON maison (nom);
+
+-- Unicité des noms d'utilisateur : l'inscription détecte un nom déjà pris à l'insertion.
+CREATE UNIQUE INDEX UX_utilisateur_nom ON utilisateur (nom);
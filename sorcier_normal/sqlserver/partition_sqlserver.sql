@@ -0,0 +1,86 @@
+-- Partitionnement de la table sorcier par maison (profils sqlserver et partition).
+-- La base principale (le catalogue) garde les maisons, les utilisateurs, les rôles,
+-- l'annuaire des partitions et la séquence des identifiants de sorciers.
+-- Chaque partition ne contient que sa part de la table sorcier.
+
+-- ===== Base principale =====
+
+-- Partition de chaque maison. Une maison absente est affectée à la partition (id modulo N).
+CREATE TABLE partition_maison (
+    id_maison INT PRIMARY KEY,
+    numero_partition INT NOT NULL
+);
+
+-- Numéros de blocs d'identifiants : chaque valeur réserve 100 identifiants de sorciers
+-- (bloc * 100 à bloc * 100 + 99) à une seule maison.
+CREATE SEQUENCE sorcier_seq AS BIGINT START WITH 1 INCREMENT BY 1;
+
+-- Maison de chaque bloc : le bloc d'un identifiant donne la maison de création du sorcier,
+-- donc sa partition.
+CREATE TABLE bloc_maison (
+    bloc BIGINT PRIMARY KEY,
+    id_maison INT NOT NULL
+);
+
+-- Les sorciers ne sont plus dans la base principale : la clé étrangère
+-- utilisateur.id_sorcier -> sorcier.id doit être supprimée (son nom est propre à chaque base).
+-- ALTER TABLE utilisateur DROP CONSTRAINT <nom de la contrainte>;
+
+-- ===== Chaque partition =====
+
+-- L'identifiant est alloué par l'application, et non par la partition.
+CREATE TABLE sorcier (
+    id INT PRIMARY KEY,
+    nom VARCHAR(255),
+    prenom VARCHAR(255),
+    id_maison INT NOT NULL,
+    attaque INT,
+    sante INT,
+    modifiable INT
+);
+
+-- Mêmes index que la table d'origine : pagination, recherche, statistiques et unicité.
+CREATE INDEX IX_sorcier_nom_id ON sorcier (nom, id);
+CREATE INDEX IX_sorcier_prenom_id ON sorcier (prenom, id);
+CREATE INDEX IX_sorcier_attaque_id ON sorcier (attaque, id);
+CREATE INDEX IX_sorcier_sante_id ON sorcier (sante, id);
+CREATE INDEX IX_sorcier_id_maison ON sorcier (id_maison) INCLUDE (attaque, sante);
+CREATE UNIQUE INDEX UX_sorcier_nom_prenom ON sorcier (nom, prenom);
+
+-- Maisons absentes de la partition : en cours de déplacement, ou déplacées ailleurs.
+-- Les écritures des sorciers de ces maisons sont refusées par la requête elle-même.
+CREATE TABLE maison_absente (
+    id_maison INT PRIMARY KEY
+);
+
+-- ===== Migration des sorciers existants (base principale) =====
+
+-- A exécuter une fois, écritures suspendues, après la création des partitions.
+-- Exemple pour deux partitions SORCIER_P0 et SORCIER_P1 sur le même serveur que la base principale ;
+-- sinon, exporter chaque sélection puis l'importer dans sa partition.
+
+-- 1. Affecte chaque maison à une partition (id modulo N, ici N = 2).
+INSERT INTO partition_maison (id_maison, numero_partition)
+SELECT m.id, m.id % 2 FROM maison m
+WHERE NOT EXISTS (SELECT 1 FROM partition_maison p WHERE p.id_maison = m.id);
+
+-- 2. Recopie les sorciers sur la partition de leur maison, avec leur identifiant d'origine :
+--    les utilisateurs qui les ont choisis les retrouvent. Ces identifiants n'appartiennent à
+--    aucun bloc ; l'application les cherche alors sur toutes les partitions.
+INSERT INTO SORCIER_P0.dbo.sorcier (id, nom, prenom, id_maison, attaque, sante, modifiable)
+SELECT s.id, s.nom, s.prenom, s.id_maison, s.attaque, s.sante, s.modifiable
+FROM sorcier s JOIN partition_maison p ON p.id_maison = s.id_maison
+WHERE p.numero_partition = 0;
+
+INSERT INTO SORCIER_P1.dbo.sorcier (id, nom, prenom, id_maison, attaque, sante, modifiable)
+SELECT s.id, s.nom, s.prenom, s.id_maison, s.attaque, s.sante, s.modifiable
+FROM sorcier s JOIN partition_maison p ON p.id_maison = s.id_maison
+WHERE p.numero_partition = 1;
+
+-- 3. Fait commencer la séquence au-delà des identifiants recopiés : un bloc couvre
+--    100 identifiants, les nouveaux identifiants ne peuvent plus les croiser.
+DECLARE @premierBloc BIGINT = (SELECT ISNULL(MAX(id), 0) / 100 + 1 FROM sorcier);
+EXEC ('ALTER SEQUENCE sorcier_seq RESTART WITH ' + CAST(@premierBloc AS VARCHAR(20)));
+
+-- 4. Une fois les comptes vérifiés sur chaque partition, la table d'origine peut être vidée.
+-- DELETE FROM sorcier;
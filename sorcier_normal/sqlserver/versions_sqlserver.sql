@@ -0,0 +1,15 @@
+-- Versions des données de la base Sorciers (SQL Server).
+-- Chaque écriture des sorciers, des maisons ou des utilisateurs incrémente sa ligne, dans la transaction
+-- de l'écriture. Toutes les instances de l'application en tirent les ETag des pages
+-- et l'invalidation de leurs caches : une écriture faite par l'une est vue par les autres.
+
+CREATE TABLE version_donnees (
+    donnees VARCHAR(20) PRIMARY KEY,
+    numero BIGINT NOT NULL,
+    modifie_le DATETIME2 NOT NULL
+);
+
+INSERT INTO version_donnees (donnees, numero, modifie_le) VALUES
+('sorciers', 1, SYSUTCDATETIME()),
+('maisons', 1, SYSUTCDATETIME()),
+('utilisateurs', 1, SYSUTCDATETIME());
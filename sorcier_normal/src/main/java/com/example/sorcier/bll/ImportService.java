@@ -0,0 +1,28 @@
+package com.example.sorcier.bll;
+
+import java.io.InputStream;
+
+import com.example.sorcier.bo.RapportImport;
+
+public interface ImportService {
+
+	/**
+     * Importe des sorciers depuis un fichier CSV (avec en-tête) ou NDJSON.
+     * Le fichier est lu au fil de l'eau et enregistré par lots.
+     *
+     * @param flux Le contenu du fichier
+     * @param format Le format du fichier : csv ou ndjson
+     * @return Le compte rendu de l'import
+     */
+	public RapportImport importerSorciers(InputStream flux, String format);
+
+	/**
+     * Importe des maisons depuis un fichier CSV (avec en-tête) ou NDJSON.
+     * Le fichier est lu au fil de l'eau et enregistré par lots.
+     *
+     * @param flux Le contenu du fichier
+     * @param format Le format du fichier : csv ou ndjson
+     * @return Le compte rendu de l'import
+     */
+	public RapportImport importerMaisons(InputStream flux, String format);
+}
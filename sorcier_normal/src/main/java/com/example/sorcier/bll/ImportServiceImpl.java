@@ -0,0 +1,269 @@
+package com.example.sorcier.bll;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import com.example.sorcier.bll.metier.ImportMetier;
+import com.example.sorcier.bo.Maison;
+import com.example.sorcier.bo.RapportImport;
+import com.example.sorcier.bo.Sorcier;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Service d'import de fichiers de sorciers et de maisons, commun à tous les profils.
+ * Les lignes sont lues une à une, validées, puis enregistrées par lots via les
+ * services de sorciers et de maisons : la mémoire utilisée ne dépend que de la taille de lot.
+ * Le compte rendu est retourné à l'appelant et écrit dans un fichier texte du dossier des rapports.
+ */
+@Service
+public class ImportServiceImpl implements ImportService {
+
+	private SorcierService sorcierService;
+	private MaisonService maisonService;
+	private Validator validator;
+
+	// Nombre de lignes enregistrées par lot (et par transaction).
+	@Value("${sorcier.import.taille-lot:1000}")
+	private int tailleLot;
+
+	// Dossier des comptes rendus d'import (vide : pas de fichier).
+	@Value("${sorcier.import.rapports:${java.io.tmpdir}/sorcier-imports}")
+	private String dossierRapports;
+
+	// Horodatage du nom des fichiers de compte rendu.
+	private static final DateTimeFormatter HORODATAGE = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+	/**
+	 * Constructeur pour initialiser les services et le validateur.
+	 *
+	 * @param sorcierService - Le service de gestion des sorciers.
+	 * @param maisonService - Le service de gestion des maisons.
+	 * @param validator - Le validateur des contraintes des objets métier.
+	 */
+	public ImportServiceImpl(SorcierService sorcierService, MaisonService maisonService, Validator validator) {
+		this.sorcierService = sorcierService;
+		this.maisonService = maisonService;
+		this.validator = validator;
+	}
+
+	/**
+	 * Importe des sorciers. Les maisons sont désignées par leur nom et doivent exister.
+	 *
+	 * @param flux - Le contenu du fichier.
+	 * @param format - Le format du fichier : csv ou ndjson.
+	 * @return Le compte rendu de l'import.
+	 */
+	@Override
+	public RapportImport importerSorciers(InputStream flux, String format) {
+		return importer(flux, format, "sorciers", ImportMetier::sorcierDepuisChamps, this::enregistrerSorciers);
+	}
+
+	/**
+	 * Importe des maisons. Les maisons déjà existantes sont signalées en erreur.
+	 *
+	 * @param flux - Le contenu du fichier.
+	 * @param format - Le format du fichier : csv ou ndjson.
+	 * @return Le compte rendu de l'import.
+	 */
+	@Override
+	public RapportImport importerMaisons(InputStream flux, String format) {
+		return importer(flux, format, "maisons", ImportMetier::maisonDepuisChamps, this::enregistrerMaisons);
+	}
+
+	/**
+	 * Lit le fichier ligne à ligne, convertit et valide chaque ligne, puis transmet
+	 * les lignes valides par lots à l'enregistrement.
+	 */
+	private <T> RapportImport importer(InputStream flux, String format, String type,
+			Function<Map<String, String>, T> conversion, BiConsumer<List<Ligne<T>>, RapportImport> enregistrement) {
+		long debut = System.nanoTime();
+		RapportImport rapport = new RapportImport();
+		boolean csv = "csv".equalsIgnoreCase(format);
+		List<Ligne<T>> lot = new ArrayList<>(tailleLot);
+		int numero = 0;
+
+		try (BufferedReader lecteur = new BufferedReader(new InputStreamReader(flux, StandardCharsets.UTF_8))) {
+			List<String> entete = null;
+			String texte;
+			while ((texte = lecteur.readLine()) != null) {
+				numero++;
+				if (texte.isBlank()) {
+					continue;
+				}
+				// La première ligne d'un CSV donne le nom des colonnes (sans l'éventuel BOM).
+				if (csv && entete == null) {
+					entete = ImportMetier.decouperCsv(texte.replace("\uFEFF", ""));
+					continue;
+				}
+				rapport.compterLigneLue();
+
+				try {
+					// Convertit la ligne, puis vérifie les contraintes de validation.
+					Map<String, String> champs = csv ? ImportMetier.champsCsv(entete, texte) : ImportMetier.champsNdjson(texte);
+					T objet = conversion.apply(champs);
+					Set<ConstraintViolation<T>> violations = validator.validate(objet);
+					if (!violations.isEmpty()) {
+						rapport.ajouterErreur(numero, violations.stream()
+								.map(ConstraintViolation::getMessage)
+								.sorted()
+								.collect(Collectors.joining(" ; ")));
+						continue;
+					}
+					lot.add(new Ligne<>(numero, objet));
+				} catch (IllegalArgumentException e) {
+					rapport.ajouterErreur(numero, e.getMessage());
+				}
+
+				// Enregistre le lot dès qu'il est complet.
+				if (lot.size() >= tailleLot) {
+					enregistrement.accept(lot, rapport);
+					lot.clear();
+				}
+			}
+			// Enregistre le dernier lot, incomplet.
+			if (!lot.isEmpty()) {
+				enregistrement.accept(lot, rapport);
+			}
+		} catch (IOException e) {
+			rapport.ajouterErreur(numero, "Lecture du fichier interrompue : " + e.getMessage());
+		}
+
+		rapport.setDureeMs((System.nanoTime() - debut) / 1_000_000);
+		ecrireRapport(rapport, type);
+		return rapport;
+	}
+
+	/**
+	 * Écrit le compte rendu et ses erreurs détaillées dans un nouveau fichier du dossier des rapports,
+	 * dont le chemin est noté dans le compte rendu. Un échec d'écriture ne fait pas échouer l'import.
+	 */
+	private void ecrireRapport(RapportImport rapport, String type) {
+		if (dossierRapports == null || dossierRapports.isBlank()) {
+			return;
+		}
+		List<String> lignes = new ArrayList<>();
+		lignes.add(rapport.toString());
+		for (RapportImport.Erreur erreur : rapport.getErreurs()) {
+			lignes.add("Ligne " + erreur.getLigne() + " : " + erreur.getMessage());
+		}
+		int nonDetaillees = rapport.getNombreErreurs() - rapport.getErreurs().size();
+		if (nonDetaillees > 0) {
+			lignes.add(nonDetaillees + " autres erreurs, non detaillees.");
+		}
+
+		try {
+			// Un fichier par import, même pour deux imports lancés dans la même seconde.
+			Path dossier = Files.createDirectories(Path.of(dossierRapports));
+			Path fichier = Files.createTempFile(dossier, "import-" + type + "-" + LocalDateTime.now().format(HORODATAGE) + "-",
+					".txt");
+			Files.write(fichier, lignes, StandardCharsets.UTF_8);
+			rapport.setFichier(fichier.toString());
+		} catch (IOException e) {
+			System.out.println("ISI : Compte rendu d'import non ecrit : " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Résout en une requête les maisons citées par le lot, puis enregistre les sorciers.
+	 */
+	private void enregistrerSorciers(List<Ligne<Sorcier>> lot, RapportImport rapport) {
+		// Recherche les maisons du lot, sans tenir compte de la casse.
+		Set<String> noms = lot.stream()
+				.map(l -> l.objet.getMaison().getNom())
+				.collect(Collectors.toCollection(() -> new TreeSet<>(String.CASE_INSENSITIVE_ORDER)));
+		Map<String, Maison> maisons = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		maisonService.recupererMaisonsParNoms(noms).forEach(m -> maisons.put(m.getNom(), m));
+
+		// Rattache chaque sorcier à sa maison, ou signale une maison inconnue.
+		List<Ligne<Sorcier>> valides = new ArrayList<>(lot.size());
+		for (Ligne<Sorcier> ligne : lot) {
+			Maison maison = maisons.get(ligne.objet.getMaison().getNom());
+			if (maison == null) {
+				rapport.ajouterErreur(ligne.numero, "Maison inconnue : " + ligne.objet.getMaison().getNom());
+			} else {
+				ligne.objet.setMaison(maison);
+				valides.add(ligne);
+			}
+		}
+		enregistrer(valides, sorcierService::ajouterSorciers, rapport);
+	}
+
+	/**
+	 * Écarte les maisons déjà existantes ou en double, puis enregistre les autres.
+	 */
+	private void enregistrerMaisons(List<Ligne<Maison>> lot, RapportImport rapport) {
+		// Recherche en une requête les maisons du lot déjà présentes en base.
+		Set<String> existantes = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+		maisonService.recupererMaisonsParNoms(lot.stream().map(l -> l.objet.getNom()).toList())
+				.forEach(m -> existantes.add(m.getNom()));
+
+		List<Ligne<Maison>> nouvelles = new ArrayList<>(lot.size());
+		for (Ligne<Maison> ligne : lot) {
+			// Le nom est ajouté aux existantes pour écarter aussi les doublons du lot.
+			if (!existantes.add(ligne.objet.getNom())) {
+				rapport.ajouterErreur(ligne.numero, "Maison deja existante : " + ligne.objet.getNom());
+			} else {
+				nouvelles.add(ligne);
+			}
+		}
+		enregistrer(nouvelles, maisonService::ajouterMaisons, rapport);
+	}
+
+	/**
+	 * Enregistre un lot en une transaction. Si le lot échoue, il est annulé puis
+	 * rejoué ligne à ligne pour isoler les lignes en erreur.
+	 */
+	private <T> void enregistrer(List<Ligne<T>> lignes, Function<List<T>, List<Integer>> ajout, RapportImport rapport) {
+		if (lignes.isEmpty()) {
+			return;
+		}
+		try {
+			ajout.apply(lignes.stream().map(l -> l.objet).toList());
+			rapport.compterLignesImportees(lignes.size());
+		} catch (DataAccessException e) {
+			for (Ligne<T> ligne : lignes) {
+				try {
+					ajout.apply(List.of(ligne.objet));
+					rapport.compterLignesImportees(1);
+				} catch (DataAccessException erreur) {
+					rapport.ajouterErreur(ligne.numero, erreur.getMostSpecificCause().getMessage());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Objet lu sur une ligne du fichier, avec son numéro de ligne.
+	 */
+	private static class Ligne<T> {
+		private final int numero;
+		private final T objet;
+
+		Ligne(int numero, T objet) {
+			this.numero = numero;
+			this.objet = objet;
+		}
+	}
+}
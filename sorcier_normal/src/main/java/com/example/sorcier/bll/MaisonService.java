@@ -1,8 +1,11 @@
 package com.example.sorcier.bll;
 
+import java.util.Collection;
 import java.util.List;
 
 import com.example.sorcier.bo.Maison;
+import com.example.sorcier.bo.Pagination;
+import com.example.sorcier.bo.Tri;
 
 public interface MaisonService {
 
@@ -14,6 +17,14 @@ public interface MaisonService {
      * @param maison La maison à ajouter
      */
     public void ajouterMaison(Maison maison);
+    
+    /**
+     * Ajoute plusieurs maisons en une seule opération.
+     * 
+     * @param maisons Les maisons à ajouter
+     * @return Les identifiants attribués, dans l'ordre de la liste
+     */
+    public List<Integer> ajouterMaisons(List<Maison> maisons);
         
     /**
      * Modifie une maison.
@@ -37,6 +48,25 @@ public interface MaisonService {
      */
     public List<Maison> recupererMaisons();
     
+    /**
+     * Récupère en une fois les maisons portant l'un des noms donnés.
+     * 
+     * @param noms Les noms des maisons à récupérer
+     * @return Les maisons trouvées
+     */
+    public List<Maison> recupererMaisonsParNoms(Collection<String> noms);
+    
+    /**
+     * Récupère une page de maisons triées, à partir d'un curseur.
+     * 
+     * @param tri Le critère de tri
+     * @param apresId L'identifiant de la maison après laquelle commence la page, ou null
+     * @param avantId L'identifiant de la maison avant laquelle se termine la page, ou null
+     * @param taille La taille de page demandée
+     * @return La page de maisons
+     */
+    public Pagination<Maison> recupererPageMaisons(Tri tri, Integer apresId, Integer avantId, int taille);
+    
     /**
      * Supprime une maison par son identifiant.
      * 
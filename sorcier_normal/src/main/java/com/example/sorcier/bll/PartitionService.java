@@ -0,0 +1,32 @@
+package com.example.sorcier.bll;
+
+import java.util.List;
+import java.util.Map;
+
+import com.example.sorcier.bo.Maison;
+
+public interface PartitionService {
+
+	/**
+     * Récupère la partition de chaque maison.
+     *
+     * @return Le numéro de partition de chaque maison, les maisons étant triées par nom
+     */
+	public Map<Maison, Integer> recupererPartitionsMaisons();
+
+	/**
+     * Compte les sorciers de chaque partition.
+     *
+     * @return Le nombre de sorciers, dans l'ordre des partitions
+     */
+	public List<Integer> compterSorciersParPartition();
+
+	/**
+     * Déplace une maison et ses sorciers vers une autre partition.
+     *
+     * @param idMaison L'id de la maison à déplacer
+     * @param partition Le numéro de la partition cible
+     * @return Le nombre de sorciers déplacés
+     */
+	public int deplacerMaison(int idMaison, int partition);
+}
@@ -1,8 +1,11 @@
 package com.example.sorcier.bll;
 
 import java.util.List;
+import java.util.function.Consumer;
 
+import com.example.sorcier.bo.Pagination;
 import com.example.sorcier.bo.Sorcier;
+import com.example.sorcier.bo.Tri;
 
 public interface SorcierService {
 	
@@ -15,6 +18,14 @@ public interface SorcierService {
      */
 	public void ajouterSorcier(Sorcier sorcier);
 	
+	/**
+     * Ajoute plusieurs sorciers en une seule opération.
+     * 
+     * @param sorciers Les sorciers à ajouter, leur maison devant exister
+     * @return Les identifiants attribués, dans l'ordre de la liste
+     */
+	public List<Integer> ajouterSorciers(List<Sorcier> sorciers);
+	
 	/**
      * Ajoute un sorcier à une maison.
      * 
@@ -44,6 +55,24 @@ public interface SorcierService {
      */
 	public List<Sorcier> recupererSorciers();
 	
+	/**
+     * Transmet tous les sorciers au traitement, un par un, sans les charger en mémoire.
+     * 
+     * @param consommateur Le traitement appliqué à chaque sorcier
+     */
+	public void exporterSorciers(Consumer<Sorcier> consommateur);
+	
+	/**
+     * Récupère une page de sorciers triés, à partir d'un curseur.
+     * 
+     * @param tri Le critère de tri
+     * @param apresId L'identifiant du sorcier après lequel commence la page, ou null
+     * @param avantId L'identifiant du sorcier avant lequel se termine la page, ou null
+     * @param taille La taille de page demandée
+     * @return La page de sorciers
+     */
+	public Pagination<Sorcier> recupererPageSorciers(Tri tri, Integer apresId, Integer avantId, int taille);
+	
 	/**
      * Supprime un sorcier par son identifiant.
      * 
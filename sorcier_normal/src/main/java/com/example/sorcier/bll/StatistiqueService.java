@@ -0,0 +1,23 @@
+package com.example.sorcier.bll;
+
+import java.util.List;
+
+import com.example.sorcier.bo.StatistiqueMaison;
+
+public interface StatistiqueService {
+
+	/**
+     * Compte le nombre total de sorciers.
+     * 
+     * @return Le nombre de sorciers
+     */
+	public int compterSorciers();
+
+	/**
+     * Récupère, pour chaque maison, le nombre de sorciers et les moyennes,
+     * minimums et maximums de leur attaque et de leur santé.
+     * 
+     * @return Les statistiques des maisons, triées par nom
+     */
+	public List<StatistiqueMaison> recupererStatistiquesParMaison();
+}
@@ -0,0 +1,83 @@
+package com.example.sorcier.bll.metier;
+
+// Encodeur JSON pour échapper les chaînes de caractères.
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+// Importation des classes métier.
+import com.example.sorcier.bo.Sorcier;
+
+/**
+ * Classe métier fournissant la mise en forme des sorciers pour l'export (CSV et NDJSON).
+ */
+public class ExportMetier {
+
+    // Colonnes exportées, dans l'ordre.
+    public static final String ENTETE_CSV = "id,nom,prenom,maison,attaque,sante,modifiable";
+
+    /**
+     * Met en forme un sorcier sous la forme d'une ligne CSV (sans retour à la ligne).
+     *
+     * @param sorcier - Le sorcier à exporter.
+     * @return La ligne CSV.
+     */
+    public static String ligneCsv(Sorcier sorcier) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(sorcier.getId()).append(',')
+          .append(champCsv(sorcier.getNom())).append(',')
+          .append(champCsv(sorcier.getPrenom())).append(',')
+          .append(champCsv(sorcier.getMaison() != null ? sorcier.getMaison().getNom() : null)).append(',')
+          .append(sorcier.getAttaque()).append(',')
+          .append(sorcier.getSante()).append(',')
+          .append(sorcier.isModifiable());
+        return sb.toString();
+    }
+
+    /**
+     * Met en forme un sorcier sous la forme d'un objet JSON sur une ligne (sans retour à la ligne).
+     *
+     * @param sorcier - Le sorcier à exporter.
+     * @return La ligne JSON.
+     */
+    public static String ligneNdjson(Sorcier sorcier) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"id\":").append(sorcier.getId())
+          .append(",\"nom\":").append(chaineJson(sorcier.getNom()))
+          .append(",\"prenom\":").append(chaineJson(sorcier.getPrenom()))
+          .append(",\"maison\":").append(chaineJson(sorcier.getMaison() != null ? sorcier.getMaison().getNom() : null))
+          .append(",\"attaque\":").append(sorcier.getAttaque())
+          .append(",\"sante\":").append(sorcier.getSante())
+          .append(",\"modifiable\":").append(sorcier.isModifiable())
+          .append('}');
+        return sb.toString();
+    }
+
+    /**
+     * Entoure un champ de guillemets s'il contient un séparateur, un guillemet ou un retour à la ligne.
+     *
+     * @param valeur - La valeur du champ.
+     * @return Le champ prêt à être écrit.
+     */
+    private static String champCsv(String valeur) {
+        if (valeur == null) {
+            return "";
+        }
+        if (valeur.indexOf(',') < 0 && valeur.indexOf('"') < 0 && valeur.indexOf('\n') < 0 && valeur.indexOf('\r') < 0) {
+            return valeur;
+        }
+        // Double les guillemets internes, comme le prévoit le format CSV.
+        return '"' + valeur.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Met en forme une chaîne JSON, ou null.
+     *
+     * @param valeur - La valeur à mettre en forme.
+     * @return La chaîne JSON échappée entre guillemets, ou null.
+     */
+    private static String chaineJson(String valeur) {
+        if (valeur == null) {
+            return "null";
+        }
+        return '"' + new String(JsonStringEncoder.getInstance().quoteAsString(valeur)) + '"';
+    }
+}
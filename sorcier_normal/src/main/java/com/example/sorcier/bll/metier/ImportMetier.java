@@ -0,0 +1,171 @@
+package com.example.sorcier.bll.metier;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+// Lecture des lignes JSON.
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Importation des classes métier.
+import com.example.sorcier.bo.Maison;
+import com.example.sorcier.bo.Sorcier;
+
+/**
+ * Classe métier fournissant la lecture des lignes importées (CSV et NDJSON)
+ * et leur conversion en sorciers et en maisons.
+ * Les colonnes reconnues sont celles de l'export, les colonnes inconnues sont ignorées.
+ */
+public class ImportMetier {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * Découpe une ligne CSV en champs. Les champs entre guillemets peuvent contenir
+     * des virgules et des guillemets doublés, mais pas de retour à la ligne.
+     *
+     * @param ligne - La ligne CSV.
+     * @return La liste des champs.
+     */
+    public static List<String> decouperCsv(String ligne) {
+        List<String> champs = new ArrayList<>();
+        StringBuilder champ = new StringBuilder();
+        boolean entreGuillemets = false;
+        for (int i = 0; i < ligne.length(); i++) {
+            char c = ligne.charAt(i);
+            if (entreGuillemets) {
+                if (c == '"' && i + 1 < ligne.length() && ligne.charAt(i + 1) == '"') {
+                    // Guillemet doublé : guillemet littéral.
+                    champ.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreGuillemets = false;
+                } else {
+                    champ.append(c);
+                }
+            } else if (c == '"') {
+                entreGuillemets = true;
+            } else if (c == ',') {
+                champs.add(champ.toString().trim());
+                champ.setLength(0);
+            } else {
+                champ.append(c);
+            }
+        }
+        champs.add(champ.toString().trim());
+        return champs;
+    }
+
+    /**
+     * Associe les champs d'une ligne CSV aux colonnes de l'en-tête.
+     *
+     * @param entete - Les noms de colonnes lus sur la première ligne.
+     * @param ligne - La ligne CSV.
+     * @return Les valeurs de la ligne, par nom de colonne.
+     */
+    public static Map<String, String> champsCsv(List<String> entete, String ligne) {
+        List<String> valeurs = decouperCsv(ligne);
+        if (valeurs.size() != entete.size()) {
+            throw new IllegalArgumentException(
+                    "Nombre de colonnes incorrect : " + valeurs.size() + " au lieu de " + entete.size());
+        }
+        Map<String, String> champs = new HashMap<>();
+        for (int i = 0; i < entete.size(); i++) {
+            champs.put(entete.get(i), valeurs.get(i));
+        }
+        return champs;
+    }
+
+    /**
+     * Lit les champs d'une ligne NDJSON (un objet JSON par ligne).
+     *
+     * @param ligne - La ligne JSON.
+     * @return Les valeurs de la ligne, par nom de champ.
+     */
+    public static Map<String, String> champsNdjson(String ligne) {
+        JsonNode noeud;
+        try {
+            noeud = OBJECT_MAPPER.readTree(ligne);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("JSON invalide : " + e.getOriginalMessage());
+        }
+        if (noeud == null || !noeud.isObject()) {
+            throw new IllegalArgumentException("Objet JSON attendu");
+        }
+        Map<String, String> champs = new HashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> it = noeud.fields();
+        while (it.hasNext()) {
+            Map.Entry<String, JsonNode> champ = it.next();
+            champs.put(champ.getKey(), champ.getValue().isNull() ? null : champ.getValue().asText());
+        }
+        return champs;
+    }
+
+    /**
+     * Construit un sorcier à partir des champs d'une ligne. La maison n'est
+     * connue que par son nom : elle est résolue au moment de l'enregistrement.
+     *
+     * @param champs - Les valeurs de la ligne, par nom de colonne.
+     * @return Le sorcier, non encore validé.
+     */
+    public static Sorcier sorcierDepuisChamps(Map<String, String> champs) {
+        Maison maison = new Maison();
+        maison.setNom(obligatoire(champs, "maison"));
+        return new Sorcier(
+                obligatoire(champs, "nom"),
+                obligatoire(champs, "prenom"),
+                maison,
+                entier(champs, "attaque"),
+                entier(champs, "sante"),
+                booleen(champs, "modifiable"));
+    }
+
+    /**
+     * Construit une maison à partir des champs d'une ligne.
+     *
+     * @param champs - Les valeurs de la ligne, par nom de colonne.
+     * @return La maison, non encore validée.
+     */
+    public static Maison maisonDepuisChamps(Map<String, String> champs) {
+        return new Maison(
+                obligatoire(champs, "nom"),
+                entier(champs, "bonusAttaque"),
+                entier(champs, "bonusSante"),
+                booleen(champs, "modifiable"));
+    }
+
+    /**
+     * Retourne la valeur d'un champ obligatoire.
+     */
+    private static String obligatoire(Map<String, String> champs, String nom) {
+        String valeur = champs.get(nom);
+        if (valeur == null || valeur.isBlank()) {
+            throw new IllegalArgumentException("Champ manquant : " + nom);
+        }
+        return valeur.trim();
+    }
+
+    /**
+     * Retourne la valeur entière d'un champ obligatoire.
+     */
+    private static int entier(Map<String, String> champs, String nom) {
+        String valeur = obligatoire(champs, nom);
+        try {
+            return Integer.parseInt(valeur);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Nombre attendu pour " + nom + " : " + valeur);
+        }
+    }
+
+    /**
+     * Retourne la valeur booléenne d'un champ facultatif, vrai par défaut.
+     */
+    private static boolean booleen(Map<String, String> champs, String nom) {
+        String valeur = champs.get(nom);
+        return valeur == null || valeur.isBlank() || Boolean.parseBoolean(valeur.trim());
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.sorcier.bll.metier;
+
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+import com.example.sorcier.bo.Pagination;
+import com.example.sorcier.bo.Tri;
+
+/**
+ * Classe métier fournissant les opérations liées à la pagination sur curseur.
+ */
+public class PaginationMetier {
+
+    // Taille de page maximale acceptée, quelle que soit la demande.
+    public static final int TAILLE_MAX = 100;
+
+    /**
+     * Ramène la taille de page demandée dans les bornes acceptées.
+     *
+     * @param taille - La taille de page demandée.
+     * @return La taille de page à utiliser.
+     */
+    public static int bornerTaille(int taille) {
+        return Math.max(1, Math.min(taille, TAILLE_MAX));
+    }
+
+    /**
+     * Construit une page à partir des lignes lues par le repository.
+     * Le repository lit une ligne de plus que la taille de page pour savoir
+     * s'il reste des éléments au-delà de la page.
+     *
+     * @param lignes - Les lignes lues, dans l'ordre d'affichage (au plus taille + 1).
+     * @param tri - Le critère de tri appliqué.
+     * @param taille - La taille de page.
+     * @param apresId - Le curseur "après" utilisé, ou null.
+     * @param avantId - Le curseur "avant" utilisé, ou null.
+     * @param id - La fonction donnant l'identifiant d'un élément.
+     * @return La page construite.
+     */
+    public static <T> Pagination<T> paginer(List<T> lignes, Tri tri, int taille, Integer apresId, Integer avantId,
+            ToIntFunction<T> id) {
+        boolean reste = lignes.size() > taille;
+        List<T> elements;
+        boolean precedente;
+        boolean suivante;
+
+        if (avantId != null) {
+            // En reculant, la ligne en trop se trouve en tête de liste.
+            elements = reste ? lignes.subList(1, lignes.size()) : lignes;
+            precedente = reste;
+            suivante = true;
+        } else {
+            // En avançant, la ligne en trop se trouve en fin de liste.
+            elements = reste ? lignes.subList(0, taille) : lignes;
+            precedente = apresId != null;
+            suivante = reste;
+        }
+
+        Integer premierId = elements.isEmpty() ? null : id.applyAsInt(elements.get(0));
+        Integer dernierId = elements.isEmpty() ? null : id.applyAsInt(elements.get(elements.size() - 1));
+        return new Pagination<>(List.copyOf(elements), tri, taille, premierId, dernierId, precedente, suivante);
+    }
+}
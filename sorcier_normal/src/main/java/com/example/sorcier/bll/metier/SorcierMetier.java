@@ -1,8 +1,5 @@
 package com.example.sorcier.bll.metier;
 
-// Importation de la classe List de Java pour gérer les collections.
-import java.util.List;
-
 // Importation des classes métier.
 import com.example.sorcier.bo.Sorcier;
 import com.example.sorcier.bo.Utilisateur;
@@ -12,41 +9,16 @@ import com.example.sorcier.bo.Utilisateur;
  */
 public class SorcierMetier {
 
-    /**
-     * Recherche des sorciers correspondant à un critère de recherche dans leur nom, prénom ou maison.
-     * 
-     * @param motARechercher - Le mot clé de recherche.
-     * @param tousLesSorciers - La liste de tous les sorciers.
-     * @return Liste des sorciers filtrée selon le mot clé.
-     */
-    public static List<Sorcier> rechercherSorciers(String motARechercher, List<Sorcier> tousLesSorciers) {
-        // Retourne tous les sorciers si aucun mot clé n'est fourni.
-        if (motARechercher.equals("")) {
-            return tousLesSorciers;
-        } else {
-        	
-            // Filtre les sorciers dont le nom, prénom ou nom de maison contient le mot clé.
-            return tousLesSorciers
-                    .stream()
-                    .filter(s ->
-                        s.getNom().toLowerCase().contains(motARechercher.toLowerCase()) ||
-                        s.getPrenom().toLowerCase().contains(motARechercher.toLowerCase()) ||
-                        s.getMaison().getNom().toLowerCase().contains(motARechercher.toLowerCase()))
-                    .toList();
-        }
-    }
-    
-    
     /**
      * Crée une chaine de caractères avec le nombre de sorciers.
      * 
-     * @param tousLesSorciers - La liste de tous les sorciers.
+     * @param nombreSorciers - Le nombre de sorciers, compté par la couche d'accès aux données.
      * @return Une chaine de caractères affichant le nombre de tous les sorciers.
      */
-    public static String compterSorciers(List<Sorcier> tousLesSorciers) {
+    public static String compterSorciers(int nombreSorciers) {
         StringBuilder sb = new StringBuilder();
         sb.append("Il y a dans ma base de donnees ")
-          .append(tousLesSorciers.size())
+          .append(nombreSorciers)
           .append(" sorciers.");
         return sb.toString();
     }
@@ -1,13 +1,18 @@
 package com.example.sorcier.bll.mock;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
 import com.example.sorcier.bll.MaisonService;
+import com.example.sorcier.bll.metier.PaginationMetier;
 import com.example.sorcier.bo.Maison;
-import com.example.sorcier.bo.Sorcier;
+import com.example.sorcier.bo.Pagination;
+import com.example.sorcier.bo.Tri;
+import com.example.sorcier.config.VersionsDonnees;
 import com.example.sorcier.dal.mock.MaisonRepositoryMock;
 import com.example.sorcier.dal.mock.SorcierRepositoryMock;
 
@@ -17,16 +22,24 @@ public class MaisonServiceMock implements MaisonService {
 
 	private SorcierRepositoryMock sorcierRepositoryMock;
 	private MaisonRepositoryMock maisonRepositoryMock;
+	private VersionsDonnees versionsDonnees;
+
+	// Nombre maximal de résultats retournés par une recherche.
+	@Value("${sorcier.recherche.limite:50}")
+	private int limiteRecherche;
 
 	/**
 	 * Constructeur de MaisonServiceMock.
 	 * 
 	 * @param sorcierRepositoryMock - Le mock du repository de Sorcier.
 	 * @param maisonRepositoryMock  - Le mock du repository de Maison.
+	 * @param versionsDonnees - Les versions des données, incrémentées à chaque écriture.
 	 */
-	public MaisonServiceMock(SorcierRepositoryMock sorcierRepositoryMock, MaisonRepositoryMock maisonRepositoryMock) {
+	public MaisonServiceMock(SorcierRepositoryMock sorcierRepositoryMock, MaisonRepositoryMock maisonRepositoryMock,
+			VersionsDonnees versionsDonnees) {
 		this.sorcierRepositoryMock = sorcierRepositoryMock;
 		this.maisonRepositoryMock = maisonRepositoryMock;
+		this.versionsDonnees = versionsDonnees;
 	}
 
 	// FONCTIONS DAL
@@ -38,16 +51,25 @@ public class MaisonServiceMock implements MaisonService {
 	 */
 	@Override
 	public void ajouterMaison(Maison maison) {
-		// Recherche de la maison par nom dans le mock du repository de Maison.
-		Maison maisonTrouvee = maisonRepositoryMock.findByName(maison);
-
-		// Vérifie si la maison existe déjà.
-		if (maisonTrouvee != null) {
+		// Sauvegarde de la maison dans le mock du repository de Maison, si elle n'existe pas déjà.
+		if (!maisonRepositoryMock.insertIfAbsent(maison).isCree()) {
 			System.out.println("MSM : Maison déjà existante (ajouterMaison).");
-			return;
 		}
-		// Sauvegarde de la maison dans le mock du repository de Maison.
-		maisonRepositoryMock.save(maison);
+		versionsDonnees.maisonsModifiees();
+	}
+
+	/**
+	 * Ajoute plusieurs maisons par lots.
+	 * 
+	 * @param maisons - Les maisons à ajouter.
+	 * @return Les identifiants attribués, dans l'ordre de la liste.
+	 */
+	@Override
+	public List<Integer> ajouterMaisons(List<Maison> maisons) {
+		// Sauvegarde les maisons par lots.
+		List<Integer> ids = maisonRepositoryMock.saveAll(maisons);
+		versionsDonnees.maisonsModifiees();
+		return ids;
 	}
 
 	/**
@@ -59,6 +81,7 @@ public class MaisonServiceMock implements MaisonService {
 	public void modifierMaison(Maison maison) {
 		// Met à jour la maison dans le mock du repository de Maison.
 		maisonRepositoryMock.update(maison);
+		versionsDonnees.maisonsModifiees();
 	}
 
 	/**
@@ -84,6 +107,39 @@ public class MaisonServiceMock implements MaisonService {
 		return maisonRepositoryMock.findAll();
 	}
 
+	/**
+	 * Récupère en une fois les maisons portant l'un des noms donnés.
+	 * 
+	 * @param noms - Les noms des maisons à récupérer.
+	 * @return Les maisons trouvées.
+	 */
+	@Override
+	public List<Maison> recupererMaisonsParNoms(Collection<String> noms) {
+		// Recherche toutes les maisons demandées en une seule fois.
+		return maisonRepositoryMock.findByNames(noms);
+	}
+
+	/**
+	 * Récupère une page de maisons triées, à partir d'un curseur.
+	 * 
+	 * @param tri - Le critère de tri.
+	 * @param apresId - L'id après lequel commence la page, ou null.
+	 * @param avantId - L'id avant lequel se termine la page, ou null.
+	 * @param taille - La taille de page demandée.
+	 * @return La page de maisons.
+	 */
+	@Override
+	public Pagination<Maison> recupererPageMaisons(Tri tri, Integer apresId, Integer avantId, int taille) {
+		// Borne la taille de page demandée.
+		int tailleBornee = PaginationMetier.bornerTaille(taille);
+		
+		// Lit une ligne de plus que la page pour savoir s'il en reste au-delà.
+		List<Maison> lignes = maisonRepositoryMock.findPage(tri, apresId, avantId, tailleBornee + 1);
+		
+		// Construit la page à afficher.
+		return PaginationMetier.paginer(lignes, tri, tailleBornee, apresId, avantId, Maison::getId);
+	}
+
 	/**
 	 * Supprime une maison par son identifiant.
 	 * 
@@ -91,16 +147,11 @@ public class MaisonServiceMock implements MaisonService {
 	 */
 	@Override
 	public void supprimerMaison(int id_maison) {
-		// Recherche les sorciers associés à la maison à supprimer.
-		List<Sorcier> sorciersTrouve = sorcierRepositoryMock.findByMaison(id_maison);
-
-		// Vérifie si des sorciers sont associés à la maison.
-		if (sorciersTrouve.size() > 0) {
-			System.out.println("MSM : Maison utilisée (supprimerMaison).");
-			return;
+		// Supprime la maison seulement si aucun sorcier n'y est associé.
+		if (!maisonRepositoryMock.removeIfUnused(id_maison)) {
+			System.out.println("MSM : Maison utilisée ou inexistante (supprimerMaison).");
 		}
-		// Supprime la maison dans le mock du repository de Maison.
-		maisonRepositoryMock.removeById(id_maison);
+		versionsDonnees.maisonsModifiees();
 	}
 
 	// FONCTIONS METIER
@@ -113,14 +164,7 @@ public class MaisonServiceMock implements MaisonService {
 	 */
 	@Override
 	public List<Maison> rechercherMaisons(String motARechercher) {
-		if (motARechercher.equals("")) {
-			// Récupére toutes les maisons si le mot de recherche est vide.
-			return recupererMaisons();
-			
-		} else {
-			// Filtre les maisons dont le nom contient le mot de recherche (insensible à la casse).
-			return recupererMaisons().stream()
-					.filter(m -> m.getNom().toLowerCase().contains(motARechercher.toLowerCase())).toList();
-		}
+		// Délègue la recherche au repository, en bornant le nombre de résultats.
+		return maisonRepositoryMock.search(motARechercher, limiteRecherche);
 	}
 }
@@ -1,14 +1,20 @@
 package com.example.sorcier.bll.mock;
 
 import java.util.List;
+import java.util.function.Consumer;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
 import com.example.sorcier.bll.SorcierService;
+import com.example.sorcier.bll.metier.PaginationMetier;
 import com.example.sorcier.bll.metier.SorcierMetier;
 import com.example.sorcier.bo.Maison;
+import com.example.sorcier.bo.Pagination;
 import com.example.sorcier.bo.Sorcier;
+import com.example.sorcier.bo.Tri;
+import com.example.sorcier.config.VersionsDonnees;
 import com.example.sorcier.dal.mock.MaisonRepositoryMock;
 import com.example.sorcier.dal.mock.SorcierRepositoryMock;
 
@@ -18,6 +24,11 @@ public class SorcierServiceMock implements SorcierService {
 	
 	private SorcierRepositoryMock sorcierRepositoryMock;
 	private MaisonRepositoryMock maisonRepositoryMock;
+	private VersionsDonnees versionsDonnees;
+
+	// Nombre maximal de résultats retournés par une recherche.
+	@Value("${sorcier.recherche.limite:50}")
+	private int limiteRecherche;
 
 	// CONSTRUCTEUR
 
@@ -26,10 +37,13 @@ public class SorcierServiceMock implements SorcierService {
 	 * 
 	 * @param sorcierRepositoryMock - Le mock du repository de Sorcier.
 	 * @param maisonRepositoryMock  - Le mock du repository de Maison.
+	 * @param versionsDonnees - Les versions des données, incrémentées à chaque écriture.
 	 */
-	public SorcierServiceMock(SorcierRepositoryMock sorcierRepositoryMock, MaisonRepositoryMock maisonRepositoryMock) {
+	public SorcierServiceMock(SorcierRepositoryMock sorcierRepositoryMock, MaisonRepositoryMock maisonRepositoryMock,
+			VersionsDonnees versionsDonnees) {
 		this.sorcierRepositoryMock = sorcierRepositoryMock;
 		this.maisonRepositoryMock = maisonRepositoryMock;
+		this.versionsDonnees = versionsDonnees;
 	}
 
 	// FONCTIONS DAL
@@ -40,17 +54,25 @@ public class SorcierServiceMock implements SorcierService {
 	 * @param sorcier - Le sorcier à ajouter.
 	 */
 	public void ajouterSorcier(Sorcier sorcier) {
-		// Recherche du sorcier par nom dans le mock du repository de Sorcier.
-		Sorcier sorcierTrouve = sorcierRepositoryMock.findByName(sorcier);
-		
-		// Vérifie si le sorcier existe déjà.
-		if (sorcierTrouve != null) {
+		// Sauvegarde du sorcier dans le mock du repository de Sorcier, s'il n'existe pas déjà.
+		if (!sorcierRepositoryMock.insertIfAbsent(sorcier).isCree()) {
 	    	System.out.println("SSM : Sorcier déjà existant (ajouterSorcier).");
-	    	return;
 		}
-		
-		// Sauvegarde du sorcier dans le mock du repository de Sorcier.
-		sorcierRepositoryMock.save(sorcier);
+		versionsDonnees.sorciersModifies();
+	}
+
+	/**
+	 * Ajoute plusieurs sorciers par lots.
+	 * 
+	 * @param sorciers - Les sorciers à ajouter.
+	 * @return Les identifiants attribués, dans l'ordre de la liste.
+	 */
+	@Override
+	public List<Integer> ajouterSorciers(List<Sorcier> sorciers) {
+		// Sauvegarde les sorciers par lots.
+		List<Integer> ids = sorcierRepositoryMock.saveAll(sorciers);
+		versionsDonnees.sorciersModifies();
+		return ids;
 	}
 
 	/**
@@ -60,35 +82,28 @@ public class SorcierServiceMock implements SorcierService {
 	 */
 	@Override
 	public void ajouterSorcierMaison(Sorcier sorcier) {
-		// Recherche le sorcier par nom dans le mock du repository de Sorcier.
-		Sorcier sorcierTrouve = sorcierRepositoryMock.findByName(sorcier);
-
 		// Vérifie si le sorcier existe déjà.
-		if (sorcierTrouve != null) {
+		if (sorcierRepositoryMock.findByName(sorcier) != null) {
 			System.out.println("SSM : Sorcier déjà existant (ajouterSorcierMaison).");
 			return;
 		}
 		
 		// Obtient la maison associée au sorcier.
 		Maison maison = sorcier.getMaison();
-		
-		// Recherche la maison par nom dans le mock du repository de Maison.
-		Maison maisonTrouvee = maisonRepositoryMock.findByName(maison);
 
-		// Valide si la maison existe déjà.
-		if (maisonTrouvee != null) {
+		// Sauvegarde la maison dans le mock du repository de Maison, si elle n'existe pas déjà.
+		if (!maisonRepositoryMock.insertIfAbsent(maison).isCree()) {
 			System.out.println("SSM : Maison déjà existante (ajouterSorcierMaison).");
 			return;
 		}
-
-		// Sauvegarde la maison dans le mock du repository de Maison.
-		maisonRepositoryMock.save(maison);
 		
 		// Associe la maison au sorcier.
 		sorcier.setMaison(maison);
 		
 		// Sauvegarde le sorcier dans le mock du repository sorcier.
 		sorcierRepositoryMock.save(sorcier);
+		versionsDonnees.maisonsModifiees();
+		versionsDonnees.sorciersModifies();
 	}
 
 	/**
@@ -99,6 +114,7 @@ public class SorcierServiceMock implements SorcierService {
 	public void modifierSorcier(Sorcier sorcier) {
 		// Met à jour le sorcier dans le mock du repository du sorcier.
 		sorcierRepositoryMock.update(sorcier);
+		versionsDonnees.sorciersModifies();
 	}
 
 	/**
@@ -122,14 +138,49 @@ public class SorcierServiceMock implements SorcierService {
 		return sorcierRepositoryMock.findAll();
 	}
 
+	/**
+	 * Transmet tous les sorciers au traitement, un par un, sans les charger en mémoire.
+	 * 
+	 * @param consommateur - Le traitement appliqué à chaque sorcier.
+	 */
+	@Override
+	public void exporterSorciers(Consumer<Sorcier> consommateur) {
+		// Parcourt les sorciers au fil de la lecture.
+		sorcierRepositoryMock.streamAll(consommateur);
+	}
+
+	/**
+	 * Récupère une page de sorciers triés, à partir d'un curseur.
+	 * 
+	 * @param tri - Le critère de tri.
+	 * @param apresId - L'id après lequel commence la page, ou null.
+	 * @param avantId - L'id avant lequel se termine la page, ou null.
+	 * @param taille - La taille de page demandée.
+	 * @return La page de sorciers.
+	 */
+	@Override
+	public Pagination<Sorcier> recupererPageSorciers(Tri tri, Integer apresId, Integer avantId, int taille) {
+		// Borne la taille de page demandée.
+		int tailleBornee = PaginationMetier.bornerTaille(taille);
+		
+		// Lit une ligne de plus que la page pour savoir s'il en reste au-delà.
+		List<Sorcier> lignes = sorcierRepositoryMock.findPage(tri, apresId, avantId, tailleBornee + 1);
+		
+		// Construit la page à afficher.
+		return PaginationMetier.paginer(lignes, tri, tailleBornee, apresId, avantId, Sorcier::getId);
+	}
+
 	/**
 	 * Supprime un sorcier par son identifiant.
 	 * 
 	 * @param id - L'id du sorcier à supprimer.
 	 */
 	public void supprimerSorcier(int id) {
-		// Supprime le sorcier avec un id dans le mock du repository sorcier
-		sorcierRepositoryMock.removeById(id);
+		// Supprime le sorcier avec un id dans le mock du repository sorcier, s'il n'est pas utilisé.
+		if (!sorcierRepositoryMock.removeIfUnused(id)) {
+			System.out.println("SSM : Sorcier utilisé ou inexistant (supprimerSorcier).");
+		}
+		versionsDonnees.sorciersModifies();
 	}
 
 	// FONCTIONS METIER
@@ -141,8 +192,8 @@ public class SorcierServiceMock implements SorcierService {
 	 * @return La liste des sorciers correspondant au critère de recherche.
 	 */
 	public List<Sorcier> rechercherSorciers(String motARechercher) {
-		// Appelle la méthode de la classe métier pour rechercher les sorciers
-		return SorcierMetier.rechercherSorciers(motARechercher, recupererSorciers());
+		// Délègue la recherche au repository, en bornant le nombre de résultats.
+		return sorcierRepositoryMock.search(motARechercher, limiteRecherche);
 	}
 
 	/**
@@ -152,6 +203,6 @@ public class SorcierServiceMock implements SorcierService {
 	 */
 	public String compterSorciers() {
 		// Appelle la méthode de la couche métier pour compter les sorciers.
-		return SorcierMetier.compterSorciers(recupererSorciers());
+		return SorcierMetier.compterSorciers(sorcierRepositoryMock.count());
 	}
 }
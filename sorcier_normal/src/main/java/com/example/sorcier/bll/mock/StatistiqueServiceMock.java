@@ -0,0 +1,46 @@
+package com.example.sorcier.bll.mock;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import com.example.sorcier.bll.StatistiqueService;
+import com.example.sorcier.bo.StatistiqueMaison;
+import com.example.sorcier.dal.mock.SorcierRepositoryMock;
+
+@Service
+@Profile("dev")
+public class StatistiqueServiceMock implements StatistiqueService {
+
+	private SorcierRepositoryMock sorcierRepositoryMock;
+
+	/**
+	 * Constructeur de StatistiqueServiceMock.
+	 * 
+	 * @param sorcierRepositoryMock - Le mock du repository de Sorcier.
+	 */
+	public StatistiqueServiceMock(SorcierRepositoryMock sorcierRepositoryMock) {
+		this.sorcierRepositoryMock = sorcierRepositoryMock;
+	}
+
+	/**
+	 * Compte le nombre total de sorciers.
+	 * 
+	 * @return Le nombre de sorciers.
+	 */
+	@Override
+	public int compterSorciers() {
+		return sorcierRepositoryMock.count();
+	}
+
+	/**
+	 * Récupère les statistiques des sorciers par maison.
+	 * 
+	 * @return Les statistiques des maisons, triées par nom.
+	 */
+	@Override
+	public List<StatistiqueMaison> recupererStatistiquesParMaison() {
+		return sorcierRepositoryMock.statsByMaison();
+	}
+}
@@ -52,36 +52,27 @@ public class UtilisateurServiceMock implements UtilisateurService {
 	 */
 	@Override
 	public void ajouterUtilisateur(Utilisateur utilisateur, String role) {
-		// Recherche l'utilisateur par nom dans le mock du repository utilisateur.
-		Utilisateur utilisateurTrouve = utilisateurRepositoryMock.findByName(utilisateur.getNom());
-
-		// Vérifie si l'utilisateur existe déjà.
-		if (utilisateurTrouve != null) {
-			System.out.println("USS : Utilisateur déjà existant (ajouterSorcier).");
-			return;
-		}
-
 		// Met à jour le mot de passe de l'utilisateur.
 		mettreAJourMdp(utilisateur);
 		
-		// Sauvegarde l'utilisateur dans le mock du repository utilisateur.
-		utilisateurRepositoryMock.save(utilisateur);
-
-		// Récupère l'identifiant de l'utilisateur nouvellement ajouté.
-		int idCourant = utilisateurRepositoryMock.findByName(utilisateur.getNom()).getId();
+		// Sauvegarde l'utilisateur dans le mock du repository utilisateur, s'il n'existe pas déjà.
+		if (!utilisateurRepositoryMock.insertIfAbsent(utilisateur).isCree()) {
+			System.out.println("USM : Utilisateur déjà existant (ajouterUtilisateur).");
+			return;
+		}
 
 		// Crée la liste des rôles de l'utilisateur.
 		List<String> roles = new ArrayList<>();
 		if (role.equals("ADMIN")) {
-			roleRepositoryMock.save(idCourant, "ADMIN");
-			roleRepositoryMock.save(idCourant, "INSCRIT");
 			roles.add("ADMIN");
 			roles.add("INSCRIT");
 		}
 		if (role.equals("INSCRIT")) {
-			roleRepositoryMock.save(idCourant, "INSCRIT");
 			roles.add("INSCRIT");
 		}
+		
+		// Sauvegarde les rôles avec l'identifiant attribué à l'utilisateur.
+		roleRepositoryMock.saveAll(utilisateur.getId(), roles);
 
 		// Crée l'utilisateur Spring Security.
 		User.UserBuilder userBuilder = User.withUsername(utilisateur.getNom()).password(utilisateur.getMdpHash())
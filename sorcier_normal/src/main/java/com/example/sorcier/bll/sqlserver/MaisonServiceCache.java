@@ -0,0 +1,321 @@
+package com.example.sorcier.bll.sqlserver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Importe l'initialisation du bean une fois ses propriétés injectées.
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+// Importe l'événement de fin de démarrage, qui déclenche le premier chargement.
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+// Importe les annotations pour la configuration spécifique à un profil Spring.
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+// Importe les caches en mémoire bornés.
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import com.example.sorcier.bll.MaisonService;
+import com.example.sorcier.bo.InstantaneMaisons;
+import com.example.sorcier.bo.Maison;
+import com.example.sorcier.bo.Pagination;
+import com.example.sorcier.bo.Tri;
+import com.example.sorcier.config.EtatCache;
+import com.example.sorcier.config.RoutageDataSource;
+import com.example.sorcier.config.VersionsDonnees;
+
+/**
+ * Cache des maisons devant MaisonServiceSqlserver : les maisons changent rarement, mais
+ * presque chaque page en lit la liste, et chaque formulaire qui lie une maison la relit
+ * (StringToMaisonConverter).
+ * Toutes les maisons sont servies depuis une photographie non modifiable, chargée au
+ * démarrage et remplacée d'un bloc après chaque écriture des maisons, y compris celles
+ * faites par SorcierService (VersionsDonnees) : une lecture ne coûte qu'une
+ * lecture volatile, sans verrou. Les maisons absentes de la photographie (écrites par une
+ * autre instance) sont lues en base, puis gardées par id et par nom dans des caches
+ * bornés en taille et en durée.
+ * Une maison demandée par son id est une copie : elle peut être liée à un formulaire
+ * (StringToMaisonConverter). Les listes retournées partagent les maisons en cache :
+ * elles ne servent qu'à l'affichage et aux lectures, et ne doivent pas être modifiées.
+ */
+@Service
+@Primary
+@Profile("sqlserver")
+public class MaisonServiceCache implements MaisonService, InitializingBean {
+
+	private MaisonServiceSqlserver maisonServiceSqlserver;
+	private VersionsDonnees versionsDonnees;
+
+	// Nombre maximal de maisons par cache et durée de vie d'une entrée (s).
+	@Value("${sorcier.maisons.cache-max:1000}")
+	private long cacheMax;
+
+	@Value("${sorcier.maisons.cache-duree-s:600}")
+	private long cacheDureeS;
+
+	private Cache<Integer, Maison> parId;
+	private Cache<String, Maison> parNom;
+
+	// Photographie courante de toutes les maisons, remplacée à chaque écriture.
+	private volatile InstantaneMaisons instantane;
+
+	// Verrou des rechargements : la dernière photographie publiée est la plus récente.
+	private final ReentrantLock verrouRechargement = new ReentrantLock();
+
+	/**
+	 * Constructeur pour initialiser le service décoré.
+	 *
+	 * @param maisonServiceSqlserver - Le service qui lit et écrit les maisons en base.
+	 * @param versionsDonnees - Les versions des données, incrémentées à chaque écriture.
+	 */
+	public MaisonServiceCache(MaisonServiceSqlserver maisonServiceSqlserver, VersionsDonnees versionsDonnees) {
+		this.maisonServiceSqlserver = maisonServiceSqlserver;
+		this.versionsDonnees = versionsDonnees;
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		parId = construire(cacheMax);
+		parNom = construire(cacheMax);
+
+		// Recharge la photographie après chaque écriture des maisons, une fois validée.
+		versionsDonnees.surMaisonsModifiees(() -> {
+			parNom.invalidateAll();
+			recharger();
+		});
+	}
+
+	/**
+	 * Charge la photographie des maisons une fois l'application démarrée.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void chargerAuDemarrage() {
+		recharger();
+	}
+
+	/**
+	 * Relit toutes les maisons en base et publie la nouvelle photographie.
+	 *
+	 * @return La photographie publiée.
+	 */
+	private InstantaneMaisons recharger() {
+		// Lit sur la base primaire : un réplica peut ne pas avoir encore reçu l'écriture.
+		boolean imposer = !RoutageDataSource.isPrimaireImposee();
+		if (imposer) {
+			RoutageDataSource.imposerPrimaire();
+		}
+		verrouRechargement.lock();
+		try {
+			InstantaneMaisons nouvel = new InstantaneMaisons(maisonServiceSqlserver.recupererMaisons());
+			instantane = nouvel;
+			System.out.println("MSC : Photographie des maisons rechargee (" + nouvel.getMaisons().size() + " maisons).");
+			return nouvel;
+		} finally {
+			verrouRechargement.unlock();
+			if (imposer) {
+				RoutageDataSource.liberer();
+			}
+		}
+	}
+
+	/**
+	 * Retourne la photographie courante, chargée au premier appel si le démarrage ne l'a pas fait.
+	 */
+	private InstantaneMaisons instantane() {
+		InstantaneMaisons courant = instantane;
+		return courant != null ? courant : recharger();
+	}
+
+	/**
+	 * Crée un cache borné qui compte ses succès, échecs et évictions.
+	 */
+	private <K, V> Cache<K, V> construire(long taille) {
+		return Caffeine.newBuilder()
+				.maximumSize(taille)
+				.expireAfterWrite(Duration.ofSeconds(cacheDureeS))
+				.recordStats()
+				.build();
+	}
+
+	/**
+	 * Ajoute une maison, puis recharge la photographie.
+	 *
+	 * @param maison - La maison à ajouter.
+	 */
+	@Override
+	public void ajouterMaison(Maison maison) {
+		try {
+			maisonServiceSqlserver.ajouterMaison(maison);
+		} finally {
+			invalider(maison.getId());
+		}
+	}
+
+	/**
+	 * Ajoute plusieurs maisons, puis recharge la photographie.
+	 *
+	 * @param maisons - Les maisons à ajouter.
+	 * @return Les identifiants attribués, dans l'ordre de la liste.
+	 */
+	@Override
+	public List<Integer> ajouterMaisons(List<Maison> maisons) {
+		try {
+			return maisonServiceSqlserver.ajouterMaisons(maisons);
+		} finally {
+			// Aucune des nouvelles maisons n'est en cache par id.
+			invalider(null);
+		}
+	}
+
+	/**
+	 * Modifie une maison, puis recharge la photographie.
+	 *
+	 * @param maison - La maison avec les nouvelles informations.
+	 */
+	@Override
+	public void modifierMaison(Maison maison) {
+		try {
+			maisonServiceSqlserver.modifierMaison(maison);
+		} finally {
+			invalider(maison.getId());
+		}
+	}
+
+	/**
+	 * Récupère une maison par son identifiant, depuis la photographie si possible.
+	 *
+	 * @param id - L'id de la maison.
+	 * @return Une copie de la maison, que l'appelant peut modifier, ou null si non trouvée.
+	 */
+	@Override
+	public Maison recupererMaison(int id) {
+		Maison maison = instantane().getMaison(id);
+		if (maison == null) {
+			// Une maison absente n'est pas mise en cache.
+			maison = parId.get(id, maisonServiceSqlserver::recupererMaison);
+		}
+		// Copie la maison : une modification, même par le data binder, ne touche pas au cache.
+		return maison != null ? new Maison(maison) : null;
+	}
+
+	/**
+	 * Récupère toutes les maisons depuis la photographie, sans accès à la base.
+	 *
+	 * @return La liste non modifiable de toutes les maisons.
+	 */
+	@Override
+	public List<Maison> recupererMaisons() {
+		return instantane().getMaisons();
+	}
+
+	/**
+	 * Récupère les maisons portant l'un des noms donnés, sans tenir compte de la casse.
+	 * Seuls les noms absents de la photographie et du cache sont cherchés en base, en une requête.
+	 *
+	 * @param noms - Les noms des maisons à récupérer.
+	 * @return Les maisons trouvées.
+	 */
+	@Override
+	public List<Maison> recupererMaisonsParNoms(Collection<String> noms) {
+		InstantaneMaisons courant = instantane();
+		List<Maison> trouvees = new ArrayList<>();
+		List<String> absents = new ArrayList<>();
+		for (String nom : noms) {
+			Maison maison = courant.getMaisonParNom(nom);
+			if (maison != null) {
+				trouvees.add(maison);
+			} else {
+				absents.add(nom.toLowerCase());
+			}
+		}
+		if (!absents.isEmpty()) {
+			trouvees.addAll(parNom.getAll(absents, this::chargerParNoms).values());
+		}
+
+		// Une maison demandée sous deux casses n'est retournée qu'une fois.
+		return trouvees.stream().distinct().toList();
+	}
+
+	/**
+	 * Lit en base les maisons des noms absents du cache.
+	 */
+	private Map<String, Maison> chargerParNoms(Set<? extends String> cles) {
+		Map<String, Maison> trouvees = new HashMap<>();
+		for (Maison maison : maisonServiceSqlserver.recupererMaisonsParNoms(List.copyOf(cles))) {
+			trouvees.put(maison.getNom().toLowerCase(), maison);
+		}
+		return trouvees;
+	}
+
+	/**
+	 * Récupère une page de maisons, sans cache : chaque page est lue en base.
+	 */
+	@Override
+	public Pagination<Maison> recupererPageMaisons(Tri tri, Integer apresId, Integer avantId, int taille) {
+		return maisonServiceSqlserver.recupererPageMaisons(tri, apresId, avantId, taille);
+	}
+
+	/**
+	 * Supprime une maison, puis recharge la photographie.
+	 *
+	 * @param id_maison - L'id de la maison à supprimer.
+	 */
+	@Override
+	public void supprimerMaison(int id_maison) {
+		try {
+			maisonServiceSqlserver.supprimerMaison(id_maison);
+		} finally {
+			invalider(id_maison);
+		}
+	}
+
+	/**
+	 * Recherche des maisons, sans cache : chaque recherche est faite en base.
+	 */
+	@Override
+	public List<Maison> rechercherMaisons(String motARechercher) {
+		return maisonServiceSqlserver.rechercherMaisons(motARechercher);
+	}
+
+	/**
+	 * Retire une maison du cache par id, puis signale l'écriture : le cache par nom
+	 * (l'ancien nom d'une maison modifiée n'est pas connu) et la photographie suivent.
+	 *
+	 * @param id - L'id de la maison, ou null.
+	 */
+	private void invalider(Integer id) {
+		if (id != null) {
+			parId.invalidate(id);
+		}
+		versionsDonnees.maisonsModifiees();
+	}
+
+	/**
+	 * Retourne les statistiques des caches des maisons absentes de la photographie.
+	 *
+	 * @return L'état de chaque cache.
+	 */
+	public List<EtatCache> getEtats() {
+		return List.of(
+				new EtatCache("Maisons par id", parId.estimatedSize(), parId.stats()),
+				new EtatCache("Maisons par nom", parNom.estimatedSize(), parNom.stats()));
+	}
+
+	/**
+	 * Retourne la photographie courante des maisons.
+	 *
+	 * @return La photographie, ou null avant le premier chargement.
+	 */
+	public InstantaneMaisons getInstantane() {
+		return instantane;
+	}
+}
@@ -1,17 +1,22 @@
 package com.example.sorcier.bll.sqlserver;
 
+import java.util.Collection;
 import java.util.List;
 
 // Importe les annotations pour la configuration spécifique à un profil Spring.
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 // Importe les annotations pour déclarer la classe comme un service Spring.
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 // Importe les interfaces et classes de la couche de logique métier.
 import com.example.sorcier.bll.MaisonService;
+import com.example.sorcier.bll.metier.PaginationMetier;
 // Importe les objets de transfert de données.
 import com.example.sorcier.bo.Maison;
-import com.example.sorcier.bo.Sorcier;
+import com.example.sorcier.bo.Pagination;
+import com.example.sorcier.bo.Tri;
 // Importe les interfaces de la couche d'accès aux données.
 import com.example.sorcier.dal.sqlserver.MaisonRepositorySqlserver;
 import com.example.sorcier.dal.sqlserver.SorcierRepositorySqlserver;
@@ -26,6 +31,10 @@ public class MaisonServiceSqlserver implements MaisonService {
 	private MaisonRepositorySqlserver maisonRepositorySqlserver;
 	private SorcierRepositorySqlserver sorcierRepositorySqlserver;
 
+	// Nombre maximal de résultats retournés par une recherche.
+	@Value("${sorcier.recherche.limite:50}")
+	private int limiteRecherche;
+
 	/**
 	 * Constructeur pour initialiser les référentiels SQL Server.
 	 * 
@@ -45,16 +54,24 @@ public class MaisonServiceSqlserver implements MaisonService {
 	 */
 	@Override
 	public void ajouterMaison(Maison maison) {
-		// Recherche une maison existante avec le même nom.
-		Maison maisonTrouvee = maisonRepositorySqlserver.findByName(maison);
-		
-		if (maisonTrouvee != null) {
+		// Sauvegarde la maison, sauf si une maison du même nom existe déjà.
+		if (!maisonRepositorySqlserver.insertIfAbsent(maison).isCree()) {
 	    	// Afficher un message si la maison existe déjà.
 	    	System.out.println("MSS : Maison deja existante (ajouterMaison).");
-	    	return;
 		}
-		// Sauvegarder la nouvelle maison dans la base de données.
-		maisonRepositorySqlserver.save(maison);
+	}
+
+	/**
+	 * Ajoute plusieurs maisons par lots dans une seule transaction.
+	 * 
+	 * @param maisons - Les maisons à ajouter.
+	 * @return Les identifiants attribués, dans l'ordre de la liste.
+	 */
+	@Override
+	@Transactional
+	public List<Integer> ajouterMaisons(List<Maison> maisons) {
+		// Sauvegarde les maisons par lots : un échec annule tout l'ajout.
+		return maisonRepositorySqlserver.saveAll(maisons);
 	}
 	
 	/**
@@ -75,6 +92,7 @@ public class MaisonServiceSqlserver implements MaisonService {
 	 * @return Maison récupérée.
 	 */
 	@Override
+	@Transactional(readOnly = true)
 	public Maison recupererMaison(int id) {
 		// Rechercher et retourner la maison par ID.
 		return maisonRepositorySqlserver.findById(id);
@@ -86,11 +104,46 @@ public class MaisonServiceSqlserver implements MaisonService {
 	 * @return Liste de toutes les maisons.
 	 */
 	@Override
+	@Transactional(readOnly = true)
 	public List<Maison> recupererMaisons() {
 		// Rechercher et retourner toutes les maisons.
 		return maisonRepositorySqlserver.findAll();
 	}
 
+	/**
+	 * Récupère en une fois les maisons portant l'un des noms donnés.
+	 * 
+	 * @param noms - Les noms des maisons à récupérer.
+	 * @return Les maisons trouvées.
+	 */
+	@Override
+	public List<Maison> recupererMaisonsParNoms(Collection<String> noms) {
+		// Recherche toutes les maisons demandées en une seule fois.
+		return maisonRepositorySqlserver.findByNames(noms);
+	}
+
+	/**
+	 * Récupère une page de maisons triées, à partir d'un curseur.
+	 * 
+	 * @param tri - Le critère de tri.
+	 * @param apresId - L'id après lequel commence la page, ou null.
+	 * @param avantId - L'id avant lequel se termine la page, ou null.
+	 * @param taille - La taille de page demandée.
+	 * @return La page de maisons.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public Pagination<Maison> recupererPageMaisons(Tri tri, Integer apresId, Integer avantId, int taille) {
+		// Borne la taille de page demandée.
+		int tailleBornee = PaginationMetier.bornerTaille(taille);
+		
+		// Lit une ligne de plus que la page pour savoir s'il en reste au-delà.
+		List<Maison> lignes = maisonRepositorySqlserver.findPage(tri, apresId, avantId, tailleBornee + 1);
+		
+		// Construit la page à afficher.
+		return PaginationMetier.paginer(lignes, tri, tailleBornee, apresId, avantId, Maison::getId);
+	}
+
 	/**
 	 * Supprime une maison de la base de données.
 	 * 
@@ -98,16 +151,11 @@ public class MaisonServiceSqlserver implements MaisonService {
 	 */
 	@Override
 	public void supprimerMaison(int id_maison) {
-		// Vérifie si des sorciers sont encore associés à cette maison.
-		List<Sorcier> sorciersTrouve = sorcierRepositorySqlserver.findByMaison(id_maison);
-		
-		if (!sorciersTrouve.isEmpty()) {
+		// Supprime la maison en une requête, seulement si aucun sorcier n'y est associé.
+		if (!maisonRepositorySqlserver.removeIfUnused(id_maison)) {
 	    	// Afficher un message si la maison est encore utilisée.
-	    	System.out.println("MSS : Maison utilisee (supprimerMaison).");
-	    	return;
+	    	System.out.println("MSS : Maison utilisee ou inexistante (supprimerMaison).");
 		}
-		// Supprimer la maison de la base de données si aucune dépendance n'est trouvée.
-		maisonRepositorySqlserver.removeById(id_maison);
 	}
 
 	/**
@@ -117,16 +165,9 @@ public class MaisonServiceSqlserver implements MaisonService {
 	 * @return Liste des maisons correspondant au critère de recherche.
 	 */
 	@Override
+	@Transactional(readOnly = true)
 	public List<Maison> rechercherMaisons(String motARechercher) {
-		if (motARechercher.isEmpty()) {
-			// Retourner toutes les maisons si aucun mot-clé n'est fourni.
-			return recupererMaisons();
-			
-		} else {
-			// Filtrer les maisons dont le nom contient le mot-clé, insensible à la casse.
-			return recupererMaisons().stream()
-					.filter(m -> m.getNom().toLowerCase().contains(motARechercher.toLowerCase()))
-					.toList();
-		}
+		// Délègue la recherche à la base, en bornant le nombre de résultats.
+		return maisonRepositorySqlserver.search(motARechercher, limiteRecherche);
 	}
 }
@@ -0,0 +1,77 @@
+package com.example.sorcier.bll.sqlserver;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import com.example.sorcier.bll.PartitionService;
+import com.example.sorcier.bo.Maison;
+import com.example.sorcier.dal.sqlserver.AnnuairePartitions;
+import com.example.sorcier.dal.sqlserver.MaisonRepositorySqlserver;
+import com.example.sorcier.dal.sqlserver.SorcierRepositoryPartition;
+
+/**
+ * Service de suivi et de rééquilibrage des partitions de sorciers.
+ */
+@Service
+@Profile("sqlserver & partition")
+public class PartitionServiceSqlserver implements PartitionService {
+
+	private AnnuairePartitions annuairePartitions;
+	private MaisonRepositorySqlserver maisonRepositorySqlserver;
+	private SorcierRepositoryPartition sorcierRepositoryPartition;
+
+	/**
+	 * Constructeur pour initialiser l'annuaire et les repositories.
+	 *
+	 * @param annuairePartitions - L'annuaire des partitions.
+	 * @param maisonRepositorySqlserver - Le repository des maisons.
+	 * @param sorcierRepositoryPartition - Le repository des sorciers partitionnés.
+	 */
+	public PartitionServiceSqlserver(AnnuairePartitions annuairePartitions,
+			MaisonRepositorySqlserver maisonRepositorySqlserver, SorcierRepositoryPartition sorcierRepositoryPartition) {
+		this.annuairePartitions = annuairePartitions;
+		this.maisonRepositorySqlserver = maisonRepositorySqlserver;
+		this.sorcierRepositoryPartition = sorcierRepositoryPartition;
+	}
+
+	/**
+	 * Récupère la partition de chaque maison, relue dans le catalogue, les maisons étant triées par nom.
+	 *
+	 * @return Le numéro de partition de chaque maison.
+	 */
+	@Override
+	public Map<Maison, Integer> recupererPartitionsMaisons() {
+		Map<Maison, Integer> partitions = new LinkedHashMap<>();
+		maisonRepositorySqlserver.findAll().stream()
+				.sorted(Comparator.comparing(Maison::getNom, String.CASE_INSENSITIVE_ORDER))
+				.forEach(maison -> partitions.put(maison, annuairePartitions.relirePartition(maison.getId())));
+		return partitions;
+	}
+
+	/**
+	 * Compte les sorciers de chaque partition.
+	 *
+	 * @return Le nombre de sorciers, dans l'ordre des partitions.
+	 */
+	@Override
+	public List<Integer> compterSorciersParPartition() {
+		return sorcierRepositoryPartition.countParPartition();
+	}
+
+	/**
+	 * Déplace une maison et ses sorciers vers une autre partition.
+	 *
+	 * @param idMaison - L'id de la maison à déplacer.
+	 * @param partition - Le numéro de la partition cible.
+	 * @return Le nombre de sorciers déplacés.
+	 */
+	@Override
+	public int deplacerMaison(int idMaison, int partition) {
+		return sorcierRepositoryPartition.deplacerMaison(idMaison, partition);
+	}
+}
@@ -1,14 +1,22 @@
 package com.example.sorcier.bll.sqlserver;
 
 import java.util.List;
+import java.util.function.Consumer;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
 import com.example.sorcier.bll.SorcierService;
+import com.example.sorcier.bll.metier.PaginationMetier;
 import com.example.sorcier.bll.metier.SorcierMetier;
 import com.example.sorcier.bo.Maison;
+import com.example.sorcier.bo.Pagination;
 import com.example.sorcier.bo.Sorcier;
+import com.example.sorcier.bo.Tri;
+import com.example.sorcier.config.VersionsDonnees;
 import com.example.sorcier.dal.sqlserver.MaisonRepositorySqlserver;
 import com.example.sorcier.dal.sqlserver.SorcierRepositorySqlserver;
 
@@ -21,17 +29,25 @@ public class SorcierServiceSqlserver implements SorcierService {
 	
 	private SorcierRepositorySqlserver sorcierRepositorySqlserver;
 	private MaisonRepositorySqlserver maisonRepositorySqlserver;
+	private VersionsDonnees versionsDonnees;
+
+	// Nombre maximal de résultats retournés par une recherche.
+	@Value("${sorcier.recherche.limite:50}")
+	private int limiteRecherche;
 	
 	/**
 	 * Constructeur pour initialiser les repositories pour sorciers et maisons.
 	 * 
 	 * @param sorcierRepositorySqlserver - Le pepository pour les sorciers.
 	 * @param maisonRepositorySqlserver - Le repository pour les maisons.
+	 * @param versionsDonnees - Les versions des données, incrémentées à chaque écriture.
 	 */
 	public SorcierServiceSqlserver(SorcierRepositorySqlserver sorcierRepositorySqlserver,
-	                               MaisonRepositorySqlserver maisonRepositorySqlserver) {
+	                               MaisonRepositorySqlserver maisonRepositorySqlserver,
+	                               VersionsDonnees versionsDonnees) {
 		this.sorcierRepositorySqlserver = sorcierRepositorySqlserver;
 		this.maisonRepositorySqlserver = maisonRepositorySqlserver;
+		this.versionsDonnees = versionsDonnees;
 	}
 	
 	/**
@@ -41,55 +57,62 @@ public class SorcierServiceSqlserver implements SorcierService {
 	 */
 	@Override
 	public void ajouterSorcier(Sorcier sorcier) {
-	    // Recherche si le sorcier existe déjà par son nom.
-		Sorcier sorcierTrouve = sorcierRepositorySqlserver.findByName(sorcier);
-		
-		if (sorcierTrouve != null) {
-		    // Affiche un message si le sorcier existe déjà et interrompt l'opération.
+	    // Sauvegarde le sorcier en une requête, sauf si un sorcier de même nom et prénom existe déjà.
+		if (!sorcierRepositorySqlserver.insertIfAbsent(sorcier).isCree()) {
+		    // Affiche un message si le sorcier existe déjà.
 	    	System.out.println("SSS : Sorcier deja existant (ajouterSorcier).");
-	    	return;
 		}
-		
-		// Sauvegarde le sorcier dans la base de données.
-		sorcierRepositorySqlserver.save(sorcier);
+		versionsDonnees.sorciersModifies();
+	}
+
+	/**
+	 * Ajoute plusieurs sorciers par lots dans une seule transaction.
+	 * 
+	 * @param sorciers - Les sorciers à ajouter.
+	 * @return Les identifiants attribués, dans l'ordre de la liste.
+	 */
+	@Override
+	@Transactional
+	public List<Integer> ajouterSorciers(List<Sorcier> sorciers) {
+		// Sauvegarde les sorciers par lots : un échec annule tout l'ajout.
+		List<Integer> ids = sorcierRepositorySqlserver.saveAll(sorciers);
+		versionsDonnees.sorciersModifies();
+		return ids;
 	}
 	
 	/**
 	 * Ajoute un sorcier et sa maison associée à la base de données, s'ils n'existent pas déjà.
+	 * Les deux insertions forment une transaction : si le sorcier existe déjà,
+	 * la maison qui vient d'être créée est annulée.
 	 * 
 	 * @param sorcier - Le sorcier à ajouter avec sa maison.
 	 */
 	@Override
+	@Transactional
 	public void ajouterSorcierMaison(Sorcier sorcier){
-	    // Recherche si le sorcier existe déjà par son nom.
-		Sorcier sorcierTrouve = sorcierRepositorySqlserver.findByName(sorcier);
-		
-		if (sorcierTrouve != null) {
-		    // Affiche un message si le sorcier existe déjà et interrompt l'opération.
-	    	System.out.println("SSS : Sorcier deja existant (ajouterSorcierMaison).");
-	    	return;
-		}
-		
+	    // Les versions seront incrémentées à la fin de la transaction.
+	    versionsDonnees.maisonsModifiees();
+	    versionsDonnees.sorciersModifies();
+	    
 	    // Récupère la maison associée au sorcier.
 	    Maison maison = sorcier.getMaison();
 	    
-	    // Recherche si la maison existe déjà par son nom.
-	    Maison maisonTrouvee = maisonRepositorySqlserver.findByName(maison);
-	    
-	    if (maisonTrouvee != null) {
+	    // Sauvegarde la maison, sauf si une maison du même nom existe déjà.
+	    if (!maisonRepositorySqlserver.insertIfAbsent(maison).isCree()) {
 	        // Affiche un message si la maison existe déjà et interrompt l'opération.
 	    	System.out.println("SSS : Maison deja existante (ajouterSorcierMaison).");
 	    	return;
 	    }
-	    
-	    // Sauvegarde la maison dans la base de données.
-        maisonRepositorySqlserver.save(maison);
         
         // Associe la maison sauvegardée au sorcier.
         sorcier.setMaison(maison);
         
-        // Sauvegarde le sorcier dans la base de données.
-        sorcierRepositorySqlserver.save(sorcier);
+        // Sauvegarde le sorcier, sauf s'il existe déjà.
+        if (!sorcierRepositorySqlserver.insertIfAbsent(sorcier).isCree()) {
+		    // Affiche un message si le sorcier existe déjà et annule la création de la maison.
+	    	System.out.println("SSS : Sorcier deja existant (ajouterSorcierMaison).");
+	    	TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        }
 	}
 
 	/**
@@ -101,6 +124,7 @@ public class SorcierServiceSqlserver implements SorcierService {
 	public void modifierSorcier(Sorcier sorcier) {
 	    // Met à jour le sorcier dans la base de données.
 		sorcierRepositorySqlserver.update(sorcier);
+		versionsDonnees.sorciersModifies();
 	}
 	
 	/**
@@ -110,6 +134,7 @@ public class SorcierServiceSqlserver implements SorcierService {
 	 * @return Le sorcier récupéré.
 	 */
 	@Override
+	@Transactional(readOnly = true)
 	public Sorcier recupererSorcier(int id) {
 	    // Retourne le sorcier trouvé par son identifiant.
 		return sorcierRepositorySqlserver.findById(id);
@@ -121,10 +146,45 @@ public class SorcierServiceSqlserver implements SorcierService {
 	 * @return Liste de tous les sorciers.
 	 */
 	@Override
+	@Transactional(readOnly = true)
 	public List<Sorcier> recupererSorciers() {
 	    // Retourne tous les sorciers.
 		return sorcierRepositorySqlserver.findAll();
 	}
+
+	/**
+	 * Transmet tous les sorciers au traitement, un par un, sans les charger en mémoire.
+	 * 
+	 * @param consommateur - Le traitement appliqué à chaque sorcier.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public void exporterSorciers(Consumer<Sorcier> consommateur) {
+		// Parcourt les sorciers au fil de la lecture.
+		sorcierRepositorySqlserver.streamAll(consommateur);
+	}
+
+	/**
+	 * Récupère une page de sorciers triés, à partir d'un curseur.
+	 * 
+	 * @param tri - Le critère de tri.
+	 * @param apresId - L'id après lequel commence la page, ou null.
+	 * @param avantId - L'id avant lequel se termine la page, ou null.
+	 * @param taille - La taille de page demandée.
+	 * @return La page de sorciers.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public Pagination<Sorcier> recupererPageSorciers(Tri tri, Integer apresId, Integer avantId, int taille) {
+		// Borne la taille de page demandée.
+		int tailleBornee = PaginationMetier.bornerTaille(taille);
+		
+		// Lit une ligne de plus que la page pour savoir s'il en reste au-delà.
+		List<Sorcier> lignes = sorcierRepositorySqlserver.findPage(tri, apresId, avantId, tailleBornee + 1);
+		
+		// Construit la page à afficher.
+		return PaginationMetier.paginer(lignes, tri, tailleBornee, apresId, avantId, Sorcier::getId);
+	}
 	
 	/**
 	 * Supprime un sorcier de la base de données par son identifiant.
@@ -133,8 +193,11 @@ public class SorcierServiceSqlserver implements SorcierService {
 	 */
 	@Override
 	public void supprimerSorcier(int id) {
-	    // Supprime le sorcier par son identifiant.
-		sorcierRepositorySqlserver.removeById(id);
+	    // Supprime le sorcier en une requête, seulement si aucun utilisateur ne l'a choisi.
+		if (!sorcierRepositorySqlserver.removeIfUnused(id)) {
+			System.out.println("SSS : Sorcier utilise ou inexistant (supprimerSorcier).");
+		}
+		versionsDonnees.sorciersModifies();
 	}
 	
 	/**
@@ -143,20 +206,22 @@ public class SorcierServiceSqlserver implements SorcierService {
 	 * @return String représentant le nombre total de sorciers.
 	 */
 	@Override
+	@Transactional(readOnly = true)
 	public String compterSorciers() {
 	    // Compte et retourne le nombre total de sorciers sous forme de chaîne de caractères.
-		return SorcierMetier.compterSorciers(recupererSorciers());
+		return SorcierMetier.compterSorciers(sorcierRepositorySqlserver.count());
 	}
 	
 	/**
-	 * Recherche des sorciers contenant un mot-clé spécifique.
+	 * Recherche des sorciers dont le nom, le prénom ou la maison commence par un mot-clé.
 	 * 
 	 * @param motARechercher - Le mot-clé utilisé pour la recherche.
 	 * @return Liste des sorciers correspondants.
 	 */
 	@Override
+	@Transactional(readOnly = true)
 	public List<Sorcier> rechercherSorciers(String motARechercher) {
-	    // Recherche et retourne les sorciers dont le nom contient le mot-clé spécifié.
-		return SorcierMetier.rechercherSorciers(motARechercher, recupererSorciers());
+	    // Délègue la recherche à la base, en bornant le nombre de résultats.
+		return sorcierRepositorySqlserver.search(motARechercher, limiteRecherche);
 	}
 }
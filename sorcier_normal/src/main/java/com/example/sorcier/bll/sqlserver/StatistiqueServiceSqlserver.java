@@ -0,0 +1,53 @@
+package com.example.sorcier.bll.sqlserver;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.sorcier.bll.StatistiqueService;
+import com.example.sorcier.bo.StatistiqueMaison;
+import com.example.sorcier.dal.sqlserver.SorcierRepositorySqlserver;
+
+/**
+ * Service de statistiques sur SQL Server : les agrégats sont calculés par la base,
+ * sans lire les sorciers.
+ */
+@Service
+@Profile("sqlserver")
+public class StatistiqueServiceSqlserver implements StatistiqueService {
+
+	private SorcierRepositorySqlserver sorcierRepositorySqlserver;
+
+	/**
+	 * Constructeur pour initialiser le repository des sorciers.
+	 * 
+	 * @param sorcierRepositorySqlserver - Le repository pour les sorciers.
+	 */
+	public StatistiqueServiceSqlserver(SorcierRepositorySqlserver sorcierRepositorySqlserver) {
+		this.sorcierRepositorySqlserver = sorcierRepositorySqlserver;
+	}
+
+	/**
+	 * Compte le nombre total de sorciers par un COUNT en base.
+	 * 
+	 * @return Le nombre de sorciers.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public int compterSorciers() {
+		return sorcierRepositorySqlserver.count();
+	}
+
+	/**
+	 * Récupère les statistiques des sorciers par maison, en une requête groupée.
+	 * 
+	 * @return Les statistiques des maisons, triées par nom.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public List<StatistiqueMaison> recupererStatistiquesParMaison() {
+		return sorcierRepositorySqlserver.statsByMaison();
+	}
+}
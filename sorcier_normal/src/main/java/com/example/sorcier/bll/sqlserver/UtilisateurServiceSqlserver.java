@@ -1,73 +1,139 @@
 package com.example.sorcier.bll.sqlserver;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.example.sorcier.bll.UtilisateurService;
 import com.example.sorcier.bo.Utilisateur;
+import com.example.sorcier.bo.UtilisateurConnecte;
+import com.example.sorcier.config.RoutageDataSource;
+import com.example.sorcier.config.VersionsDonnees;
 import com.example.sorcier.dal.sqlserver.RoleRepositorySqlserver;
 import com.example.sorcier.dal.sqlserver.UtilisateurRepositorySqlserver;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 
-
+/**
+ * Service des utilisateurs, qui charge aussi les utilisateurs à la connexion.
+ * L'utilisateur, son sorcier et ses rôles sont lus en une requête sur la base primaire, puis
+ * gardés en cache par nom : les pages du profil ne relisent plus l'utilisateur connecté. Le cache
+ * est vidé pour un utilisateur à chacune de ses modifications, en entier à chaque écriture des
+ * sorciers ou des maisons, et ses entrées expirent. Les écritures faites par une autre instance
+ * sont vues par les versions partagées ({@link VersionsDonnees}), relues avant de servir le cache.
+ */
 @Repository
 @Profile("sqlserver")
-public class UtilisateurServiceSqlserver implements UtilisateurService{
+public class UtilisateurServiceSqlserver
+		implements UtilisateurService, UserDetailsService, UserDetailsPasswordService, InitializingBean {
 	private UtilisateurRepositorySqlserver utilisateurRepositorySqlserver;
 	private RoleRepositorySqlserver roleRepositorySqlserver;
+	private VersionsDonnees versionsDonnees;
+	private TransactionTemplate transactionTemplate;
+
+	// Durée de vie d'un utilisateur en cache (s) et nombre maximal d'utilisateurs en cache.
+	@Value("${sorcier.utilisateurs.cache-duree-s:300}")
+	private long cacheDureeS;
+
+	@Value("${sorcier.utilisateurs.cache-max:10000}")
+	private int cacheMax;
+
+	// Utilisateurs connectés, par nom.
+	private Cache<String, UtilisateurConnecte> cache;
+
+	// Incrémentée à chaque invalidation : un chargement commencé avant n'est pas gardé.
+	private final AtomicLong generation = new AtomicLong();
 
 	/**
 	 * Constructeur pour initialiser les repositories nécessaires.
 	 * 
 	 * @param utilisateurRepositorySqlserver - Le repository pour les utilisateurs.
 	 * @param roleRepositorySqlserver - Le repository pour les rôles.
+	 * @param versionsDonnees - Les versions des sorciers et des maisons, qui vident le cache.
+	 * @param transactionTemplate - Les transactions ouvertes après le hachage des mots de passe.
 	 */
 	public UtilisateurServiceSqlserver(UtilisateurRepositorySqlserver utilisateurRepositorySqlserver,
-			RoleRepositorySqlserver roleRepositorySqlserver) {
+			RoleRepositorySqlserver roleRepositorySqlserver, VersionsDonnees versionsDonnees,
+			TransactionTemplate transactionTemplate) {
 		this.utilisateurRepositorySqlserver = utilisateurRepositorySqlserver; // Initialise le repository des utilisateurs.
 		this.roleRepositorySqlserver = roleRepositorySqlserver; // Initialise le repository des rôles.
+		this.versionsDonnees = versionsDonnees; // Initialise les versions des données.
+		this.transactionTemplate = transactionTemplate; // Initialise les transactions.
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		cache = Caffeine.newBuilder()
+				.maximumSize(cacheMax)
+				.expireAfterWrite(Duration.ofSeconds(cacheDureeS))
+				.recordStats()
+				.build();
+
+		// Le profil affiche le sorcier et sa maison : toute écriture les rend obsolètes.
+		versionsDonnees.surSorciersModifies(this::viderCache);
+		versionsDonnees.surMaisonsModifiees(this::viderCache);
+
+		// Un utilisateur modifié ou supprimé par une autre instance n'est plus servi par le cache.
+		versionsDonnees.surUtilisateursModifies(this::viderCache);
 	}
 	
 	// Fonctions DAL
 	
 	
 	/**
-     * Ajoute un utilisateur avec un rôle spécifique.
+     * Ajoute un utilisateur avec un rôle spécifique. L'utilisateur et ses rôles
+     * sont enregistrés dans une seule transaction : pas d'utilisateur sans rôle en cas d'échec.
+     * Le mot de passe est haché avant : la transaction ne retient pas de connexion pendant le hachage.
      * 
      * @param utilisateur - L'utilisateur à ajouter
      * @param role - Le rôle de l'utilisateur
      */
 	@Override
 	public void ajouterUtilisateur(Utilisateur utilisateur, String role) {
-		// Recherche un utilisateur par nom pour vérifier son existence.
-		Utilisateur utilisateurTrouve = utilisateurRepositorySqlserver.findByName(utilisateur.getNom());	
+		// Met à jour le mot de passe de l'utilisateur, hors transaction.
+		mettreAJourMdp(utilisateur);
 		
-		// Vérifie si l'utilisateur existe déjà pour éviter les doublons.
-		if (utilisateurTrouve != null) {
-	    	System.out.println("USS : Utilisateur deja existant (ajouterSorcier).");
+		// Enregistre l'utilisateur et ses rôles dans une seule transaction.
+		transactionTemplate.executeWithoutResult(statut -> enregistrerAvecRoles(utilisateur, role));
+	}
+
+	/**
+     * Sauvegarde l'utilisateur, au mot de passe déjà haché, puis ses rôles.
+     */
+	private void enregistrerAvecRoles(Utilisateur utilisateur, String role) {
+		// Sauvegarde l'utilisateur, sauf si le nom est déjà pris ; l'ID généré lui est affecté.
+		if (!utilisateurRepositorySqlserver.insertIfAbsent(utilisateur).isCree()) {
+	    	System.out.println("USS : Utilisateur deja existant (ajouterUtilisateur).");
 	    	return;
 		}
 		
-		// Met à jour le mot de passe de l'utilisateur.
-		mettreAJourMdp(utilisateur);
-		
-		// Sauvegarde le nouvel utilisateur dans la base de données.
-		utilisateurRepositorySqlserver.save(utilisateur);
-		
-		// Récupère l'identifiant de l'utilisateur nouvellement ajouté.
-		int idCourant = utilisateurRepositorySqlserver.findByName(utilisateur.getNom()).getId();
-	
-		
-		// Attribue les rôles à l'utilisateur selon le rôle spécifié.
+		// Attribue en un seul lot les rôles correspondant au rôle spécifié.
+		List<String> roles = new ArrayList<>();
 		if (role.equals("ADMIN")) {
-			roleRepositorySqlserver.save(idCourant, "ROLE_ADMIN");
-			roleRepositorySqlserver.save(idCourant, "ROLE_INSCRIT");
+			roles.add("ROLE_ADMIN");
+			roles.add("ROLE_INSCRIT");
 		}
 		if (role.equals("INSCRIT")) {
-			roleRepositorySqlserver.save(idCourant, "ROLE_INSCRIT");
+			roles.add("ROLE_INSCRIT");
 		}
+		roleRepositorySqlserver.saveAll(utilisateur.getId(), roles);
 	}
 
 	/**
@@ -77,10 +143,15 @@ public class UtilisateurServiceSqlserver implements UtilisateurService{
      */
 	@Override
 	public void modifierUtilisateur(Utilisateur utilisateur) {
-		// Met à jour le mot de passe de l'utilisateur.
-		mettreAJourMdp(utilisateur);
-		// Met à jour l'utilisateur dans la base de données.
-		utilisateurRepositorySqlserver.update(utilisateur);
+		try {
+			// Met à jour le mot de passe de l'utilisateur.
+			mettreAJourMdp(utilisateur);
+			// Met à jour l'utilisateur dans la base de données.
+			utilisateurRepositorySqlserver.update(utilisateur);
+		} finally {
+			// Retire l'utilisateur du cache, même en cas d'échec.
+			invalider(utilisateur.getNom());
+		}
 	}
 	
 	/**
@@ -90,19 +161,143 @@ public class UtilisateurServiceSqlserver implements UtilisateurService{
      */
 	@Override
 	public void modifierSorcier(Utilisateur utilisateur) {
-		utilisateurRepositorySqlserver.update(utilisateur);
+		try {
+			utilisateurRepositorySqlserver.update(utilisateur);
+		} finally {
+			// Retire l'utilisateur du cache, même en cas d'échec.
+			invalider(utilisateur.getNom());
+		}
 	}
 	
 	/**
-     * Récupère un utilisateur par son nom.
+     * Récupère un utilisateur par son nom, depuis le cache si possible.
+     * L'utilisateur retourné est une copie, que l'appelant peut modifier.
      * 
      * @param nomUtilisateur - Le nom de l'utilisateur à récupérer
-     * @return L'utilisateur correspondant au nom spécifié
+     * @return L'utilisateur correspondant au nom spécifié, ou null si non trouvé
      */
 	@Override
+	@Transactional(readOnly = true)
 	public Utilisateur recupererUtilisateur(String nomUtilisateur) {
 		// Récupère un utilisateur par son nom.
-		return utilisateurRepositorySqlserver.findByName(nomUtilisateur);
+		return recupererConnecte(nomUtilisateur);
+	}
+
+	/**
+     * Charge l'utilisateur qui se connecte, avec son sorcier et ses rôles.
+     * 
+     * @param username - Le nom de l'utilisateur.
+     * @return L'utilisateur authentifiable.
+     * @throws UsernameNotFoundException Si l'utilisateur n'existe pas.
+     */
+	@Override
+	@Transactional(readOnly = true)
+	public UserDetails loadUserByUsername(String username) {
+		// Lit l'utilisateur, son sorcier et ses rôles, ou les reprend du cache.
+		UtilisateurConnecte connecte = recupererConnecte(username);
+		if (connecte == null) {
+			throw new UsernameNotFoundException("Utilisateur inconnu : " + username);
+		}
+		return connecte;
+	}
+
+	/**
+     * Remplace le hachage du mot de passe d'un utilisateur après une connexion réussie,
+     * lorsque ce hachage est d'un coût inférieur ou d'un autre encodage que l'actuel.
+     * 
+     * @param user - L'utilisateur authentifié.
+     * @param newPassword - Le nouveau hachage.
+     * @return L'utilisateur avec son nouveau hachage.
+     */
+	@Override
+	public UserDetails updatePassword(UserDetails user, String newPassword) {
+		try {
+			// Enregistre le nouveau hachage sur la base primaire.
+			utilisateurRepositorySqlserver.updateMdpHash(user.getUsername(), newPassword);
+		} finally {
+			// Retire l'utilisateur du cache, même en cas d'échec.
+			invalider(user.getUsername());
+		}
+		System.out.println("USS : Hachage mis a jour pour " + user.getUsername() + ".");
+
+		// Retourne l'utilisateur de la session avec son nouveau hachage.
+		UtilisateurConnecte connecte = new UtilisateurConnecte((UtilisateurConnecte) user);
+		connecte.setMdpHash(newPassword);
+		return connecte;
+	}
+
+	/**
+     * Retourne une copie de l'utilisateur en cache, en le chargeant au besoin.
+     */
+	private UtilisateurConnecte recupererConnecte(String nomUtilisateur) {
+		// Prend en compte les écritures des autres instances avant de lire le cache.
+		versionsDonnees.rafraichirSiAncien();
+		UtilisateurConnecte connecte = cache.getIfPresent(nomUtilisateur);
+		if (connecte == null) {
+			// Relève la génération avant la lecture : une invalidation pendant la lecture l'écarte.
+			long avant = generation.get();
+			connecte = chargerDepuisPrimaire(nomUtilisateur);
+			if (connecte == null) {
+				return null;
+			}
+			UtilisateurConnecte charge = connecte;
+			cache.asMap().compute(nomUtilisateur,
+					(nom, present) -> generation.get() == avant ? charge : present);
+		}
+		// Copie l'utilisateur : l'appelant peut le modifier sans toucher au cache.
+		return new UtilisateurConnecte(connecte);
+	}
+
+	/**
+     * Lit l'utilisateur sur la base primaire : un réplica en retard rendrait un ancien mot de passe.
+     */
+	private UtilisateurConnecte chargerDepuisPrimaire(String nomUtilisateur) {
+		boolean imposer = !RoutageDataSource.isPrimaireImposee();
+		if (imposer) {
+			RoutageDataSource.imposerPrimaire();
+		}
+		try {
+			return utilisateurRepositorySqlserver.findConnexionByName(nomUtilisateur);
+		} finally {
+			if (imposer) {
+				RoutageDataSource.liberer();
+			}
+		}
+	}
+
+	/**
+     * Retire un utilisateur du cache, à la fin de la transaction en cours s'il y en a une :
+     * une lecture faite avant la validation ne peut pas être gardée après l'invalidation.
+     * La version partagée des utilisateurs est incrémentée pour les caches des autres instances.
+     */
+	private void invalider(String nomUtilisateur) {
+		versionsDonnees.utilisateursModifies();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int statut) {
+					invaliderMaintenant(nomUtilisateur);
+				}
+			});
+		} else {
+			invaliderMaintenant(nomUtilisateur);
+		}
+	}
+
+	/**
+     * Retire un utilisateur du cache et écarte les chargements en cours.
+     */
+	private void invaliderMaintenant(String nomUtilisateur) {
+		generation.incrementAndGet();
+		cache.invalidate(nomUtilisateur);
+	}
+
+	/**
+     * Vide tout le cache des utilisateurs.
+     */
+	private void viderCache() {
+		generation.incrementAndGet();
+		cache.invalidateAll();
 	}
 
 	/**
@@ -112,6 +307,7 @@ public class UtilisateurServiceSqlserver implements UtilisateurService{
      * @return L'utilisateur correspondant à l'identifiant spécifié
      */
 	@Override
+	@Transactional(readOnly = true)
 	public Utilisateur recupererUtilisateur(int id) {
 		// Récupère un utilisateur par son identifiant.
 		return utilisateurRepositorySqlserver.findById(id);
@@ -124,10 +320,15 @@ public class UtilisateurServiceSqlserver implements UtilisateurService{
      */
 	@Override
 	public void supprimerUtilisateur(int id) {
-		// Supprime les rôles associés à l'utilisateur.
-		roleRepositorySqlserver.remove(id);
-		// Supprime l'utilisateur de la base de données.
-		utilisateurRepositorySqlserver.removeById(id);
+		// Récupère le nom de l'utilisateur, clé du cache ; un utilisateur absent n'y est pas.
+		String nom;
+		try {
+			nom = utilisateurRepositorySqlserver.findById(id).getNom();
+		} catch (EmptyResultDataAccessException e) {
+			System.out.println("USS : Utilisateur deja supprime (supprimerUtilisateur).");
+			return;
+		}
+		supprimer(id, nom);
 	}
 	
 	/**
@@ -140,7 +341,21 @@ public class UtilisateurServiceSqlserver implements UtilisateurService{
 		// Récupère un utilisateur par son nom pour obtenir son identifiant.
 		int id = recupererUtilisateur(nom).getId();
 		// Supprime l'utilisateur par son identifiant.
-		supprimerUtilisateur(id);
+		supprimer(id, nom);
+	}
+
+	/**
+     * Supprime un utilisateur et ses rôles, puis le retire du cache, même en cas d'échec.
+     */
+	private void supprimer(int id, String nom) {
+		try {
+			// Supprime les rôles associés à l'utilisateur.
+			roleRepositorySqlserver.remove(id);
+			// Supprime l'utilisateur de la base de données.
+			utilisateurRepositorySqlserver.removeById(id);
+		} finally {
+			invalider(nom);
+		}
 	}
 
 	// Fonctions Métiers
@@ -0,0 +1,58 @@
+package com.example.sorcier.bo;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Classe représentant une photographie non modifiable de toutes les maisons,
+ * indexée par identifiant et par nom (sans tenir compte de la casse).
+ * Une photographie n'est jamais modifiée : elle est remplacée en entier.
+ */
+public final class InstantaneMaisons {
+    private final List<Maison> maisons;
+    private final Map<Integer, Maison> parId;
+    private final Map<String, Maison> parNom;
+
+    /**
+     * Constructeur de la photographie.
+     * @param maisons Toutes les maisons, dans l'ordre de lecture.
+     */
+    public InstantaneMaisons(List<Maison> maisons) {
+        this.maisons = List.copyOf(maisons);
+        Map<Integer, Maison> ids = new HashMap<>();
+        Map<String, Maison> noms = new HashMap<>();
+        for (Maison maison : this.maisons) {
+            ids.put(maison.getId(), maison);
+            noms.put(maison.getNom().toLowerCase(), maison);
+        }
+        this.parId = Map.copyOf(ids);
+        this.parNom = Map.copyOf(noms);
+    }
+
+    /**
+     * Obtient toutes les maisons.
+     * @return La liste non modifiable des maisons.
+     */
+    public List<Maison> getMaisons() {
+        return maisons;
+    }
+
+    /**
+     * Obtient une maison par son identifiant.
+     * @param id L'identifiant de la maison.
+     * @return La maison, ou null si elle n'est pas dans la photographie.
+     */
+    public Maison getMaison(int id) {
+        return parId.get(id);
+    }
+
+    /**
+     * Obtient une maison par son nom, sans tenir compte de la casse.
+     * @param nom Le nom de la maison.
+     * @return La maison, ou null si elle n'est pas dans la photographie.
+     */
+    public Maison getMaisonParNom(String nom) {
+        return parNom.get(nom.toLowerCase());
+    }
+}
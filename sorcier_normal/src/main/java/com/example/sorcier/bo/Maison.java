@@ -1,5 +1,7 @@
 package com.example.sorcier.bo;
 
+import java.io.Serializable;
+
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Pattern;
@@ -7,7 +9,9 @@ import jakarta.validation.constraints.Pattern;
 /**
  * Classe représentant une maison dans un univers de sorciers.
  */
-public class Maison {
+public class Maison implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     protected int id;
 
@@ -61,6 +65,14 @@ public class Maison {
         this.modifiable = modifiable;
     }
 
+    /**
+     * Constructeur de copie de la classe Maison.
+     * @param maison Maison à copier.
+     */
+    public Maison(Maison maison) {
+        this(maison.id, maison.nom, maison.bonusAttaque, maison.bonusSante, maison.modifiable);
+    }
+
     /**
      * Obtient l'identifiant unique de la maison.
      * @return Identifiant de la maison.
@@ -1,12 +1,16 @@
 package com.example.sorcier.bo;
 
+import java.io.Serializable;
+
 // Valider le format du mot de passe avec une expression régulière.
 import jakarta.validation.constraints.Pattern;
 
 /**
  * Classe représentant la gestion des mots de passe pour une entité utilisateur.
  */
-public class MotDePasse {
+public class MotDePasse implements Serializable {
+
+    private static final long serialVersionUID = 1L;
     
     @Pattern(regexp = "^[a-zA-Z0-9]{3,25}$", message = "Le mot de passe doit contenir entre 3 et 25 caractères alphanumériques.")
     private String mdp;
@@ -0,0 +1,165 @@
+package com.example.sorcier.bo;
+
+import java.util.List;
+
+/**
+ * Classe représentant une page d'éléments obtenue par pagination sur curseur.
+ * Les identifiants du premier et du dernier élément servent de curseurs
+ * pour atteindre la page précédente et la page suivante.
+ *
+ * @param <T> Le type des éléments de la page.
+ */
+public class Pagination<T> {
+    private List<T> elements;
+    private Tri tri;
+    private int taille;
+    private Integer premierId;
+    private Integer dernierId;
+    private boolean precedente;
+    private boolean suivante;
+
+    /**
+     * Constructeur par défaut de la classe Pagination.
+     */
+    public Pagination() {
+    }
+
+    /**
+     * Constructeur complet de la classe Pagination.
+     * @param elements Les éléments de la page, dans l'ordre d'affichage.
+     * @param tri Le critère de tri appliqué.
+     * @param taille La taille de page demandée.
+     * @param premierId L'identifiant du premier élément de la page.
+     * @param dernierId L'identifiant du dernier élément de la page.
+     * @param precedente Indique s'il existe une page précédente.
+     * @param suivante Indique s'il existe une page suivante.
+     */
+    public Pagination(List<T> elements, Tri tri, int taille, Integer premierId, Integer dernierId,
+            boolean precedente, boolean suivante) {
+        this.elements = elements;
+        this.tri = tri;
+        this.taille = taille;
+        this.premierId = premierId;
+        this.dernierId = dernierId;
+        this.precedente = precedente;
+        this.suivante = suivante;
+    }
+
+    /**
+     * Obtient les éléments de la page.
+     * @return La liste des éléments.
+     */
+    public List<T> getElements() {
+        return elements;
+    }
+
+    /**
+     * Définit les éléments de la page.
+     * @param elements La nouvelle liste d'éléments.
+     */
+    public void setElements(List<T> elements) {
+        this.elements = elements;
+    }
+
+    /**
+     * Obtient le critère de tri appliqué.
+     * @return Le critère de tri.
+     */
+    public Tri getTri() {
+        return tri;
+    }
+
+    /**
+     * Définit le critère de tri appliqué.
+     * @param tri Le nouveau critère de tri.
+     */
+    public void setTri(Tri tri) {
+        this.tri = tri;
+    }
+
+    /**
+     * Obtient la taille de page demandée.
+     * @return La taille de page.
+     */
+    public int getTaille() {
+        return taille;
+    }
+
+    /**
+     * Définit la taille de page demandée.
+     * @param taille La nouvelle taille de page.
+     */
+    public void setTaille(int taille) {
+        this.taille = taille;
+    }
+
+    /**
+     * Obtient l'identifiant du premier élément, curseur de la page précédente.
+     * @return L'identifiant ou null si la page est vide.
+     */
+    public Integer getPremierId() {
+        return premierId;
+    }
+
+    /**
+     * Définit l'identifiant du premier élément.
+     * @param premierId Le nouvel identifiant.
+     */
+    public void setPremierId(Integer premierId) {
+        this.premierId = premierId;
+    }
+
+    /**
+     * Obtient l'identifiant du dernier élément, curseur de la page suivante.
+     * @return L'identifiant ou null si la page est vide.
+     */
+    public Integer getDernierId() {
+        return dernierId;
+    }
+
+    /**
+     * Définit l'identifiant du dernier élément.
+     * @param dernierId Le nouvel identifiant.
+     */
+    public void setDernierId(Integer dernierId) {
+        this.dernierId = dernierId;
+    }
+
+    /**
+     * Vérifie s'il existe une page précédente.
+     * @return Vrai s'il existe une page précédente, faux sinon.
+     */
+    public boolean isPrecedente() {
+        return precedente;
+    }
+
+    /**
+     * Définit s'il existe une page précédente.
+     * @param precedente Le nouvel état.
+     */
+    public void setPrecedente(boolean precedente) {
+        this.precedente = precedente;
+    }
+
+    /**
+     * Vérifie s'il existe une page suivante.
+     * @return Vrai s'il existe une page suivante, faux sinon.
+     */
+    public boolean isSuivante() {
+        return suivante;
+    }
+
+    /**
+     * Définit s'il existe une page suivante.
+     * @param suivante Le nouvel état.
+     */
+    public void setSuivante(boolean suivante) {
+        this.suivante = suivante;
+    }
+
+    @Override
+    public String toString() {
+        return "Pagination [elements=" + elements.size() + ", tri=" + tri + ", taille=" + taille + ", premierId="
+                + premierId + ", dernierId=" + dernierId + ", precedente=" + precedente + ", suivante=" + suivante + "]";
+    }
+}
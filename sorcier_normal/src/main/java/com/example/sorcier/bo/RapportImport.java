@@ -0,0 +1,160 @@
+package com.example.sorcier.bo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Classe représentant le compte rendu d'un import de fichier.
+ * Seules les premières erreurs sont conservées en détail, les suivantes sont seulement comptées.
+ */
+public class RapportImport {
+
+    // Nombre maximal d'erreurs conservées en détail.
+    public static final int ERREURS_MAX = 200;
+
+    private int lignesLues;
+    private int lignesImportees;
+    private int nombreErreurs;
+    private long dureeMs;
+    private String fichier;
+    private List<Erreur> erreurs = new ArrayList<>();
+
+    /**
+     * Compte une ligne de données lue dans le fichier.
+     */
+    public void compterLigneLue() {
+        lignesLues++;
+    }
+
+    /**
+     * Compte des lignes enregistrées en base.
+     * @param nombre Le nombre de lignes enregistrées.
+     */
+    public void compterLignesImportees(int nombre) {
+        lignesImportees += nombre;
+    }
+
+    /**
+     * Enregistre une erreur sur une ligne du fichier.
+     * @param ligne Le numéro de la ligne dans le fichier.
+     * @param message La description de l'erreur.
+     */
+    public void ajouterErreur(int ligne, String message) {
+        nombreErreurs++;
+        if (erreurs.size() < ERREURS_MAX) {
+            erreurs.add(new Erreur(ligne, message));
+        }
+    }
+
+    /**
+     * Obtient le nombre de lignes de données lues.
+     * @return Le nombre de lignes lues.
+     */
+    public int getLignesLues() {
+        return lignesLues;
+    }
+
+    /**
+     * Obtient le nombre de lignes enregistrées en base.
+     * @return Le nombre de lignes importées.
+     */
+    public int getLignesImportees() {
+        return lignesImportees;
+    }
+
+    /**
+     * Obtient le nombre total d'erreurs, y compris celles non conservées en détail.
+     * @return Le nombre d'erreurs.
+     */
+    public int getNombreErreurs() {
+        return nombreErreurs;
+    }
+
+    /**
+     * Obtient la durée de l'import.
+     * @return La durée en millisecondes.
+     */
+    public long getDureeMs() {
+        return dureeMs;
+    }
+
+    /**
+     * Définit la durée de l'import.
+     * @param dureeMs La durée en millisecondes.
+     */
+    public void setDureeMs(long dureeMs) {
+        this.dureeMs = dureeMs;
+    }
+
+    /**
+     * Obtient le chemin du fichier où le compte rendu a été écrit.
+     * @return Le chemin du fichier, ou null s'il n'a pas été écrit.
+     */
+    public String getFichier() {
+        return fichier;
+    }
+
+    /**
+     * Définit le chemin du fichier où le compte rendu a été écrit.
+     * @param fichier Le chemin du fichier.
+     */
+    public void setFichier(String fichier) {
+        this.fichier = fichier;
+    }
+
+    /**
+     * Calcule le débit de l'import.
+     * @return Le nombre de lignes lues par seconde.
+     */
+    public long getLignesParSeconde() {
+        return dureeMs == 0 ? lignesLues : lignesLues * 1000L / dureeMs;
+    }
+
+    /**
+     * Obtient les erreurs conservées en détail.
+     * @return La liste des erreurs.
+     */
+    public List<Erreur> getErreurs() {
+        return erreurs;
+    }
+
+    @Override
+    public String toString() {
+        return "RapportImport [lignesLues=" + lignesLues + ", lignesImportees=" + lignesImportees + ", nombreErreurs="
+                + nombreErreurs + ", dureeMs=" + dureeMs + "]";
+    }
+
+    /**
+     * Erreur rencontrée sur une ligne du fichier importé.
+     */
+    public static class Erreur {
+        private final int ligne;
+        private final String message;
+
+        /**
+         * Constructeur complet d'une erreur d'import.
+         * @param ligne Le numéro de la ligne dans le fichier.
+         * @param message La description de l'erreur.
+         */
+        public Erreur(int ligne, String message) {
+            this.ligne = ligne;
+            this.message = message;
+        }
+
+        /**
+         * Obtient le numéro de la ligne en erreur.
+         * @return Le numéro de ligne.
+         */
+        public int getLigne() {
+            return ligne;
+        }
+
+        /**
+         * Obtient la description de l'erreur.
+         * @return Le message d'erreur.
+         */
+        public String getMessage() {
+            return message;
+        }
+    }
+}
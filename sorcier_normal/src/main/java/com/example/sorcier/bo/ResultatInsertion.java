@@ -0,0 +1,42 @@
+package com.example.sorcier.bo;
+
+/**
+ * Classe représentant le résultat d'une insertion conditionnelle :
+ * l'identifiant de la ligne, qu'elle vienne d'être créée ou qu'elle existât déjà.
+ */
+public class ResultatInsertion {
+
+    private final int id;
+    private final boolean cree;
+
+    /**
+     * Constructeur complet du résultat d'insertion.
+     * @param id L'identifiant de la ligne créée ou existante.
+     * @param cree Vrai si la ligne vient d'être créée.
+     */
+    public ResultatInsertion(int id, boolean cree) {
+        this.id = id;
+        this.cree = cree;
+    }
+
+    /**
+     * Obtient l'identifiant de la ligne.
+     * @return L'identifiant de la ligne créée ou existante.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Indique si la ligne vient d'être créée.
+     * @return Vrai si la ligne a été créée, faux si elle existait déjà.
+     */
+    public boolean isCree() {
+        return cree;
+    }
+
+    @Override
+    public String toString() {
+        return "ResultatInsertion [id=" + id + ", cree=" + cree + "]";
+    }
+}
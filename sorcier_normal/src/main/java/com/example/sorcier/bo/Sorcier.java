@@ -1,5 +1,7 @@
 package com.example.sorcier.bo;
 
+import java.io.Serializable;
+
 // Importe l'annotation pour la validation des patterns des chaînes de caractères.
 import jakarta.validation.constraints.Pattern;
 // Importe les annotations pour définir les valeurs minimales et maximales d'un entier.
@@ -11,7 +13,9 @@ import jakarta.validation.Valid;
 /**
  * Classe représentant un sorcier avec des caractéristiques spécifiques et une maison associée.
  */
-public class Sorcier {
+public class Sorcier implements Serializable {
+
+    private static final long serialVersionUID = 1L;
     
     protected int id;
     
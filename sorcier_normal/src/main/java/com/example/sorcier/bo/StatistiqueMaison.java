@@ -0,0 +1,111 @@
+package com.example.sorcier.bo;
+
+/**
+ * Classe représentant les statistiques des sorciers d'une maison.
+ * Les moyennes, minimums et maximums valent null si la maison n'a aucun sorcier.
+ */
+public class StatistiqueMaison {
+
+    private Maison maison;
+    private int nombreSorciers;
+    private Double attaqueMoyenne;
+    private Integer attaqueMin;
+    private Integer attaqueMax;
+    private Double santeMoyenne;
+    private Integer santeMin;
+    private Integer santeMax;
+
+    /**
+     * Constructeur complet des statistiques d'une maison.
+     * 
+     * @param maison - La maison concernée.
+     * @param nombreSorciers - Le nombre de sorciers de la maison.
+     * @param attaqueMoyenne - L'attaque moyenne des sorciers.
+     * @param attaqueMin - L'attaque minimale des sorciers.
+     * @param attaqueMax - L'attaque maximale des sorciers.
+     * @param santeMoyenne - La santé moyenne des sorciers.
+     * @param santeMin - La santé minimale des sorciers.
+     * @param santeMax - La santé maximale des sorciers.
+     */
+    public StatistiqueMaison(Maison maison, int nombreSorciers, Double attaqueMoyenne, Integer attaqueMin,
+            Integer attaqueMax, Double santeMoyenne, Integer santeMin, Integer santeMax) {
+        this.maison = maison;
+        this.nombreSorciers = nombreSorciers;
+        this.attaqueMoyenne = attaqueMoyenne;
+        this.attaqueMin = attaqueMin;
+        this.attaqueMax = attaqueMax;
+        this.santeMoyenne = santeMoyenne;
+        this.santeMin = santeMin;
+        this.santeMax = santeMax;
+    }
+
+    /**
+     * Obtient la maison concernée.
+     * @return La maison.
+     */
+    public Maison getMaison() {
+        return maison;
+    }
+
+    /**
+     * Obtient le nombre de sorciers de la maison.
+     * @return Le nombre de sorciers.
+     */
+    public int getNombreSorciers() {
+        return nombreSorciers;
+    }
+
+    /**
+     * Obtient l'attaque moyenne des sorciers.
+     * @return L'attaque moyenne, ou null sans sorcier.
+     */
+    public Double getAttaqueMoyenne() {
+        return attaqueMoyenne;
+    }
+
+    /**
+     * Obtient l'attaque minimale des sorciers.
+     * @return L'attaque minimale, ou null sans sorcier.
+     */
+    public Integer getAttaqueMin() {
+        return attaqueMin;
+    }
+
+    /**
+     * Obtient l'attaque maximale des sorciers.
+     * @return L'attaque maximale, ou null sans sorcier.
+     */
+    public Integer getAttaqueMax() {
+        return attaqueMax;
+    }
+
+    /**
+     * Obtient la santé moyenne des sorciers.
+     * @return La santé moyenne, ou null sans sorcier.
+     */
+    public Double getSanteMoyenne() {
+        return santeMoyenne;
+    }
+
+    /**
+     * Obtient la santé minimale des sorciers.
+     * @return La santé minimale, ou null sans sorcier.
+     */
+    public Integer getSanteMin() {
+        return santeMin;
+    }
+
+    /**
+     * Obtient la santé maximale des sorciers.
+     * @return La santé maximale, ou null sans sorcier.
+     */
+    public Integer getSanteMax() {
+        return santeMax;
+    }
+
+    @Override
+    public String toString() {
+        return "StatistiqueMaison [maison=" + (maison != null ? maison.getNom() : null) + ", nombreSorciers="
+                + nombreSorciers + ", attaqueMoyenne=" + attaqueMoyenne + ", santeMoyenne=" + santeMoyenne + "]";
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.sorcier.bo;
+
+import java.util.Comparator;
+
+/**
+ * Critères de tri proposés pour les listes de sorciers et de maisons.
+ * Chaque critère est associé à la colonne indexée correspondante.
+ */
+public enum Tri {
+    NOM("nom", "nom"),
+    ATTAQUE("attaque", "bonusAttaque"),
+    SANTE("sante", "bonusSante");
+
+    private final String colonneSorcier;
+    private final String colonneMaison;
+
+    /**
+     * Constructeur d'un critère de tri.
+     * @param colonneSorcier Colonne de la table sorcier utilisée pour le tri.
+     * @param colonneMaison Colonne de la table maison utilisée pour le tri.
+     */
+    Tri(String colonneSorcier, String colonneMaison) {
+        this.colonneSorcier = colonneSorcier;
+        this.colonneMaison = colonneMaison;
+    }
+
+    /**
+     * Obtient la colonne de la table sorcier utilisée pour le tri.
+     * @return Le nom de la colonne.
+     */
+    public String getColonneSorcier() {
+        return colonneSorcier;
+    }
+
+    /**
+     * Obtient la colonne de la table maison utilisée pour le tri.
+     * @return Le nom de la colonne.
+     */
+    public String getColonneMaison() {
+        return colonneMaison;
+    }
+
+    /**
+     * Retourne le comparateur des sorciers correspondant au critère,
+     * départagé par l'identifiant comme dans les requêtes SQL.
+     * @return Le comparateur des sorciers.
+     */
+    public Comparator<Sorcier> comparateurSorciers() {
+        Comparator<Sorcier> comparateur = switch (this) {
+            case ATTAQUE -> Comparator.comparingInt(Sorcier::getAttaque);
+            case SANTE -> Comparator.comparingInt(Sorcier::getSante);
+            default -> Comparator.comparing(Sorcier::getNom, String.CASE_INSENSITIVE_ORDER);
+        };
+        return comparateur.thenComparingInt(Sorcier::getId);
+    }
+
+    /**
+     * Retourne le comparateur des maisons correspondant au critère,
+     * départagé par l'identifiant comme dans les requêtes SQL.
+     * @return Le comparateur des maisons.
+     */
+    public Comparator<Maison> comparateurMaisons() {
+        Comparator<Maison> comparateur = switch (this) {
+            case ATTAQUE -> Comparator.comparingInt(Maison::getBonusAttaque);
+            case SANTE -> Comparator.comparingInt(Maison::getBonusSante);
+            default -> Comparator.comparing(Maison::getNom, String.CASE_INSENSITIVE_ORDER);
+        };
+        return comparateur.thenComparingInt(Maison::getId);
+    }
+}
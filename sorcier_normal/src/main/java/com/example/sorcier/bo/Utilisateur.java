@@ -1,5 +1,6 @@
 package com.example.sorcier.bo;
 
+import java.io.Serializable;
 import java.util.Date;
 
 import jakarta.validation.Valid;
@@ -8,7 +9,10 @@ import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Pattern;
 
-public class Utilisateur {
+public class Utilisateur implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
     protected int id;
 	
     // Définition des contraintes de validation pour le nom
@@ -0,0 +1,100 @@
+package com.example.sorcier.bo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Utilisateur authentifié : l'utilisateur, son sorcier et ses rôles, chargés en une requête
+ * à la connexion, et conservés comme principal de la session.
+ */
+public class UtilisateurConnecte extends Utilisateur implements UserDetails, CredentialsContainer {
+
+    private static final long serialVersionUID = 1L;
+
+    // Rôles de l'utilisateur (ROLE_ADMIN, ROLE_INSCRIT).
+    private final List<String> roles;
+
+    /**
+     * Constructeur à partir d'un utilisateur et de ses rôles.
+     *
+     * @param utilisateur - L'utilisateur, avec son sorcier.
+     * @param roles - Les rôles de l'utilisateur.
+     */
+    public UtilisateurConnecte(Utilisateur utilisateur, List<String> roles) {
+        super(utilisateur.getId(), utilisateur.getNom(), utilisateur.getEmail(), utilisateur.getMdpHash(),
+                utilisateur.getNiveau(), utilisateur.getDateInscription(), utilisateur.getSorcier());
+        this.roles = roles;
+    }
+
+    /**
+     * Constructeur de copie.
+     *
+     * @param connecte - L'utilisateur authentifié à copier.
+     */
+    public UtilisateurConnecte(UtilisateurConnecte connecte) {
+        this(connecte, new ArrayList<>(connecte.roles));
+    }
+
+    /**
+     * Obtient les rôles de l'utilisateur.
+     *
+     * @return Les rôles de l'utilisateur.
+     */
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return roles.stream().map(SimpleGrantedAuthority::new).toList();
+    }
+
+    @Override
+    public String getPassword() {
+        return mdpHash;
+    }
+
+    @Override
+    public String getUsername() {
+        return nom;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Efface le hachage du mot de passe une fois l'authentification terminée.
+     */
+    @Override
+    public void eraseCredentials() {
+        mdpHash = null;
+    }
+
+    @Override
+    public String toString() {
+        return "UtilisateurConnecte [nom=" + nom + ", roles=" + roles + "]";
+    }
+}
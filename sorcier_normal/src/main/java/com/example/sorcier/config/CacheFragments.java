@@ -0,0 +1,144 @@
+package com.example.sorcier.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Rendu à part des fragments Thymeleaf coûteux (les lignes des grands tableaux), gardés en cache.
+ * Un fragment rendu ne dépend que de ses données et des rôles de l'utilisateur : il est gardé
+ * par version des données, rôles et clé de la page, puis inséré tel quel dans la page, qui
+ * reste rendue à chaque requête (jeton CSRF, en-tête). Le cache est vidé à chaque écriture
+ * des sorciers ou des maisons ; il est borné en nombre de caractères.
+ * Le fragment ne peut pas utiliser #authorization : les variables inscrit et admin le remplacent,
+ * ni @{...} : ses liens commencent par la variable racine, le chemin de l'application.
+ */
+@Component
+public class CacheFragments implements InitializingBean {
+
+    private final ITemplateEngine moteur;
+    private final VersionsDonnees versionsDonnees;
+
+    // Nombre maximal de caractères de l'ensemble des fragments en cache.
+    @Value("${sorcier.fragments.caracteres-max:20000000}")
+    private long caracteresMax;
+
+    // Chemin de l'application, préfixe des liens des fragments rendus hors requête.
+    @Value("${server.servlet.context-path:}")
+    private String racine;
+
+    private Cache<String, Rendu<?>> rendus;
+
+    /**
+     * Constructeur du cache des fragments.
+     *
+     * @param moteur - Le moteur de templates.
+     * @param versionsDonnees - Les versions des sorciers et des maisons.
+     */
+    public CacheFragments(ITemplateEngine moteur, VersionsDonnees versionsDonnees) {
+        this.moteur = moteur;
+        this.versionsDonnees = versionsDonnees;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        rendus = Caffeine.newBuilder()
+                .maximumWeight(caracteresMax)
+                .<String, Rendu<?>>weigher((cle, rendu) -> rendu.html().length())
+                .recordStats()
+                .build();
+
+        // Une écriture rend obsolètes tous les fragments rendus avant elle.
+        versionsDonnees.surSorciersModifies(rendus::invalidateAll);
+        versionsDonnees.surMaisonsModifiees(rendus::invalidateAll);
+    }
+
+    /**
+     * Retourne un fragment rendu et ses données, depuis le cache si possible.
+     * Sinon, charge les données puis rend le fragment, et les garde ensemble.
+     *
+     * @param template - Le template qui contient le fragment.
+     * @param fragment - Le nom du fragment.
+     * @param cle - Ce qui distingue le fragment d'une même page (tri, curseur, taille).
+     * @param chargement - La lecture des données du fragment.
+     * @param variables - Les variables du fragment, tirées des données.
+     * @return Le fragment rendu et ses données, partagées : à ne pas modifier.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Rendu<T> rendre(String template, String fragment, String cle, Supplier<T> chargement,
+            Function<T, Map<String, Object>> variables) {
+        // Lit les versions avant les données : un fragment ne peut pas porter une version plus récente que lui.
+        // Elles sont d'abord relues si besoin, pour ne pas servir un fragment qu'une autre instance a rendu obsolète.
+        versionsDonnees.rafraichirSiAncien();
+        boolean[] roles = roles();
+        String cleComplete = template + "::" + fragment + "|m" + versionsDonnees.getVersionMaisons()
+                + "-s" + versionsDonnees.getVersionSorciers() + "|" + (roles[0] ? "I" : "-") + (roles[1] ? "A" : "-")
+                + "|" + cle;
+        return (Rendu<T>) rendus.get(cleComplete, k -> {
+            T donnees = chargement.get();
+            return new Rendu<>(donnees, rendreSansCache(template, fragment, variables.apply(donnees)));
+        });
+    }
+
+    /**
+     * Rend un fragment sans le garder, par exemple pour des résultats de recherche.
+     *
+     * @param template - Le template qui contient le fragment.
+     * @param fragment - Le nom du fragment.
+     * @param variables - Les variables du fragment.
+     * @return Le fragment rendu.
+     */
+    public String rendreSansCache(String template, String fragment, Map<String, Object> variables) {
+        boolean[] roles = roles();
+        Map<String, Object> toutes = new HashMap<>(variables);
+        toutes.put("inscrit", roles[0]);
+        toutes.put("admin", roles[1]);
+        toutes.put("racine", racine);
+        return moteur.process(template, Set.of(fragment), new Context(LocaleContextHolder.getLocale(), toutes));
+    }
+
+    /**
+     * Retourne les statistiques du cache des fragments.
+     *
+     * @return L'état du cache.
+     */
+    public EtatCache getEtat() {
+        return new EtatCache("Fragments rendus", rendus.estimatedSize(), rendus.stats());
+    }
+
+    /**
+     * Indique si l'utilisateur courant a les rôles INSCRIT et ADMIN.
+     */
+    private static boolean[] roles() {
+        boolean[] roles = new boolean[2];
+        Authentication authentification = SecurityContextHolder.getContext().getAuthentication();
+        if (authentification != null) {
+            for (GrantedAuthority autorite : authentification.getAuthorities()) {
+                roles[0] |= "ROLE_INSCRIT".equals(autorite.getAuthority());
+                roles[1] |= "ROLE_ADMIN".equals(autorite.getAuthority());
+            }
+        }
+        return roles;
+    }
+
+    /**
+     * Fragment rendu et données dont il est tiré.
+     */
+    public record Rendu<T>(T donnees, String html) {
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.sorcier.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Lance en parallèle les chargements indépendants d'une page, sur un pool de threads borné.
+ * Le thread de la requête lance les chargements secondaires, fait le sien, puis attend les
+ * autres : la page coûte le plus long des chargements au lieu de leur somme.
+ * Quand la file du pool est pleine, le chargement s'exécute sur le thread de la requête.
+ * L'échéance du groupe s'applique aussi aux requêtes SQL de ses chargements, y compris celui
+ * du thread de la requête : {@link JdbcTemplateEcheance} en fait leur délai d'exécution.
+ */
+@Component
+public class ChargementParallele implements InitializingBean, DisposableBean {
+
+    // Nombre de threads du pool.
+    @Value("${sorcier.chargement.threads:16}")
+    private int threads;
+
+    // Nombre de chargements en attente d'un thread au-delà duquel la requête charge elle-même.
+    @Value("${sorcier.chargement.file:200}")
+    private int file;
+
+    // Délai maximal des chargements d'une page (ms).
+    @Value("${sorcier.chargement.delai-ms:5000}")
+    private long delaiMs;
+
+    private ThreadPoolTaskExecutor executeur;
+
+    // Échéance (System.nanoTime()) du groupe de chargements en cours sur le thread.
+    private static final ThreadLocal<Long> ECHEANCE = new ThreadLocal<>();
+
+    @Override
+    public void afterPropertiesSet() {
+        executeur = new ThreadPoolTaskExecutor();
+        executeur.setCorePoolSize(threads);
+        executeur.setMaxPoolSize(threads);
+        executeur.setQueueCapacity(file);
+        executeur.setThreadNamePrefix("sorcier-chargement-");
+        executeur.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+
+        // Transmet au thread du chargement le contexte de sécurité, le routage et l'échéance de la requête.
+        executeur.setTaskDecorator(tache -> {
+            SecurityContext securite = SecurityContextHolder.getContext();
+            boolean primaire = RoutageDataSource.isPrimaireImposee();
+            Long echeance = ECHEANCE.get();
+            return () -> {
+                SecurityContext precedent = SecurityContextHolder.getContext();
+                SecurityContextHolder.setContext(securite);
+                Long echeancePrecedente = ECHEANCE.get();
+                ECHEANCE.set(echeance);
+                // Sur le thread de la requête (file pleine), le routage est déjà en place.
+                boolean imposer = primaire && !RoutageDataSource.isPrimaireImposee();
+                if (imposer) {
+                    RoutageDataSource.imposerPrimaire();
+                }
+                try {
+                    tache.run();
+                } finally {
+                    if (imposer) {
+                        RoutageDataSource.liberer();
+                    }
+                    retablirEcheance(echeancePrecedente);
+                    SecurityContextHolder.setContext(precedent);
+                }
+            };
+        });
+        executeur.initialize();
+    }
+
+    @Override
+    public void destroy() {
+        executeur.shutdown();
+    }
+
+    /**
+     * Retourne le temps restant avant l'échéance du groupe de chargements en cours sur le thread.
+     *
+     * @return Le temps restant (ms), négatif si l'échéance est dépassée, Long.MAX_VALUE hors d'un groupe.
+     */
+    public static long restantMs() {
+        Long echeance = ECHEANCE.get();
+        if (echeance == null) {
+            return Long.MAX_VALUE;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(echeance - System.nanoTime());
+    }
+
+    /**
+     * Rétablit l'échéance en place avant un groupe ou un chargement.
+     */
+    private static void retablirEcheance(Long echeance) {
+        if (echeance == null) {
+            ECHEANCE.remove();
+        } else {
+            ECHEANCE.set(echeance);
+        }
+    }
+
+    /**
+     * Ouvre le groupe des chargements d'une page. Le délai court à partir de l'ouverture.
+     *
+     * @return Le groupe, à fermer une fois la page chargée.
+     */
+    public Groupe groupe() {
+        return new Groupe(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delaiMs));
+    }
+
+    /**
+     * Chargements d'une même page, soumis au même délai. La fermeture du groupe annule
+     * les chargements encore en cours, par exemple lorsque la requête a échoué entre-temps.
+     */
+    public class Groupe implements AutoCloseable {
+
+        private final long echeance;
+        private final Long echeancePrecedente;
+        private final List<Future<?>> lances = new ArrayList<>();
+
+        private Groupe(long echeance) {
+            this.echeance = echeance;
+            // Les requêtes du thread de la requête sont soumises à la même échéance.
+            this.echeancePrecedente = ECHEANCE.get();
+            ECHEANCE.set(echeance);
+        }
+
+        /**
+         * Lance un chargement sur le pool.
+         *
+         * @param chargement - Le chargement à exécuter.
+         * @return Le chargement en cours, à passer à {@link #attendre(Future)}.
+         */
+        public <T> Future<T> lancer(Supplier<T> chargement) {
+            Future<T> lance = executeur.submit(() -> chargement.get());
+            lances.add(lance);
+            return lance;
+        }
+
+        /**
+         * Exécute un chargement sur le thread de la requête, soumis à l'échéance du groupe.
+         *
+         * @param chargement - Le chargement à exécuter.
+         * @return Le résultat du chargement.
+         * @throws ResponseStatusException 503 si l'échéance est dépassée.
+         */
+        public <T> T charger(Supplier<T> chargement) {
+            try {
+                return chargement.get();
+            } catch (QueryTimeoutException e) {
+                throw depasse(e);
+            }
+        }
+
+        /**
+         * Attend le résultat d'un chargement, au plus jusqu'à l'échéance du groupe.
+         *
+         * @param lance - Le chargement lancé.
+         * @return Le résultat du chargement.
+         * @throws ResponseStatusException 503 si l'échéance est dépassée.
+         */
+        public <T> T attendre(Future<T> lance) {
+            try {
+                return lance.get(Math.max(0, echeance - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // La requête SQL en cours est arrêtée par son propre délai, fixé sur la même échéance.
+                lance.cancel(true);
+                throw depasse(e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof QueryTimeoutException erreur) {
+                    throw depasse(erreur);
+                }
+                // Relance l'erreur du chargement telle quelle.
+                if (e.getCause() instanceof RuntimeException erreur) {
+                    throw erreur;
+                }
+                throw new IllegalStateException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                lance.cancel(true);
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Chargement interrompu", e);
+            }
+        }
+
+        /**
+         * Signale une page dont les chargements ont dépassé l'échéance.
+         */
+        private ResponseStatusException depasse(Exception cause) {
+            System.out.println("CPA : Chargement annule apres " + delaiMs + " ms.");
+            return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Chargement trop long", cause);
+        }
+
+        /**
+         * Annule les chargements du groupe qui ne sont pas terminés.
+         */
+        @Override
+        public void close() {
+            for (Future<?> lance : lances) {
+                lance.cancel(true);
+            }
+            retablirEcheance(echeancePrecedente);
+        }
+    }
+}
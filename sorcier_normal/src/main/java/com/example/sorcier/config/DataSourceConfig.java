@@ -1,10 +1,20 @@
 package com.example.sorcier.config;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// Pool de connexions JDBC.
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 
 import javax.sql.DataSource;
 
@@ -26,24 +36,155 @@ public class DataSourceConfig {
     @Value("${spring.datasource.password}")
     private String password;
 
+    // Nombre de connexions maintenues ouvertes en permanence dans le pool.
+    @Value("${sorcier.pool.taille-min:5}")
+    private int tailleMin;
+
+    // Nombre maximal de connexions ouvertes simultanément.
+    @Value("${sorcier.pool.taille-max:20}")
+    private int tailleMax;
+
+    // Temps maximal d'attente d'une connexion libre avant échec (ms).
+    @Value("${sorcier.pool.attente-max-ms:5000}")
+    private long attenteMaxMs;
+
+    // Temps maximal accordé à la validation d'une connexion (ms).
+    @Value("${sorcier.pool.validation-ms:1000}")
+    private long validationMs;
+
+    // Durée de vie maximale d'une connexion avant son renouvellement (ms).
+    @Value("${sorcier.pool.duree-vie-ms:1800000}")
+    private long dureeVieMs;
+
+    // URLs des réplicas en lecture seule, séparées par des virgules (aucun par défaut).
+    @Value("${sorcier.replicas.urls:}")
+    private String[] replicasUrls;
+
+    /**
+     * Crée le collecteur de métriques du pool de connexions.
+     * Ce bean est seulement créé pour les profils 'sqlserver'.
+     *
+     * @return Les métriques du pool, partagées avec le reste de l'application.
+     */
+    @Bean
+    @Profile("sqlserver")
+    public MetriquesPool metriquesPool() {
+        return new MetriquesPool();
+    }
+
+    /**
+     * Crée le collecteur de métriques des requêtes SQL, alimenté par {@link SuiviRequetesAspect}.
+     * Ce bean est seulement créé pour les profils 'sqlserver'.
+     *
+     * @return Les métriques des requêtes, partagées avec le reste de l'application.
+     */
+    @Bean
+    @Profile("sqlserver")
+    public MetriquesRequetes metriquesRequetes() {
+        return new MetriquesRequetes();
+    }
+
     /**
-     * Crée un bean DataSource pour SQL Server.
+     * Crée un bean DataSource pour SQL Server, adossé à un pool de connexions.
+     * Si des réplicas sont configurés, les transactions en lecture seule leur sont envoyées.
      * Ce bean est seulement créé pour les profils 'sqlserver'.
      *
+     * @param metriquesPool - Les métriques alimentées par les pools.
      * @return DataSource configurée pour SQL Server.
      */
+    @Bean(destroyMethod = "close")
+    @Profile("sqlserver")
+    public DataSource sqlServerDataSource(MetriquesPool metriquesPool) {
+        // Crée le pool et ouvre les connexions minimales avant de servir les requêtes.
+        HikariDataSource primaire = creerPool("sorcier-pool", databaseUrl, metriquesPool);
+        if (replicasUrls.length == 0) {
+            return primaire;
+        }
+
+        // Crée un pool par réplica, puis route les lectures entre eux.
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicasUrls.length; i++) {
+            replicas.add(creerPool("sorcier-replica-" + (i + 1), replicasUrls[i].trim(), metriquesPool));
+        }
+        return new RoutageDataSource(primaire, replicas);
+    }
+
+    /**
+     * Crée le JdbcTemplate de l'application, qui borne les requêtes des pages par l'échéance
+     * de leurs chargements. Le NamedParameterJdbcTemplate de Spring Boot s'appuie sur lui.
+     * Ce bean est seulement créé pour les profils 'sqlserver'.
+     *
+     * @param dataSource - La source de données de l'application.
+     * @return Le JdbcTemplate.
+     */
     @Bean
     @Profile("sqlserver")
-    public DataSource sqlServerDataSource() {
-        // Crée une nouvelle instance de DriverManagerDataSource.
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        // Configure l'URL de la base de données.
-        dataSource.setUrl(databaseUrl);
-        // Configure le nom d'utilisateur de la base de données.
-        dataSource.setUsername(username);
-        // Configure le mot de passe de la base de données.
-        dataSource.setPassword(password);
-        // Retourne la source de données configurée.
+    public JdbcTemplate jdbcTemplate(DataSource dataSource) {
+        return new JdbcTemplateEcheance(dataSource);
+    }
+
+    /**
+     * Construit un pool de connexions pour l'URL donnée, puis le préchauffe.
+     *
+     * @param nom - Le nom du pool (visible dans les logs et les métriques).
+     * @param url - L'URL JDBC de la base de données.
+     * @param metriquesPool - Les métriques alimentées par le pool.
+     * @return Le pool de connexions prêt à l'emploi.
+     */
+    public HikariDataSource creerPool(String nom, String url, MetriquesPool metriquesPool) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(nom);
+
+        // Configure l'accès à la base de données.
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+
+        // Configure la taille du pool.
+        config.setMinimumIdle(tailleMin);
+        config.setMaximumPoolSize(Math.max(tailleMin, tailleMax));
+
+        // Configure l'attente, la validation et le renouvellement des connexions.
+        config.setConnectionTimeout(attenteMaxMs);
+        config.setValidationTimeout(validationMs);
+        config.setMaxLifetime(dureeVieMs);
+
+        // Échoue au démarrage si la base de données est injoignable.
+        config.setInitializationFailTimeout(attenteMaxMs);
+
+        // Branche le suivi des temps d'attente et des expirations.
+        config.setMetricsTrackerFactory(metriquesPool);
+
+        HikariDataSource dataSource = new HikariDataSource(config);
+        prechaufferPool(dataSource, tailleMin);
         return dataSource;
     }
+
+    /**
+     * Ouvre les connexions minimales du pool pour que les premières requêtes
+     * n'aient pas à payer l'établissement des connexions.
+     *
+     * @param dataSource - Le pool à préchauffer.
+     * @param nombre - Le nombre de connexions à ouvrir.
+     */
+    static void prechaufferPool(DataSource dataSource, int nombre) {
+        List<Connection> connexions = new ArrayList<>(nombre);
+        try {
+            // Emprunte les connexions en même temps pour forcer leur création.
+            for (int i = 0; i < nombre; i++) {
+                connexions.add(dataSource.getConnection());
+            }
+        } catch (SQLException e) {
+            throw new CannotGetJdbcConnectionException("Préchauffage du pool impossible", e);
+        } finally {
+            // Rend les connexions au pool, qui les conserve ouvertes.
+            for (Connection connexion : connexions) {
+                try {
+                    connexion.close();
+                } catch (SQLException e) {
+                    System.out.println("DSC : Connexion non rendue au pool (prechaufferPool).");
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,34 @@
+package com.example.sorcier.config;
+
+import java.io.IOException;
+
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Traite l'échec d'une connexion. Spring Security enveloppe les erreurs du chargement de
+ * l'utilisateur (InternalAuthenticationServiceException) : lorsque l'échec vient de la
+ * saturation du pool de hachage, y compris pour un utilisateur inconnu, la réponse est un 503
+ * et non le retour au formulaire avec un message de mots de passe erronés.
+ */
+public class EchecConnexionHandler implements AuthenticationFailureHandler {
+
+    // Retour au formulaire de connexion pour les autres échecs.
+    private final AuthenticationFailureHandler formulaire = new SimpleUrlAuthenticationFailureHandler("/connexion?error");
+
+    @Override
+    public void onAuthenticationFailure(HttpServletRequest request, HttpServletResponse response,
+            AuthenticationException exception) throws IOException, ServletException {
+        if (HachageSatureFilter.causeParSaturation(exception)) {
+            System.out.println("ECH : Connexion refusee, hachage sature.");
+            HachageSatureFilter.repondreSature(response);
+            return;
+        }
+        formulaire.onAuthenticationFailure(request, response, exception);
+    }
+}
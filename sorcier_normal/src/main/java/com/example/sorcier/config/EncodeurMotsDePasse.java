@@ -0,0 +1,251 @@
+package com.example.sorcier.config;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Encodeur des mots de passe qui exécute le hachage BCrypt (inscription, changement de mot
+ * de passe) et sa vérification (connexion) sur un pool de threads dédié et borné.
+ * Une rafale d'inscriptions ne peut ainsi occuper que les threads de ce pool, et non ceux
+ * qui servent les pages. Lorsque le pool et sa file sont pleins, l'opération est refusée
+ * par une {@link HachageSatureException}, traduite en réponse 503.
+ * Le coût BCrypt est choisi au démarrage pour qu'un hachage dure environ le temps visé.
+ * Les hachages sont préfixés par leur algorithme ({bcrypt}, {pbkdf2}) ; ceux d'un coût
+ * inférieur, d'un autre algorithme ou sans préfixe sont à refaire à la connexion suivante.
+ */
+@Component
+public class EncodeurMotsDePasse implements PasswordEncoder, InitializingBean, DisposableBean {
+
+    // Nombre de hachages simultanés (0 : la moitié des processeurs).
+    @Value("${sorcier.hachage.threads:0}")
+    private int threads;
+
+    // Nombre de hachages en attente d'un thread avant refus.
+    @Value("${sorcier.hachage.file:50}")
+    private int file;
+
+    // Durée visée d'un hachage (ms), qui détermine le coût BCrypt.
+    @Value("${sorcier.hachage.cible-ms:250}")
+    private long cibleMs;
+
+    // Bornes du coût BCrypt retenu.
+    @Value("${sorcier.hachage.cout-min:10}")
+    private int coutMin;
+
+    @Value("${sorcier.hachage.cout-max:16}")
+    private int coutMax;
+
+    private PasswordEncoder delegue;
+    private int cout;
+    private ThreadPoolExecutor executeur;
+
+    // Compteurs des opérations terminées et refusées, et des durées de hachage.
+    private final LongAdder operations = new LongAdder();
+    private final LongAdder refus = new LongAdder();
+    private final LongAdder dureeTotaleNanos = new LongAdder();
+    private final LongAccumulator dureeMaxNanos = new LongAccumulator(Math::max, 0);
+
+    @Override
+    public void afterPropertiesSet() {
+        // Choisit le coût BCrypt et prépare les encodages reconnus.
+        cout = calibrer();
+        DelegatingPasswordEncoder encodeurs = new DelegatingPasswordEncoder("bcrypt", Map.of(
+                "bcrypt", new BCryptPasswordEncoder(cout),
+                "pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8()));
+        // Les hachages sans préfixe, antérieurs, sont des hachages BCrypt.
+        encodeurs.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        delegue = encodeurs;
+        System.out.println("EMP : Cout BCrypt " + cout + " pour une cible de " + cibleMs + " ms.");
+
+        int taille = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger numero = new AtomicInteger();
+        executeur = new ThreadPoolExecutor(taille, taille, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(file),
+                tache -> {
+                    Thread thread = new Thread(tache, "sorcier-hachage-" + numero.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Mesure un hachage au coût minimal et en déduit le coût dont la durée approche la cible :
+     * chaque point de coût double la durée du hachage.
+     */
+    private int calibrer() {
+        BCryptPasswordEncoder mesure = new BCryptPasswordEncoder(coutMin);
+        long meilleur = Long.MAX_VALUE;
+        // Un passage de chauffe, puis la meilleure de deux mesures.
+        for (int i = 0; i < 3; i++) {
+            long debut = System.nanoTime();
+            mesure.encode("calibrage");
+            if (i > 0) {
+                meilleur = Math.min(meilleur, System.nanoTime() - debut);
+            }
+        }
+        double rapport = TimeUnit.MILLISECONDS.toNanos(cibleMs) / (double) Math.max(1, meilleur);
+        int points = rapport <= 1 ? 0 : (int) Math.floor(Math.log(rapport) / Math.log(2));
+        return Math.max(coutMin, Math.min(coutMax, coutMin + points));
+    }
+
+    /**
+     * Retourne le coût BCrypt retenu au démarrage.
+     *
+     * @return Le coût BCrypt.
+     */
+    public int getCout() {
+        return cout;
+    }
+
+    @Override
+    public void destroy() {
+        executeur.shutdownNow();
+    }
+
+    @Override
+    public String encode(CharSequence motDePasse) {
+        return executer(() -> delegue.encode(motDePasse));
+    }
+
+    @Override
+    public boolean matches(CharSequence motDePasse, String hash) {
+        return executer(() -> delegue.matches(motDePasse, hash));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String hash) {
+        return delegue.upgradeEncoding(hash);
+    }
+
+    /**
+     * Exécute une opération sur le pool de hachage et attend son résultat.
+     */
+    private <T> T executer(Supplier<T> operation) {
+        Future<T> resultat;
+        try {
+            resultat = executeur.submit(() -> {
+                long debut = System.nanoTime();
+                try {
+                    return operation.get();
+                } finally {
+                    long duree = System.nanoTime() - debut;
+                    operations.increment();
+                    dureeTotaleNanos.add(duree);
+                    dureeMaxNanos.accumulate(duree);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refus.increment();
+            System.out.println("EMP : Hachage refuse, pool sature (" + executeur.getQueue().size() + " en attente).");
+            throw new HachageSatureException(e);
+        }
+        try {
+            return resultat.get();
+        } catch (ExecutionException e) {
+            // Relance l'erreur de l'encodeur telle quelle.
+            if (e.getCause() instanceof RuntimeException erreur) {
+                throw erreur;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            resultat.cancel(true);
+            throw new HachageSatureException(e);
+        }
+    }
+
+    /**
+     * Retourne l'état du pool de hachage.
+     *
+     * @return Une photographie des compteurs.
+     */
+    public EtatHachage getEtat() {
+        long total = operations.sum();
+        return new EtatHachage(cout, executeur.getMaximumPoolSize(), executeur.getActiveCount(), executeur.getQueue().size(),
+                total, refus.sum(), total == 0 ? 0 : dureeTotaleNanos.sum() / 1_000_000.0 / total,
+                dureeMaxNanos.get() / 1_000_000.0);
+    }
+
+    /**
+     * Photographie de l'état du pool de hachage.
+     */
+    public static class EtatHachage {
+        private final int cout;
+        private final int threads;
+        private final int actifs;
+        private final int enAttente;
+        private final long operations;
+        private final long refus;
+        private final double dureeMoyenneMs;
+        private final double dureeMaxMs;
+
+        public EtatHachage(int cout, int threads, int actifs, int enAttente, long operations, long refus,
+                double dureeMoyenneMs, double dureeMaxMs) {
+            this.cout = cout;
+            this.threads = threads;
+            this.actifs = actifs;
+            this.enAttente = enAttente;
+            this.operations = operations;
+            this.refus = refus;
+            this.dureeMoyenneMs = dureeMoyenneMs;
+            this.dureeMaxMs = dureeMaxMs;
+        }
+
+        public int getCout() {
+            return cout;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public int getActifs() {
+            return actifs;
+        }
+
+        public int getEnAttente() {
+            return enAttente;
+        }
+
+        public long getOperations() {
+            return operations;
+        }
+
+        public long getRefus() {
+            return refus;
+        }
+
+        public double getDureeMoyenneMs() {
+            return dureeMoyenneMs;
+        }
+
+        public double getDureeMaxMs() {
+            return dureeMaxMs;
+        }
+
+        @Override
+        public String toString() {
+            return "EtatHachage [cout=" + cout + ", threads=" + threads + ", actifs=" + actifs + ", enAttente=" + enAttente
+                    + ", operations=" + operations + ", refus=" + refus + ", dureeMoyenneMs=" + dureeMoyenneMs
+                    + ", dureeMaxMs=" + dureeMaxMs + "]";
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.sorcier.config;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Photographie de l'état d'un cache en mémoire, pour la page des métriques.
+ */
+public class EtatCache {
+    private final String nom;
+    private final long taille;
+    private final long succes;
+    private final long echecs;
+    private final long evictions;
+    private final double tauxSucces;
+
+    public EtatCache(String nom, long taille, CacheStats stats) {
+        this.nom = nom;
+        this.taille = taille;
+        this.succes = stats.hitCount();
+        this.echecs = stats.missCount();
+        this.evictions = stats.evictionCount();
+        this.tauxSucces = stats.hitRate();
+    }
+
+    public String getNom() {
+        return nom;
+    }
+
+    public long getTaille() {
+        return taille;
+    }
+
+    public long getSucces() {
+        return succes;
+    }
+
+    public long getEchecs() {
+        return echecs;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public double getTauxSucces() {
+        return tauxSucces;
+    }
+}
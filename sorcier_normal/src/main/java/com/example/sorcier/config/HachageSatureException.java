@@ -0,0 +1,19 @@
+package com.example.sorcier.config;
+
+/**
+ * Exception levée lorsque le pool de hachage des mots de passe est saturé.
+ * Elle est traduite en réponse 503 par {@link HachageSatureFilter}.
+ */
+public class HachageSatureException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructeur de l'exception.
+     *
+     * @param cause - Le refus ou l'interruption à l'origine de l'exception.
+     */
+    public HachageSatureException(Throwable cause) {
+        super("Hachage des mots de passe sature", cause);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.sorcier.config;
+
+import java.io.IOException;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Répond 503 lorsque le pool de hachage des mots de passe refuse une opération,
+ * que le refus vienne de la connexion (filtres de sécurité) ou d'un contrôleur.
+ * Ce filtre englobe la sécurité pour voir les erreurs levées à la connexion ; celles que
+ * Spring Security enveloppe dans un échec d'authentification passent par {@link EchecConnexionHandler}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class HachageSatureFilter extends OncePerRequestFilter {
+
+    // Délai conseillé au client avant de réessayer (s).
+    private static final String REESSAYER_APRES = "1";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } catch (RuntimeException | ServletException e) {
+            if (!causeParSaturation(e) || response.isCommitted()) {
+                throw e;
+            }
+            repondreSature(response);
+        }
+    }
+
+    /**
+     * Répond 503, avec le délai conseillé avant de réessayer.
+     */
+    static void repondreSature(HttpServletResponse response) throws IOException {
+        response.setHeader("Retry-After", REESSAYER_APRES);
+        response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Service momentanement sature");
+    }
+
+    /**
+     * Indique si l'erreur provient de la saturation du pool de hachage.
+     */
+    static boolean causeParSaturation(Throwable erreur) {
+        for (Throwable cause = erreur; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HachageSatureException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
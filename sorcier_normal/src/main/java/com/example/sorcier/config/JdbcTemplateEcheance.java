@@ -0,0 +1,44 @@
+package com.example.sorcier.config;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * JdbcTemplate qui borne chaque requête par l'échéance des chargements de la page en cours
+ * ({@link ChargementParallele}) : la base arrête la requête à l'échéance, même quand le thread
+ * qui l'attend a été interrompu entre-temps. Hors d'une page, les requêtes gardent leur délai habituel.
+ */
+public class JdbcTemplateEcheance extends JdbcTemplate {
+
+    /**
+     * Constructeur du template.
+     *
+     * @param dataSource - La base interrogée.
+     */
+    public JdbcTemplateEcheance(DataSource dataSource) {
+        super(dataSource);
+    }
+
+    @Override
+    protected void applyStatementSettings(Statement stmt) throws SQLException {
+        super.applyStatementSettings(stmt);
+        long restantMs = ChargementParallele.restantMs();
+        if (restantMs == Long.MAX_VALUE) {
+            return;
+        }
+        if (restantMs <= 0) {
+            throw new QueryTimeoutException("Echeance des chargements depassee");
+        }
+
+        // Le délai JDBC est en secondes : arrondi au-dessus pour ne pas couper avant l'échéance.
+        int secondes = (int) Math.min(Integer.MAX_VALUE, (restantMs + 999) / 1000);
+        if (stmt.getQueryTimeout() == 0 || stmt.getQueryTimeout() > secondes) {
+            stmt.setQueryTimeout(secondes);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.sorcier.config;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Limite les tentatives de connexion (POST {@value #CONNEXION}) par adresse du client et par
+ * nom d'utilisateur, avant la sécurité et donc avant toute vérification BCrypt.
+ * Une tentative au-delà des limites reçoit aussitôt une réponse 429, sans corps de page,
+ * pour qu'une attaque par listes d'identifiants ne coûte presque rien au serveur.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class LimiteurConnexionsFilter extends OncePerRequestFilter {
+
+    // URL de traitement du formulaire de connexion.
+    static final String CONNEXION = "/connexion";
+
+    // Nombre de seaux de chaque limiteur.
+    @Value("${sorcier.connexion.seaux:65536}")
+    private int nombreSeaux;
+
+    // Tentatives permises par nom d'utilisateur : par minute et en rafale.
+    @Value("${sorcier.connexion.nom.par-minute:10}")
+    private int nomParMinute;
+
+    @Value("${sorcier.connexion.nom.rafale:5}")
+    private int nomRafale;
+
+    // Tentatives permises par adresse du client : par minute et en rafale.
+    @Value("${sorcier.connexion.adresse.par-minute:60}")
+    private int adresseParMinute;
+
+    @Value("${sorcier.connexion.adresse.rafale:20}")
+    private int adresseRafale;
+
+    private SeauxJetons parNom;
+    private SeauxJetons parAdresse;
+
+    // Compteurs des tentatives admises et refusées.
+    private final LongAdder admises = new LongAdder();
+    private final LongAdder refusNom = new LongAdder();
+    private final LongAdder refusAdresse = new LongAdder();
+
+    @Override
+    protected void initFilterBean() {
+        parNom = new SeauxJetons(nombreSeaux, nomParMinute, nomRafale);
+        parAdresse = new SeauxJetons(nombreSeaux, adresseParMinute, adresseRafale);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Seul l'envoi du formulaire de connexion est limité.
+        return !"POST".equals(request.getMethod()) || !CONNEXION.equals(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        // L'adresse d'abord : un même client qui change de nom à chaque essai reste limité.
+        if (!parAdresse.prendre(request.getRemoteAddr())) {
+            refusAdresse.increment();
+            refuser(response);
+            return;
+        }
+        String nom = request.getParameter("username");
+        if (nom != null && !parNom.prendre(nom.trim().toLowerCase(Locale.ROOT))) {
+            refusNom.increment();
+            refuser(response);
+            return;
+        }
+        admises.increment();
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Répond 429 sans passer par la page d'erreur.
+     */
+    private void refuser(HttpServletResponse response) {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf(Math.max(1, 60 / Math.min(nomParMinute, adresseParMinute))));
+    }
+
+    /**
+     * Retourne le nombre de tentatives de connexion admises.
+     *
+     * @return Le nombre de tentatives admises.
+     */
+    public long getAdmises() {
+        return admises.sum();
+    }
+
+    /**
+     * Retourne le nombre de tentatives refusées pour le nom d'utilisateur.
+     *
+     * @return Le nombre de refus par nom.
+     */
+    public long getRefusNom() {
+        return refusNom.sum();
+    }
+
+    /**
+     * Retourne le nombre de tentatives refusées pour l'adresse du client.
+     *
+     * @return Le nombre de refus par adresse.
+     */
+    public long getRefusAdresse() {
+        return refusAdresse.sum();
+    }
+}
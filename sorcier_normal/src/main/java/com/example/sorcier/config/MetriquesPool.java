@@ -0,0 +1,187 @@
+package com.example.sorcier.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Interfaces de suivi exposées par le pool de connexions.
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+/**
+ * Collecte les métriques des pools de connexions : connexions actives et inactives,
+ * threads en attente, temps d'attente d'une connexion et expirations.
+ */
+public class MetriquesPool implements MetricsTrackerFactory {
+
+    private final Map<String, SuiviPool> suivis = new ConcurrentHashMap<>();
+
+    /**
+     * Appelé par le pool à sa création pour obtenir son collecteur.
+     *
+     * @param nomPool - Le nom du pool.
+     * @param poolStats - Les statistiques instantanées tenues par le pool.
+     * @return Le collecteur associé au pool.
+     */
+    @Override
+    public IMetricsTracker create(String nomPool, PoolStats poolStats) {
+        SuiviPool suivi = new SuiviPool(nomPool, poolStats);
+        suivis.put(nomPool, suivi);
+        return suivi;
+    }
+
+    /**
+     * Retourne l'état courant de chacun des pools suivis.
+     *
+     * @return La liste des états, un par pool.
+     */
+    public List<EtatPool> getEtats() {
+        List<EtatPool> etats = new ArrayList<>();
+        suivis.values().forEach(s -> etats.add(s.etat()));
+        return etats;
+    }
+
+    /**
+     * Retourne l'état courant d'un pool.
+     *
+     * @param nomPool - Le nom du pool.
+     * @return L'état du pool ou null s'il n'est pas suivi.
+     */
+    public EtatPool getEtat(String nomPool) {
+        SuiviPool suivi = suivis.get(nomPool);
+        return suivi != null ? suivi.etat() : null;
+    }
+
+    /**
+     * Collecteur d'un pool : cumule les temps d'attente et les expirations.
+     */
+    private static class SuiviPool implements IMetricsTracker {
+        private final String nom;
+        private final PoolStats poolStats;
+        private final LongAdder emprunts = new LongAdder();
+        private final LongAdder attenteTotaleNanos = new LongAdder();
+        private final LongAccumulator attenteMaxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder expirations = new LongAdder();
+
+        SuiviPool(String nom, PoolStats poolStats) {
+            this.nom = nom;
+            this.poolStats = poolStats;
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            emprunts.increment();
+            attenteTotaleNanos.add(elapsedAcquiredNanos);
+            attenteMaxNanos.accumulate(elapsedAcquiredNanos);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            expirations.increment();
+        }
+
+        EtatPool etat() {
+            long nombreEmprunts = emprunts.sum();
+            double attenteMoyenneMs = nombreEmprunts == 0 ? 0
+                    : attenteTotaleNanos.sum() / (double) nombreEmprunts / TimeUnit.MILLISECONDS.toNanos(1);
+            return new EtatPool(nom,
+                    poolStats.getActiveConnections(),
+                    poolStats.getIdleConnections(),
+                    poolStats.getTotalConnections(),
+                    poolStats.getPendingThreads(),
+                    nombreEmprunts,
+                    attenteMoyenneMs,
+                    TimeUnit.NANOSECONDS.toMillis(attenteMaxNanos.get()),
+                    expirations.sum());
+        }
+    }
+
+    /**
+     * Photographie de l'état d'un pool à un instant donné.
+     */
+    public static class EtatPool {
+        private final String nom;
+        private final int actives;
+        private final int inactives;
+        private final int total;
+        private final int enAttente;
+        private final long emprunts;
+        private final double attenteMoyenneMs;
+        private final long attenteMaxMs;
+        private final long expirations;
+
+        /**
+         * Constructeur complet de l'état d'un pool.
+         *
+         * @param nom - Le nom du pool.
+         * @param actives - Le nombre de connexions empruntées.
+         * @param inactives - Le nombre de connexions disponibles.
+         * @param total - Le nombre total de connexions ouvertes.
+         * @param enAttente - Le nombre de threads en attente d'une connexion.
+         * @param emprunts - Le nombre d'emprunts depuis le démarrage.
+         * @param attenteMoyenneMs - Le temps d'attente moyen d'une connexion.
+         * @param attenteMaxMs - Le temps d'attente maximal observé.
+         * @param expirations - Le nombre d'attentes ayant expiré.
+         */
+        public EtatPool(String nom, int actives, int inactives, int total, int enAttente, long emprunts,
+                double attenteMoyenneMs, long attenteMaxMs, long expirations) {
+            this.nom = nom;
+            this.actives = actives;
+            this.inactives = inactives;
+            this.total = total;
+            this.enAttente = enAttente;
+            this.emprunts = emprunts;
+            this.attenteMoyenneMs = attenteMoyenneMs;
+            this.attenteMaxMs = attenteMaxMs;
+            this.expirations = expirations;
+        }
+
+        public String getNom() {
+            return nom;
+        }
+
+        public int getActives() {
+            return actives;
+        }
+
+        public int getInactives() {
+            return inactives;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public int getEnAttente() {
+            return enAttente;
+        }
+
+        public long getEmprunts() {
+            return emprunts;
+        }
+
+        public double getAttenteMoyenneMs() {
+            return attenteMoyenneMs;
+        }
+
+        public long getAttenteMaxMs() {
+            return attenteMaxMs;
+        }
+
+        public long getExpirations() {
+            return expirations;
+        }
+
+        @Override
+        public String toString() {
+            return "EtatPool [nom=" + nom + ", actives=" + actives + ", inactives=" + inactives + ", total=" + total
+                    + ", enAttente=" + enAttente + ", emprunts=" + emprunts + ", attenteMoyenneMs=" + attenteMoyenneMs
+                    + ", attenteMaxMs=" + attenteMaxMs + ", expirations=" + expirations + "]";
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.sorcier.config;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collecte les métriques des requêtes SQL par méthode de repository : nombre d'appels,
+ * lignes traitées et histogramme des durées, dont sont tirés les percentiles p50 et p99.
+ */
+public class MetriquesRequetes {
+
+    // Borne supérieure de la première tranche de l'histogramme (µs), doublée à chaque tranche.
+    static final long PREMIERE_BORNE_MICROS = 64;
+
+    // Nombre de tranches : la dernière couvre les durées supérieures à 2^19 x 64 µs (environ 33 s).
+    static final int NOMBRE_TRANCHES = 20;
+
+    private final Map<String, SuiviRequete> suivis = new ConcurrentHashMap<>();
+
+    /**
+     * Enregistre l'exécution d'une requête.
+     *
+     * @param methode - La méthode de repository à l'origine de la requête.
+     * @param sql - Le texte de la requête, sans les valeurs des paramètres.
+     * @param dureeNanos - La durée d'exécution.
+     * @param lignes - Le nombre de lignes lues ou modifiées.
+     */
+    public void enregistrer(String methode, String sql, long dureeNanos, long lignes) {
+        suivis.computeIfAbsent(methode, SuiviRequete::new).enregistrer(sql, dureeNanos, lignes);
+    }
+
+    /**
+     * Retourne l'état courant de chaque méthode suivie, triées par nom.
+     *
+     * @return La liste des états, un par méthode.
+     */
+    public List<EtatRequete> getEtats() {
+        List<EtatRequete> etats = new ArrayList<>();
+        suivis.values().forEach(s -> etats.add(s.etat()));
+        etats.sort(Comparator.comparing(EtatRequete::getMethode));
+        return etats;
+    }
+
+    /**
+     * Retourne l'état courant d'une méthode.
+     *
+     * @param methode - La méthode de repository.
+     * @return L'état de la méthode ou null si elle n'a exécuté aucune requête.
+     */
+    public EtatRequete getEtat(String methode) {
+        SuiviRequete suivi = suivis.get(methode);
+        return suivi != null ? suivi.etat() : null;
+    }
+
+    /**
+     * Retourne l'indice de la tranche de l'histogramme correspondant à une durée.
+     */
+    static int tranche(long dureeNanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(dureeNanos);
+        int indice = 0;
+        long borne = PREMIERE_BORNE_MICROS;
+        while (micros > borne && indice < NOMBRE_TRANCHES - 1) {
+            borne <<= 1;
+            indice++;
+        }
+        return indice;
+    }
+
+    /**
+     * Retourne la borne supérieure d'une tranche de l'histogramme, en millisecondes.
+     */
+    static double borneMs(int indice) {
+        return (PREMIERE_BORNE_MICROS << indice) / 1000.0;
+    }
+
+    /**
+     * Collecteur d'une méthode : compteurs sans verrou, alimentés en parallèle.
+     */
+    private static class SuiviRequete {
+        private final String methode;
+        private final LongAdder appels = new LongAdder();
+        private final LongAdder lignes = new LongAdder();
+        private final LongAdder dureeTotaleNanos = new LongAdder();
+        private final LongAccumulator dureeMaxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder[] histogramme = new LongAdder[NOMBRE_TRANCHES];
+        private volatile String dernierSql;
+
+        SuiviRequete(String methode) {
+            this.methode = methode;
+            for (int i = 0; i < NOMBRE_TRANCHES; i++) {
+                histogramme[i] = new LongAdder();
+            }
+        }
+
+        void enregistrer(String sql, long dureeNanos, long nombreLignes) {
+            appels.increment();
+            lignes.add(nombreLignes);
+            dureeTotaleNanos.add(dureeNanos);
+            dureeMaxNanos.accumulate(dureeNanos);
+            histogramme[tranche(dureeNanos)].increment();
+            dernierSql = sql;
+        }
+
+        EtatRequete etat() {
+            long[] compteurs = new long[NOMBRE_TRANCHES];
+            long nombre = 0;
+            for (int i = 0; i < NOMBRE_TRANCHES; i++) {
+                compteurs[i] = histogramme[i].sum();
+                nombre += compteurs[i];
+            }
+            double moyenneMs = nombre == 0 ? 0
+                    : dureeTotaleNanos.sum() / (double) nombre / TimeUnit.MILLISECONDS.toNanos(1);
+            return new EtatRequete(methode, dernierSql, nombre, lignes.sum(), moyenneMs,
+                    percentile(compteurs, nombre, 0.50),
+                    percentile(compteurs, nombre, 0.99),
+                    dureeMaxNanos.get() / (double) TimeUnit.MILLISECONDS.toNanos(1));
+        }
+
+        /**
+         * Estime un percentile par la borne supérieure de la tranche qui le contient.
+         */
+        private static double percentile(long[] compteurs, long nombre, double rang) {
+            if (nombre == 0) {
+                return 0;
+            }
+            long cible = (long) Math.ceil(nombre * rang);
+            long cumul = 0;
+            for (int i = 0; i < compteurs.length; i++) {
+                cumul += compteurs[i];
+                if (cumul >= cible) {
+                    return borneMs(i);
+                }
+            }
+            return borneMs(compteurs.length - 1);
+        }
+    }
+
+    /**
+     * Photographie des métriques d'une méthode à un instant donné.
+     */
+    public static class EtatRequete {
+        private final String methode;
+        private final String sql;
+        private final long appels;
+        private final long lignes;
+        private final double moyenneMs;
+        private final double p50Ms;
+        private final double p99Ms;
+        private final double maxMs;
+
+        /**
+         * Constructeur complet de l'état d'une méthode.
+         *
+         * @param methode - La méthode de repository.
+         * @param sql - La dernière requête exécutée par la méthode.
+         * @param appels - Le nombre de requêtes exécutées.
+         * @param lignes - Le nombre total de lignes lues ou modifiées.
+         * @param moyenneMs - La durée moyenne d'une requête.
+         * @param p50Ms - La durée médiane estimée.
+         * @param p99Ms - Le 99e percentile estimé.
+         * @param maxMs - La durée maximale observée.
+         */
+        public EtatRequete(String methode, String sql, long appels, long lignes, double moyenneMs,
+                double p50Ms, double p99Ms, double maxMs) {
+            this.methode = methode;
+            this.sql = sql;
+            this.appels = appels;
+            this.lignes = lignes;
+            this.moyenneMs = moyenneMs;
+            this.p50Ms = p50Ms;
+            this.p99Ms = p99Ms;
+            this.maxMs = maxMs;
+        }
+
+        public String getMethode() {
+            return methode;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public long getAppels() {
+            return appels;
+        }
+
+        public long getLignes() {
+            return lignes;
+        }
+
+        public double getMoyenneMs() {
+            return moyenneMs;
+        }
+
+        public double getP50Ms() {
+            return p50Ms;
+        }
+
+        public double getP99Ms() {
+            return p99Ms;
+        }
+
+        public double getMaxMs() {
+            return maxMs;
+        }
+
+        @Override
+        public String toString() {
+            return "EtatRequete [methode=" + methode + ", appels=" + appels + ", lignes=" + lignes + ", moyenneMs="
+                    + moyenneMs + ", p50Ms=" + p50Ms + ", p99Ms=" + p99Ms + ", maxMs=" + maxMs + "]";
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.sorcier.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import com.example.sorcier.dal.sqlserver.AnnuairePartitions;
+
+/**
+ * Configuration des partitions de la table sorcier.
+ * Cette configuration est seulement active pour les profils 'sqlserver' et 'partition' réunis.
+ */
+@Configuration
+@Profile("sqlserver & partition")
+public class PartitionConfig {
+
+    // URLs JDBC des partitions, séparées par des virgules, dans l'ordre de leur numéro.
+    @Value("${sorcier.partitions.urls}")
+    private String[] partitionsUrls;
+
+    /**
+     * Crée l'annuaire des partitions, avec un pool de connexions par partition.
+     *
+     * @param namedParameterJdbcTemplate - Template de la base principale, qui tient l'annuaire.
+     * @param dataSourceConfig - La configuration qui construit les pools.
+     * @param metriquesPool - Les métriques alimentées par les pools.
+     * @param environment - L'environnement, qui indique si les threads virtuels sont actifs.
+     * @param suiviRequetesAspect - L'aspect qui mesure les requêtes, branché sur les templates des partitions.
+     * @return L'annuaire des partitions.
+     */
+    @Bean(destroyMethod = "close")
+    public AnnuairePartitions annuairePartitions(NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+            DataSourceConfig dataSourceConfig, MetriquesPool metriquesPool, Environment environment,
+            SuiviRequetesAspect suiviRequetesAspect) {
+        List<DataSource> partitions = new ArrayList<>();
+        for (int i = 0; i < partitionsUrls.length; i++) {
+            partitions.add(dataSourceConfig.creerPool("sorcier-partition-" + i, partitionsUrls[i].trim(), metriquesPool));
+        }
+        // Threads virtuels seulement s'ils sont demandés et que la JVM les connaît (Java 21 et plus).
+        boolean threadsVirtuels = Threading.VIRTUAL.isActive(environment);
+        // Les templates des partitions ne sont pas des beans : ils sont mesurés par l'aspect lui-même,
+        // et les interrogations parallèles gardent la méthode de repository appelante.
+        return new AnnuairePartitions(namedParameterJdbcTemplate, partitions, threadsVirtuels,
+                suiviRequetesAspect::instrumenter, suiviRequetesAspect::transmettreMethode);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.sorcier.config;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Source de données qui envoie les transactions en lecture seule vers les réplicas,
+ * à tour de rôle, et tout le reste vers la base primaire.
+ * La connexion réelle n'est obtenue qu'à la première requête, une fois la transaction
+ * marquée en lecture seule : c'est ce qui permet de choisir la bonne base.
+ */
+public class RoutageDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    // Clé de la base primaire parmi les cibles de lecture.
+    static final String PRIMAIRE = "primaire";
+
+    // Vrai lorsque les lectures du thread doivent voir les dernières écritures.
+    private static final ThreadLocal<Boolean> PRIMAIRE_IMPOSEE = new ThreadLocal<>();
+
+    private final List<DataSource> bases = new ArrayList<>();
+    private final int nombreReplicas;
+    private final AtomicInteger suivante = new AtomicInteger();
+
+    /**
+     * Constructeur de la source de données routée.
+     *
+     * @param primaire - La base primaire, qui reçoit les écritures.
+     * @param replicas - Les réplicas, qui reçoivent les lectures.
+     */
+    public RoutageDataSource(DataSource primaire, List<DataSource> replicas) {
+        super(primaire);
+        this.nombreReplicas = replicas.size();
+        bases.add(primaire);
+        bases.addAll(replicas);
+
+        // Associe une clé à chaque base pouvant servir une lecture.
+        Map<Object, Object> cibles = new HashMap<>();
+        cibles.put(PRIMAIRE, primaire);
+        for (int i = 0; i < replicas.size(); i++) {
+            cibles.put("replica-" + i, replicas.get(i));
+        }
+        Lecture lecture = new Lecture();
+        lecture.setTargetDataSources(cibles);
+        lecture.afterPropertiesSet();
+        setReadOnlyDataSource(lecture);
+    }
+
+    /**
+     * Impose la base primaire aux lectures du thread courant (lecture après écriture).
+     */
+    public static void imposerPrimaire() {
+        PRIMAIRE_IMPOSEE.set(Boolean.TRUE);
+    }
+
+    /**
+     * Rend les lectures du thread courant aux réplicas.
+     */
+    public static void liberer() {
+        PRIMAIRE_IMPOSEE.remove();
+    }
+
+    /**
+     * Indique si les lectures du thread courant sont imposées à la base primaire.
+     *
+     * @return Vrai si la base primaire est imposée.
+     */
+    public static boolean isPrimaireImposee() {
+        return PRIMAIRE_IMPOSEE.get() != null;
+    }
+
+    /**
+     * Choisit la base d'une lecture : la primaire si elle est imposée, sinon le réplica suivant.
+     */
+    Object cleLecture() {
+        if (nombreReplicas == 0 || isPrimaireImposee()) {
+            return PRIMAIRE;
+        }
+        return "replica-" + Math.floorMod(suivante.getAndIncrement(), nombreReplicas);
+    }
+
+    /**
+     * Ferme les pools de la base primaire et des réplicas.
+     */
+    @Override
+    public void close() {
+        for (DataSource base : bases) {
+            if (base instanceof AutoCloseable fermable) {
+                try {
+                    fermable.close();
+                } catch (Exception e) {
+                    System.out.println("RDS : Source de donnees non fermee (close).");
+                }
+            }
+        }
+    }
+
+    /**
+     * Source des lectures, routée selon {@link RoutageDataSource#cleLecture()}.
+     */
+    private class Lecture extends AbstractRoutingDataSource {
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return cleLecture();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.sorcier.config;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+/**
+ * Décide, pour chaque requête HTTP, si ses lectures peuvent aller aux réplicas.
+ * Après une requête de modification, les lectures de la même session restent sur la base
+ * primaire pendant une fenêtre configurable, pour voir ses propres écritures malgré le
+ * retard des réplicas. L'en-tête {@value #ENTETE} (true ou false) l'impose pour une requête.
+ * Ce filtre est seulement créé pour le profil 'sqlserver', avant la sécurité (connexion comprise).
+ */
+@Component
+@Profile("sqlserver")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RoutageLectureFilter extends OncePerRequestFilter {
+
+    // En-tête imposant (true) ou refusant (false) la lecture sur la base primaire.
+    static final String ENTETE = "X-Lecture-Primaire";
+
+    // Attribut de session : heure de la dernière requête de modification (ms).
+    static final String DERNIERE_ECRITURE = "sorcier.routage.derniereEcriture";
+
+    // Durée pendant laquelle une session lit ses propres écritures sur la primaire (ms, 0 pour désactiver).
+    @Value("${sorcier.routage.lecture-apres-ecriture-ms:5000}")
+    private long fenetreMs;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (lectureSurPrimaire(request)) {
+            RoutageDataSource.imposerPrimaire();
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RoutageDataSource.liberer();
+
+            // Une requête de modification rend la session collante à la base primaire.
+            HttpSession session = request.getSession(false);
+            if (fenetreMs > 0 && session != null && !methodeSure(request.getMethod())) {
+                session.setAttribute(DERNIERE_ECRITURE, System.currentTimeMillis());
+            }
+        }
+    }
+
+    /**
+     * Indique si les lectures de la requête doivent aller à la base primaire.
+     */
+    boolean lectureSurPrimaire(HttpServletRequest request) {
+        // L'en-tête l'emporte sur la fenêtre de lecture après écriture.
+        String entete = request.getHeader(ENTETE);
+        if (entete != null) {
+            return Boolean.parseBoolean(entete.trim());
+        }
+        HttpSession session = request.getSession(false);
+        if (fenetreMs <= 0 || session == null) {
+            return false;
+        }
+        return session.getAttribute(DERNIERE_ECRITURE) instanceof Long derniere
+                && System.currentTimeMillis() - derniere < fenetreMs;
+    }
+
+    /**
+     * Indique si une méthode HTTP est sans modification.
+     */
+    private static boolean methodeSure(String methode) {
+        return "GET".equals(methode) || "HEAD".equals(methode) || "OPTIONS".equals(methode);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.sorcier.config;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Limiteur à seaux de jetons, sans verrou, pour un nombre quelconque de clés.
+ * Les clés sont réparties par hachage sur un nombre fixe de seaux : la mémoire reste bornée
+ * même face à des millions de clés différentes, deux clés partageant parfois un seau.
+ * Chaque seau tient en un seul long, mis à jour par compare-and-set : l'heure théorique
+ * à laquelle il redeviendrait plein (algorithme GCRA, équivalent d'un seau de jetons).
+ */
+public class SeauxJetons {
+
+    private final AtomicLongArray seaux;
+    private final int masque;
+
+    // Intervalle entre deux jetons et avance tolérée (rafale), en microsecondes.
+    private final long intervalleMicros;
+    private final long toleranceMicros;
+
+    // Origine des instants : System.nanoTime() a une origine arbitraire, parfois négative,
+    // alors qu'un seau à 0 doit être plein.
+    private final long origineNanos = System.nanoTime();
+
+    /**
+     * Constructeur du limiteur.
+     *
+     * @param nombreSeaux - Le nombre de seaux, arrondi à la puissance de deux supérieure.
+     * @param parMinute - Le nombre de jetons rendus par minute.
+     * @param rafale - La contenance d'un seau, soit le nombre d'essais consécutifs permis.
+     */
+    public SeauxJetons(int nombreSeaux, int parMinute, int rafale) {
+        if (parMinute <= 0 || rafale <= 0) {
+            throw new IllegalArgumentException("Limite invalide : " + parMinute + "/min, rafale " + rafale);
+        }
+        int taille = Integer.highestOneBit(Math.max(1, nombreSeaux - 1)) << 1;
+        this.seaux = new AtomicLongArray(taille);
+        this.masque = taille - 1;
+        this.intervalleMicros = 60_000_000L / parMinute;
+        this.toleranceMicros = intervalleMicros * (rafale - 1);
+    }
+
+    /**
+     * Prend un jeton dans le seau de la clé, s'il en reste.
+     *
+     * @param cle - La clé limitée (nom d'utilisateur, adresse...).
+     * @return Vrai si le jeton a été pris, faux si le seau est vide.
+     */
+    public boolean prendre(String cle) {
+        return prendre(cle, (System.nanoTime() - origineNanos) / 1000);
+    }
+
+    /**
+     * Prend un jeton dans le seau de la clé, à l'instant donné.
+     *
+     * @param cle - La clé limitée.
+     * @param maintenantMicros - L'instant présent, en microsecondes depuis la création du limiteur.
+     * @return Vrai si le jeton a été pris, faux si le seau est vide.
+     */
+    boolean prendre(String cle, long maintenantMicros) {
+        int index = index(cle);
+        while (true) {
+            long plein = seaux.get(index);
+            long depart = Math.max(plein, maintenantMicros);
+
+            // Le seau est vide tant que son heure de remplissage dépasse la tolérance.
+            if (depart - maintenantMicros > toleranceMicros) {
+                return false;
+            }
+            if (seaux.compareAndSet(index, plein, depart + intervalleMicros)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Retourne le seau d'une clé, en mélangeant les bits de son hachage.
+     */
+    private int index(String cle) {
+        int hachage = cle.hashCode() * 0x9E3779B9;
+        return (hachage ^ (hachage >>> 16)) & masque;
+    }
+}
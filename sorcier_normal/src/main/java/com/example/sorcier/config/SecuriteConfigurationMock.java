@@ -19,13 +19,8 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 
-// Importe les classes pour le cryptage des mots de passe.
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
-
 // Importe les classes pour la gestion des utilisateurs en mémoire.
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
-import org.springframework.security.provisioning.UserDetailsManager;
 
 // Importe les classes pour configurer les filtres de sécurité.
 import org.springframework.security.web.SecurityFilterChain;
@@ -49,11 +44,13 @@ public class SecuriteConfigurationMock {
 	
 	/**
 	 * Configure et fournit un gestionnaire d'utilisateurs en mémoire.
+	 * Le gestionnaire sert aussi à remplacer, après une connexion réussie, un hachage
+	 * d'un coût inférieur ou d'un autre encodage que l'actuel.
 	 * 
 	 * @return le gestionnaire d'utilisateurs avec des utilisateurs chargés.
 	 */
     @Bean
-    public UserDetailsManager userDetailsManager() {
+    public InMemoryUserDetailsManager userDetailsManager() {
         List<UserDetails> userDetailsList = new ArrayList<>();
 
         // Convertit chaque utilisateur de la base de données simulée en UserDetails.
@@ -72,19 +69,18 @@ public class SecuriteConfigurationMock {
         });
 
         // Retourne un gestionnaire qui maintient les utilisateurs en mémoire.
-        return new InMemoryUserDetailsManager(userDetailsList);
+        return new InMemoryUserDetailsManager(userDetailsList) {
+            @Override
+            public UserDetails updatePassword(UserDetails user, String newPassword) {
+                // Reporte le nouveau hachage dans la base de données simulée.
+                singletonRepositoryMock.getUtilisateurs().stream()
+                        .filter(u -> u.getNom().equals(user.getUsername()))
+                        .forEach(u -> u.setMdpHash(newPassword));
+                return super.updatePassword(user, newPassword);
+            }
+        };
     }
     
-	/**
-	 * Bean pour encoder les mots de passe.
-	 * 
-	 * @return Encodeur de mot de passe.
-	 */
-    @Bean
-    PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
-
 	/**
 	 * Configure la chaîne de filtres de sécurité pour les requêtes HTTP.
 	 * 
@@ -113,7 +109,8 @@ public class SecuriteConfigurationMock {
 		// Configuration du formulaire de login.
 		http.formLogin(form -> {
 			form.loginPage("/connexion").permitAll()
-				.defaultSuccessUrl("/profil", true);
+				.defaultSuccessUrl("/profil", true)
+				.failureHandler(new EchecConnexionHandler());
 		});
 
 		// Configuration de la déconnexion.
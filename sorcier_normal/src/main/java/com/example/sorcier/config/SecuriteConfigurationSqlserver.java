@@ -1,8 +1,5 @@
 package com.example.sorcier.config;
 
-// Import pour l'interface DataSource.
-import javax.sql.DataSource;
-
 // Annotations pour la configuration de Spring.
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -13,20 +10,13 @@ import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 
-// Import pour les encodeurs de mots de passe.
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
-
-// Import pour la gestion des utilisateurs via JDBC.
-import org.springframework.security.provisioning.JdbcUserDetailsManager;
-import org.springframework.security.provisioning.UserDetailsManager;
-
 // Import pour configurer la chaîne de filtres de sécurité.
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 
 /**
  * Configuration de sécurité pour une base de données SQL Server.
+ * Les utilisateurs sont chargés, et leurs hachages mis à jour, par UtilisateurServiceSqlserver.
  */
 @Configuration
 @EnableWebSecurity
@@ -35,39 +25,6 @@ public class SecuriteConfigurationSqlserver {
     public static final String ADMIN = "ADMIN";
     public static final String INSCRIT = "INSCRIT";
 
-    /**
-     * Crée et configure un gestionnaire d'utilisateurs JDBC.
-     * 
-     * @param dataSource La source de données pour la connexion JDBC.
-     * @return Un gestionnaire d'utilisateurs JDBC configuré.
-     */
-    @Bean
-    UserDetailsManager userDetailsManager(DataSource dataSource) {
-        // Crée le gestionnaire d'utilisateurs JDBC.
-        JdbcUserDetailsManager jdbcUserDetailsManager = new JdbcUserDetailsManager(dataSource);
-        
-        // Définit la requête pour retrouver un utilisateur par son nom d'utilisateur.
-        jdbcUserDetailsManager.setUsersByUsernameQuery("SELECT nom, mdpHash, 1 FROM Utilisateur WHERE nom = ?");
-        
-        // Définit de la requête pour retrouver les rôles d'un utilisateur.
-        jdbcUserDetailsManager.setAuthoritiesByUsernameQuery(
-            "SELECT u.nom, r.role FROM Utilisateur AS u " +
-            "INNER JOIN Roles AS r ON u.id = r.id_utilisateur " +
-            "WHERE u.nom = ?"
-        );
-        return jdbcUserDetailsManager;
-    }
-    
-    /**
-     * Bean pour l'encodage des mots de passe.
-     * 
-     * @return Un encodeur de mots de passe.
-     */
-    @Bean
-    PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
-
     /**
      * Configure et crée la chaîne de filtres de sécurité pour les requêtes HTTP.
      * 
@@ -103,9 +60,12 @@ public class SecuriteConfigurationSqlserver {
                 .permitAll()
                 
                 // Spécifie l'URL de redirection après une authentification réussie.
-                .defaultSuccessUrl("/profil", true);
+                .defaultSuccessUrl("/profil", true)
                 // Le second paramètre 'true' garantit que l'utilisateur est toujours redirigé vers cette URL,
                 // ignoré si la demande précédente était dirigée vers une autre page sécurisée.
+
+                // Répond 503 si le hachage est saturé, sinon retourne au formulaire avec une erreur.
+                .failureHandler(new EchecConnexionHandler());
         });
 
         // Configuration de la déconnexion.
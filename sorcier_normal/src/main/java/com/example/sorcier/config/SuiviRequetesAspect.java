@@ -0,0 +1,229 @@
+package com.example.sorcier.config;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+// Annotations et points de jonction de la programmation par aspects.
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlProvider;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mesure chaque requête exécutée par JdbcTemplate et NamedParameterJdbcTemplate et
+ * l'attribue à la méthode de repository appelante. Les requêtes plus lentes que le seuil
+ * sont journalisées avec le nom de leurs paramètres, jamais avec leurs valeurs.
+ * Les templates qui ne sont pas des beans, comme ceux des partitions, sont créés par
+ * {@link #instrumenter(DataSource)} pour être mesurés de la même façon.
+ * Ce composant est seulement créé pour le profil 'sqlserver'.
+ */
+@Aspect
+@Component
+@Profile("sqlserver")
+public class SuiviRequetesAspect {
+
+    private MetriquesRequetes metriquesRequetes;
+
+    // Méthode de repository en cours d'exécution sur le thread.
+    private final ThreadLocal<String> methodeCourante = new ThreadLocal<>();
+
+    // Vrai pendant la mesure d'une requête, pour ne pas compter deux fois les appels imbriqués.
+    private final ThreadLocal<Boolean> requeteEnCours = new ThreadLocal<>();
+
+    // Durée au-delà de laquelle une requête est journalisée (ms).
+    @Value("${sorcier.requetes.seuil-lent-ms:200}")
+    private long seuilLentMs;
+
+    /**
+     * Constructeur pour initialiser les métriques alimentées par l'aspect.
+     *
+     * @param metriquesRequetes - Les métriques des requêtes.
+     */
+    public SuiviRequetesAspect(MetriquesRequetes metriquesRequetes) {
+        this.metriquesRequetes = metriquesRequetes;
+    }
+
+    /**
+     * Crée un template mesuré par cet aspect, pour une base qui n'a pas de template en bean.
+     * Le template JdbcTemplate sous-jacent est mesuré lui aussi (getJdbcTemplate()).
+     *
+     * @param base - La base interrogée.
+     * @return Le template avec paramètres nommés, mesuré.
+     */
+    public NamedParameterJdbcTemplate instrumenter(DataSource base) {
+        JdbcTemplate jdbcTemplate = mesure(new JdbcTemplateEcheance(base));
+        return mesure(new NamedParameterJdbcTemplate(jdbcTemplate));
+    }
+
+    /**
+     * Transmet la méthode de repository appelante à une tâche exécutée sur un autre thread,
+     * pour que ses requêtes lui soient attribuées.
+     *
+     * @param tache - La tâche, créée sur le thread appelant.
+     * @return La tâche qui reprend la méthode appelante.
+     */
+    public Runnable transmettreMethode(Runnable tache) {
+        String methode = methodeCourante.get();
+        return () -> {
+            methodeCourante.set(methode);
+            try {
+                tache.run();
+            } finally {
+                methodeCourante.remove();
+            }
+        };
+    }
+
+    /**
+     * Branche l'aspect sur un objet, comme Spring le fait pour les beans.
+     */
+    private <T> T mesure(T cible) {
+        AspectJProxyFactory fabrique = new AspectJProxyFactory(cible);
+        fabrique.setProxyTargetClass(true);
+        fabrique.addAspect(this);
+        return fabrique.getProxy();
+    }
+
+    /**
+     * Retient la méthode de repository appelée, à laquelle seront attribuées ses requêtes.
+     *
+     * @param point - L'appel de la méthode de repository.
+     * @return Le résultat de la méthode.
+     * @throws Throwable L'exception levée par la méthode.
+     */
+    @Around("execution(public * com.example.sorcier.dal.sqlserver..*(..))")
+    public Object suivreMethode(ProceedingJoinPoint point) throws Throwable {
+        String precedente = methodeCourante.get();
+        methodeCourante.set(point.getSignature().getDeclaringType().getSimpleName() + "."
+                + point.getSignature().getName());
+        try {
+            return point.proceed();
+        } finally {
+            // Rétablit la méthode appelante si un repository en a appelé un autre.
+            if (precedente == null) {
+                methodeCourante.remove();
+            } else {
+                methodeCourante.set(precedente);
+            }
+        }
+    }
+
+    /**
+     * Mesure la durée et le nombre de lignes d'une requête.
+     *
+     * @param point - L'appel de JdbcTemplate ou de NamedParameterJdbcTemplate.
+     * @return Le résultat de la requête.
+     * @throws Throwable L'exception levée par la requête.
+     */
+    @Around("(execution(public * org.springframework.jdbc.core.JdbcOperations.*(..))"
+            + " || execution(public * org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations.*(..)))"
+            + " && !execution(* getJdbcOperations())")
+    public Object mesurerRequete(ProceedingJoinPoint point) throws Throwable {
+        // NamedParameterJdbcTemplate délègue à JdbcTemplate : seul l'appel extérieur est mesuré.
+        if (requeteEnCours.get() != null) {
+            return point.proceed();
+        }
+        requeteEnCours.set(Boolean.TRUE);
+        long debut = System.nanoTime();
+        Object resultat = null;
+        try {
+            resultat = point.proceed();
+            return resultat;
+        } finally {
+            long dureeNanos = System.nanoTime() - debut;
+            requeteEnCours.remove();
+
+            String methode = methodeCourante.get() != null ? methodeCourante.get() : "(hors repository)";
+            String sql = texteSql(point.getArgs());
+            metriquesRequetes.enregistrer(methode, sql, dureeNanos,
+                    compterLignes(point.getSignature().getName(), resultat));
+
+            // Journalise les requêtes lentes, paramètres masqués.
+            long dureeMs = TimeUnit.NANOSECONDS.toMillis(dureeNanos);
+            if (dureeMs >= seuilLentMs) {
+                System.out.println("SRA : Requete lente (" + methode + ", " + dureeMs + " ms) : " + sql + " "
+                        + decrireParametres(point.getArgs()));
+            }
+        }
+    }
+
+    /**
+     * Retourne le texte de la requête, ou une mention s'il n'est pas connu (requête préparée à la main).
+     */
+    static String texteSql(Object[] args) {
+        if (args.length > 0 && args[0] instanceof String sql) {
+            return sql;
+        }
+        if (args.length > 0 && args[0] instanceof SqlProvider fournisseur && fournisseur.getSql() != null) {
+            return fournisseur.getSql();
+        }
+        return "(requete preparee)";
+    }
+
+    /**
+     * Décrit les paramètres d'une requête sans en révéler les valeurs.
+     */
+    static String decrireParametres(Object[] args) {
+        List<String> parametres = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            Object arg = args[i];
+            if (arg instanceof SqlParameterSource source && source.getParameterNames() != null) {
+                for (String nom : source.getParameterNames()) {
+                    parametres.add(nom + "=?");
+                }
+            } else if (arg instanceof Map<?, ?> valeurs) {
+                valeurs.keySet().forEach(nom -> parametres.add(nom + "=?"));
+            } else if (arg instanceof SqlParameterSource[] lot) {
+                parametres.add("lot de " + lot.length);
+            } else if (arg instanceof Map<?, ?>[] lot) {
+                parametres.add("lot de " + lot.length);
+            } else if (arg instanceof Object[] valeurs) {
+                for (int j = 0; j < valeurs.length; j++) {
+                    parametres.add("?");
+                }
+            }
+        }
+        return parametres.toString();
+    }
+
+    /**
+     * Compte les lignes modifiées par une mise à jour, ou les lignes lues par une requête.
+     */
+    static long compterLignes(String operation, Object resultat) {
+        if (resultat instanceof int[] comptes) {
+            long total = 0;
+            for (int compte : comptes) {
+                total += Math.max(compte, 0);
+            }
+            return total;
+        }
+        if (resultat instanceof int[][] lots) {
+            long total = 0;
+            for (int[] comptes : lots) {
+                total += compterLignes(operation, comptes);
+            }
+            return total;
+        }
+        if ("update".equals(operation) && resultat instanceof Number compte) {
+            return compte.longValue();
+        }
+        if (resultat instanceof Collection<?> lignes) {
+            return lignes.size();
+        }
+        // Un objet unique compte pour une ligne ; un traitement ligne à ligne n'est pas compté.
+        return resultat != null ? 1 : 0;
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.sorcier.config;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+import com.example.sorcier.dal.VersionRepository;
+
+/**
+ * Versions des sorciers, des maisons et des utilisateurs, incrémentées par les méthodes d'écriture des services.
+ * Les pages qui n'affichent que ces données en tirent un ETag et une date de dernière
+ * modification, et répondent 304 aux requêtes conditionnelles avant de lire la base.
+ * Les versions sont tenues par la base ({@link VersionRepository}), partagée par toutes les
+ * instances : chaque requête conditionnelle les relit, et une écriture faite par une autre
+ * instance déclenche aussi les actions enregistrées ici, comme une écriture locale.
+ */
+@Component
+public class VersionsDonnees {
+
+    // Types de données versionnés, tels qu'enregistrés par le repository.
+    private static final String SORCIERS = "sorciers";
+    private static final String MAISONS = "maisons";
+    private static final String UTILISATEURS = "utilisateurs";
+
+    private final VersionRepository versionRepository;
+
+    private final Version sorciers = new Version();
+    private final Version maisons = new Version();
+    private final Version utilisateurs = new Version();
+
+    // Délai entre deux relectures des versions par les caches, hors requêtes conditionnelles (ms).
+    @Value("${sorcier.versions.relecture-ms:1000}")
+    private long relectureMs = 1000;
+
+    // Heure de la dernière relecture des versions (System.nanoTime()).
+    private final AtomicLong relueLe = new AtomicLong(System.nanoTime());
+
+    /**
+     * Constructeur, qui lit les versions en cours.
+     *
+     * @param versionRepository - Le repository des versions, partagé entre les instances.
+     */
+    public VersionsDonnees(VersionRepository versionRepository) {
+        this.versionRepository = versionRepository;
+        rafraichir();
+    }
+
+    /**
+     * Signale une écriture des sorciers. Dans une transaction, la version n'est
+     * incrémentée qu'à sa fin : une page lue entre-temps ne peut pas porter la nouvelle version.
+     */
+    public void sorciersModifies() {
+        versionRepository.incrementer(SORCIERS);
+        rafraichirApresTransaction();
+    }
+
+    /**
+     * Signale une écriture des maisons, comme {@link #sorciersModifies()}.
+     */
+    public void maisonsModifiees() {
+        versionRepository.incrementer(MAISONS);
+        rafraichirApresTransaction();
+    }
+
+    /**
+     * Signale une écriture d'un utilisateur (mot de passe, sorcier, suppression),
+     * comme {@link #sorciersModifies()}.
+     */
+    public void utilisateursModifies() {
+        versionRepository.incrementer(UTILISATEURS);
+        rafraichirApresTransaction();
+    }
+
+    /**
+     * Enregistre une action à exécuter après chaque écriture des sorciers.
+     *
+     * @param ecouteur - L'action, appelée une fois la version incrémentée.
+     */
+    public void surSorciersModifies(Runnable ecouteur) {
+        sorciers.ecouteurs.add(ecouteur);
+    }
+
+    /**
+     * Enregistre une action à exécuter après chaque écriture des maisons.
+     *
+     * @param ecouteur - L'action, appelée une fois la version incrémentée.
+     */
+    public void surMaisonsModifiees(Runnable ecouteur) {
+        maisons.ecouteurs.add(ecouteur);
+    }
+
+    /**
+     * Enregistre une action à exécuter après chaque écriture des utilisateurs.
+     *
+     * @param ecouteur - L'action, appelée une fois la version incrémentée.
+     */
+    public void surUtilisateursModifies(Runnable ecouteur) {
+        utilisateurs.ecouteurs.add(ecouteur);
+    }
+
+    public long getVersionSorciers() {
+        return sorciers.numero.get();
+    }
+
+    public long getVersionMaisons() {
+        return maisons.numero.get();
+    }
+
+    /**
+     * Relit les versions partagées, et publie celles qui ont changé depuis la dernière lecture,
+     * par exemple après une écriture faite par une autre instance.
+     */
+    public void rafraichir() {
+        relueLe.set(System.nanoTime());
+        Map<String, long[]> versions = versionRepository.findAll();
+        sorciers.publier(versions.get(SORCIERS));
+        maisons.publier(versions.get(MAISONS));
+        utilisateurs.publier(versions.get(UTILISATEURS));
+    }
+
+    /**
+     * Relit les versions partagées si la dernière lecture date de plus de sorcier.versions.relecture-ms.
+     * Les caches l'appellent avant de servir une entrée : une écriture faite par une autre instance
+     * les vide au plus tard après ce délai. Un seul thread relit à la fois.
+     */
+    public void rafraichirSiAncien() {
+        long derniere = relueLe.get();
+        if (System.nanoTime() - derniere >= TimeUnit.MILLISECONDS.toNanos(relectureMs)
+                && relueLe.compareAndSet(derniere, System.nanoTime())) {
+            rafraichir();
+        }
+    }
+
+    /**
+     * Vérifie si la page demandée a changé depuis la version du client (If-None-Match,
+     * If-Modified-Since), et ajoute sinon l'ETag et la date de dernière modification à la réponse.
+     * La page dépend du rôle de l'utilisateur et du jeton CSRF de sa session : l'ETag en tient compte,
+     * et la réponse n'est gardée que par le navigateur. Sans session, la page est toujours produite.
+     *
+     * @param requete - La requête en cours.
+     * @param avecSorciers - Vrai si la page affiche des sorciers en plus des maisons.
+     * @return Vrai si la réponse 304 est prête : le contrôleur doit alors retourner null.
+     */
+    public boolean nonModifie(WebRequest requete, boolean avecSorciers) {
+        HttpServletRequest requeteHttp = ((NativeWebRequest) requete).getNativeRequest(HttpServletRequest.class);
+        HttpSession session = requeteHttp != null ? requeteHttp.getSession(false) : null;
+        if (session == null) {
+            return false;
+        }
+
+        // Relit les versions partagées avant toute lecture des données de la page.
+        rafraichir();
+        StringBuilder etag = new StringBuilder("W/\"m").append(maisons.numero.get());
+        long derniereModification = maisons.modifieLe;
+        if (avecSorciers) {
+            etag.append("-s").append(sorciers.numero.get());
+            derniereModification = Math.max(derniereModification, sorciers.modifieLe);
+        }
+        etag.append('-').append(role()).append('-')
+                .append(DigestUtils.md5DigestAsHex(session.getId().getBytes(StandardCharsets.UTF_8)), 0, 12)
+                .append('"');
+
+        // Le navigateur revalide la page à chaque affichage ; un cache partagé ne la garde pas.
+        HttpServletResponse reponse = ((NativeWebRequest) requete).getNativeResponse(HttpServletResponse.class);
+        if (reponse != null) {
+            reponse.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        }
+        return requete.checkNotModified(etag.toString(), derniereModification);
+    }
+
+    /**
+     * Retourne le rôle qui détermine le contenu des pages pour l'utilisateur courant.
+     */
+    private String role() {
+        Authentication authentification = SecurityContextHolder.getContext().getAuthentication();
+        if (authentification == null || !authentification.isAuthenticated()
+                || authentification instanceof AnonymousAuthenticationToken) {
+            return "anonyme";
+        }
+        boolean admin = authentification.getAuthorities().stream()
+                .anyMatch(autorite -> "ROLE_ADMIN".equals(autorite.getAuthority()));
+        return admin ? "admin" : "inscrit";
+    }
+
+    /**
+     * Relit les versions à la fin de la transaction en cours s'il y en a une,
+     * quand l'incrément est validé ou annulé avec l'écriture.
+     */
+    private void rafraichirApresTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int statut) {
+                    rafraichir();
+                }
+            });
+        } else {
+            rafraichir();
+        }
+    }
+
+    /**
+     * Version d'un type de données, date de sa dernière modification et actions à exécuter après.
+     */
+    private static class Version {
+        // -1 avant la première lecture, qui retient toujours la version de la base.
+        private final AtomicLong numero = new AtomicLong(-1);
+        private volatile long modifieLe = System.currentTimeMillis();
+        private final List<Runnable> ecouteurs = new CopyOnWriteArrayList<>();
+
+        /**
+         * Retient la version lue si elle est plus récente, puis exécute les actions.
+         */
+        private void publier(long[] lue) {
+            if (lue == null) {
+                return;
+            }
+            long ancien = numero.get();
+            while (lue[0] > ancien) {
+                if (numero.compareAndSet(ancien, lue[0])) {
+                    modifieLe = lue[1];
+                    for (Runnable ecouteur : ecouteurs) {
+                        ecouteur.run();
+                    }
+                    return;
+                }
+                ancien = numero.get();
+            }
+        }
+    }
+}
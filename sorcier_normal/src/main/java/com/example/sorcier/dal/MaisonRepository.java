@@ -1,8 +1,11 @@
 package com.example.sorcier.dal;
 
+import java.util.Collection;
 import java.util.List;
 
 import com.example.sorcier.bo.Maison;
+import com.example.sorcier.bo.ResultatInsertion;
+import com.example.sorcier.bo.Tri;
 
 public interface MaisonRepository {
     
@@ -30,6 +33,35 @@ public interface MaisonRepository {
      * @return La maison correspondant au nom spécifié
      */
     public Maison findByName(Maison maison);
+
+    /**
+     * Récupère en une fois les maisons portant l'un des noms donnés.
+     * 
+     * @param noms Les noms des maisons à rechercher
+     * @return Les maisons trouvées (les noms inconnus sont ignorés)
+     */
+    public List<Maison> findByNames(Collection<String> noms);
+
+    /**
+     * Récupère une page de maisons triées, à partir d'un curseur.
+     * Sans curseur, la page commence à la première maison selon le tri.
+     * 
+     * @param tri Le critère de tri
+     * @param apresId L'identifiant de la maison après laquelle commence la page, ou null
+     * @param avantId L'identifiant de la maison avant laquelle se termine la page, ou null
+     * @param limite Le nombre maximal de maisons à retourner
+     * @return Les maisons de la page, dans l'ordre du tri
+     */
+    public List<Maison> findPage(Tri tri, Integer apresId, Integer avantId, int limite);
+
+    /**
+     * Recherche les maisons dont le nom commence par le terme, sans tenir compte de la casse.
+     * 
+     * @param terme Le terme à rechercher
+     * @param limite Le nombre maximal de maisons à retourner
+     * @return Les maisons trouvées, triées par nom
+     */
+    public List<Maison> search(String terme, int limite);
     
     /**
      * Supprime une maison par son identifiant.
@@ -38,12 +70,38 @@ public interface MaisonRepository {
      */
     public void removeById(int id);
 
+    /**
+     * Supprime une maison si aucun sorcier n'y est rattaché, en une seule opération.
+     * 
+     * @param id L'identifiant de la maison à supprimer
+     * @return Vrai si la maison a été supprimée, faux si elle est utilisée ou inexistante
+     */
+    public boolean removeIfUnused(int id);
+
     /**
      * Sauvegarde une maison.
      * 
      * @param maison La maison à sauvegarder
      */
     public void save(Maison maison);
+
+    /**
+     * Sauvegarde une maison s'il n'existe pas déjà une maison de même nom.
+     * La maison créée reçoit l'identifiant généré.
+     * 
+     * @param maison La maison à sauvegarder
+     * @return L'identifiant de la maison créée, ou celui de la maison existante
+     */
+    public ResultatInsertion insertIfAbsent(Maison maison);
+
+    /**
+     * Sauvegarde plusieurs maisons en une série de lots.
+     * Chaque maison reçoit l'identifiant généré.
+     * 
+     * @param maisons Les maisons à sauvegarder
+     * @return Les identifiants générés, dans l'ordre de la liste
+     */
+    public List<Integer> saveAll(List<Maison> maisons);
     
     /**
      * Met à jour une maison.
@@ -1,5 +1,7 @@
 package com.example.sorcier.dal;
 
+import java.util.List;
+
 public interface RoleRepository {
 
     // FONCTIONS DAL
@@ -12,6 +14,14 @@ public interface RoleRepository {
      */
     public void save(int id_utilisateur, String role);
 
+    /**
+     * Sauvegarde en un seul lot plusieurs rôles pour un utilisateur.
+     * 
+     * @param id_utilisateur - L'id de l'utilisateur.
+     * @param roles - Les rôles à sauvegarder.
+     */
+    public void saveAll(int id_utilisateur, List<String> roles);
+
     /**
      * Supprime tous les rôles associés à un utilisateur.
      * 
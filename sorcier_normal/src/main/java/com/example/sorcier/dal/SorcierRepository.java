@@ -1,8 +1,12 @@
 package com.example.sorcier.dal;
 
 import java.util.List;
+import java.util.function.Consumer;
 
+import com.example.sorcier.bo.ResultatInsertion;
 import com.example.sorcier.bo.Sorcier;
+import com.example.sorcier.bo.StatistiqueMaison;
+import com.example.sorcier.bo.Tri;
 
 public interface SorcierRepository {
 
@@ -15,6 +19,13 @@ public interface SorcierRepository {
      */
     public List<Sorcier> findAll();
     
+    /**
+     * Parcourt tous les sorciers, par ordre d'id, sans les charger en mémoire.
+     * 
+     * @param consommateur - Le traitement appliqué à chaque sorcier lu.
+     */
+    public void streamAll(Consumer<Sorcier> consommateur);
+    
     /**
      * Récupère un sorcier par son identifiant.
      * 
@@ -38,6 +49,44 @@ public interface SorcierRepository {
      * @return Le sorcier correspondant au nom spécifié.
      */
 	Sorcier findByName(Sorcier sorcier);
+
+    /**
+     * Récupère une page de sorciers triés, à partir d'un curseur.
+     * Sans curseur, la page commence au premier sorcier selon le tri.
+     * 
+     * @param tri - Le critère de tri.
+     * @param apresId - L'id du sorcier après lequel commence la page, ou null.
+     * @param avantId - L'id du sorcier avant lequel se termine la page, ou null.
+     * @param limite - Le nombre maximal de sorciers à retourner.
+     * @return Les sorciers de la page, dans l'ordre du tri.
+     */
+    public List<Sorcier> findPage(Tri tri, Integer apresId, Integer avantId, int limite);
+
+    /**
+     * Recherche les sorciers dont le nom, le prénom ou le nom de la maison
+     * commence par le terme, sans tenir compte de la casse.
+     * 
+     * @param terme - Le terme à rechercher.
+     * @param limite - Le nombre maximal de sorciers à retourner.
+     * @return Les sorciers trouvés, triés par nom.
+     */
+    public List<Sorcier> search(String terme, int limite);
+    
+    /**
+     * Compte les sorciers.
+     * 
+     * @return Le nombre de sorciers.
+     */
+    public int count();
+
+    /**
+     * Calcule, pour chaque maison, le nombre de sorciers et les moyennes,
+     * minimums et maximums de leur attaque et de leur santé.
+     * Les maisons sans sorcier sont incluses.
+     * 
+     * @return Les statistiques des maisons, triées par nom de maison.
+     */
+    public List<StatistiqueMaison> statsByMaison();
     
     /**
      * Supprime un sorcier par son identifiant.
@@ -46,12 +95,38 @@ public interface SorcierRepository {
      */
     public void removeById(int id);
 
+    /**
+     * Supprime un sorcier si aucun utilisateur ne l'a choisi, en une seule opération.
+     * 
+     * @param id - L'id du sorcier à supprimer.
+     * @return Vrai si le sorcier a été supprimé, faux s'il est utilisé ou inexistant.
+     */
+    public boolean removeIfUnused(int id);
+
     /**
      * Sauvegarde un sorcier.
      * 
      * @param sorcier - Le sorcier à sauvegarder
      */
     public void save(Sorcier sorcier);
+
+    /**
+     * Sauvegarde un sorcier s'il n'existe pas déjà un sorcier de même nom et prénom.
+     * Le sorcier créé reçoit l'identifiant généré.
+     * 
+     * @param sorcier - Le sorcier à sauvegarder.
+     * @return L'identifiant du sorcier créé, ou celui du sorcier existant.
+     */
+    public ResultatInsertion insertIfAbsent(Sorcier sorcier);
+
+    /**
+     * Sauvegarde plusieurs sorciers en une série de lots.
+     * Chaque sorcier reçoit l'identifiant généré.
+     * 
+     * @param sorciers - Les sorciers à sauvegarder, leur maison devant exister.
+     * @return Les identifiants générés, dans l'ordre de la liste.
+     */
+    public List<Integer> saveAll(List<Sorcier> sorciers);
     
     /**
      * Met à jour un sorcier.
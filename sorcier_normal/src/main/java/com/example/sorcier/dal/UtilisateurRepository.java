@@ -1,5 +1,6 @@
 package com.example.sorcier.dal;
 
+import com.example.sorcier.bo.ResultatInsertion;
 import com.example.sorcier.bo.Utilisateur;
 
 public interface UtilisateurRepository {
@@ -35,6 +36,15 @@ public interface UtilisateurRepository {
      * @param utilisateur - L'utilisateur à sauvegarder.
      */
     public void save(Utilisateur utilisateur);
+
+    /**
+     * Sauvegarde un utilisateur s'il n'existe pas déjà un utilisateur de même nom.
+     * L'utilisateur créé reçoit l'identifiant généré.
+     * 
+     * @param utilisateur - L'utilisateur à sauvegarder.
+     * @return L'identifiant de l'utilisateur créé, ou celui de l'utilisateur existant.
+     */
+    public ResultatInsertion insertIfAbsent(Utilisateur utilisateur);
     
     /**
      * Met à jour un utilisateur.
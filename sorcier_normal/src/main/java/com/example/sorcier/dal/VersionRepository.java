@@ -0,0 +1,23 @@
+package com.example.sorcier.dal;
+
+import java.util.Map;
+
+public interface VersionRepository {
+
+    // FONCTIONS DAL
+
+    /**
+     * Incrémente la version d'un type de données, dans la transaction de l'écriture en cours s'il y en a une.
+     *
+     * @param donnees - Le type de données modifié (sorciers, maisons).
+     */
+    public void incrementer(String donnees);
+
+    /**
+     * Lit les versions de tous les types de données.
+     *
+     * @return Par type de données, le numéro de version et la date de dernière modification (ms).
+     */
+    public Map<String, long[]> findAll();
+
+}
@@ -2,7 +2,10 @@ package com.example.sorcier.dal.mock;
 
 // Importe pour gérer les listes en Java.
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Collectors;
 
 // Annotations Spring pour définir le profil et la nature de la classe.
 import org.springframework.context.annotation.Profile;
@@ -10,7 +13,9 @@ import org.springframework.stereotype.Repository;
 
 // Importe les classes métier.
 import com.example.sorcier.bo.Maison;
+import com.example.sorcier.bo.ResultatInsertion;
 import com.example.sorcier.bo.Sorcier;
+import com.example.sorcier.bo.Tri;
 // Importe l'interface de la couche d'accès aux données pour les maisons.
 import com.example.sorcier.dal.MaisonRepository;
 
@@ -75,6 +80,70 @@ public class MaisonRepositoryMock implements MaisonRepository {
                       .orElse(null);
     }
     
+    /**
+     * Trouve les maisons portant l'un des noms donnés, sans tenir compte de la casse.
+     * @param noms Les noms des maisons à rechercher.
+     * @return Les maisons trouvées.
+     */
+    @Override
+    public List<Maison> findByNames(Collection<String> noms) {
+        return maisons.stream()
+                      .filter(m -> noms.stream().anyMatch(nom -> nom.equalsIgnoreCase(m.getNom())))
+                      .collect(Collectors.toList());
+    }
+
+    /**
+     * Retourne une page de maisons triées, à partir d'un curseur.
+     * @param tri Le critère de tri.
+     * @param apresId L'ID de la maison après laquelle commence la page, ou null.
+     * @param avantId L'ID de la maison avant laquelle se termine la page, ou null.
+     * @param limite Le nombre maximal de maisons à retourner.
+     * @return Les maisons de la page, dans l'ordre du tri.
+     */
+    @Override
+    public List<Maison> findPage(Tri tri, Integer apresId, Integer avantId, int limite) {
+        Comparator<Maison> comparateur = tri.comparateurMaisons();
+        if (avantId != null) {
+            Maison curseur = findById(avantId);
+            if (curseur == null) {
+                return new ArrayList<>(); // Curseur inconnu : page vide.
+            }
+            // Lit les maisons précédant le curseur à rebours, puis les remet dans l'ordre du tri.
+            List<Maison> page = maisons.stream()
+                                       .filter(m -> comparateur.compare(m, curseur) < 0)
+                                       .sorted(comparateur.reversed())
+                                       .limit(limite)
+                                       .collect(Collectors.toList());
+            page.sort(comparateur);
+            return page;
+        }
+        Maison curseur = apresId != null ? findById(apresId) : null;
+        if (apresId != null && curseur == null) {
+            return new ArrayList<>(); // Curseur inconnu : page vide.
+        }
+        return maisons.stream()
+                      .filter(m -> curseur == null || comparateur.compare(m, curseur) > 0)
+                      .sorted(comparateur)
+                      .limit(limite)
+                      .collect(Collectors.toList()); // Retourne les maisons suivant le curseur.
+    }
+
+    /**
+     * Recherche les maisons dont le nom commence par le terme.
+     * @param terme Le terme à rechercher, sans tenir compte de la casse.
+     * @param limite Le nombre maximal de maisons à retourner.
+     * @return Les maisons trouvées, triées par nom.
+     */
+    @Override
+    public List<Maison> search(String terme, int limite) {
+        String motif = terme.trim().toLowerCase(); // Met le terme en minuscules une seule fois.
+        return maisons.stream()
+                      .filter(m -> m.getNom().toLowerCase().startsWith(motif))
+                      .sorted(Tri.NOM.comparateurMaisons())
+                      .limit(limite)
+                      .collect(Collectors.toList()); // Collecte et retourne les maisons trouvées.
+    }
+
     /**
      * Supprime une maison par son ID, si aucun sorcier n'est lié à cette maison.
      * @param id L'ID de la maison à supprimer.
@@ -93,6 +162,20 @@ public class MaisonRepositoryMock implements MaisonRepository {
         }
     }
 
+    /**
+     * Supprime une maison par son ID si aucun sorcier n'est lié à cette maison.
+     * @param id L'ID de la maison à supprimer.
+     * @return Vrai si la maison a été supprimée.
+     */
+    @Override
+    public boolean removeIfUnused(int id) {
+        // S'arrête au premier sorcier lié à cette maison.
+        boolean utilisee = sorciers.stream()
+                                   .anyMatch(s -> s.getMaison() != null && s.getMaison().getId() == id);
+        // Supprime la maison uniquement si aucun sorcier n'est lié.
+        return !utilisee && maisons.removeIf(m -> m.getId() == id);
+    }
+
     /**
      * Ajoute une nouvelle maison à la liste.
      * @param maison La nouvelle maison à ajouter.
@@ -104,6 +187,36 @@ public class MaisonRepositoryMock implements MaisonRepository {
         maisons.add(maison);
     }
 
+    /**
+     * Ajoute une maison s'il n'existe pas déjà une maison de même nom.
+     * @param maison La maison à ajouter.
+     * @return L'ID de la maison ajoutée, ou celui de la maison existante.
+     */
+    @Override
+    public synchronized ResultatInsertion insertIfAbsent(Maison maison) {
+        Maison existante = findByName(maison); // Cherche une maison de même nom.
+        if (existante != null) {
+            return new ResultatInsertion(existante.getId(), false);
+        }
+        save(maison); // Ajoute la maison, qui reçoit un nouvel ID.
+        return new ResultatInsertion(maison.getId(), true);
+    }
+
+    /**
+     * Ajoute plusieurs maisons à la liste.
+     * @param maisons Les maisons à ajouter.
+     * @return Les IDs attribués, dans l'ordre de la liste.
+     */
+    @Override
+    public List<Integer> saveAll(List<Maison> maisons) {
+        List<Integer> ids = new ArrayList<>(maisons.size());
+        for (Maison maison : maisons) {
+            save(maison); // Attribue un ID et ajoute la maison.
+            ids.add(maison.getId());
+        }
+        return ids;
+    }
+
     /**
      * Met à jour les informations d'une maison existante.
      * @param maison Les nouvelles informations de la maison.
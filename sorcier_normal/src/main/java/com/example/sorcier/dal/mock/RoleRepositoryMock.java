@@ -50,6 +50,17 @@ public class RoleRepositoryMock implements RoleRepository {
         System.out.println(role);
     }
 
+    /**
+     * Ajoute plusieurs rôles à la liste pour un même utilisateur.
+     * @param id_utilisateur L'identifiant de l'utilisateur auquel les rôles sont attribués.
+     * @param nomsRoles Les noms des rôles à ajouter.
+     */
+    @Override
+    public void saveAll(int id_utilisateur, List<String> nomsRoles) {
+        // Ajoute chaque rôle comme un ajout unitaire.
+        nomsRoles.forEach(nomRole -> save(id_utilisateur, nomRole));
+    }
+
     /**
      * Supprime les rôles associés à un utilisateur spécifique.
      * @param id_utilisateur L'identifiant de l'utilisateur dont les rôles doivent être supprimés.
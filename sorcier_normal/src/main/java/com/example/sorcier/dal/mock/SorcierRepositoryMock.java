@@ -2,15 +2,25 @@ package com.example.sorcier.dal.mock;
 
 // Utilisé pour la gestion des listes en Java.
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Comparator;
+import java.util.IntSummaryStatistics;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 // Annotations Spring pour la configuration du repository.
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
-// Importe la classe métier Sorcier.
+// Importe les classes métier.
+import com.example.sorcier.bo.Maison;
+import com.example.sorcier.bo.ResultatInsertion;
 import com.example.sorcier.bo.Sorcier;
+import com.example.sorcier.bo.StatistiqueMaison;
+import com.example.sorcier.bo.Utilisateur;
+import com.example.sorcier.bo.Tri;
 // Importe l'interface de la couche d'accès aux données pour les sorciers.
 import com.example.sorcier.dal.SorcierRepository;
 
@@ -21,6 +31,8 @@ import com.example.sorcier.dal.SorcierRepository;
 @Profile("dev") // Ce repository est utilisé uniquement pour le profil de développement.
 public class SorcierRepositoryMock implements SorcierRepository {
     private List<Sorcier> sorciers = new ArrayList<>();
+    private List<Maison> maisons = new ArrayList<>();
+    private List<Utilisateur> utilisateurs = new ArrayList<>();
     private int idIndex;
 
     /**
@@ -31,6 +43,10 @@ public class SorcierRepositoryMock implements SorcierRepository {
         SingletonRepositoryMock singletonRepositoryMock = SingletonRepositoryMock.getInstance();
         // Initialise la liste des sorciers avec les données du singleton.
         sorciers = singletonRepositoryMock.getSorciers();
+        // Récupère les maisons pour les statistiques.
+        maisons = singletonRepositoryMock.getMaisons();
+        // Récupère les utilisateurs, qui peuvent avoir choisi un sorcier.
+        utilisateurs = singletonRepositoryMock.getUtilisateurs();
         // Définit l'index de l'ID en se basant sur la taille de la liste des sorciers.
         idIndex = sorciers.size() + 1;
     }
@@ -44,6 +60,17 @@ public class SorcierRepositoryMock implements SorcierRepository {
         return sorciers; // Retourne la liste complète des sorciers.
     }
 
+    /**
+     * Parcourt tous les sorciers par ordre d'ID.
+     * @param consommateur Le traitement appliqué à chaque sorcier.
+     */
+    @Override
+    public void streamAll(Consumer<Sorcier> consommateur) {
+        sorciers.stream()
+                .sorted(Comparator.comparingInt(Sorcier::getId))
+                .forEach(consommateur); // Transmet chaque sorcier au traitement.
+    }
+
     /**
      * Trouve un sorcier par son ID.
      * @param id L'ID du sorcier à trouver.
@@ -82,6 +109,103 @@ public class SorcierRepositoryMock implements SorcierRepository {
                        .orElse(null); // Cherche et retourne le sorcier par son nom et prénom ou null si non trouvé.
     }
 
+    /**
+     * Retourne une page de sorciers triés, à partir d'un curseur.
+     * @param tri Le critère de tri.
+     * @param apresId L'ID du sorcier après lequel commence la page, ou null.
+     * @param avantId L'ID du sorcier avant lequel se termine la page, ou null.
+     * @param limite Le nombre maximal de sorciers à retourner.
+     * @return Les sorciers de la page, dans l'ordre du tri.
+     */
+    @Override
+    public List<Sorcier> findPage(Tri tri, Integer apresId, Integer avantId, int limite) {
+        Comparator<Sorcier> comparateur = tri.comparateurSorciers();
+        if (avantId != null) {
+            Sorcier curseur = findById(avantId);
+            if (curseur == null) {
+                return new ArrayList<>(); // Curseur inconnu : page vide.
+            }
+            // Lit les sorciers précédant le curseur à rebours, puis les remet dans l'ordre du tri.
+            List<Sorcier> page = sorciers.stream()
+                                         .filter(s -> comparateur.compare(s, curseur) < 0)
+                                         .sorted(comparateur.reversed())
+                                         .limit(limite)
+                                         .collect(Collectors.toList());
+            page.sort(comparateur);
+            return page;
+        }
+        Sorcier curseur = apresId != null ? findById(apresId) : null;
+        if (apresId != null && curseur == null) {
+            return new ArrayList<>(); // Curseur inconnu : page vide.
+        }
+        return sorciers.stream()
+                       .filter(s -> curseur == null || comparateur.compare(s, curseur) > 0)
+                       .sorted(comparateur)
+                       .limit(limite)
+                       .collect(Collectors.toList()); // Retourne les sorciers suivant le curseur.
+    }
+
+    /**
+     * Recherche les sorciers dont le nom, le prénom ou le nom de la maison commence par le terme.
+     * @param terme Le terme à rechercher, sans tenir compte de la casse.
+     * @param limite Le nombre maximal de sorciers à retourner.
+     * @return Les sorciers trouvés, triés par nom.
+     */
+    @Override
+    public List<Sorcier> search(String terme, int limite) {
+        String motif = terme.trim().toLowerCase(); // Met le terme en minuscules une seule fois.
+        return sorciers.stream()
+                       .filter(s -> s.getNom().toLowerCase().startsWith(motif)
+                               || s.getPrenom().toLowerCase().startsWith(motif)
+                               || s.getMaison().getNom().toLowerCase().startsWith(motif))
+                       .sorted(Tri.NOM.comparateurSorciers())
+                       .limit(limite)
+                       .collect(Collectors.toList()); // Collecte et retourne les sorciers trouvés.
+    }
+
+    /**
+     * Compte les sorciers.
+     * @return Le nombre de sorciers.
+     */
+    @Override
+    public int count() {
+        return sorciers.size(); // Retourne la taille de la liste, sans la parcourir.
+    }
+
+    /**
+     * Calcule les statistiques des sorciers par maison en un seul parcours.
+     * @return Les statistiques de toutes les maisons, triées par nom.
+     */
+    @Override
+    public List<StatistiqueMaison> statsByMaison() {
+        // Cumule l'attaque et la santé des sorciers, par ID de maison.
+        Map<Integer, IntSummaryStatistics> attaques = new HashMap<>();
+        Map<Integer, IntSummaryStatistics> santes = new HashMap<>();
+        for (Sorcier sorcier : sorciers) {
+            if (sorcier.getMaison() == null) {
+                continue;
+            }
+            int idMaison = sorcier.getMaison().getId();
+            attaques.computeIfAbsent(idMaison, id -> new IntSummaryStatistics()).accept(sorcier.getAttaque());
+            santes.computeIfAbsent(idMaison, id -> new IntSummaryStatistics()).accept(sorcier.getSante());
+        }
+
+        // Construit une ligne par maison, comme la jointure externe de la version SQL.
+        return maisons.stream()
+                      .sorted(Comparator.comparing(Maison::getNom, String.CASE_INSENSITIVE_ORDER))
+                      .map(m -> {
+                          IntSummaryStatistics attaque = attaques.get(m.getId());
+                          IntSummaryStatistics sante = santes.get(m.getId());
+                          if (attaque == null) {
+                              return new StatistiqueMaison(m, 0, null, null, null, null, null, null);
+                          }
+                          return new StatistiqueMaison(m, (int) attaque.getCount(),
+                                  attaque.getAverage(), attaque.getMin(), attaque.getMax(),
+                                  sante.getAverage(), sante.getMin(), sante.getMax());
+                      })
+                      .collect(Collectors.toList());
+    }
+
     /**
      * Supprime un sorcier par son ID.
      * @param id L'ID du sorcier à supprimer.
@@ -91,6 +215,20 @@ public class SorcierRepositoryMock implements SorcierRepository {
         sorciers.removeIf(s -> s.getId() == id); // Supprime le sorcier correspondant à l'ID donné.
     }
 
+    /**
+     * Supprime un sorcier par son ID si aucun utilisateur ne l'a choisi.
+     * @param id L'ID du sorcier à supprimer.
+     * @return Vrai si le sorcier a été supprimé.
+     */
+    @Override
+    public boolean removeIfUnused(int id) {
+        // S'arrête au premier utilisateur lié à ce sorcier.
+        boolean utilise = utilisateurs.stream()
+                                      .anyMatch(u -> u.getSorcier() != null && u.getSorcier().getId() == id);
+        // Supprime le sorcier uniquement si aucun utilisateur n'est lié.
+        return !utilise && sorciers.removeIf(s -> s.getId() == id);
+    }
+
     /**
      * Ajoute un nouveau sorcier à la liste.
      * @param sorcier Le nouveau sorcier à ajouter.
@@ -102,6 +240,36 @@ public class SorcierRepositoryMock implements SorcierRepository {
         sorciers.add(sorcier); // Ajoute le sorcier à la liste.
     }
 
+    /**
+     * Ajoute un sorcier s'il n'existe pas déjà un sorcier de même nom et prénom.
+     * @param sorcier Le sorcier à ajouter.
+     * @return L'ID du sorcier ajouté, ou celui du sorcier existant.
+     */
+    @Override
+    public synchronized ResultatInsertion insertIfAbsent(Sorcier sorcier) {
+        Sorcier existant = findByName(sorcier); // Cherche un sorcier de même nom et prénom.
+        if (existant != null) {
+            return new ResultatInsertion(existant.getId(), false);
+        }
+        save(sorcier); // Ajoute le sorcier, qui reçoit un nouvel ID.
+        return new ResultatInsertion(sorcier.getId(), true);
+    }
+
+    /**
+     * Ajoute plusieurs sorciers à la liste.
+     * @param sorciers Les sorciers à ajouter.
+     * @return Les IDs attribués, dans l'ordre de la liste.
+     */
+    @Override
+    public List<Integer> saveAll(List<Sorcier> sorciers) {
+        List<Integer> ids = new ArrayList<>(sorciers.size());
+        for (Sorcier sorcier : sorciers) {
+            save(sorcier); // Attribue un ID et ajoute le sorcier.
+            ids.add(sorcier.getId());
+        }
+        return ids;
+    }
+
     /**
      * Met à jour les informations d'un sorcier existant.
      * @param sorcier Le sorcier avec les informations mises à jour.
@@ -7,6 +7,7 @@ import java.util.List;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
+import com.example.sorcier.bo.ResultatInsertion;
 import com.example.sorcier.bo.Utilisateur;
 import com.example.sorcier.dal.UtilisateurRepository;
 
@@ -85,6 +86,21 @@ public class UtilisateurRepositoryMock implements UtilisateurRepository {
         System.out.println(utilisateur);
     }
 
+    /**
+     * Ajoute un utilisateur s'il n'existe pas déjà un utilisateur de même nom.
+     * @param utilisateur L'utilisateur à ajouter.
+     * @return L'ID de l'utilisateur ajouté, ou celui de l'utilisateur existant.
+     */
+    @Override
+    public synchronized ResultatInsertion insertIfAbsent(Utilisateur utilisateur) {
+        Utilisateur existant = findByName(utilisateur.getNom()); // Cherche un utilisateur de même nom.
+        if (existant != null) {
+            return new ResultatInsertion(existant.getId(), false);
+        }
+        save(utilisateur); // Ajoute l'utilisateur, qui reçoit un nouvel ID.
+        return new ResultatInsertion(utilisateur.getId(), true);
+    }
+
     /**
      * Met à jour les informations d'un utilisateur existant.
      * @param utilisateur L'utilisateur avec les informations mises à jour.
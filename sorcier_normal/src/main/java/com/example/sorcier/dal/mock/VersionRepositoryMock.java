@@ -0,0 +1,51 @@
+package com.example.sorcier.dal.mock;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Annotations Spring pour définir le profil et la nature de la classe.
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+// Importe l'interface de la couche d'accès aux données pour les versions.
+import com.example.sorcier.dal.VersionRepository;
+
+/**
+ * Implémentation de simulation pour le repository des versions, en mémoire.
+ * Les numéros partent de l'heure de démarrage : un redémarrage ne reprend pas
+ * des numéros déjà connus des navigateurs.
+ */
+@Repository
+@Profile("dev")  // Ce repository est utilisé uniquement pour le profil de développement.
+public class VersionRepositoryMock implements VersionRepository {
+    private final long demarrage = System.currentTimeMillis();
+    private final Map<String, long[]> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Constructeur pour initialiser les versions, comme les lignes de la table version_donnees.
+     */
+    public VersionRepositoryMock() {
+        versions.put("sorciers", new long[] { demarrage, demarrage });
+        versions.put("maisons", new long[] { demarrage, demarrage });
+        versions.put("utilisateurs", new long[] { demarrage, demarrage });
+    }
+
+    /**
+     * Incrémente la version d'un type de données.
+     * @param donnees Le type de données modifié.
+     */
+    @Override
+    public void incrementer(String donnees) {
+        versions.computeIfPresent(donnees, (cle, version) -> new long[] { version[0] + 1, System.currentTimeMillis() });
+    }
+
+    /**
+     * Lit les versions de tous les types de données.
+     * @return Les versions, par type de données.
+     */
+    @Override
+    public Map<String, long[]> findAll() {
+        return new HashMap<>(versions);  // Retourne une copie, les versions continuant d'évoluer.
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.sorcier.dal.rowmapper;
+
+// Import pour utiliser le RowMapper de Spring.
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Base des mappers lisant les colonnes par position plutôt que par nom.
+ * Les positions des colonnes sont cherchées à la première ligne, puis chaque ligne
+ * est lue par index, sans comparaison de libellés ni réflexion.
+ * Un mapper ne sert qu'à une seule requête : il est créé pour chaque requête,
+ * et n'est ni réutilisé ni partagé entre threads.
+ *
+ * @param <T> - Le type d'objet construit pour chaque ligne.
+ */
+public abstract class RowMapperIndexe<T> implements RowMapper<T> {
+
+	// Libellés des colonnes lues, dans l'ordre des index passés aux sous-classes.
+	private final String[] colonnes;
+
+	// Positions des colonnes dans le ResultSet de la requête, résolues à la première ligne.
+	private int[] index;
+
+	/**
+	 * Constructeur avec la liste des colonnes lues par le mapper.
+	 *
+	 * @param colonnes - Les libellés des colonnes, tels qu'écrits dans les requêtes.
+	 */
+	protected RowMapperIndexe(String... colonnes) {
+		this.colonnes = colonnes;
+	}
+
+	/**
+	 * Résout les positions des colonnes à la première ligne, puis mappe la ligne.
+	 *
+	 * @param rs - Le ResultSet à mapper.
+	 * @param rowNum - Le numéro de la ligne actuelle.
+	 * @return L'objet construit à partir de la ligne.
+	 * @throws SQLException Si une colonne est absente ou si une erreur SQL survient.
+	 */
+	@Override
+	public final T mapRow(ResultSet rs, int rowNum) throws SQLException {
+		// Cherche les positions une seule fois pour la requête.
+		if (index == null) {
+			int[] positions = new int[colonnes.length];
+			for (int i = 0; i < colonnes.length; i++) {
+				positions[i] = rs.findColumn(colonnes[i]);
+			}
+			index = positions;
+		}
+		return mapper(rs, index, rowNum);
+	}
+
+	/**
+	 * Construit l'objet de la ligne courante.
+	 *
+	 * @param rs - Le ResultSet positionné sur la ligne.
+	 * @param index - Les positions des colonnes, dans l'ordre du constructeur.
+	 * @param rowNum - Le numéro de la ligne actuelle.
+	 * @return L'objet construit.
+	 * @throws SQLException Si une erreur SQL survient.
+	 */
+	protected abstract T mapper(ResultSet rs, int[] index, int rowNum) throws SQLException;
+}
@@ -0,0 +1,63 @@
+package com.example.sorcier.dal.rowmapper;
+
+// Import pour utiliser le RowMapper de Spring.
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Mapper des entités liées dans une jointure (la maison d'un sorcier, le sorcier
+ * d'un utilisateur) : dans une même requête, une entité n'est construite qu'une
+ * fois par identifiant, et la même instance est rendue pour toutes les lignes qui la citent.
+ * Les instances partagées ne doivent donc pas être modifiées par l'appelant.
+ *
+ * @param <T> - Le type de l'entité liée.
+ */
+public class RowMapperPartage<T> extends RowMapperIndexe<T> {
+
+	// Mapper qui construit l'entité la première fois qu'un identifiant est lu.
+	private final RowMapper<T> mapper;
+
+	// Instances déjà construites pour la requête, par identifiant.
+	private final Map<Integer, T> instances = new HashMap<>();
+
+	/**
+	 * Constructeur avec la colonne d'identifiant et le mapper de l'entité.
+	 *
+	 * @param colonneId - Le libellé de la colonne d'identifiant de l'entité.
+	 * @param mapper - Le mapper construisant l'entité.
+	 */
+	public RowMapperPartage(String colonneId, RowMapper<T> mapper) {
+		super(colonneId);
+		this.mapper = mapper;
+	}
+
+	/**
+	 * Retourne l'entité de la ligne, construite seulement si son identifiant n'a pas encore été lu.
+	 *
+	 * @param rs - Le ResultSet positionné sur la ligne.
+	 * @param index - La position de la colonne d'identifiant.
+	 * @param rowNum - Le numéro de la ligne actuelle.
+	 * @return L'entité partagée, ou null si l'identifiant est NULL (jointure externe).
+	 * @throws SQLException Si une erreur SQL survient.
+	 */
+	@Override
+	protected T mapper(ResultSet rs, int[] index, int rowNum) throws SQLException {
+		// Lit l'identifiant, absent si la jointure externe n'a rien trouvé.
+		int id = rs.getInt(index[0]);
+		if (rs.wasNull()) {
+			return null;
+		}
+
+		// Construit l'entité à la première rencontre de l'identifiant.
+		T instance = instances.get(id);
+		if (instance == null) {
+			instance = mapper.mapRow(rs, rowNum);
+			instances.put(id, instance);
+		}
+		return instance;
+	}
+}
@@ -0,0 +1,66 @@
+package com.example.sorcier.dal.rowmapper;
+
+import com.example.sorcier.bo.Maison;
+import com.example.sorcier.bo.Sorcier;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Mapper pour convertir les lignes d'une partition de la table sorcier en objets Sorcier.
+ * Les partitions ne contiennent pas les maisons : chaque sorcier est rattaché à
+ * l'instance de Maison lue dans le catalogue, d'après l'id de sa maison.
+ */
+public class SorcierPartitionRowMapper extends RowMapperIndexe<Sorcier> {
+
+	// Position de chaque colonne dans la liste passée au constructeur.
+	private static final int SORCIER_ID = 0;
+	private static final int SORCIER_NOM = 1;
+	private static final int SORCIER_PRENOM = 2;
+	private static final int SORCIER_ID_MAISON = 3;
+	private static final int SORCIER_ATTAQUE = 4;
+	private static final int SORCIER_SANTE = 5;
+	private static final int SORCIER_MODIFIABLE = 6;
+
+	// Maisons du catalogue, par identifiant.
+	private final Map<Integer, Maison> maisons;
+
+	/**
+	 * Constructeur déclarant les colonnes du sorcier.
+	 *
+	 * @param maisons - Les maisons du catalogue, par identifiant.
+	 */
+	public SorcierPartitionRowMapper(Map<Integer, Maison> maisons) {
+		super("sorcier_id", "sorcier_nom", "sorcier_prenom", "sorcier_id_maison", "sorcier_attaque", "sorcier_sante",
+				"sorcier_modifiable");
+		this.maisons = maisons;
+	}
+
+	/**
+	 * Mappe une ligne du ResultSet à un objet Sorcier.
+	 *
+	 * @param rs     Le ResultSet à mapper.
+	 * @param index  Les positions des colonnes.
+	 * @param rowNum Le numéro de la ligne actuelle.
+	 * @return Un nouvel objet Sorcier initialisé avec les données de la ligne.
+	 * @throws SQLException Si une erreur SQL survient.
+	 */
+	@Override
+	protected Sorcier mapper(ResultSet rs, int[] index, int rowNum) throws SQLException {
+		return new Sorcier(
+				// Récupère l'ID du sorcier.
+				rs.getInt(index[SORCIER_ID]),
+				// Récupère le nom du sorcier.
+				rs.getString(index[SORCIER_NOM]),
+				// Récupère le prénom du sorcier.
+				rs.getString(index[SORCIER_PRENOM]),
+				// Associe l'instance de Maison du catalogue.
+				maisons.get(rs.getInt(index[SORCIER_ID_MAISON])),
+				// Récupère le niveau d'attaque du sorcier.
+				rs.getInt(index[SORCIER_ATTAQUE]),
+				// Récupère le niveau de santé du sorcier.
+				rs.getInt(index[SORCIER_SANTE]),
+				// Récupère l'indicateur si le sorcier est modifiable.
+				rs.getBoolean(index[SORCIER_MODIFIABLE]));
+	}
+}
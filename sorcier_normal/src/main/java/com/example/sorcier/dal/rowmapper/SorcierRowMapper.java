@@ -1,6 +1,5 @@
 package com.example.sorcier.dal.rowmapper;
 
-import org.springframework.jdbc.core.RowMapper;
 import com.example.sorcier.bo.Maison;
 import com.example.sorcier.bo.Sorcier;
 import java.sql.ResultSet;
@@ -9,53 +8,61 @@ import java.sql.SQLException;
 /**
  * Mapper pour convertir les lignes de la base de données en objets Sorcier.
  * Utilisé avec JDBC pour mapper les lignes d'un ResultSet vers des objets
- * Sorcier, incluant les données associées de Maison.
+ * Sorcier, incluant les données associées de Maison. Les colonnes sont lues par position.
+ * Les sorciers d'une même maison partagent la même instance de Maison.
  */
-public class SorcierRowMapper implements RowMapper<Sorcier> {
+public class SorcierRowMapper extends RowMapperIndexe<Sorcier> {
 
-	// Définit les constantes pour les noms des colonnes pour éviter les erreurs de
-	// frappe et augmenter la maintenabilité.
-	private String SORCIER_ID = "sorcier_id";
-	private String SORCIER_NOM = "sorcier_nom";
-	private String SORCIER_PRENOM = "sorcier_prenom";
-	private String SORCIER_ATTAQUE = "sorcier_attaque";
-	private String SORCIER_SANTE = "sorcier_sante";
-	private String SORCIER_MODIFIABLE = "sorcier_modifiable";
+	// Position de chaque colonne dans la liste passée au constructeur.
+	private static final int SORCIER_ID = 0;
+	private static final int SORCIER_NOM = 1;
+	private static final int SORCIER_PRENOM = 2;
+	private static final int SORCIER_ATTAQUE = 3;
+	private static final int SORCIER_SANTE = 4;
+	private static final int SORCIER_MODIFIABLE = 5;
 
 	// Utilise un MaisonRowMapper pour mapper les informations de Maison associées à
-	// un Sorcier.
-	private final MaisonRowMapper maisonRowMapper = new MaisonRowMapper();
+	// un Sorcier, une seule fois par maison dans un même résultat.
+	private final RowMapperPartage<Maison> maisonRowMapper = new RowMapperPartage<>("maison_id", new MaisonRowMapper());
+
+	/**
+	 * Constructeur déclarant les colonnes du sorcier.
+	 */
+	public SorcierRowMapper() {
+		super("sorcier_id", "sorcier_nom", "sorcier_prenom", "sorcier_attaque", "sorcier_sante", "sorcier_modifiable");
+	}
 
 	/**
 	 * Mappe une ligne du ResultSet à un objet Sorcier.
 	 * 
 	 * @param rs     Le ResultSet à mapper.
+	 * @param index  Les positions des colonnes.
 	 * @param rowNum Le numéro de la ligne actuelle.
 	 * @return Un nouvel objet Sorcier initialisé avec les données de la ligne.
 	 * @throws SQLException Si une erreur SQL survient.
 	 */
 	@Override
-	public Sorcier mapRow(ResultSet rs, int rowNum) throws SQLException {
-		// Utilise MaisonRowMapper pour obtenir une instance de Maison à partir de la
-		// ligne courante du ResultSet.
+	protected Sorcier mapper(ResultSet rs, int[] index, int rowNum) throws SQLException {
+		// Utilise MaisonRowMapper pour obtenir l'instance de Maison de la ligne
+		// courante, partagée avec les autres sorciers de la même maison.
 		Maison maison = maisonRowMapper.mapRow(rs, rowNum);
 
 		// Crée une nouvelle instance de Sorcier en extrayant les données de chaque
 		// colonne spécifiée.
 		return new Sorcier(
 				// Récupère l'ID du sorcier.
-				rs.getInt(SORCIER_ID),
+				rs.getInt(index[SORCIER_ID]),
 				// Récupère le nom du sorcier.
-				rs.getString(SORCIER_NOM),
+				rs.getString(index[SORCIER_NOM]),
 				// Récupère le prénom du sorcier.
-				rs.getString(SORCIER_PRENOM),
+				rs.getString(index[SORCIER_PRENOM]),
 				// Associe l'instance de Maison récupérée.
 				maison,
 				// Récupère le niveau d'attaque du sorcier.
-				rs.getInt(SORCIER_ATTAQUE),
+				rs.getInt(index[SORCIER_ATTAQUE]),
 				// Récupère le niveau de santé du sorcier.
-				rs.getInt(SORCIER_SANTE),
+				rs.getInt(index[SORCIER_SANTE]),
 				// Récupère l'indicateur si le sorcier est modifiable.
-				rs.getBoolean(SORCIER_MODIFIABLE));
+				rs.getBoolean(index[SORCIER_MODIFIABLE]));
 	}
 }
@@ -0,0 +1,60 @@
+package com.example.sorcier.dal.rowmapper;
+
+// Import des classes du package de l'objet de transfert de données.
+import com.example.sorcier.bo.StatistiqueMaison;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Mapper pour convertir les lignes de la requête groupée par maison en objets StatistiqueMaison.
+ * Les agrégats d'une maison sans sorcier sont NULL en base et restent null.
+ */
+public class StatistiqueMaisonRowMapper extends RowMapperIndexe<StatistiqueMaison> {
+
+	// Position de chaque colonne agrégée dans la liste passée au constructeur.
+	private static final int NOMBRE_SORCIERS = 0;
+	private static final int ATTAQUE_MOYENNE = 1;
+	private static final int ATTAQUE_MIN = 2;
+	private static final int ATTAQUE_MAX = 3;
+	private static final int SANTE_MOYENNE = 4;
+	private static final int SANTE_MIN = 5;
+	private static final int SANTE_MAX = 6;
+
+	// Mapper utilisé pour les colonnes de la maison.
+	private MaisonRowMapper maisonRowMapper = new MaisonRowMapper();
+
+	/**
+	 * Constructeur déclarant les colonnes agrégées.
+	 */
+	public StatistiqueMaisonRowMapper() {
+		super("nombre_sorciers", "attaque_moyenne", "attaque_min", "attaque_max",
+				"sante_moyenne", "sante_min", "sante_max");
+	}
+
+	/**
+	 * Mappe une ligne du ResultSet à un objet StatistiqueMaison.
+	 * 
+	 * @param rs - Le ResultSet à mapper.
+	 * @param index - Les positions des colonnes.
+	 * @param rowNum - Le numéro de la ligne actuelle.
+	 * @return Les statistiques de la maison de la ligne.
+	 * @throws SQLException Si une erreur SQL survient.
+	 */
+	@Override
+	protected StatistiqueMaison mapper(ResultSet rs, int[] index, int rowNum) throws SQLException {
+		return new StatistiqueMaison(
+				// Récupère la maison.
+				maisonRowMapper.mapRow(rs, rowNum),
+				// Récupère le nombre de sorciers.
+				rs.getInt(index[NOMBRE_SORCIERS]),
+				// Récupère les agrégats de l'attaque.
+				rs.getObject(index[ATTAQUE_MOYENNE], Double.class),
+				rs.getObject(index[ATTAQUE_MIN], Integer.class),
+				rs.getObject(index[ATTAQUE_MAX], Integer.class),
+				// Récupère les agrégats de la santé.
+				rs.getObject(index[SANTE_MOYENNE], Double.class),
+				rs.getObject(index[SANTE_MIN], Integer.class),
+				rs.getObject(index[SANTE_MAX], Integer.class));
+	}
+}
@@ -1,6 +1,5 @@
 package com.example.sorcier.dal.rowmapper;
 
-import org.springframework.jdbc.core.RowMapper;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import com.example.sorcier.bo.Utilisateur;
@@ -8,49 +7,51 @@ import com.example.sorcier.bo.Sorcier;
 
 /**
  * Mapper pour transformer les lignes d'une table SQL en instances de la classe Utilisateur.
+ * Les colonnes sont lues par position.
  */
-public class UtilisateurRowMapper implements RowMapper<Utilisateur> {
+public class UtilisateurRowMapper extends RowMapperIndexe<Utilisateur> {
 
-    // Déclaration des constantes pour les noms des colonnes SQL.
-    private String ID = "id";
-    private String NOM = "nom";
-    private String EMAIL = "email";
-    private String MDP_HASH = "mdpHash";
-    private String NIVEAU = "niveau";
-    private String DATE_INSCRIPTION = "dateInscription";
+    // Position de chaque colonne dans la liste passée au constructeur.
+    private static final int ID = 0;
+    private static final int NOM = 1;
+    private static final int EMAIL = 2;
+    private static final int MDP_HASH = 3;
+    private static final int NIVEAU = 4;
+    private static final int DATE_INSCRIPTION = 5;
 
-    // Mapper pour les objets Sorcier associés à l'utilisateur.
-    private SorcierRowMapper sorcierRowMapper = new SorcierRowMapper();
+    // Mapper pour les objets Sorcier associés à l'utilisateur, une seule fois par sorcier
+    // dans un même résultat (null si l'utilisateur n'a pas de sorcier).
+    private RowMapperPartage<Sorcier> sorcierRowMapper = new RowMapperPartage<>("sorcier_id", new SorcierRowMapper());
+
+    /**
+     * Constructeur déclarant les colonnes de l'utilisateur.
+     */
+    public UtilisateurRowMapper() {
+        super("id", "nom", "email", "mdpHash", "niveau", "dateInscription");
+    }
 
     /**
      * Mappe une ligne du ResultSet en une instance de Utilisateur.
      * 
      * @param rs - Le ResultSet à mapper.
+     * @param index - Les positions des colonnes.
      * @param rowNum - Le numéro de la ligne actuelle.
      * @return L'instance de Utilisateur correspondant à la ligne courante du ResultSet.
      * @throws SQLException - si une erreur SQL se produit.
      */
     @Override
-    public Utilisateur mapRow(ResultSet rs, int rowNum) throws SQLException {
-        // Récupère l'identifiant du Sorcier, si présent.
-        Integer sorcierId = (Integer) rs.getObject("sorcier_id");
-        
-        // Initialisation de la référence à un sorcier.
-        Sorcier sorcier = null;
-        
-        // Mappe le Sorcier si l'ID n'est pas null.
-        if (sorcierId != null) {
-            sorcier = sorcierRowMapper.mapRow(rs, rowNum);
-        }
+    protected Utilisateur mapper(ResultSet rs, int[] index, int rowNum) throws SQLException {
+        // Mappe le Sorcier, ou null si l'utilisateur n'en a pas.
+        Sorcier sorcier = sorcierRowMapper.mapRow(rs, rowNum);
 
         // Crée une nouvelle instance d'Utilisateur avec les données extraites du ResultSet.
         return new Utilisateur(
-            rs.getInt(ID),
-            rs.getString(NOM),
-            rs.getString(EMAIL),
-            rs.getString(MDP_HASH),
-            rs.getInt(NIVEAU),
-            rs.getDate(DATE_INSCRIPTION),
+            rs.getInt(index[ID]),
+            rs.getString(index[NOM]),
+            rs.getString(index[EMAIL]),
+            rs.getString(index[MDP_HASH]),
+            rs.getInt(index[NIVEAU]),
+            rs.getDate(index[DATE_INSCRIPTION]),
             sorcier
         );
     }
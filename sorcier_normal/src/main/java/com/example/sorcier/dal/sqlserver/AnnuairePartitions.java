@@ -0,0 +1,351 @@
+package com.example.sorcier.dal.sqlserver;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import javax.sql.DataSource;
+
+//Exceptions levées si une partition ne répond pas ou si une maison est déjà enregistrée.
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+
+//Exécuteurs des interrogations parallèles, sur threads classiques ou virtuels.
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+//Template pour les opérations JDBC avec support des paramètres nommés.
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+//Pool de connexions des partitions, dont la taille dimensionne les threads d'interrogation.
+import com.zaxxer.hikari.HikariDataSource;
+
+//Cache borné de la maison de chaque bloc d'identifiants.
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Annuaire des partitions de la table sorcier. Les sorciers sont répartis sur N bases
+ * selon leur maison : chaque maison est affectée à une partition, et l'affectation est
+ * conservée dans la table partition_maison de la base principale (le catalogue).
+ * L'annuaire alloue aussi les identifiants des sorciers, uniques sur toutes les partitions,
+ * par blocs réservés chacun à une maison (table bloc_maison) : le bloc d'un identifiant donne
+ * la maison de création du sorcier, donc sa partition, sans limiter le nombre de maisons.
+ * La partition des maisons est gardée en mémoire. Une maison déplacée par une autre instance
+ * reste fermée sur son ancienne partition : l'appelant qui y est refusé, ou n'y trouve rien,
+ * relit alors l'affectation dans le catalogue ({@link #relirePartition(int)}).
+ */
+public class AnnuairePartitions implements Closeable {
+
+    // Nombre d'identifiants réservés à une maison à chaque appel de la séquence.
+    static final int TAILLE_BLOC = 100;
+
+    // Nombre de blocs dont la maison est gardée en mémoire.
+    private static final int BLOCS_EN_MEMOIRE = 100000;
+
+    // Taille supposée d'un pool de partition qui n'est pas un pool Hikari.
+    private static final int CONNEXIONS_PAR_DEFAUT = 10;
+
+    private final NamedParameterJdbcTemplate catalogue;
+    private final List<NamedParameterJdbcTemplate> partitions = new ArrayList<>();
+    private final List<DataSource> bases;
+    private final AsyncTaskExecutor executeur;
+
+    // Décoration des interrogations parallèles, qui reprennent le contexte du thread appelant.
+    private final TaskDecorator decorateur;
+
+    // Verrou de l'allocation des identifiants ; contrairement à synchronized, l'attente
+    // de la séquence ne bloque pas le thread porteur d'un thread virtuel.
+    private final ReentrantLock verrouIds = new ReentrantLock();
+
+    // Partition de chaque maison, chargée à la demande depuis le catalogue, relue si elle a changé.
+    private final Map<Integer, Integer> partitionsMaisons = new ConcurrentHashMap<>();
+
+    // Prochain identifiant à attribuer et fin du bloc réservé, pour chaque maison.
+    private final Map<Integer, long[]> blocsOuverts = new HashMap<>();
+
+    // Maison de chaque bloc d'identifiants ; un bloc ne change jamais de maison.
+    private final Cache<Long, Integer> maisonsBlocs = Caffeine.newBuilder().maximumSize(BLOCS_EN_MEMOIRE).build();
+
+    /**
+     * Constructeur de l'annuaire.
+     *
+     * @param catalogue - Template de la base principale, qui tient l'annuaire et la séquence.
+     * @param bases - Les bases des partitions, dans l'ordre de leur numéro.
+     */
+    public AnnuairePartitions(NamedParameterJdbcTemplate catalogue, List<DataSource> bases) {
+        this(catalogue, bases, false, NamedParameterJdbcTemplate::new, tache -> tache);
+    }
+
+    /**
+     * Constructeur de l'annuaire.
+     *
+     * @param catalogue - Template de la base principale, qui tient l'annuaire et la séquence.
+     * @param bases - Les bases des partitions, dans l'ordre de leur numéro.
+     * @param threadsVirtuels - Vrai pour interroger les partitions sur des threads virtuels (Java 21).
+     * @param fabrique - La création du template de chaque partition, par exemple mesuré.
+     * @param decorateur - La décoration des interrogations lancées sur d'autres threads.
+     */
+    public AnnuairePartitions(NamedParameterJdbcTemplate catalogue, List<DataSource> bases, boolean threadsVirtuels,
+            Function<DataSource, NamedParameterJdbcTemplate> fabrique, TaskDecorator decorateur) {
+        this.catalogue = catalogue;
+        this.bases = List.copyOf(bases);
+        this.decorateur = decorateur;
+        for (DataSource base : bases) {
+            partitions.add(fabrique.apply(base));
+        }
+        if (threadsVirtuels) {
+            // Un thread virtuel par interrogation : les pools des partitions limitent la concurrence.
+            this.executeur = new VirtualThreadTaskExecutor("sorcier-partition-");
+        } else {
+            // Autant de threads que de connexions des partitions : ce sont leurs pools qui limitent
+            // la concurrence. Au-delà, la file est bornée, puis l'appelant interroge lui-même.
+            int connexions = 0;
+            for (DataSource base : bases) {
+                connexions += base instanceof HikariDataSource pool ? pool.getMaximumPoolSize() : CONNEXIONS_PAR_DEFAUT;
+            }
+            ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+            pool.setCorePoolSize(connexions);
+            pool.setMaxPoolSize(connexions);
+            pool.setAllowCoreThreadTimeOut(true);
+            pool.setQueueCapacity(connexions);
+            pool.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+            pool.setThreadNamePrefix("sorcier-partition-");
+            pool.setDaemon(true);
+            pool.initialize();
+            this.executeur = pool;
+        }
+    }
+
+    /**
+     * Retourne le nombre de partitions.
+     *
+     * @return Le nombre de partitions.
+     */
+    public int getNombre() {
+        return partitions.size();
+    }
+
+    /**
+     * Retourne le template d'une partition.
+     *
+     * @param numero - Le numéro de la partition, à partir de 0.
+     * @return Le template de la partition.
+     */
+    public NamedParameterJdbcTemplate partition(int numero) {
+        return partitions.get(numero);
+    }
+
+    /**
+     * Retourne la partition d'une maison. Une maison encore inconnue de l'annuaire
+     * est affectée à la partition (id modulo N), puis enregistrée.
+     *
+     * @param idMaison - L'id de la maison.
+     * @return Le numéro de la partition.
+     */
+    public int partitionDe(int idMaison) {
+        if (idMaison <= 0) {
+            throw new IllegalArgumentException("Maison invalide : " + idMaison);
+        }
+        return partitionsMaisons.computeIfAbsent(idMaison, this::chargerPartition);
+    }
+
+    /**
+     * Relit la partition d'une maison dans le catalogue, sans passer par la mémoire,
+     * et la garde pour les appels suivants.
+     *
+     * @param idMaison - L'id de la maison.
+     * @return Le numéro de la partition.
+     */
+    public int relirePartition(int idMaison) {
+        if (idMaison <= 0) {
+            throw new IllegalArgumentException("Maison invalide : " + idMaison);
+        }
+        int numero = chargerPartition(idMaison);
+        partitionsMaisons.put(idMaison, numero);
+        return numero;
+    }
+
+    /**
+     * Retourne la partition où un sorcier a probablement été créé, déduite du bloc de son identifiant.
+     * L'annuaire est seulement consulté : un identifiant quelconque n'y enregistre rien.
+     * Un identifiant antérieur au partitionnement n'appartient à aucun bloc :
+     * l'appelant cherche alors sur toutes les partitions.
+     *
+     * @param idSorcier - L'id du sorcier.
+     * @return Le numéro de la partition, ou -1 si l'identifiant ne désigne aucune maison connue.
+     */
+    public int partitionDuSorcier(int idSorcier) {
+        if (idSorcier <= 0) {
+            return -1;
+        }
+        long bloc = idSorcier / TAILLE_BLOC;
+        Integer idMaison = maisonsBlocs.getIfPresent(bloc);
+        if (idMaison == null) {
+            List<Integer> maisons = catalogue.queryForList("SELECT id_maison FROM bloc_maison WHERE bloc = :bloc",
+                    new MapSqlParameterSource("bloc", bloc), Integer.class);
+            if (maisons.isEmpty()) {
+                return -1;
+            }
+            idMaison = maisons.get(0);
+            maisonsBlocs.put(bloc, idMaison);
+        }
+        Integer numero = partitionsMaisons.get(idMaison);
+        if (numero == null) {
+            List<Integer> numeros = catalogue.queryForList(
+                    "SELECT numero_partition FROM partition_maison WHERE id_maison = :id_maison",
+                    new MapSqlParameterSource("id_maison", idMaison), Integer.class);
+            if (numeros.isEmpty()) {
+                return -1;
+            }
+            numero = numeros.get(0);
+            partitionsMaisons.putIfAbsent(idMaison, numero);
+        }
+        return numero;
+    }
+
+    /**
+     * Alloue l'identifiant d'un nouveau sorcier, dans un bloc de {@value #TAILLE_BLOC} identifiants
+     * réservé à sa maison. La séquence et la table bloc_maison du catalogue ne sont écrites
+     * qu'une fois par bloc.
+     *
+     * @param idMaison - L'id de la maison du sorcier.
+     * @return L'identifiant, unique sur toutes les partitions.
+     */
+    public int nouvelId(int idMaison) {
+        if (idMaison <= 0) {
+            throw new IllegalArgumentException("Maison invalide : " + idMaison);
+        }
+        verrouIds.lock();
+        try {
+            long[] ouvert = blocsOuverts.computeIfAbsent(idMaison, m -> new long[2]);
+            if (ouvert[0] >= ouvert[1]) {
+                Long bloc = catalogue.getJdbcTemplate().queryForObject("SELECT NEXT VALUE FOR sorcier_seq", Long.class);
+                catalogue.update("INSERT INTO bloc_maison (bloc, id_maison) VALUES (:bloc, :id_maison)",
+                        new MapSqlParameterSource().addValue("bloc", bloc).addValue("id_maison", idMaison));
+                maisonsBlocs.put(bloc, idMaison);
+                ouvert[0] = bloc * TAILLE_BLOC;
+                ouvert[1] = ouvert[0] + TAILLE_BLOC;
+            }
+            if (ouvert[0] > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Identifiants de sorciers epuises : la colonne id est un INT");
+            }
+            return (int) ouvert[0]++;
+        } finally {
+            verrouIds.unlock();
+        }
+    }
+
+    /**
+     * Affecte une maison à une autre partition dans le catalogue.
+     *
+     * @param idMaison - L'id de la maison.
+     * @param numero - La nouvelle partition.
+     */
+    public void affecter(int idMaison, int numero) {
+        MapSqlParameterSource source = new MapSqlParameterSource()
+                .addValue("id_maison", idMaison)
+                .addValue("numero", numero);
+        catalogue.update("UPDATE partition_maison SET numero_partition = :numero WHERE id_maison = :id_maison", source);
+        partitionsMaisons.put(idMaison, numero);
+    }
+
+    /**
+     * Retire une maison de l'annuaire, après sa suppression.
+     *
+     * @param idMaison - L'id de la maison.
+     */
+    public void oublier(int idMaison) {
+        catalogue.update("DELETE FROM partition_maison WHERE id_maison = :id_maison",
+                new MapSqlParameterSource("id_maison", idMaison));
+        partitionsMaisons.remove(idMaison);
+    }
+
+    /**
+     * Exécute une requête sur toutes les partitions en parallèle. La dernière partition
+     * est interrogée par le thread appelant, qui attendrait sinon sans rien faire.
+     *
+     * @param requete - La requête, appelée avec le template de chaque partition.
+     * @return Les résultats, dans l'ordre des partitions.
+     */
+    public <T> List<T> surToutes(Function<NamedParameterJdbcTemplate, T> requete) {
+        List<Future<T>> reponses = new ArrayList<>();
+        int derniere = partitions.size() - 1;
+        for (NamedParameterJdbcTemplate partition : partitions.subList(0, derniere)) {
+            FutureTask<T> tache = new FutureTask<>(() -> requete.apply(partition));
+            executeur.execute(decorateur.decorate(tache));
+            reponses.add(tache);
+        }
+        T resultatDerniere = requete.apply(partitions.get(derniere));
+        List<T> resultats = new ArrayList<>(reponses.size() + 1);
+        for (Future<T> reponse : reponses) {
+            try {
+                resultats.add(reponse.get());
+            } catch (ExecutionException e) {
+                // Relance l'erreur d'accès aux données telle quelle.
+                if (e.getCause() instanceof RuntimeException erreur) {
+                    throw erreur;
+                }
+                throw new DataAccessResourceFailureException("Partition en erreur", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DataAccessResourceFailureException("Interrogation des partitions interrompue", e);
+            }
+        }
+        resultats.add(resultatDerniere);
+        return resultats;
+    }
+
+    /**
+     * Lit la partition d'une maison dans le catalogue, ou l'y enregistre.
+     */
+    private int chargerPartition(int idMaison) {
+        MapSqlParameterSource source = new MapSqlParameterSource()
+                .addValue("id_maison", idMaison)
+                .addValue("numero", idMaison % partitions.size());
+        List<Integer> numeros = catalogue.queryForList(
+                "SELECT numero_partition FROM partition_maison WHERE id_maison = :id_maison", source, Integer.class);
+        if (!numeros.isEmpty()) {
+            return numeros.get(0);
+        }
+        try {
+            catalogue.update("INSERT INTO partition_maison (id_maison, numero_partition) VALUES (:id_maison, :numero)", source);
+            return idMaison % partitions.size();
+        } catch (DuplicateKeyException e) {
+            // Une autre instance vient d'enregistrer la maison : relit son affectation.
+            return catalogue.queryForObject(
+                    "SELECT numero_partition FROM partition_maison WHERE id_maison = :id_maison", source, Integer.class);
+        }
+    }
+
+    /**
+     * Arrête les threads d'interrogation et ferme les pools des partitions.
+     */
+    @Override
+    public void close() {
+        if (executeur instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        }
+        for (DataSource base : bases) {
+            if (base instanceof AutoCloseable fermable) {
+                try {
+                    fermable.close();
+                } catch (Exception e) {
+                    System.out.println("APA : Partition non fermee (close).");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.sorcier.dal.sqlserver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+//Exception levée si les clés générées ne sont pas toutes retournées.
+import org.springframework.dao.DataRetrievalFailureException;
+
+//Template pour les opérations JDBC avec support des paramètres nommés.
+import org.springframework.jdbc.core.namedparam.BeanPropertySqlParameterSource;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+/**
+ * Insère des objets par lots et récupère les clés générées par la base.
+ * Chaque lot part en une seule requête INSERT de plusieurs lignes, qui retourne les identifiants :
+ * le driver SQL Server ne retourne pas les clés générées d'un lot JDBC (executeBatch).
+ * La forme de la requête est fixée par la configuration (sorcier.jdbc.cles-generees) :
+ * OUTPUT pour SQL Server, FINAL TABLE pour H2, qui ne connaît pas OUTPUT.
+ */
+final class InsertionParLots {
+
+    // Nombre maximal de paramètres d'une requête, sous la limite de 2100 de SQL Server.
+    static final int PARAMETRES_MAX = 2000;
+
+    // Formes de la requête qui retourne les clés générées.
+    static final String OUTPUT = "output";
+    static final String FINAL_TABLE = "final-table";
+
+    // Paramètres nommés de la liste des valeurs, propriétés éventuellement imbriquées (maison.id).
+    private static final Pattern PARAMETRE = Pattern.compile(":([\\w.]+)");
+
+    private InsertionParLots() {
+    }
+
+    /**
+     * Insère les objets par lots : chaque lot part en un seul aller-retour vers la base.
+     * Un lot compte au plus tailleLot lignes, et moins si ses paramètres dépassent {@link #PARAMETRES_MAX}.
+     *
+     * @param namedParameterJdbcTemplate - Template JDBC avec paramètres nommés.
+     * @param table - La table, dont la clé générée est la colonne id.
+     * @param colonnes - Les colonnes insérées, séparées par des virgules.
+     * @param valeurs - Les valeurs d'une ligne, dont les paramètres sont des propriétés des objets.
+     * @param objets - Les objets à insérer.
+     * @param tailleLot - Le nombre maximal de lignes par lot.
+     * @param clesGenerees - La forme de la requête : {@value #OUTPUT} ou {@value #FINAL_TABLE}.
+     * @return Les identifiants générés, dans l'ordre des objets.
+     */
+    static List<Integer> inserer(NamedParameterJdbcTemplate namedParameterJdbcTemplate, String table,
+            String colonnes, String valeurs, List<?> objets, int tailleLot, String clesGenerees) {
+        if (tailleLot <= 0) {
+            throw new IllegalArgumentException("Taille de lot invalide : " + tailleLot);
+        }
+        boolean finalTable = FINAL_TABLE.equals(clesGenerees);
+        if (!finalTable && !OUTPUT.equals(clesGenerees)) {
+            throw new IllegalArgumentException("Forme des cles generees inconnue : " + clesGenerees);
+        }
+
+        // Relève les paramètres d'une ligne, renommés ensuite pour chaque ligne du lot.
+        List<String> parametres = new ArrayList<>();
+        Matcher matcher = PARAMETRE.matcher(valeurs);
+        while (matcher.find()) {
+            parametres.add(matcher.group(1));
+        }
+        int lignesParLot = Math.max(1, Math.min(tailleLot, PARAMETRES_MAX / Math.max(1, parametres.size())));
+
+        // Sur SQL Server, les lignes passent par une table dérivée triée par rang : les identités
+        // sont alors attribuées dans l'ordre des objets.
+        StringBuilder alias = new StringBuilder();
+        int nombreColonnes = colonnes.split(",").length;
+        for (int c = 0; c < nombreColonnes; c++) {
+            alias.append('c').append(c).append(", ");
+        }
+        String selection = alias.substring(0, alias.length() - 2);
+
+        List<Integer> ids = new ArrayList<>(objets.size());
+        for (int debut = 0; debut < objets.size(); debut += lignesParLot) {
+            // Extrait le lot courant.
+            List<?> lot = objets.subList(debut, Math.min(debut + lignesParLot, objets.size()));
+
+            // Construit les lignes du lot, chacune avec ses propres paramètres.
+            MapSqlParameterSource source = new MapSqlParameterSource();
+            StringBuilder lignes = new StringBuilder();
+            for (int i = 0; i < lot.size(); i++) {
+                BeanPropertySqlParameterSource objet = new BeanPropertySqlParameterSource(lot.get(i));
+                String prefixe = "p" + i + "_";
+                for (int k = 0; k < parametres.size(); k++) {
+                    String nom = parametres.get(k);
+                    source.addValue(prefixe + k, objet.getValue(nom), objet.getSqlType(nom));
+                }
+                int[] rang = { 0 };
+                String ligne = PARAMETRE.matcher(valeurs).replaceAll(m -> ":" + prefixe + rang[0]++);
+                lignes.append(i == 0 ? "" : ", ").append('(').append(ligne).append(finalTable ? "" : ", " + i).append(')');
+            }
+
+            // Exécute le lot et récupère les clés générées.
+            String sql = finalTable
+                    ? "SELECT id FROM FINAL TABLE (INSERT INTO " + table + " (" + colonnes + ") VALUES " + lignes + ")"
+                    : "INSERT INTO " + table + " (" + colonnes + ") OUTPUT INSERTED.id SELECT " + selection
+                            + " FROM (VALUES " + lignes + ") AS v (" + alias + "rang) ORDER BY rang";
+            List<Integer> cles = new ArrayList<>(namedParameterJdbcTemplate.queryForList(sql, source, Integer.class));
+
+            // Vérifie que la base a retourné une clé par ligne insérée.
+            if (cles.size() != lot.size()) {
+                throw new DataRetrievalFailureException(
+                        "Clés générées incomplètes : " + cles.size() + " pour " + lot.size() + " lignes");
+            }
+
+            // L'ordre des lignes retournées n'est pas garanti, mais les identités sont attribuées
+            // dans l'ordre des objets : triées, elles le suivent.
+            Collections.sort(cles);
+            ids.addAll(cles);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.sorcier.dal.sqlserver;
+
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+//Exception levée par l'index unique lorsque la ligne existe déjà.
+import org.springframework.dao.DuplicateKeyException;
+
+import com.example.sorcier.bo.ResultatInsertion;
+
+/**
+ * Insère une ligne si elle n'existe pas déjà, le conflit étant détecté par l'index unique :
+ * un seul aller-retour lorsque la ligne est nouvelle, un second pour retrouver la ligne existante.
+ * Si celle-ci a été supprimée entre l'insertion refusée et sa relecture, l'insertion est retentée.
+ */
+final class InsertionSiAbsente {
+
+    // Nombre d'insertions tentées avant d'abandonner, si la ligne en conflit disparaît à chaque relecture.
+    static final int TENTATIVES = 3;
+
+    private InsertionSiAbsente() {
+    }
+
+    /**
+     * Insère la ligne, ou retrouve l'identifiant de la ligne existante.
+     *
+     * @param insertion - L'insertion, qui retourne l'identifiant de la ligne créée.
+     * @param relecture - La lecture de l'identifiant de la ligne existante, null si elle n'existe plus.
+     * @return L'identifiant de la ligne créée, ou celui de la ligne existante.
+     * @throws DuplicateKeyException Si la ligne en conflit a disparu à chacune des {@value #TENTATIVES} relectures.
+     */
+    static ResultatInsertion inserer(IntSupplier insertion, Supplier<Integer> relecture) {
+        for (int tentative = 1;; tentative++) {
+            try {
+                return new ResultatInsertion(insertion.getAsInt(), true);
+            } catch (DuplicateKeyException e) {
+                Integer id = relecture.get();
+                if (id != null) {
+                    return new ResultatInsertion(id, false);
+                }
+                // La ligne a été supprimée entre-temps : l'insertion peut maintenant réussir.
+                if (tentative == TENTATIVES) {
+                    throw e;
+                }
+            }
+        }
+    }
+}
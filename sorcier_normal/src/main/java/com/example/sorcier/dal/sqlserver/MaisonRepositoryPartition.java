@@ -0,0 +1,75 @@
+package com.example.sorcier.dal.sqlserver;
+
+//Annotations pour gérer les profils et le composant de repository.
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+//Template pour les opérations JDBC.
+import org.springframework.jdbc.core.JdbcTemplate;
+
+//Template pour les opérations JDBC avec support des paramètres nommés.
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+/**
+ * Repository des maisons lorsque les sorciers sont répartis sur plusieurs bases.
+ * Les maisons restent dans la base principale ; seules les suppressions tiennent
+ * compte des partitions, où se trouvent les sorciers.
+ */
+@Repository
+@Primary
+@Profile("sqlserver & partition")
+public class MaisonRepositoryPartition extends MaisonRepositorySqlserver {
+
+	private AnnuairePartitions annuairePartitions;
+
+	/**
+	 * Constructeur initialisant les templates JDBC et l'annuaire des partitions.
+	 *
+	 * @param jdbcTemplate - Template JDBC de la base principale.
+	 * @param namedParameterJdbcTemplate - Template JDBC de la base principale, avec paramètres nommés.
+	 * @param annuairePartitions - L'annuaire des partitions.
+	 */
+	public MaisonRepositoryPartition(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+			AnnuairePartitions annuairePartitions) {
+		super(jdbcTemplate, namedParameterJdbcTemplate);
+		this.annuairePartitions = annuairePartitions;
+	}
+
+	/**
+	 * Supprime une maison et la retire de l'annuaire des partitions.
+	 *
+	 * @param id - L'id de la maison à supprimer.
+	 */
+	@Override
+	public void removeById(int id) {
+		super.removeById(id);
+		annuairePartitions.oublier(id);
+	}
+
+	/**
+	 * Supprime une maison si aucun sorcier n'y est rattaché. L'absence de sorcier est
+	 * vérifiée sur la partition de la maison, avant la suppression dans la base principale.
+	 *
+	 * @param id - L'id de la maison à supprimer.
+	 * @return Vrai si la maison a été supprimée.
+	 */
+	@Override
+	public boolean removeIfUnused(int id) {
+		// Vérifie l'absence de sorcier sur la partition de la maison, relue dans le catalogue :
+		// une autre instance a pu la déplacer.
+		Integer sorciers = annuairePartitions.partition(annuairePartitions.relirePartition(id)).queryForObject(
+				"SELECT COUNT(*) FROM sorcier WHERE id_maison = :id", new MapSqlParameterSource("id", id), Integer.class);
+		if (sorciers == null || sorciers > 0) {
+			return false;
+		}
+
+		// Supprime la maison, puis son entrée dans l'annuaire.
+		boolean supprimee = super.removeIfUnused(id);
+		if (supprimee) {
+			annuairePartitions.oublier(id);
+		}
+		return supprimee;
+	}
+}
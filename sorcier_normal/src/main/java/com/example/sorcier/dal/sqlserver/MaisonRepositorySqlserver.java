@@ -1,16 +1,19 @@
 package com.example.sorcier.dal.sqlserver;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 //Annotations pour gérer les profils et le composant de repository.
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
 //Gestion des exceptions pour les résultats de données vides.
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.support.DataAccessUtils;
 
-//Mapper pour lier les propriétés des beans Java avec les colonnes de la base de données.
-import org.springframework.jdbc.core.BeanPropertyRowMapper;
 
 //Template pour les opérations JDBC.
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -24,7 +27,10 @@ import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 
 import com.example.sorcier.bo.Maison;
+import com.example.sorcier.bo.ResultatInsertion;
+import com.example.sorcier.bo.Tri;
 import com.example.sorcier.dal.MaisonRepository;
+import com.example.sorcier.dal.rowmapper.MaisonRowMapper;
 
 /**
  * Implémentation de MaisonRepository pour SQL Server.
@@ -36,6 +42,32 @@ public class MaisonRepositorySqlserver implements MaisonRepository {
 	private JdbcTemplate jdbcTemplate;
 	private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
 
+	// Nombre de lignes envoyées par lot lors des insertions en masse.
+	@Value("${sorcier.jdbc.taille-lot:500}")
+	private int tailleLot;
+
+	// Forme des insertions par lots qui retournent les clés générées (output ou final-table).
+	@Value("${sorcier.jdbc.cles-generees:output}")
+	private String clesGenerees = InsertionParLots.OUTPUT;
+
+	private final String sql_debut = "SELECT "
+			+ "m.id AS maison_id, "
+			+ "m.nom AS maison_nom, "
+			+ "m.bonusAttaque AS maison_bonusAttaque, "
+			+ "m.bonusSante AS maison_bonusSante, "
+			+ "m.modifiable AS maison_modifiable "
+			+ "FROM maison m ";
+
+	/**
+	 * Retourne la requête SQL de base pour les opérations de recherche.
+	 *
+	 * @return La requête SQL de base pour obtenir les informations des maisons.
+	 */
+	public String getSql_debut() {
+		// Retourne la chaîne SQL de base utilisée pour les requêtes.
+		return sql_debut;
+	}
+
 	/**
 	 * Constructeur avec injection de dépendance via Spring.
 	 *
@@ -56,13 +88,10 @@ public class MaisonRepositorySqlserver implements MaisonRepository {
 	@Override
 	public List<Maison> findAll() {
 		// Définit la requête SQL pour récupérer toutes les maisons.
-		String sql = "SELECT * FROM maison";
-		
-		// Utilise un BeanPropertyRowMapper pour mapper les résultats SQL sur les objets Maison.
-		BeanPropertyRowMapper<Maison> mapper = new BeanPropertyRowMapper<>(Maison.class);
+		String sql = getSql_debut();
 		
 		// Exécute de la requête et retour des résultats.
-		return jdbcTemplate.query(sql, mapper);
+		return jdbcTemplate.query(sql, new MaisonRowMapper());
 	}
 
 	/**
@@ -74,13 +103,13 @@ public class MaisonRepositorySqlserver implements MaisonRepository {
 	@Override
 	public Maison findById(int id) {
 		// Définit de la requête SQL avec paramètre nommé pour trouver une maison par son ID.
-		String sql = "SELECT * FROM maison WHERE id = :id";
+		String sql = getSql_debut() + "WHERE m.id = :id";
 		
 		// Prépare des paramètres de la requête.
 		MapSqlParameterSource source = new MapSqlParameterSource().addValue("id", id);
 		
 		// Exécute de la requête et tentative de récupération de l'objet Maison.
-		return namedParameterJdbcTemplate.queryForObject(sql, source, new BeanPropertyRowMapper<>(Maison.class));
+		return namedParameterJdbcTemplate.queryForObject(sql, source, new MaisonRowMapper());
 	}
 
 	/**
@@ -92,19 +121,116 @@ public class MaisonRepositorySqlserver implements MaisonRepository {
 	@Override
 	public Maison findByName(Maison maison) {
 		// Définit la requête SQL avec paramètre nommé pour trouver une maison par son nom.
-		String sql = "SELECT * FROM maison WHERE nom = :nom";
+		String sql = getSql_debut() + "WHERE m.nom = :nom";
 		
 		// Prépare les paramètres de la requête.
 		MapSqlParameterSource source = new MapSqlParameterSource().addValue("nom", maison.getNom());
 		
 		// Essaye de récupérer l'objet Maison avec gestion de l'exception si aucun résultat n'est trouvé.
 		try {
-			return namedParameterJdbcTemplate.queryForObject(sql, source, new BeanPropertyRowMapper<>(Maison.class));
+			return namedParameterJdbcTemplate.queryForObject(sql, source, new MaisonRowMapper());
 		} catch (EmptyResultDataAccessException e) {
 			return null; // Retourne null si aucun résultat n'est trouvé.
 		}
 	}
 
+	/**
+	 * Trouve en une requête les maisons portant l'un des noms donnés.
+	 *
+	 * @param noms - Les noms des maisons à rechercher.
+	 * @return Les maisons trouvées (les noms inconnus sont ignorés).
+	 */
+	@Override
+	public List<Maison> findByNames(Collection<String> noms) {
+		// Évite une requête (et une clause IN vide) si aucun nom n'est demandé.
+		if (noms.isEmpty()) {
+			return new ArrayList<>();
+		}
+
+		// Définit la requête SQL avec la liste des noms en paramètre.
+		String sql = getSql_debut() + "WHERE m.nom IN (:noms)";
+
+		// Prépare des paramètres de la requête.
+		MapSqlParameterSource source = new MapSqlParameterSource().addValue("noms", noms);
+
+		// Exécute de la requête et retour des maisons trouvées.
+		return namedParameterJdbcTemplate.query(sql, source, new MaisonRowMapper());
+	}
+
+	/**
+	 * Récupère une page de maisons triées, à partir d'un curseur.
+	 * Le tri est départagé par l'id pour que le curseur soit sans ambiguïté,
+	 * et s'appuie sur les index (colonne, id) de la table maison.
+	 *
+	 * @param tri - Le critère de tri.
+	 * @param apresId - L'id de la maison après laquelle commence la page, ou null.
+	 * @param avantId - L'id de la maison avant laquelle se termine la page, ou null.
+	 * @param limite - Le nombre maximal de maisons à retourner.
+	 * @return Les maisons de la page, dans l'ordre du tri.
+	 */
+	@Override
+	public List<Maison> findPage(Tri tri, Integer apresId, Integer avantId, int limite) {
+		// Détermine le sens de lecture : on recule à partir du curseur "avant".
+		boolean recule = avantId != null;
+		Integer curseur = recule ? avantId : apresId;
+		String colonne = tri.getColonneMaison();
+		String comparaison = recule ? "<" : ">";
+		String sens = recule ? "DESC" : "ASC";
+
+		// Définit la requête SQL de base.
+		StringBuilder sql = new StringBuilder(getSql_debut());
+
+		// Ne garde que les maisons situées au-delà du curseur selon le tri.
+		// La borne sur la colonne seule permet de parcourir l'index (colonne, id) à partir du curseur.
+		if (curseur != null) {
+			sql.append("INNER JOIN maison c ON c.id = :curseur ")
+			   .append("WHERE m.").append(colonne).append(" ").append(comparaison).append("= c.").append(colonne)
+			   .append(" AND (m.").append(colonne).append(" ").append(comparaison).append(" c.").append(colonne)
+			   .append(" OR m.id ").append(comparaison).append(" c.id) ");
+		}
+
+		// Trie et limite la lecture à la taille de la page.
+		sql.append("ORDER BY m.").append(colonne).append(" ").append(sens).append(", m.id ").append(sens)
+		   .append(" OFFSET 0 ROWS FETCH NEXT :limite ROWS ONLY");
+
+		// Prépare des paramètres de la requête.
+		MapSqlParameterSource source = new MapSqlParameterSource()
+				.addValue("curseur", curseur)
+				.addValue("limite", limite);
+
+		// Exécute la requête et récupération de la page de maisons.
+		List<Maison> maisons = namedParameterJdbcTemplate.query(sql.toString(), source, new MaisonRowMapper());
+
+		// Remet la page dans l'ordre du tri si elle a été lue à l'envers.
+		if (recule) {
+			Collections.reverse(maisons);
+		}
+		return maisons;
+	}
+
+	/**
+	 * Recherche les maisons dont le nom commence par le terme. La comparaison
+	 * insensible à la casse est assurée par la collation de la base.
+	 *
+	 * @param terme - Le terme à rechercher.
+	 * @param limite - Le nombre maximal de maisons à retourner.
+	 * @return Les maisons trouvées, triées par nom.
+	 */
+	@Override
+	public List<Maison> search(String terme, int limite) {
+		// Définit la requête SQL filtrant sur le nom et bornant le résultat.
+		String sql = getSql_debut() + "WHERE m.nom LIKE :motif ESCAPE '\\' "
+				+ "ORDER BY m.nom, m.id OFFSET 0 ROWS FETCH NEXT :limite ROWS ONLY";
+
+		// Prépare des paramètres de la requête avec le motif échappé.
+		MapSqlParameterSource source = new MapSqlParameterSource()
+				.addValue("motif", MotifRecherche.prefixe(terme))
+				.addValue("limite", limite);
+
+		// Exécute de la requête et retour des maisons trouvées.
+		return namedParameterJdbcTemplate.query(sql, source, new MaisonRowMapper());
+	}
+
 	/**
 	 * Supprime une maison par son identifiant.
 	 *
@@ -122,6 +248,27 @@ public class MaisonRepositorySqlserver implements MaisonRepository {
 		namedParameterJdbcTemplate.update(sql, source);
 	}
 
+	/**
+	 * Supprime une maison si aucun sorcier n'y est rattaché. La vérification et la
+	 * suppression forment une seule requête : l'existence d'un sorcier est testée
+	 * sur l'index sorcier(id_maison), sans lire les sorciers.
+	 *
+	 * @param id - L'id de la maison à supprimer.
+	 * @return Vrai si la maison a été supprimée.
+	 */
+	@Override
+	public boolean removeIfUnused(int id) {
+		// Définit la suppression conditionnée à l'absence de sorcier dans la maison.
+		String sql = "DELETE FROM maison WHERE id = :id "
+				+ "AND NOT EXISTS (SELECT 1 FROM sorcier s WHERE s.id_maison = :id)";
+		
+		// Prépare des paramètres de la requête.
+		MapSqlParameterSource source = new MapSqlParameterSource().addValue("id", id);
+		
+		// Exécute la suppression et indique si une ligne a été supprimée.
+		return namedParameterJdbcTemplate.update(sql, source) > 0;
+	}
+
 	/**
 	 * Met à jour les informations d'une maison.
 	 *
@@ -163,4 +310,44 @@ public class MaisonRepositorySqlserver implements MaisonRepository {
 			maison.setId(keyHolder.getKey().intValue());
 		}
 	}
+
+	/**
+	 * Sauvegarde une maison si elle n'existe pas déjà. Le conflit est détecté par
+	 * l'index unique sur le nom lors de l'insertion : un seul aller-retour dans le
+	 * cas courant, et pas de doublon possible entre deux ajouts concurrents.
+	 * Une maison en conflit supprimée avant sa relecture est insérée à nouveau.
+	 *
+	 * @param maison - La maison à sauvegarder.
+	 * @return L'identifiant de la maison créée, ou celui de la maison existante.
+	 */
+	@Override
+	public ResultatInsertion insertIfAbsent(Maison maison) {
+		// Tente l'insertion directement ; si la maison existe déjà, retrouve son identifiant.
+		String sql = "SELECT id FROM maison WHERE nom = :nom";
+		MapSqlParameterSource source = new MapSqlParameterSource().addValue("nom", maison.getNom());
+		return InsertionSiAbsente.inserer(() -> {
+			save(maison);
+			return maison.getId();
+		}, () -> DataAccessUtils.singleResult(namedParameterJdbcTemplate.queryForList(sql, source, Integer.class)));
+	}
+
+	/**
+	 * Enregistre plusieurs maisons par lots, chaque lot en une requête.
+	 *
+	 * @param maisons - Les maisons à enregistrer.
+	 * @return Les identifiants générés, dans l'ordre de la liste.
+	 */
+	@Override
+	public List<Integer> saveAll(List<Maison> maisons) {
+		// Insère les maisons par lots et récupère les clés générées.
+		List<Integer> ids = InsertionParLots.inserer(namedParameterJdbcTemplate, "maison",
+				"nom, bonusAttaque, bonusSante, modifiable", ":nom, :bonusAttaque, :bonusSante, :modifiable",
+				maisons, tailleLot, clesGenerees);
+
+		// Attribue à chaque maison l'ID généré.
+		for (int i = 0; i < maisons.size(); i++) {
+			maisons.get(i).setId(ids.get(i));
+		}
+		return ids;
+	}
 }
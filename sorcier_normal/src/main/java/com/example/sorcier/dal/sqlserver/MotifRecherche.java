@@ -0,0 +1,31 @@
+package com.example.sorcier.dal.sqlserver;
+
+/**
+ * Construit les motifs LIKE utilisés par les recherches des repositories SQL Server.
+ * Les requêtes associées déclarent '\' comme caractère d'échappement.
+ */
+final class MotifRecherche {
+
+    private MotifRecherche() {
+    }
+
+    /**
+     * Construit un motif qui trouve les colonnes commençant par le terme. Sans joker en tête,
+     * le motif permet une recherche dans l'index de la colonne.
+     * Les jokers saisis par l'utilisateur (%, _) sont échappés pour être cherchés tels quels.
+     *
+     * @param terme - Le terme recherché.
+     * @return Le motif LIKE correspondant.
+     */
+    static String prefixe(String terme) {
+        StringBuilder motif = new StringBuilder();
+        for (char c : terme.trim().toCharArray()) {
+            // Échappe les caractères ayant un sens particulier dans un LIKE.
+            if (c == '\\' || c == '%' || c == '_') {
+                motif.append('\\');
+            }
+            motif.append(c);
+        }
+        return motif.append('%').toString();
+    }
+}
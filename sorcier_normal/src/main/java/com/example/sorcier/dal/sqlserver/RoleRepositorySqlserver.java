@@ -1,5 +1,7 @@
 package com.example.sorcier.dal.sqlserver;
 
+import java.util.List;
+
 // Importations nécessaires pour les configurations de profil.
 import org.springframework.context.annotation.Profile;
 
@@ -7,6 +9,7 @@ import org.springframework.context.annotation.Profile;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 
 // Importation de l'annotation Repository pour définir cette classe comme un composant de la couche de données.
 import org.springframework.stereotype.Repository;
@@ -54,6 +57,28 @@ public class RoleRepositorySqlserver implements RoleRepository {
         namedParameterJdbcTemplate.update(sql, source);
     }
     
+    /**
+     * Enregistre en un seul lot JDBC les rôles d'un utilisateur.
+     *
+     * @param id_utilisateur - L'ID de l'utilisateur auquel les rôles sont assignés.
+     * @param roles - Les rôles à attribuer.
+     */
+    @Override
+    public void saveAll(int id_utilisateur, List<String> roles) {
+        // Reprend la requête d'insertion unitaire, exécutée pour chaque rôle du lot.
+        String sql = "INSERT INTO Roles (id_utilisateur, role) VALUES (:id_utilisateur, :role)";
+        
+        // Prépare les paramètres de chaque rôle.
+        SqlParameterSource[] sources = roles.stream()
+                .map(role -> new MapSqlParameterSource()
+                        .addValue("id_utilisateur", id_utilisateur)
+                        .addValue("role", role))
+                .toArray(SqlParameterSource[]::new);
+        
+        // Exécute toutes les insertions en un seul aller-retour.
+        namedParameterJdbcTemplate.batchUpdate(sql, sources);
+    }
+    
     /**
      * Supprime les rôles associés à un utilisateur.
      *
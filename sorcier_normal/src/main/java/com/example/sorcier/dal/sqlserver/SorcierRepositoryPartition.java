@@ -0,0 +1,785 @@
+package com.example.sorcier.dal.sqlserver;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+//Annotations pour gérer les profils et le composant de repository.
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+//Gestion des exceptions pour les résultats de données vides et les maisons fermées.
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.EmptyResultDataAccessException;
+
+//Template pour les opérations JDBC.
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+//Template pour les opérations JDBC avec support des paramètres nommés.
+import org.springframework.jdbc.core.namedparam.BeanPropertySqlParameterSource;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.core.namedparam.SqlParameterSourceUtils;
+
+import com.example.sorcier.bo.Maison;
+import com.example.sorcier.bo.ResultatInsertion;
+import com.example.sorcier.bo.Sorcier;
+import com.example.sorcier.bo.StatistiqueMaison;
+import com.example.sorcier.bo.Tri;
+import com.example.sorcier.dal.rowmapper.SorcierPartitionRowMapper;
+
+/**
+ * Repository des sorciers répartis sur plusieurs bases selon leur maison.
+ * Les maisons, les utilisateurs et l'annuaire des partitions restent dans la base principale ;
+ * chaque partition ne contient que sa part de la table sorcier.
+ * Les lectures ciblées (par id, par maison) n'interrogent qu'une partition, les autres
+ * interrogent toutes les partitions en parallèle puis fusionnent les résultats triés.
+ * Les écritures sur plusieurs partitions ne forment pas une transaction commune.
+ * Chaque partition tient la liste des maisons qui n'y sont pas ou plus (maison_absente) :
+ * une écriture d'un sorcier d'une telle maison est refusée par la requête elle-même.
+ */
+@Repository
+@Primary
+@Profile("sqlserver & partition")
+public class SorcierRepositoryPartition extends SorcierRepositorySqlserver {
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private AnnuairePartitions annuairePartitions;
+    private MaisonRepositorySqlserver maisonRepositorySqlserver;
+
+    // Nombre de lignes envoyées par lot lors des insertions en masse et des déplacements.
+    @Value("${sorcier.jdbc.taille-lot:500}")
+    private int tailleLot;
+
+    // Nombre de lignes lues par aller-retour lors des parcours complets.
+    @Value("${sorcier.jdbc.taille-fetch:1000}")
+    private int tailleFetch;
+
+    private final String sql_partition = "SELECT "
+    		+ "s.id AS sorcier_id, "
+    		+ "s.nom AS sorcier_nom, "
+    		+ "s.prenom AS sorcier_prenom, "
+    		+ "s.id_maison AS sorcier_id_maison, "
+    		+ "s.attaque AS sorcier_attaque, "
+    		+ "s.sante AS sorcier_sante, "
+    		+ "s.modifiable AS sorcier_modifiable "
+    		+ "FROM sorcier s ";
+
+    // L'identifiant est fourni par l'annuaire, et non généré par la partition.
+    // L'insertion est refusée par la requête elle-même si la maison est absente de la partition.
+    private final String sql_insertion = "INSERT INTO sorcier (id, nom, prenom, id_maison, attaque, sante, modifiable) "
+    		+ "SELECT CAST(:id AS INT), CAST(:nom AS VARCHAR(255)), CAST(:prenom AS VARCHAR(255)), "
+    		+ "CAST(:maison.id AS INT), CAST(:attaque AS INT), CAST(:sante AS INT), CAST(:modifiable AS INT) "
+    		+ "WHERE NOT EXISTS (SELECT 1 FROM maison_absente a WHERE a.id_maison = :maison.id)";
+
+    // Condition des modifications et suppressions : la maison actuelle du sorcier est présente.
+    private final String sql_maison_presente = " AND NOT EXISTS "
+    		+ "(SELECT 1 FROM maison_absente a WHERE a.id_maison = sorcier.id_maison)";
+
+    // Nombre maximal de passes de rattrapage d'un déplacement, avant d'abandonner.
+    private static final int PASSES_MAX = 10;
+
+    /**
+     * Constructeur initialisant les templates JDBC, l'annuaire et le repository des maisons.
+     *
+     * @param jdbcTemplate - Template JDBC de la base principale.
+     * @param namedParameterJdbcTemplate - Template JDBC de la base principale, avec paramètres nommés.
+     * @param annuairePartitions - L'annuaire des partitions.
+     * @param maisonRepositorySqlserver - Le repository des maisons de la base principale.
+     */
+    public SorcierRepositoryPartition(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+            AnnuairePartitions annuairePartitions, MaisonRepositorySqlserver maisonRepositorySqlserver) {
+        super(jdbcTemplate, namedParameterJdbcTemplate);
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.annuairePartitions = annuairePartitions;
+        this.maisonRepositorySqlserver = maisonRepositorySqlserver;
+    }
+
+    /**
+     * Récupère tous les sorciers de toutes les partitions, triés par id.
+     *
+     * @return La liste de tous les sorciers.
+     */
+    @Override
+    public List<Sorcier> findAll() {
+        Map<Integer, Maison> maisons = maisons();
+        return fusionner(annuairePartitions.surToutes(
+                partition -> partition.query(sql_partition, new SorcierPartitionRowMapper(maisons))),
+                Comparator.comparingInt(Sorcier::getId), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Parcourt tous les sorciers, partition après partition, par ordre d'id au sein de chacune.
+     *
+     * @param consommateur - Le traitement appliqué à chaque sorcier lu.
+     */
+    @Override
+    public void streamAll(Consumer<Sorcier> consommateur) {
+        Map<Integer, Maison> maisons = maisons();
+        String sql = sql_partition + "ORDER BY s.id;";
+        for (int numero = 0; numero < annuairePartitions.getNombre(); numero++) {
+            SorcierPartitionRowMapper mapper = new SorcierPartitionRowMapper(maisons);
+
+            // Lit la partition en avant seulement, sans la charger en mémoire.
+            annuairePartitions.partition(numero).getJdbcTemplate().query(connexion -> {
+                PreparedStatement ps = connexion.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(tailleFetch);
+                return ps;
+            }, (RowCallbackHandler) rs -> consommateur.accept(mapper.mapRow(rs, rs.getRow())));
+        }
+    }
+
+    /**
+     * Récupère un sorcier par son identifiant, sur la partition de sa maison de création.
+     * Un sorcier qui a changé de maison depuis, ou dont l'identifiant est antérieur
+     * au partitionnement, est cherché sur toutes les partitions.
+     *
+     * @param id - L'id du sorcier à récupérer.
+     * @return Le sorcier correspondant à l'identifiant spécifié.
+     */
+    @Override
+    public Sorcier findById(int id) {
+        if (id <= 0) {
+            throw new EmptyResultDataAccessException(1);
+        }
+        Map<Integer, Maison> maisons = maisons();
+        String sql = sql_partition + "WHERE s.id = :id;";
+        MapSqlParameterSource source = new MapSqlParameterSource("id", id);
+
+        // Interroge d'abord la seule partition désignée par l'identifiant, s'il en désigne une.
+        int numero = annuairePartitions.partitionDuSorcier(id);
+        List<Sorcier> trouves = numero < 0 ? List.of()
+                : annuairePartitions.partition(numero).query(sql, source, new SorcierPartitionRowMapper(maisons));
+        if (trouves.isEmpty()) {
+            trouves = fusionner(annuairePartitions.surToutes(
+                    partition -> partition.query(sql, source, new SorcierPartitionRowMapper(maisons))),
+                    Comparator.comparingInt(Sorcier::getId), 1);
+        }
+        if (trouves.isEmpty()) {
+            throw new EmptyResultDataAccessException(1);
+        }
+        return trouves.get(0);
+    }
+
+    /**
+     * Récupère tous les sorciers d'une maison, sur la seule partition de la maison.
+     * Si la partition connue n'en a aucun parce que la maison a été déplacée par une autre
+     * instance, l'affectation est relue dans le catalogue.
+     *
+     * @param id_maison - L'id de la maison.
+     * @return La liste des sorciers appartenant à la maison spécifiée.
+     */
+    @Override
+    public List<Sorcier> findByMaison(int id_maison) {
+        Map<Integer, Maison> maisons = maisons();
+        if (!maisons.containsKey(id_maison)) {
+            return new ArrayList<>();
+        }
+        String sql = sql_partition + "WHERE s.id_maison = :id_maison;";
+        MapSqlParameterSource source = new MapSqlParameterSource("id_maison", id_maison);
+        int numero = annuairePartitions.partitionDe(id_maison);
+        List<Sorcier> sorciers = annuairePartitions.partition(numero).query(sql, source, new SorcierPartitionRowMapper(maisons));
+        if (sorciers.isEmpty() && fermee(annuairePartitions.partition(numero), id_maison)) {
+            int relue = annuairePartitions.relirePartition(id_maison);
+            if (relue != numero) {
+                sorciers = annuairePartitions.partition(relue).query(sql, source, new SorcierPartitionRowMapper(maisons));
+            }
+        }
+        return sorciers;
+    }
+
+    /**
+     * Récupère un sorcier par son nom et son prénom, sur toutes les partitions.
+     *
+     * @param sorcier - Le sorcier à rechercher.
+     * @return Le sorcier correspondant, ou null.
+     */
+    @Override
+    public Sorcier findByName(Sorcier sorcier) {
+        Map<Integer, Maison> maisons = maisons();
+        String sql = sql_partition + "WHERE s.nom = :nom AND s.prenom = :prenom;";
+        MapSqlParameterSource source = new MapSqlParameterSource()
+                .addValue("nom", sorcier.getNom())
+                .addValue("prenom", sorcier.getPrenom());
+        List<Sorcier> trouves = fusionner(annuairePartitions.surToutes(
+                partition -> partition.query(sql, source, new SorcierPartitionRowMapper(maisons))),
+                Comparator.comparingInt(Sorcier::getId), 1);
+        return trouves.isEmpty() ? null : trouves.get(0);
+    }
+
+    /**
+     * Récupère une page de sorciers triés. Chaque partition fournit au plus une page
+     * au-delà du curseur, puis les pages sont fusionnées selon le tri.
+     * Le curseur n'étant que sur une partition, ses valeurs sont lues d'abord,
+     * puis comparées sur chaque partition.
+     *
+     * @param tri - Le critère de tri.
+     * @param apresId - L'id du sorcier après lequel commence la page, ou null.
+     * @param avantId - L'id du sorcier avant lequel se termine la page, ou null.
+     * @param limite - Le nombre maximal de sorciers à retourner.
+     * @return Les sorciers de la page, dans l'ordre du tri.
+     */
+    @Override
+    public List<Sorcier> findPage(Tri tri, Integer apresId, Integer avantId, int limite) {
+        // Détermine le sens de lecture : on recule à partir du curseur "avant".
+        boolean recule = avantId != null;
+        Integer curseur = recule ? avantId : apresId;
+        String colonne = tri.getColonneSorcier();
+        String comparaison = recule ? "<" : ">";
+        String sens = recule ? "DESC" : "ASC";
+        Map<Integer, Maison> maisons = maisons();
+
+        StringBuilder sql = new StringBuilder(sql_partition);
+        MapSqlParameterSource source = new MapSqlParameterSource().addValue("limite", limite);
+
+        // Ne garde que les sorciers situés au-delà des valeurs du curseur selon le tri.
+        // La borne sur la colonne seule permet de parcourir l'index (colonne, id) à partir du curseur.
+        if (curseur != null) {
+            Sorcier sorcierCurseur = findById(curseur);
+            sql.append("WHERE s.").append(colonne).append(" ").append(comparaison).append("= :valeur")
+               .append(" AND (s.").append(colonne).append(" ").append(comparaison).append(" :valeur")
+               .append(" OR s.id ").append(comparaison).append(" :curseur) ");
+            source.addValue("valeur", valeurTri(tri, sorcierCurseur)).addValue("curseur", curseur);
+        }
+
+        // Trie et limite la lecture de chaque partition à la taille de la page.
+        sql.append("ORDER BY s.").append(colonne).append(" ").append(sens).append(", s.id ").append(sens)
+           .append(" OFFSET 0 ROWS FETCH NEXT :limite ROWS ONLY;");
+        String requete = sql.toString();
+
+        // Fusionne les pages des partitions dans l'ordre de lecture.
+        Comparator<Sorcier> ordre = recule ? tri.comparateurSorciers().reversed() : tri.comparateurSorciers();
+        List<Sorcier> sorciers = fusionner(annuairePartitions.surToutes(
+                partition -> partition.query(requete, source, new SorcierPartitionRowMapper(maisons))), ordre, limite);
+
+        // Remet la page dans l'ordre du tri si elle a été lue à l'envers.
+        if (recule) {
+            Collections.reverse(sorciers);
+        }
+        return sorciers;
+    }
+
+    /**
+     * Recherche les sorciers dont le nom, le prénom ou le nom de la maison commence par le terme.
+     * Les maisons correspondantes sont trouvées dans le catalogue, puis chaque partition
+     * retourne ses meilleurs résultats, fusionnés par nom.
+     *
+     * @param terme - Le terme à rechercher.
+     * @param limite - Le nombre maximal de sorciers à retourner.
+     * @return Les sorciers trouvés, triés par nom.
+     */
+    @Override
+    public List<Sorcier> search(String terme, int limite) {
+        Map<Integer, Maison> maisons = maisons();
+
+        // Identifie les maisons dont le nom commence par le terme ; -1 évite une liste IN vide.
+        String termeMinuscule = terme.trim().toLowerCase(Locale.ROOT);
+        List<Integer> idsMaisons = new ArrayList<>(List.of(-1));
+        maisons.values().stream()
+                .filter(m -> m.getNom().toLowerCase(Locale.ROOT).startsWith(termeMinuscule))
+                .forEach(m -> idsMaisons.add(m.getId()));
+
+        String sql = sql_partition
+                + "WHERE s.nom LIKE :motif ESCAPE '\\' "
+                + "OR s.prenom LIKE :motif ESCAPE '\\' "
+                + "OR s.id_maison IN (:maisons) "
+                + "ORDER BY s.nom, s.id OFFSET 0 ROWS FETCH NEXT :limite ROWS ONLY;";
+        MapSqlParameterSource source = new MapSqlParameterSource()
+                .addValue("motif", MotifRecherche.prefixe(terme))
+                .addValue("maisons", idsMaisons)
+                .addValue("limite", limite);
+        return fusionner(annuairePartitions.surToutes(
+                partition -> partition.query(sql, source, new SorcierPartitionRowMapper(maisons))),
+                Tri.NOM.comparateurSorciers(), limite);
+    }
+
+    /**
+     * Compte les sorciers de toutes les partitions.
+     *
+     * @return Le nombre de sorciers.
+     */
+    @Override
+    public int count() {
+        return annuairePartitions.surToutes(partition -> partition.getJdbcTemplate()
+                .queryForObject("SELECT COUNT(*) FROM sorcier;", Integer.class))
+                .stream().mapToInt(Integer::intValue).sum();
+    }
+
+    /**
+     * Calcule les statistiques par maison : chaque partition retourne ses sommes,
+     * minimums et maximums par maison, combinés ensuite pour toutes les maisons du catalogue.
+     *
+     * @return Les statistiques des maisons, triées par nom de maison.
+     */
+    @Override
+    public List<StatistiqueMaison> statsByMaison() {
+        String sql = "SELECT id_maison, COUNT(*) AS nombre, "
+                + "SUM(CAST(attaque AS BIGINT)) AS attaque_somme, MIN(attaque) AS attaque_min, MAX(attaque) AS attaque_max, "
+                + "SUM(CAST(sante AS BIGINT)) AS sante_somme, MIN(sante) AS sante_min, MAX(sante) AS sante_max "
+                + "FROM sorcier GROUP BY id_maison;";
+
+        // Cumule les agrégats des partitions par maison.
+        Map<Integer, long[]> cumuls = new HashMap<>();
+        for (List<long[]> lignes : annuairePartitions.surToutes(partition -> partition.getJdbcTemplate().query(sql,
+                (rs, rowNum) -> new long[] { rs.getInt("id_maison"), rs.getLong("nombre"),
+                        rs.getLong("attaque_somme"), rs.getInt("attaque_min"), rs.getInt("attaque_max"),
+                        rs.getLong("sante_somme"), rs.getInt("sante_min"), rs.getInt("sante_max") }))) {
+            for (long[] ligne : lignes) {
+                cumuls.merge((int) ligne[0], ligne, (a, b) -> new long[] { a[0], a[1] + b[1],
+                        a[2] + b[2], Math.min(a[3], b[3]), Math.max(a[4], b[4]),
+                        a[5] + b[5], Math.min(a[6], b[6]), Math.max(a[7], b[7]) });
+            }
+        }
+
+        // Construit une ligne par maison du catalogue, y compris les maisons sans sorcier.
+        return maisons().values().stream()
+                .sorted(Comparator.comparing(Maison::getNom, String.CASE_INSENSITIVE_ORDER))
+                .map(maison -> {
+                    long[] c = cumuls.get(maison.getId());
+                    if (c == null) {
+                        return new StatistiqueMaison(maison, 0, null, null, null, null, null, null);
+                    }
+                    return new StatistiqueMaison(maison, (int) c[1], c[2] / (double) c[1], (int) c[3], (int) c[4],
+                            c[5] / (double) c[1], (int) c[6], (int) c[7]);
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Supprime un sorcier par son identifiant, sur la partition qui le contient.
+     *
+     * @param id - L'id du sorcier à supprimer.
+     */
+    @Override
+    public void removeById(int id) {
+        int numero = partitionContenant(id);
+        if (numero >= 0) {
+            supprimer(numero, id);
+        }
+    }
+
+    /**
+     * Supprime un sorcier si aucun utilisateur ne l'a choisi. Les utilisateurs étant dans
+     * la base principale, la vérification précède la suppression au lieu de la conditionner.
+     *
+     * @param id - L'id du sorcier à supprimer.
+     * @return Vrai si le sorcier a été supprimé.
+     */
+    @Override
+    public boolean removeIfUnused(int id) {
+        MapSqlParameterSource source = new MapSqlParameterSource("id", id);
+        Integer utilisateurs = namedParameterJdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM utilisateur WHERE id_sorcier = :id;", source, Integer.class);
+        int numero = partitionContenant(id);
+        if (utilisateurs == null || utilisateurs > 0 || numero < 0) {
+            return false;
+        }
+        return supprimer(numero, id);
+    }
+
+    /**
+     * Sauvegarde un sorcier sur la partition de sa maison, avec un identifiant alloué par l'annuaire.
+     *
+     * @param sorcier - Le sorcier à sauvegarder
+     */
+    @Override
+    public void save(Sorcier sorcier) {
+        int idMaison = sorcier.getMaison().getId();
+        sorcier.setId(annuairePartitions.nouvelId(idMaison));
+        inserer(sorcier);
+    }
+
+    /**
+     * Sauvegarde un sorcier s'il n'existe pas déjà. L'index unique sur (nom, prénom) n'existe
+     * que par partition : l'existence est donc d'abord vérifiée sur toutes les partitions.
+     *
+     * @param sorcier - Le sorcier à sauvegarder.
+     * @return L'identifiant du sorcier créé, ou celui du sorcier existant.
+     */
+    @Override
+    public ResultatInsertion insertIfAbsent(Sorcier sorcier) {
+        Sorcier existant = findByName(sorcier);
+        if (existant != null) {
+            return new ResultatInsertion(existant.getId(), false);
+        }
+        // Ajouté entre-temps sur la même partition : retrouve son identifiant, ou réessaie s'il a été supprimé.
+        return InsertionSiAbsente.inserer(() -> {
+            save(sorcier);
+            return sorcier.getId();
+        }, () -> {
+            Sorcier ajoute = findByName(sorcier);
+            return ajoute != null ? ajoute.getId() : null;
+        });
+    }
+
+    /**
+     * Sauvegarde plusieurs sorciers : les identifiants sont alloués par l'annuaire,
+     * puis chaque partition reçoit ses sorciers par lots JDBC.
+     * Si une maison est en cours de déplacement, les sorciers déjà insérés sont retirés.
+     *
+     * @param sorciers - Les sorciers à sauvegarder, leur maison devant exister.
+     * @return Les identifiants alloués, dans l'ordre de la liste.
+     */
+    @Override
+    public List<Integer> saveAll(List<Sorcier> sorciers) {
+        // Alloue les identifiants et regroupe les sorciers par partition.
+        List<Integer> ids = new ArrayList<>(sorciers.size());
+        Map<Integer, List<Sorcier>> parPartition = new TreeMap<>();
+        for (Sorcier sorcier : sorciers) {
+            int idMaison = sorcier.getMaison().getId();
+            sorcier.setId(annuairePartitions.nouvelId(idMaison));
+            ids.add(sorcier.getId());
+            parPartition.computeIfAbsent(annuairePartitions.partitionDe(idMaison), n -> new ArrayList<>()).add(sorcier);
+        }
+
+        // Insère les sorciers de chaque partition par lots, en relevant ceux qui sont refusés.
+        Map<Integer, List<Integer>> inseres = new TreeMap<>();
+        Sorcier refuse = null;
+        for (Map.Entry<Integer, List<Sorcier>> partition : parPartition.entrySet()) {
+            List<Sorcier> lignes = partition.getValue();
+            for (int debut = 0; debut < lignes.size() && refuse == null; debut += tailleLot) {
+                List<Sorcier> lot = lignes.subList(debut, Math.min(debut + tailleLot, lignes.size()));
+                int[] comptes = annuairePartitions.partition(partition.getKey())
+                        .batchUpdate(sql_insertion, SqlParameterSourceUtils.createBatch(lot));
+                for (int i = 0; i < lot.size(); i++) {
+                    if (comptes[i] == 0) {
+                        refuse = lot.get(i);
+                    } else {
+                        inseres.computeIfAbsent(partition.getKey(), n -> new ArrayList<>()).add(lot.get(i).getId());
+                    }
+                }
+            }
+        }
+
+        // Retire les sorciers insérés si l'un d'eux a été refusé : le lot échoue en entier.
+        // L'affectation de la maison refusée est relue, pour que les sorciers soient rejoués au bon endroit.
+        if (refuse != null) {
+            inseres.forEach((numero, insere) -> annuairePartitions.partition(numero)
+                    .update("DELETE FROM sorcier WHERE id IN (:ids)", new MapSqlParameterSource("ids", insere)));
+            annuairePartitions.relirePartition(refuse.getMaison().getId());
+            throw maisonFermee(refuse.getMaison().getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Met à jour un sorcier. S'il change pour une maison d'une autre partition,
+     * il est recopié sur la nouvelle partition, puis retiré de l'ancienne.
+     *
+     * @param sorcier - Le sorcier à mettre à jour
+     */
+    @Override
+    public void update(Sorcier sorcier) {
+        int origine = partitionContenant(sorcier.getId());
+        if (origine < 0) {
+            return;
+        }
+        int cible = annuairePartitions.partitionDe(sorcier.getMaison().getId());
+        BeanPropertySqlParameterSource parameterSource = new BeanPropertySqlParameterSource(sorcier);
+        if (origine == cible) {
+            int modifies = annuairePartitions.partition(cible).update("UPDATE sorcier SET nom = :nom, prenom = :prenom, "
+                    + "id_maison = :maison.id, attaque = :attaque, sante = :sante, modifiable = :modifiable "
+                    + "WHERE id = :id" + sql_maison_presente
+                    + " AND NOT EXISTS (SELECT 1 FROM maison_absente a WHERE a.id_maison = :maison.id)", parameterSource);
+            if (modifies == 0 && partitionContenant(sorcier.getId()) >= 0) {
+                // La nouvelle maison a pu être déplacée ailleurs par une autre instance.
+                if (annuairePartitions.relirePartition(sorcier.getMaison().getId()) == cible) {
+                    throw maisonFermee(sorcier.getMaison().getId());
+                }
+                update(sorcier);
+            }
+        } else {
+            int partitionCopie = inserer(sorcier);
+            try {
+                supprimer(origine, sorcier.getId());
+            } catch (CannotAcquireLockException e) {
+                // L'ancienne maison est en cours de déplacement : retire la copie, le sorcier reste où il était.
+                annuairePartitions.partition(partitionCopie).update("DELETE FROM sorcier WHERE id = :id", parameterSource);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Déplace tous les sorciers d'une maison vers une autre partition.
+     * La maison est d'abord fermée aux écritures sur les deux partitions : toute écriture
+     * commencée ensuite est refusée par sa requête même. Les sorciers sont recopiés par lots,
+     * l'annuaire bascule, puis l'ancienne partition ne perd que les lignes identiques à leur copie ;
+     * une ligne écrite pendant la copie est recopiée, jusqu'à ce qu'il n'en reste aucune.
+     * La maison reste fermée sur l'ancienne partition, où elle n'est plus.
+     * Un déplacement interrompu après la bascule est repris en relançant le même déplacement.
+     *
+     * @param idMaison - L'id de la maison à déplacer.
+     * @param cible - Le numéro de la partition cible.
+     * @return Le nombre de sorciers déplacés.
+     */
+    public int deplacerMaison(int idMaison, int cible) {
+        if (cible < 0 || cible >= annuairePartitions.getNombre()) {
+            throw new IllegalArgumentException("Partition inconnue : " + cible);
+        }
+        NamedParameterJdbcTemplate arrivee = annuairePartitions.partition(cible);
+        MapSqlParameterSource maison = new MapSqlParameterSource("id_maison", idMaison);
+        int origine = annuairePartitions.relirePartition(idMaison);
+        if (origine == cible) {
+            // Reprend un déplacement interrompu après la bascule, s'il y en a un.
+            if (!fermee(arrivee, idMaison)) {
+                return 0;
+            }
+            int deplaces = 0;
+            for (int numero = 0; numero < annuairePartitions.getNombre(); numero++) {
+                if (numero != cible) {
+                    deplaces += rattraper(annuairePartitions.partition(numero), arrivee, maison);
+                }
+            }
+            arrivee.update("DELETE FROM maison_absente WHERE id_maison = :id_maison", maison);
+            return deplaces;
+        }
+        NamedParameterJdbcTemplate depart = annuairePartitions.partition(origine);
+
+        // Ferme la maison aux écritures sur les deux partitions.
+        fermer(arrivee, maison);
+        fermer(depart, maison);
+
+        // Efface une éventuelle copie partielle, puis recopie les sorciers par lots.
+        int copies;
+        try {
+            arrivee.update("DELETE FROM sorcier WHERE id_maison = :id_maison", maison);
+            copies = copier(depart, arrivee, maison, null);
+        } catch (RuntimeException e) {
+            // Rien n'a basculé : rouvre la maison sur sa partition.
+            depart.update("DELETE FROM maison_absente WHERE id_maison = :id_maison", maison);
+            throw e;
+        }
+
+        // Bascule la maison dans l'annuaire, vide l'ancienne partition, puis ouvre la nouvelle.
+        annuairePartitions.affecter(idMaison, cible);
+        copies += rattraper(depart, arrivee, maison);
+        arrivee.update("DELETE FROM maison_absente WHERE id_maison = :id_maison", maison);
+        System.out.println("SRP : Maison " + idMaison + " deplacee de la partition " + origine + " vers " + cible
+                + " (" + copies + " sorciers).");
+        return copies;
+    }
+
+    /**
+     * Compte les sorciers de chaque partition.
+     *
+     * @return Le nombre de sorciers, dans l'ordre des partitions.
+     */
+    public List<Integer> countParPartition() {
+        return annuairePartitions.surToutes(partition -> partition.getJdbcTemplate()
+                .queryForObject("SELECT COUNT(*) FROM sorcier;", Integer.class));
+    }
+
+    /**
+     * Retourne la partition qui contient un sorcier, ou -1 s'il n'existe pas.
+     */
+    private int partitionContenant(int id) {
+        if (id <= 0) {
+            return -1;
+        }
+        String sql = "SELECT COUNT(*) FROM sorcier WHERE id = :id;";
+        MapSqlParameterSource source = new MapSqlParameterSource("id", id);
+        int origine = annuairePartitions.partitionDuSorcier(id);
+        if (origine >= 0 && annuairePartitions.partition(origine).queryForObject(sql, source, Integer.class) > 0) {
+            return origine;
+        }
+        List<Integer> comptes = annuairePartitions.surToutes(partition -> partition.queryForObject(sql, source, Integer.class));
+        return comptes.indexOf(1);
+    }
+
+    /**
+     * Insère un sorcier sur la partition de sa maison. Si la maison y est fermée,
+     * son affectation est relue : déplacée par une autre instance, elle est sur une autre partition.
+     *
+     * @return La partition où le sorcier a été inséré.
+     */
+    private int inserer(Sorcier sorcier) {
+        int idMaison = sorcier.getMaison().getId();
+        BeanPropertySqlParameterSource source = new BeanPropertySqlParameterSource(sorcier);
+        int numero = annuairePartitions.partitionDe(idMaison);
+        if (annuairePartitions.partition(numero).update(sql_insertion, source) > 0) {
+            return numero;
+        }
+        int relue = annuairePartitions.relirePartition(idMaison);
+        if (relue == numero || annuairePartitions.partition(relue).update(sql_insertion, source) == 0) {
+            throw maisonFermee(idMaison);
+        }
+        return relue;
+    }
+
+    /**
+     * Supprime un sorcier de sa partition, sauf si sa maison y est fermée aux écritures.
+     */
+    private boolean supprimer(int numero, int id) {
+        MapSqlParameterSource source = new MapSqlParameterSource("id", id);
+        NamedParameterJdbcTemplate partition = annuairePartitions.partition(numero);
+        if (partition.update("DELETE FROM sorcier WHERE id = :id" + sql_maison_presente, source) > 0) {
+            return true;
+        }
+        List<Integer> maisons = partition.queryForList("SELECT id_maison FROM sorcier WHERE id = :id", source, Integer.class);
+        if (!maisons.isEmpty()) {
+            throw maisonFermee(maisons.get(0));
+        }
+        return false;
+    }
+
+    /**
+     * Ferme une maison aux écritures sur une partition.
+     */
+    private static void fermer(NamedParameterJdbcTemplate partition, MapSqlParameterSource maison) {
+        partition.update("INSERT INTO maison_absente (id_maison) SELECT CAST(:id_maison AS INT) "
+                + "WHERE NOT EXISTS (SELECT 1 FROM maison_absente WHERE id_maison = :id_maison)", maison);
+    }
+
+    /**
+     * Indique si une maison est fermée aux écritures sur une partition.
+     */
+    private static boolean fermee(NamedParameterJdbcTemplate partition, int idMaison) {
+        return partition.queryForObject("SELECT COUNT(*) FROM maison_absente WHERE id_maison = :id_maison",
+                new MapSqlParameterSource("id_maison", idMaison), Integer.class) > 0;
+    }
+
+    /**
+     * Recopie par lots les sorciers d'une maison d'une partition à l'autre, au fil de la lecture.
+     * Si ids est donné, seuls ces sorciers sont recopiés, après effacement de leur ancienne copie.
+     *
+     * @return Le nombre de sorciers recopiés.
+     */
+    private int copier(NamedParameterJdbcTemplate depart, NamedParameterJdbcTemplate arrivee,
+            MapSqlParameterSource maison, List<Integer> ids) {
+        String copie = "INSERT INTO sorcier (id, nom, prenom, id_maison, attaque, sante, modifiable) "
+                + "VALUES (:id, :nom, :prenom, :id_maison, :attaque, :sante, :modifiable)";
+        if (ids != null) {
+            arrivee.update("DELETE FROM sorcier WHERE id IN (:ids)", new MapSqlParameterSource("ids", ids));
+        }
+        List<SqlParameterSource> lot = new ArrayList<>(tailleLot);
+        int[] copies = { 0 };
+        depart.query("SELECT id, nom, prenom, id_maison, attaque, sante, modifiable FROM sorcier "
+                + "WHERE id_maison = :id_maison" + (ids == null ? "" : " AND id IN (:ids)"),
+                new MapSqlParameterSource(maison.getValues()).addValue("ids", ids), (RowCallbackHandler) rs -> {
+                    lot.add(ligne(rs));
+                    if (lot.size() >= tailleLot) {
+                        arrivee.batchUpdate(copie, lot.toArray(new SqlParameterSource[0]));
+                        copies[0] += lot.size();
+                        lot.clear();
+                    }
+                });
+        if (!lot.isEmpty()) {
+            arrivee.batchUpdate(copie, lot.toArray(new SqlParameterSource[0]));
+            copies[0] += lot.size();
+        }
+        return copies[0];
+    }
+
+    /**
+     * Vide l'ancienne partition d'une maison déplacée. Seules les lignes identiques à leur copie
+     * sont supprimées ; les autres, écrites pendant la copie, sont recopiées puis supprimées
+     * à la passe suivante.
+     *
+     * @return Le nombre de sorciers recopiés en plus de la première copie.
+     */
+    private int rattraper(NamedParameterJdbcTemplate depart, NamedParameterJdbcTemplate arrivee,
+            MapSqlParameterSource maison) {
+        // Compare toutes les colonnes, NULL compris : INTERSECT tient deux NULL pour égaux.
+        String suppression = "DELETE FROM sorcier WHERE id = :id AND EXISTS ("
+                + "SELECT nom, prenom, id_maison, attaque, sante, modifiable INTERSECT "
+                + "SELECT CAST(:nom AS VARCHAR(255)), CAST(:prenom AS VARCHAR(255)), CAST(:id_maison AS INT), "
+                + "CAST(:attaque AS INT), CAST(:sante AS INT), CAST(:modifiable AS INT))";
+        int recopies = 0;
+        List<Integer> ids = null;
+        for (int passe = 0; passe < PASSES_MAX; passe++) {
+            // Supprime de l'ancienne partition les lignes dont la copie est identique ;
+            // après la première passe, seules les lignes recopiées sont comparées.
+            List<SqlParameterSource> lot = new ArrayList<>(tailleLot);
+            arrivee.query("SELECT id, nom, prenom, id_maison, attaque, sante, modifiable FROM sorcier "
+                    + "WHERE id_maison = :id_maison" + (ids == null ? "" : " AND id IN (:ids)"),
+                    new MapSqlParameterSource(maison.getValues()).addValue("ids", ids), (RowCallbackHandler) rs -> {
+                        lot.add(ligne(rs));
+                        if (lot.size() >= tailleLot) {
+                            depart.batchUpdate(suppression, lot.toArray(new SqlParameterSource[0]));
+                            lot.clear();
+                        }
+                    });
+            if (!lot.isEmpty()) {
+                depart.batchUpdate(suppression, lot.toArray(new SqlParameterSource[0]));
+            }
+
+            // Recopie les lignes restantes, écrites pendant la copie.
+            List<Integer> restants = depart.queryForList("SELECT id FROM sorcier WHERE id_maison = :id_maison",
+                    maison, Integer.class);
+            if (restants.isEmpty()) {
+                return recopies;
+            }
+            recopies += copier(depart, arrivee, maison, restants);
+            ids = restants;
+        }
+        throw new CannotAcquireLockException("Deplacement de la maison " + maison.getValue("id_maison")
+                + " inacheve : des sorciers restent sur l'ancienne partition");
+    }
+
+    /**
+     * Lit une ligne de la table sorcier telle quelle, NULL compris.
+     */
+    private static MapSqlParameterSource ligne(ResultSet rs) throws SQLException {
+        return new MapSqlParameterSource()
+                .addValue("id", rs.getInt("id"))
+                .addValue("nom", rs.getString("nom"), Types.VARCHAR)
+                .addValue("prenom", rs.getString("prenom"), Types.VARCHAR)
+                .addValue("id_maison", rs.getInt("id_maison"))
+                .addValue("attaque", rs.getObject("attaque"), Types.INTEGER)
+                .addValue("sante", rs.getObject("sante"), Types.INTEGER)
+                .addValue("modifiable", rs.getObject("modifiable"), Types.INTEGER);
+    }
+
+    /**
+     * Exception d'une écriture refusée parce que la maison est fermée sur la partition.
+     */
+    private static CannotAcquireLockException maisonFermee(int idMaison) {
+        return new CannotAcquireLockException("Maison " + idMaison + " en cours de deplacement : ecriture refusee");
+    }
+
+    /**
+     * Charge les maisons du catalogue, par identifiant.
+     */
+    private Map<Integer, Maison> maisons() {
+        Map<Integer, Maison> maisons = new HashMap<>();
+        maisonRepositorySqlserver.findAll().forEach(maison -> maisons.put(maison.getId(), maison));
+        return maisons;
+    }
+
+    /**
+     * Retourne la valeur du curseur pour la colonne du tri.
+     */
+    private static Object valeurTri(Tri tri, Sorcier sorcier) {
+        return switch (tri) {
+            case ATTAQUE -> sorcier.getAttaque();
+            case SANTE -> sorcier.getSante();
+            default -> sorcier.getNom();
+        };
+    }
+
+    /**
+     * Fusionne les résultats des partitions selon l'ordre donné et garde les premiers.
+     */
+    private static List<Sorcier> fusionner(List<List<Sorcier>> parPartition, Comparator<Sorcier> ordre, int limite) {
+        return parPartition.stream()
+                .flatMap(List::stream)
+                .sorted(ordre)
+                .limit(limite)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+}
@@ -1,19 +1,23 @@
 package com.example.sorcier.dal.sqlserver;
 
+import java.util.Collections;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.util.List;
+import java.util.function.Consumer;
 
 //Annotations pour gérer les profils et le composant de repository.
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
 //Gestion des exceptions pour les résultats de données vides.
 import org.springframework.dao.EmptyResultDataAccessException;
-
-//Mapper pour lier les propriétés des beans Java avec les colonnes de la base de données.
-import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.dao.support.DataAccessUtils;
 
 //Template pour les opérations JDBC.
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 
 //Template pour les opérations JDBC avec support des paramètres nommés.
 import org.springframework.jdbc.core.namedparam.BeanPropertySqlParameterSource;
@@ -23,9 +27,13 @@ import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 //Support pour récupérer les clés générées.
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 
+import com.example.sorcier.bo.ResultatInsertion;
 import com.example.sorcier.bo.Sorcier;
+import com.example.sorcier.bo.StatistiqueMaison;
+import com.example.sorcier.bo.Tri;
 import com.example.sorcier.dal.SorcierRepository;
 import com.example.sorcier.dal.rowmapper.SorcierRowMapper;
+import com.example.sorcier.dal.rowmapper.StatistiqueMaisonRowMapper;
 
 @Repository
 @Profile("sqlserver")
@@ -33,6 +41,18 @@ public class SorcierRepositorySqlserver implements SorcierRepository {
     private JdbcTemplate jdbcTemplate;
     private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
 
+    // Nombre de lignes envoyées par lot lors des insertions en masse.
+    @Value("${sorcier.jdbc.taille-lot:500}")
+    private int tailleLot;
+
+    // Forme des insertions par lots qui retournent les clés générées (output ou final-table).
+    @Value("${sorcier.jdbc.cles-generees:output}")
+    private String clesGenerees = InsertionParLots.OUTPUT;
+
+    // Nombre de lignes lues par aller-retour lors des parcours complets.
+    @Value("${sorcier.jdbc.taille-fetch:1000}")
+    private int tailleFetch;
+
     private final String sql_debut = "SELECT "
     		+ "s.id AS sorcier_id, "
     		+ "s.nom AS sorcier_nom, "
@@ -86,6 +106,27 @@ public class SorcierRepositorySqlserver implements SorcierRepository {
         return jdbcTemplate.query(sql, new SorcierRowMapper());
     }
 
+    /**
+     * Parcourt tous les sorciers, par ordre d'id, sans les charger en mémoire.
+     * La lecture se fait par un curseur en avant seulement : le driver ne
+     * garde que tailleFetch lignes à la fois.
+     * 
+     * @param consommateur - Le traitement appliqué à chaque sorcier lu.
+     */
+    @Override
+    public void streamAll(Consumer<Sorcier> consommateur) {
+        // Construit la requête complète, triée par ID.
+        String sql = getSql_debut() + "ORDER BY s.id;";
+        SorcierRowMapper mapper = new SorcierRowMapper();
+        
+        // Exécute la requête en lecture seule, en avant seulement, et transmet chaque ligne dès sa lecture.
+        jdbcTemplate.query(connexion -> {
+            PreparedStatement ps = connexion.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(tailleFetch);
+            return ps;
+        }, (RowCallbackHandler) rs -> consommateur.accept(mapper.mapRow(rs, rs.getRow())));
+    }
+
     /**
      * Récupère un sorcier par son identifiant.
      * 
@@ -114,13 +155,13 @@ public class SorcierRepositorySqlserver implements SorcierRepository {
     @Override
     public List<Sorcier> findByMaison(int id_maison) {
         // Construit la requête SQL pour récupérer tous les sorciers d'une maison spécifique.
-        String sql = "SELECT * FROM sorcier WHERE id_maison = :id_maison;";
+        String sql = getSql_debut() + "WHERE s.id_maison = :id_maison;";
         
         // Prépare les paramètres de la requête avec l'ID de la maison.
         MapSqlParameterSource source = new MapSqlParameterSource().addValue("id_maison", id_maison);
         
         // Exécute la requête pour trouver les sorciers par maison.
-        return namedParameterJdbcTemplate.query(sql, source, new BeanPropertyRowMapper<>(Sorcier.class));
+        return namedParameterJdbcTemplate.query(sql, source, new SorcierRowMapper());
     }
     
     /**
@@ -132,7 +173,7 @@ public class SorcierRepositorySqlserver implements SorcierRepository {
     @Override
     public Sorcier findByName(Sorcier sorcier) {
         // Construit la requête SQL pour trouver un sorcier par nom et prénom.
-        String sql = "SELECT * FROM sorcier WHERE nom = :nom AND prenom = :prenom;";
+        String sql = getSql_debut() + "WHERE s.nom = :nom AND s.prenom = :prenom;";
         
         // Prépare les paramètres de la requête avec le nom et prénom du sorcier.
         MapSqlParameterSource source = new MapSqlParameterSource()
@@ -141,7 +182,7 @@ public class SorcierRepositorySqlserver implements SorcierRepository {
         
         try {
             // Tente de récupérer un sorcier correspondant aux critères de nom et prénom.
-            return namedParameterJdbcTemplate.queryForObject(sql, source, new BeanPropertyRowMapper<>(Sorcier.class));
+            return namedParameterJdbcTemplate.queryForObject(sql, source, new SorcierRowMapper());
             
         } catch (EmptyResultDataAccessException e) {
             // Retourne null si aucun sorcier correspondant n'est trouvé.
@@ -149,6 +190,130 @@ public class SorcierRepositorySqlserver implements SorcierRepository {
         }
     }
 
+    /**
+     * Récupère une page de sorciers triés, à partir d'un curseur.
+     * Le tri est départagé par l'id pour que le curseur soit sans ambiguïté,
+     * et s'appuie sur les index (colonne, id) de la table sorcier.
+     * 
+     * @param tri - Le critère de tri.
+     * @param apresId - L'id du sorcier après lequel commence la page, ou null.
+     * @param avantId - L'id du sorcier avant lequel se termine la page, ou null.
+     * @param limite - Le nombre maximal de sorciers à retourner.
+     * @return Les sorciers de la page, dans l'ordre du tri.
+     */
+    @Override
+    public List<Sorcier> findPage(Tri tri, Integer apresId, Integer avantId, int limite) {
+        // Détermine le sens de lecture : on recule à partir du curseur "avant".
+        boolean recule = avantId != null;
+        Integer curseur = recule ? avantId : apresId;
+        String colonne = tri.getColonneSorcier();
+        String comparaison = recule ? "<" : ">";
+        String sens = recule ? "DESC" : "ASC";
+        
+        // Construit la requête à partir de la requête de base.
+        StringBuilder sql = new StringBuilder(getSql_debut());
+        
+        // Ne garde que les sorciers situés au-delà du curseur selon le tri.
+        // La borne sur la colonne seule permet de parcourir l'index (colonne, id) à partir du curseur.
+        if (curseur != null) {
+            sql.append("INNER JOIN sorcier c ON c.id = :curseur ")
+               .append("WHERE s.").append(colonne).append(" ").append(comparaison).append("= c.").append(colonne)
+               .append(" AND (s.").append(colonne).append(" ").append(comparaison).append(" c.").append(colonne)
+               .append(" OR s.id ").append(comparaison).append(" c.id) ");
+        }
+        
+        // Trie et limite la lecture à la taille de la page.
+        sql.append("ORDER BY s.").append(colonne).append(" ").append(sens).append(", s.id ").append(sens)
+           .append(" OFFSET 0 ROWS FETCH NEXT :limite ROWS ONLY;");
+        
+        // Prépare les paramètres de la requête.
+        MapSqlParameterSource source = new MapSqlParameterSource()
+                .addValue("curseur", curseur)
+                .addValue("limite", limite);
+        
+        // Exécute la requête pour récupérer la page de sorciers.
+        List<Sorcier> sorciers = namedParameterJdbcTemplate.query(sql.toString(), source, new SorcierRowMapper());
+        
+        // Remet la page dans l'ordre du tri si elle a été lue à l'envers.
+        if (recule) {
+            Collections.reverse(sorciers);
+        }
+        return sorciers;
+    }
+
+    /**
+     * Recherche les sorciers dont le nom, le prénom ou le nom de la maison
+     * commence par le terme. La comparaison insensible à la casse est assurée
+     * par la collation de la base. Chaque condition est une recherche dans un index :
+     * (nom, id), (prenom, id), et le nom des maisons puis id_maison.
+     * 
+     * @param terme - Le terme à rechercher.
+     * @param limite - Le nombre maximal de sorciers à retourner.
+     * @return Les sorciers trouvés, triés par nom.
+     */
+    @Override
+    public List<Sorcier> search(String terme, int limite) {
+        // Ajoute le filtre sur le nom, le prénom et la maison, puis borne le résultat.
+        String sql = getSql_debut()
+                + "WHERE s.nom LIKE :motif ESCAPE '\\' "
+                + "OR s.prenom LIKE :motif ESCAPE '\\' "
+                + "OR s.id_maison IN (SELECT id FROM maison WHERE nom LIKE :motif ESCAPE '\\') "
+                + "ORDER BY s.nom, s.id OFFSET 0 ROWS FETCH NEXT :limite ROWS ONLY;";
+        
+        // Prépare les paramètres de la requête avec le motif échappé.
+        MapSqlParameterSource source = new MapSqlParameterSource()
+                .addValue("motif", MotifRecherche.prefixe(terme))
+                .addValue("limite", limite);
+        
+        // Exécute la requête pour trouver les sorciers correspondants.
+        return namedParameterJdbcTemplate.query(sql, source, new SorcierRowMapper());
+    }
+    
+    /**
+     * Compte les sorciers sans les lire.
+     * 
+     * @return Le nombre de sorciers.
+     */
+    @Override
+    public int count() {
+        // Construit la requête de comptage.
+        String sql = "SELECT COUNT(*) FROM sorcier;";
+        
+        // Exécute la requête et retourne le nombre de sorciers.
+        Integer nombre = jdbcTemplate.queryForObject(sql, Integer.class);
+        return nombre != null ? nombre : 0;
+    }
+
+    /**
+     * Calcule les statistiques des sorciers par maison en une seule requête groupée.
+     * La jointure externe garde les maisons sans sorcier, avec des agrégats à NULL.
+     * 
+     * @return Les statistiques des maisons, triées par nom de maison.
+     */
+    @Override
+    public List<StatistiqueMaison> statsByMaison() {
+        // Construit la requête groupée ; les moyennes sont calculées en flottant pour ne pas être tronquées.
+        String sql = "SELECT "
+                + "m.id AS maison_id, "
+                + "m.nom AS maison_nom, "
+                + "m.bonusAttaque AS maison_bonusAttaque, "
+                + "m.bonusSante AS maison_bonusSante, "
+                + "m.modifiable AS maison_modifiable, "
+                + "COUNT(s.id) AS nombre_sorciers, "
+                + "AVG(CAST(s.attaque AS FLOAT)) AS attaque_moyenne, "
+                + "MIN(s.attaque) AS attaque_min, "
+                + "MAX(s.attaque) AS attaque_max, "
+                + "AVG(CAST(s.sante AS FLOAT)) AS sante_moyenne, "
+                + "MIN(s.sante) AS sante_min, "
+                + "MAX(s.sante) AS sante_max "
+                + "FROM maison m "
+                + "LEFT JOIN sorcier s ON s.id_maison = m.id "
+                + "GROUP BY m.id, m.nom, m.bonusAttaque, m.bonusSante, m.modifiable "
+                + "ORDER BY m.nom;";
+        
+        // Exécute la requête pour récupérer une ligne par maison.
+        return jdbcTemplate.query(sql, new StatistiqueMaisonRowMapper());
+    }
     
     /**
      * Supprime un sorcier par son identifiant.
@@ -168,6 +333,26 @@ public class SorcierRepositorySqlserver implements SorcierRepository {
         namedParameterJdbcTemplate.update(sql, source);
     }
 
+    /**
+     * Supprime un sorcier si aucun utilisateur ne l'a choisi. La vérification et la
+     * suppression forment une seule requête, sans erreur de clé étrangère.
+     * 
+     * @param id - L'id du sorcier à supprimer.
+     * @return Vrai si le sorcier a été supprimé.
+     */
+    @Override
+    public boolean removeIfUnused(int id) {
+        // Construit la suppression conditionnée à l'absence d'utilisateur lié au sorcier.
+        String sql = "DELETE FROM sorcier WHERE id = :id "
+                + "AND NOT EXISTS (SELECT 1 FROM utilisateur u WHERE u.id_sorcier = :id);";
+        
+        // Prépare les paramètres de la requête avec l'ID du sorcier.
+        MapSqlParameterSource source = new MapSqlParameterSource().addValue("id", id);
+        
+        // Exécute la suppression et indique si une ligne a été supprimée.
+        return namedParameterJdbcTemplate.update(sql, source) > 0;
+    }
+
     
     /**
      * Sauvegarde un sorcier.
@@ -195,6 +380,48 @@ public class SorcierRepositorySqlserver implements SorcierRepository {
         }
     }
 
+    /**
+     * Sauvegarde un sorcier s'il n'existe pas déjà. Le conflit est détecté par
+     * l'index unique sur (nom, prénom) lors de l'insertion : un seul aller-retour
+     * dans le cas courant, et pas de doublon possible entre deux ajouts concurrents.
+     * Un sorcier en conflit supprimé avant sa relecture est inséré à nouveau.
+     * 
+     * @param sorcier - Le sorcier à sauvegarder.
+     * @return L'identifiant du sorcier créé, ou celui du sorcier existant.
+     */
+    @Override
+    public ResultatInsertion insertIfAbsent(Sorcier sorcier) {
+        // Tente l'insertion directement ; si le sorcier existe déjà, retrouve son identifiant.
+        String sql = "SELECT id FROM sorcier WHERE nom = :nom AND prenom = :prenom;";
+        MapSqlParameterSource source = new MapSqlParameterSource()
+                .addValue("nom", sorcier.getNom())
+                .addValue("prenom", sorcier.getPrenom());
+        return InsertionSiAbsente.inserer(() -> {
+            save(sorcier);
+            return sorcier.getId();
+        }, () -> DataAccessUtils.singleResult(namedParameterJdbcTemplate.queryForList(sql, source, Integer.class)));
+    }
+
+    /**
+     * Sauvegarde plusieurs sorciers par lots, chaque lot en une requête.
+     * 
+     * @param sorciers - Les sorciers à sauvegarder, leur maison devant exister.
+     * @return Les identifiants générés, dans l'ordre de la liste.
+     */
+    @Override
+    public List<Integer> saveAll(List<Sorcier> sorciers) {
+        // Insère les sorciers par lots et récupère les clés générées.
+        List<Integer> ids = InsertionParLots.inserer(namedParameterJdbcTemplate, "sorcier",
+                "nom, prenom, id_maison, attaque, sante, modifiable",
+                ":nom, :prenom, :maison.id, :attaque, :sante, :modifiable", sorciers, tailleLot, clesGenerees);
+        
+        // Affecte à chaque sorcier l'ID généré.
+        for (int i = 0; i < sorciers.size(); i++) {
+            sorciers.get(i).setId(ids.get(i));
+        }
+        return ids;
+    }
+
     /**
      * Met à jour un sorcier.
      * 
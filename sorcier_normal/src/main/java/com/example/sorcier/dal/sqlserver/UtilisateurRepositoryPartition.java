@@ -0,0 +1,98 @@
+package com.example.sorcier.dal.sqlserver;
+
+import com.example.sorcier.bo.Utilisateur;
+import com.example.sorcier.bo.UtilisateurConnecte;
+
+//Annotations pour gérer les profils et le composant de repository.
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+//Gestion des exceptions pour les résultats de données vides.
+import org.springframework.dao.EmptyResultDataAccessException;
+
+//Template pour les opérations JDBC avec support des paramètres nommés.
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+/**
+ * Repository des utilisateurs lorsque les sorciers sont répartis sur plusieurs bases.
+ * La jointure avec la table sorcier de la base principale ne trouve plus le sorcier
+ * de l'utilisateur : il est relu sur sa partition.
+ */
+@Repository
+@Primary
+@Profile("sqlserver & partition")
+public class UtilisateurRepositoryPartition extends UtilisateurRepositorySqlserver {
+
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private SorcierRepositoryPartition sorcierRepositoryPartition;
+
+    /**
+     * Constructeur initialisant le template JDBC et le repository des sorciers partitionnés.
+     *
+     * @param namedParameterJdbcTemplate - Template JDBC de la base principale, avec paramètres nommés.
+     * @param sorcierRepositoryPartition - Le repository des sorciers partitionnés.
+     */
+    public UtilisateurRepositoryPartition(NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+            SorcierRepositoryPartition sorcierRepositoryPartition) {
+        super(namedParameterJdbcTemplate);
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.sorcierRepositoryPartition = sorcierRepositoryPartition;
+    }
+
+    /**
+     * Récupère un utilisateur par son identifiant, avec son sorcier.
+     *
+     * @param id - L'id de l'utilisateur à récupérer.
+     * @return L'utilisateur correspondant à l'identifiant spécifié.
+     */
+    @Override
+    public Utilisateur findById(int id) {
+        return completerSorcier(super.findById(id));
+    }
+
+    /**
+     * Récupère un utilisateur par son nom, avec son sorcier.
+     *
+     * @param nomUtilisateur - Le nom de l'utilisateur à récupérer.
+     * @return L'utilisateur correspondant au nom spécifié, ou null si non trouvé.
+     */
+    @Override
+    public Utilisateur findByName(String nomUtilisateur) {
+        return completerSorcier(super.findByName(nomUtilisateur));
+    }
+
+    /**
+     * Récupère un utilisateur par son nom, avec ses rôles et son sorcier.
+     *
+     * @param nomUtilisateur - Le nom de l'utilisateur à récupérer.
+     * @return L'utilisateur authentifiable, ou null si non trouvé.
+     */
+    @Override
+    public UtilisateurConnecte findConnexionByName(String nomUtilisateur) {
+        UtilisateurConnecte connecte = super.findConnexionByName(nomUtilisateur);
+        completerSorcier(connecte);
+        return connecte;
+    }
+
+    /**
+     * Relit sur sa partition le sorcier choisi par l'utilisateur.
+     */
+    private Utilisateur completerSorcier(Utilisateur utilisateur) {
+        if (utilisateur == null || utilisateur.getSorcier() != null) {
+            return utilisateur;
+        }
+        Integer idSorcier = namedParameterJdbcTemplate.queryForObject(
+                "SELECT id_sorcier FROM utilisateur WHERE id = :id",
+                new MapSqlParameterSource("id", utilisateur.getId()), Integer.class);
+        if (idSorcier != null) {
+            try {
+                utilisateur.setSorcier(sorcierRepositoryPartition.findById(idSorcier));
+            } catch (EmptyResultDataAccessException e) {
+                System.out.println("URP : Sorcier " + idSorcier + " introuvable (completerSorcier).");
+            }
+        }
+        return utilisateur;
+    }
+}
@@ -1,14 +1,19 @@
 package com.example.sorcier.dal.sqlserver;
 
+import com.example.sorcier.bo.ResultatInsertion;
 import com.example.sorcier.bo.Utilisateur;
+import com.example.sorcier.bo.UtilisateurConnecte;
 import com.example.sorcier.dal.rowmapper.UtilisateurRowMapper;
 
+import java.util.ArrayList;
+
 //Annotations pour gérer les profils et le composant de repository.
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
 //Gestion des exceptions pour les résultats de données vides.
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.support.DataAccessUtils;
 
 //Template pour les opérations JDBC avec support des paramètres nommés.
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
@@ -48,6 +53,11 @@ public class UtilisateurRepositorySqlserver {
 			+ "FROM utilisateur u "
 			+ "LEFT JOIN sorcier s ON u.id_sorcier = s.id "
 			+ "LEFT JOIN maison m ON s.id_maison = m.id ";
+
+    // Requête de connexion : l'utilisateur, son sorcier et sa maison, avec une ligne par rôle.
+    private final String sql_connexion = sql_debut.replaceFirst("^SELECT ", "SELECT r.role AS role_nom, ")
+    		+ "LEFT JOIN Roles r ON r.id_utilisateur = u.id "
+    		+ "WHERE u.nom = :nom";
     
     /**
      * Retourne la requête SQL de base pour les opérations de recherche des utilisateurs.
@@ -127,6 +137,25 @@ public class UtilisateurRepositorySqlserver {
         }
     }
 
+    /**
+     * Sauvegarde un utilisateur s'il n'existe pas déjà. Le conflit est détecté par
+     * l'index unique sur le nom lors de l'insertion, sans recherche préalable.
+     * Un utilisateur en conflit supprimé avant sa relecture est inséré à nouveau.
+     * 
+     * @param utilisateur - L'utilisateur à sauvegarder.
+     * @return L'identifiant de l'utilisateur créé, ou celui de l'utilisateur existant.
+     */
+    public ResultatInsertion insertIfAbsent(Utilisateur utilisateur) {
+        // Tente l'insertion directement ; l'ID généré est affecté à l'utilisateur.
+        // Si l'utilisateur existe déjà, retrouve son identifiant.
+        String sql = "SELECT id FROM utilisateur WHERE nom = :nom";
+        MapSqlParameterSource source = new MapSqlParameterSource().addValue("nom", utilisateur.getNom());
+        return InsertionSiAbsente.inserer(() -> {
+            save(utilisateur);
+            return utilisateur.getId();
+        }, () -> DataAccessUtils.singleResult(namedParameterJdbcTemplate.queryForList(sql, source, Integer.class)));
+    }
+
     /**
      * Met à jour les informations d'un utilisateur existant.
      * 
@@ -153,6 +182,19 @@ public class UtilisateurRepositorySqlserver {
         namedParameterJdbcTemplate.update(sql, source);
     }
     
+    /**
+     * Remplace le hachage du mot de passe d'un utilisateur.
+     * 
+     * @param nomUtilisateur - Le nom de l'utilisateur.
+     * @param mdpHash - Le nouveau hachage.
+     */
+    public void updateMdpHash(String nomUtilisateur, String mdpHash) {
+        MapSqlParameterSource source = new MapSqlParameterSource()
+                .addValue("mdpHash", mdpHash)
+                .addValue("nom", nomUtilisateur);
+        namedParameterJdbcTemplate.update("UPDATE Utilisateur SET mdpHash = :mdpHash WHERE nom = :nom", source);
+    }
+    
     /**
      * Récupère un utilisateur par son nom.
      * 
@@ -176,4 +218,30 @@ public class UtilisateurRepositorySqlserver {
             return null;
         }
     }
+
+    /**
+     * Récupère un utilisateur par son nom, avec son sorcier et ses rôles, en une seule requête.
+     * 
+     * @param nomUtilisateur - Le nom de l'utilisateur à récupérer.
+     * @return L'utilisateur authentifiable, ou null si non trouvé.
+     */
+    public UtilisateurConnecte findConnexionByName(String nomUtilisateur) {
+        MapSqlParameterSource source = new MapSqlParameterSource("nom", nomUtilisateur);
+        UtilisateurRowMapper mapper = new UtilisateurRowMapper();
+        
+        // Lit l'utilisateur sur la première ligne, puis un rôle par ligne.
+        return namedParameterJdbcTemplate.query(sql_connexion, source, rs -> {
+            UtilisateurConnecte connecte = null;
+            while (rs.next()) {
+                if (connecte == null) {
+                    connecte = new UtilisateurConnecte(mapper.mapRow(rs, rs.getRow()), new ArrayList<>());
+                }
+                String role = rs.getString("role_nom");
+                if (role != null) {
+                    connecte.getRoles().add(role);
+                }
+            }
+            return connecte;
+        });
+    }
 }
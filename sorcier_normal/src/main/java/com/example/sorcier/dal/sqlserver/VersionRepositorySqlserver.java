@@ -0,0 +1,69 @@
+package com.example.sorcier.dal.sqlserver;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Importations nécessaires pour les configurations de profil.
+import org.springframework.context.annotation.Profile;
+
+// Importation des classes JDBC pour l'exécution des requêtes.
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+// Importation de l'annotation Repository pour définir cette classe comme un composant de la couche de données.
+import org.springframework.stereotype.Repository;
+
+import com.example.sorcier.dal.VersionRepository;
+
+/**
+ * Implémentation SQL Server du repository des versions des données.
+ * La table version_donnees est partagée par toutes les instances de l'application :
+ * une écriture faite par l'une est vue par les autres à leur prochaine lecture des versions.
+ */
+@Repository
+@Profile("sqlserver") // Spécifie que ce repository est activé sous le profil SQL Server.
+public class VersionRepositorySqlserver implements VersionRepository {
+
+    private JdbcTemplate jdbcTemplate;
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * Constructeur pour initialiser les templates JDBC.
+     *
+     * @param jdbcTemplate - Le template JDBC.
+     * @param namedParameterJdbcTemplate - Le template JDBC avec paramètres nommés.
+     */
+    public VersionRepositorySqlserver(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    /**
+     * Incrémente la version d'un type de données. Dans une transaction, l'incrément
+     * est validé ou annulé avec l'écriture.
+     *
+     * @param donnees - Le type de données modifié.
+     */
+    @Override
+    public void incrementer(String donnees) {
+        String sql = "UPDATE version_donnees SET numero = numero + 1, modifie_le = CURRENT_TIMESTAMP "
+                + "WHERE donnees = :donnees;";
+        namedParameterJdbcTemplate.update(sql, new MapSqlParameterSource("donnees", donnees));
+    }
+
+    /**
+     * Lit les versions de tous les types de données, en une seule requête.
+     *
+     * @return Les versions, par type de données.
+     */
+    @Override
+    public Map<String, long[]> findAll() {
+        Map<String, long[]> versions = new HashMap<>();
+        jdbcTemplate.query("SELECT donnees, numero, modifie_le FROM version_donnees;",
+                (RowCallbackHandler) rs -> versions.put(rs.getString("donnees"),
+                        new long[] { rs.getLong("numero"), rs.getTimestamp("modifie_le").getTime() }));
+        return versions;
+    }
+}
@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Future;
 
 // Importe les annotations pour la gestion des contrôleurs Spring MVC.
 import org.springframework.stereotype.Controller;
@@ -21,6 +22,8 @@ import com.example.sorcier.bll.metier.SorcierMetier;
 import com.example.sorcier.bo.MotDePasse;
 import com.example.sorcier.bo.Sorcier;
 import com.example.sorcier.bo.Utilisateur;
+// Importe le chargement parallèle des données d'une page.
+import com.example.sorcier.config.ChargementParallele;
 
 // Importe les annotations pour la validation des modèles.
 import jakarta.validation.Valid;
@@ -35,16 +38,20 @@ import org.springframework.validation.BindingResult;
 public class ConnexionController {
 	private SorcierService sorcierService;
 	private UtilisateurService utilisateurService;
+	private ChargementParallele chargementParallele;
 
 	/**
 	 * Constructeur pour initialiser les services utilisés par ce contrôleur.
 	 * 
 	 * @param sorcierService - Le service de gestion des sorciers.
 	 * @param utilisateurService - Le service de gestion des utilisateurs.
+	 * @param chargementParallele - Le chargement parallèle des données des pages.
 	 */
-	public ConnexionController(SorcierService sorcierService, UtilisateurService utilisateurService) {
+	public ConnexionController(SorcierService sorcierService, UtilisateurService utilisateurService,
+			ChargementParallele chargementParallele) {
 		this.sorcierService = sorcierService;
 		this.utilisateurService = utilisateurService;
+		this.chargementParallele = chargementParallele;
 	}
 
 	/**
@@ -89,8 +96,20 @@ public class ConnexionController {
 	 */
 	@GetMapping("/profil")
 	public String afficherProfil(Model model, Principal principal) {
-		// Récupérer la liste de tous les sorciers.
-		List<Sorcier> sorciers = sorcierService.recupererSorciers();
+		List<Sorcier> sorciers;
+		Utilisateur utilisateur;
+		try (ChargementParallele.Groupe chargements = chargementParallele.groupe()) {
+			// Lancer la lecture de tous les sorciers pendant celle de l'utilisateur.
+			Future<List<Sorcier>> tousLesSorciers = chargements.lancer(sorcierService::recupererSorciers);
+
+			// Récupérer le nom de l'utilisateur actuel.
+			String nomUtilisateur = principal.getName();
+			// Récupérer l'utilisateur actuel, sous la même échéance que les sorciers.
+			utilisateur = chargements.charger(() -> utilisateurService.recupererUtilisateur(nomUtilisateur));
+
+			// Récupérer la liste de tous les sorciers.
+			sorciers = chargements.attendre(tousLesSorciers);
+		}
 		List<Map<String, Object>> sorciersALister = new ArrayList<>();
 		for (Sorcier sorcier : sorciers) {
 			Map<String, Object> sorcierMap = new HashMap<>();
@@ -99,11 +118,6 @@ public class ConnexionController {
 			sorciersALister.add(sorcierMap);
 		}
 
-		// Récupérer le nom de l'utilisateur actuel.
-		String nomUtilisateur = principal.getName();
-		// Récupérer l'utilisateur actuel.
-		Utilisateur utilisateur = utilisateurService.recupererUtilisateur(nomUtilisateur);
-
 		// Ajouter des attributs au modèle pour la vue.
 		model.addAttribute("utilisateurCourant", utilisateur);
 		model.addAttribute("sorciersALister", sorciersALister);
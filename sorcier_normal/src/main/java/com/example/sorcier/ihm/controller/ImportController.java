@@ -0,0 +1,97 @@
+package com.example.sorcier.ihm.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+// Importe les annotations pour définir les contrôleurs dans Spring MVC.
+import org.springframework.stereotype.Controller;
+// Importe les classes pour la gestion des modèles dans les vues.
+import org.springframework.ui.Model;
+// Importe les annotations pour la gestion des requêtes GET et POST.
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+// Importe le type des fichiers envoyés par formulaire.
+import org.springframework.web.multipart.MultipartFile;
+
+// Importe le service d'import.
+import com.example.sorcier.bll.ImportService;
+// Importe le compte rendu d'import.
+import com.example.sorcier.bo.RapportImport;
+
+/**
+ * Contrôleur Spring MVC pour l'import de fichiers de sorciers et de maisons.
+ */
+@Controller
+public class ImportController {
+    private ImportService importService;
+
+    /**
+     * Constructeur pour initialiser le service d'import.
+     *
+     * @param importService - Le service d'import.
+     */
+    public ImportController(ImportService importService) {
+        // Initialise le service d'import.
+        this.importService = importService;
+    }
+
+    /**
+     * Méthode GET pour afficher le formulaire d'import.
+     *
+     * @return Le nom de la vue à afficher.
+     */
+    @GetMapping("/admin/import")
+    public String afficherImport() {
+        // Renvoie le nom de la vue du formulaire d'import.
+        return "import";
+    }
+
+    /**
+     * Méthode POST pour importer un fichier CSV ou NDJSON, éventuellement compressé (.gz).
+     * Le format est déduit de l'extension du fichier s'il n'est pas précisé.
+     *
+     * @param fichier - Le fichier envoyé.
+     * @param type - Le type d'objets importés : sorciers ou maisons.
+     * @param format - Le format du fichier : csv ou ndjson.
+     * @param model - Le modèle Spring pour passer des données à la vue.
+     * @return Le nom de la vue affichant le compte rendu.
+     */
+    @PostMapping("/admin/import")
+    public String importer(
+            @RequestParam("fichier") MultipartFile fichier,
+            @RequestParam(value = "type", defaultValue = "sorciers") String type,
+            @RequestParam(value = "format", required = false) String format,
+            Model model
+    ) {
+        // Vérifie qu'un fichier a bien été envoyé.
+        if (fichier.isEmpty()) {
+            model.addAttribute("erreurImport", "Aucun fichier envoyé.");
+            return "import";
+        }
+
+        // Déduit le format et la compression du nom du fichier.
+        String nom = fichier.getOriginalFilename() != null ? fichier.getOriginalFilename().toLowerCase() : "";
+        boolean gzip = nom.endsWith(".gz");
+        String nomSansGz = gzip ? nom.substring(0, nom.length() - 3) : nom;
+        if (format == null || format.isBlank()) {
+            format = nomSansGz.endsWith(".ndjson") || nomSansGz.endsWith(".jsonl") ? "ndjson" : "csv";
+        }
+
+        // Lit le fichier au fil de l'eau, sans le charger entièrement en mémoire.
+        try (InputStream flux = gzip ? new GZIPInputStream(fichier.getInputStream()) : fichier.getInputStream()) {
+            RapportImport rapport = "maisons".equals(type)
+                    ? importService.importerMaisons(flux, format)
+                    : importService.importerSorciers(flux, format);
+
+            // Ajoute le compte rendu au modèle pour l'affichage.
+            model.addAttribute("rapport", rapport);
+        } catch (IOException e) {
+            model.addAttribute("erreurImport", "Fichier illisible : " + e.getMessage());
+        }
+
+        // Renvoie le nom de la vue qui affiche le compte rendu.
+        return "import";
+    }
+}
@@ -13,11 +13,18 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+// Importe la requête en cours, pour les réponses conditionnelles.
+import org.springframework.web.context.request.WebRequest;
 
 // Importe le service de logique métier pour la gestion des maisons.
 import com.example.sorcier.bll.MaisonService;
-// Importe l'objet de transfert de données Maison.
+// Importe les objets de transfert de données Maison et Pagination.
 import com.example.sorcier.bo.Maison;
+import com.example.sorcier.bo.Pagination;
+// Importe les critères de tri des listes.
+import com.example.sorcier.bo.Tri;
+// Importe les versions des données, pour les réponses conditionnelles.
+import com.example.sorcier.config.VersionsDonnees;
 
 // Importe l'annotation pour la validation des modèles.
 import jakarta.validation.Valid;
@@ -28,27 +35,53 @@ import jakarta.validation.Valid;
 @Controller
 public class MaisonController {
     private MaisonService maisonService;
+    private VersionsDonnees versionsDonnees;
 
     /**
      * Constructeur pour initialiser le service de maisons.
      * 
      * @param maisonService - Le service de gestion des maisons.
+     * @param versionsDonnees - Les versions des sorciers et des maisons.
      */
-    public MaisonController(MaisonService maisonService) {
+    public MaisonController(MaisonService maisonService, VersionsDonnees versionsDonnees) {
         // Initialise le service de gestion des maisons.
         this.maisonService = maisonService;
+        
+        // Initialise les versions des données.
+        this.versionsDonnees = versionsDonnees;
     }
 
     /**
-     * Méthode GET pour afficher la liste de toutes les maisons.
+     * Méthode GET pour afficher une page de la liste des maisons.
      * 
+     * @param tri - Le critère de tri de la liste.
+     * @param apres - L'id de la maison après laquelle commence la page, ou null.
+     * @param avant - L'id de la maison avant laquelle se termine la page, ou null.
+     * @param taille - Le nombre de maisons par page.
      * @param model - Le Modèle Spring pour passer des données à la vue.
-     * @return Le nom de la vue à afficher.
+     * @param requete - La requête, pour répondre 304 si la page n'a pas changé.
+     * @return Le nom de la vue à afficher, ou null pour une réponse 304.
      */
     @GetMapping("/maisons/lister")
-    public String afficherToutesLesMaisons(Model model) {
-        // Ajoute la liste des maisons au modèle pour l'affichage.
-        model.addAttribute("maisonsALister", maisonService.recupererMaisons());
+    public String afficherToutesLesMaisons(
+            @RequestParam(value = "tri", defaultValue = "NOM") Tri tri,
+            @RequestParam(value = "apres", required = false) Integer apres,
+            @RequestParam(value = "avant", required = false) Integer avant,
+            @RequestParam(value = "taille", defaultValue = "20") int taille,
+            Model model,
+            WebRequest requete
+    ) {
+        // Répond 304 sans lire la base si le navigateur a déjà cette version de la page.
+        if (versionsDonnees.nonModifie(requete, false)) {
+            return null;
+        }
+        
+        // Récupère la page de maisons demandée.
+        Pagination<Maison> page = maisonService.recupererPageMaisons(tri, apres, avant, taille);
+        
+        // Ajoute la page et ses maisons au modèle pour l'affichage.
+        model.addAttribute("pageMaisons", page);
+        model.addAttribute("maisonsALister", page.getElements());
         
         // Ajoute un nouvel objet Maison au modèle pour un éventuel enregistrement.
         model.addAttribute("maisonACreer", new Maison()); 
@@ -155,10 +188,15 @@ public class MaisonController {
      * 
      * @param motARechercher - Le mot clé pour la recherche.
      * @param model - Le Modèle Spring.
-     * @return Le nom de la vue à afficher avec les résultats.
+     * @return Le nom de la vue à afficher avec les résultats, ou la liste complète si le mot clé est vide.
      */
     @PostMapping("/maisons/rechercher")
     public String rechercherMaisons(@RequestParam("motARechercher") String motARechercher, Model model) {
+        // Un mot clé vide affiche toutes les maisons, et non les premiers résultats d'une recherche bornée.
+        if (motARechercher.isBlank()) {
+            return "redirect:/maisons/lister";
+        }
+        
         // Effectue la recherche des maisons via le service avec le mot clé fourni.
         List<Maison> maisons = maisonService.rechercherMaisons(motARechercher);
         
@@ -0,0 +1,90 @@
+package com.example.sorcier.ihm.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+// Importe les annotations pour définir les contrôleurs dans Spring MVC.
+import org.springframework.stereotype.Controller;
+// Importe les classes pour la gestion des modèles dans les vues.
+import org.springframework.ui.Model;
+// Importe les annotations pour la gestion des requêtes GET.
+import org.springframework.web.bind.annotation.GetMapping;
+
+// Importe les métriques du pool de connexions, des requêtes SQL, du hachage et du cache des maisons.
+import com.example.sorcier.bll.sqlserver.MaisonServiceCache;
+import com.example.sorcier.config.CacheFragments;
+import com.example.sorcier.config.EncodeurMotsDePasse;
+import com.example.sorcier.config.EtatCache;
+import com.example.sorcier.config.LimiteurConnexionsFilter;
+import com.example.sorcier.config.MetriquesPool;
+import com.example.sorcier.config.MetriquesRequetes;
+
+/**
+ * Contrôleur Spring MVC pour afficher les métriques du pool de connexions, des requêtes SQL
+ * du hachage des mots de passe, de la limitation des connexions et des caches (maisons, fragments rendus).
+ * Les métriques SQL et du cache des maisons n'existent que pour le profil 'sqlserver' : leurs tableaux sont vides sinon.
+ */
+@Controller
+public class MetriquesController {
+    private Optional<MetriquesPool> metriquesPool;
+    private Optional<MetriquesRequetes> metriquesRequetes;
+    private EncodeurMotsDePasse encodeurMotsDePasse;
+    private LimiteurConnexionsFilter limiteurConnexions;
+    private Optional<MaisonServiceCache> maisonServiceCache;
+    private CacheFragments cacheFragments;
+
+    /**
+     * Constructeur pour initialiser les métriques, absentes hors du profil 'sqlserver'.
+     *
+     * @param metriquesPool - Les métriques du pool de connexions.
+     * @param metriquesRequetes - Les métriques des requêtes SQL.
+     * @param encodeurMotsDePasse - L'encodeur des mots de passe et son pool de hachage.
+     * @param limiteurConnexions - Le limiteur des tentatives de connexion.
+     * @param maisonServiceCache - Le cache des maisons.
+     * @param cacheFragments - Le cache des fragments rendus.
+     */
+    public MetriquesController(Optional<MetriquesPool> metriquesPool, Optional<MetriquesRequetes> metriquesRequetes,
+            EncodeurMotsDePasse encodeurMotsDePasse, LimiteurConnexionsFilter limiteurConnexions,
+            Optional<MaisonServiceCache> maisonServiceCache, CacheFragments cacheFragments) {
+        // Initialise les métriques.
+        this.metriquesPool = metriquesPool;
+        this.metriquesRequetes = metriquesRequetes;
+        this.encodeurMotsDePasse = encodeurMotsDePasse;
+        this.limiteurConnexions = limiteurConnexions;
+        this.maisonServiceCache = maisonServiceCache;
+        this.cacheFragments = cacheFragments;
+    }
+
+    /**
+     * Méthode GET pour afficher les métriques.
+     *
+     * @param model - Le modèle Spring pour passer des données à la vue.
+     * @return Le nom de la vue à afficher.
+     */
+    @GetMapping("/admin/metriques")
+    public String afficherMetriques(Model model) {
+        // Ajoute l'état des pools de connexions au modèle.
+        model.addAttribute("pools", metriquesPool.map(MetriquesPool::getEtats).orElse(List.of()));
+
+        // Ajoute les durées des requêtes par méthode de repository au modèle.
+        model.addAttribute("requetes", metriquesRequetes.map(MetriquesRequetes::getEtats).orElse(List.of()));
+
+        // Ajoute l'état du pool de hachage des mots de passe au modèle.
+        model.addAttribute("hachage", encodeurMotsDePasse.getEtat());
+
+        // Ajoute les tentatives de connexion admises et refusées au modèle.
+        model.addAttribute("connexions", limiteurConnexions);
+
+        // Ajoute les succès, échecs et évictions des caches des maisons et des fragments au modèle.
+        List<EtatCache> caches = new ArrayList<>(maisonServiceCache.map(MaisonServiceCache::getEtats).orElse(List.of()));
+        caches.add(cacheFragments.getEtat());
+        model.addAttribute("caches", caches);
+
+        // Ajoute la photographie des maisons servie depuis la mémoire au modèle.
+        model.addAttribute("instantaneMaisons", maisonServiceCache.map(MaisonServiceCache::getInstantane).orElse(null));
+
+        // Renvoie le nom de la vue qui affiche les métriques.
+        return "metriques";
+    }
+}
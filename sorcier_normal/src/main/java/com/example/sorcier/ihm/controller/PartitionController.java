@@ -0,0 +1,82 @@
+package com.example.sorcier.ihm.controller;
+
+// Importe l'annotation de profil : le contrôleur n'existe qu'avec les partitions.
+import org.springframework.context.annotation.Profile;
+// Importe les annotations pour définir les contrôleurs dans Spring MVC.
+import org.springframework.stereotype.Controller;
+// Importe les classes pour la gestion des modèles dans les vues.
+import org.springframework.ui.Model;
+// Importe les annotations pour la gestion des requêtes GET et POST.
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+// Importe le service des partitions.
+import com.example.sorcier.bll.PartitionService;
+
+/**
+ * Contrôleur Spring MVC pour consulter la répartition des sorciers entre les partitions
+ * et déplacer une maison d'une partition à une autre.
+ */
+@Controller
+@Profile("sqlserver & partition")
+public class PartitionController {
+    private PartitionService partitionService;
+
+    /**
+     * Constructeur pour initialiser le service des partitions.
+     *
+     * @param partitionService - Le service des partitions.
+     */
+    public PartitionController(PartitionService partitionService) {
+        // Initialise le service des partitions.
+        this.partitionService = partitionService;
+    }
+
+    /**
+     * Méthode GET pour afficher la répartition des maisons et des sorciers.
+     *
+     * @param model - Le modèle Spring pour passer des données à la vue.
+     * @return Le nom de la vue à afficher.
+     */
+    @GetMapping("/admin/partitions")
+    public String afficherPartitions(Model model) {
+        // Ajoute la répartition au modèle.
+        ajouterRepartition(model);
+
+        // Renvoie le nom de la vue qui affiche les partitions.
+        return "partitions";
+    }
+
+    /**
+     * Méthode POST pour déplacer une maison vers une autre partition.
+     *
+     * @param idMaison - L'id de la maison à déplacer.
+     * @param partition - Le numéro de la partition cible.
+     * @param model - Le modèle Spring pour passer des données à la vue.
+     * @return Le nom de la vue à afficher.
+     */
+    @PostMapping("/admin/partitions/deplacer")
+    public String deplacerMaison(@RequestParam("idMaison") int idMaison, @RequestParam("partition") int partition,
+            Model model) {
+        try {
+            // Déplace la maison et indique le nombre de sorciers déplacés.
+            int deplaces = partitionService.deplacerMaison(idMaison, partition);
+            model.addAttribute("message", deplaces + " sorcier(s) déplacé(s) vers la partition " + partition + ".");
+        } catch (IllegalArgumentException e) {
+            model.addAttribute("erreurPartition", e.getMessage());
+        }
+
+        // Ajoute la nouvelle répartition au modèle.
+        ajouterRepartition(model);
+        return "partitions";
+    }
+
+    /**
+     * Ajoute au modèle la partition de chaque maison et le nombre de sorciers par partition.
+     */
+    private void ajouterRepartition(Model model) {
+        model.addAttribute("partitionsMaisons", partitionService.recupererPartitionsMaisons());
+        model.addAttribute("sorciersParPartition", partitionService.compterSorciersParPartition());
+    }
+}
@@ -1,6 +1,19 @@
 package com.example.sorcier.ihm.controller;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+// Importe les statuts HTTP et l'exception associée.
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
 
 // Importe les annotations pour définir les contrôleurs dans Spring MVC.
 import org.springframework.stereotype.Controller;
@@ -15,13 +28,26 @@ import org.springframework.web.bind.annotation.PostMapping;
 // Importe les annotations pour la gestion des paramètres de requête et des attributs de modèle.
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.RequestParam;
+// Importe la requête en cours, pour les réponses conditionnelles.
+import org.springframework.web.context.request.WebRequest;
 
 // Importe les services de logique métier pour la gestion des maisons et des sorciers.
 import com.example.sorcier.bll.MaisonService;
 import com.example.sorcier.bll.SorcierService;
-// Importe l'objet de transfert de données Sorcier.
+// Importe la mise en forme des exports.
+import com.example.sorcier.bll.metier.ExportMetier;
+// Importe les objets de transfert de données Sorcier et Pagination.
+import com.example.sorcier.bo.Pagination;
 import com.example.sorcier.bo.Sorcier;
+// Importe les critères de tri des listes.
+import com.example.sorcier.bo.Tri;
+// Importe le cache des lignes rendues de la liste.
+import com.example.sorcier.config.CacheFragments;
+// Importe les versions des données, pour les réponses conditionnelles.
+import com.example.sorcier.config.VersionsDonnees;
 
+// Importe la réponse HTTP pour l'écriture directe de l'export.
+import jakarta.servlet.http.HttpServletResponse;
 // Importe l'annotation pour la validation des modèles.
 import jakarta.validation.Valid;
 
@@ -32,33 +58,68 @@ import jakarta.validation.Valid;
 public class SorcierController {
     private SorcierService sorcierService;
     private MaisonService maisonService;
+    private VersionsDonnees versionsDonnees;
+    private CacheFragments cacheFragments;
     
     /**
      * Constructeur pour initialiser les services de sorciers et de maisons.
      * 
      * @param sorcierService - Le service de gestion des sorciers.
      * @param maisonService - Le service de gestion des maisons.
+     * @param versionsDonnees - Les versions des sorciers et des maisons.
+     * @param cacheFragments - Le cache des lignes rendues de la liste.
      */
-    public SorcierController(SorcierService sorcierService, MaisonService maisonService) {
+    public SorcierController(SorcierService sorcierService, MaisonService maisonService,
+    		VersionsDonnees versionsDonnees, CacheFragments cacheFragments) {
         // Initialise le service de gestion des sorciers.
         this.sorcierService = sorcierService;
         
         // Initialise du service de gestion des maisons.
         this.maisonService = maisonService;
+        
+        // Initialise les versions des données.
+        this.versionsDonnees = versionsDonnees;
+        
+        // Initialise le cache des fragments rendus.
+        this.cacheFragments = cacheFragments;
     }
 
     /**
-     * Méthode GET pour afficher la liste de tous les sorciers.
+     * Méthode GET pour afficher une page de la liste des sorciers.
      * 
+     * @param tri - Le critère de tri de la liste.
+     * @param apres - L'id du sorcier après lequel commence la page, ou null.
+     * @param avant - L'id du sorcier avant lequel se termine la page, ou null.
+     * @param taille - Le nombre de sorciers par page.
      * @param model - Le odèle Spring pour passer des données à la vue.
-     * @return Le nom de la vue à afficher.
+     * @param requete - La requête, pour répondre 304 si la page n'a pas changé.
+     * @return Le nom de la vue à afficher, ou null pour une réponse 304.
      */
     @GetMapping("/sorciers/lister")
-    public String afficherTousLesSorciers(Model model) {
-        // Ajoute la liste des sorciers au modèle pour l'affichage.
-        model.addAttribute("sorciersALister", sorcierService.recupererSorciers());
+    public String afficherTousLesSorciers(
+    		@RequestParam(value = "tri", defaultValue = "NOM") Tri tri,
+    		@RequestParam(value = "apres", required = false) Integer apres,
+    		@RequestParam(value = "avant", required = false) Integer avant,
+    		@RequestParam(value = "taille", defaultValue = "20") int taille,
+    		Model model,
+    		WebRequest requete
+    ) {
+        // Répond 304 sans lire la base si le navigateur a déjà cette version de la page.
+        if (versionsDonnees.nonModifie(requete, true)) {
+            return null;
+        }
         
-        // Ajoute la liste des maisons au modèle.
+        // Récupère la page de sorciers demandée et ses lignes rendues, depuis le cache si possible.
+        CacheFragments.Rendu<Pagination<Sorcier>> rendu = cacheFragments.rendre("lignes_sorciers", "lignes",
+                tri + ":" + apres + ":" + avant + ":" + taille,
+                () -> sorcierService.recupererPageSorciers(tri, apres, avant, taille),
+                page -> Map.of("sorciers", page.getElements()));
+        
+        // Ajoute la page et ses lignes au modèle pour l'affichage.
+        model.addAttribute("pageSorciers", rendu.donnees());
+        model.addAttribute("lignesSorciers", rendu.html());
+        
+        // Ajoute la liste des maisons au modèle, lue en mémoire sans passer par un autre thread.
         model.addAttribute("maisonsALister", maisonService.recupererMaisons());
         
         // Ajoute un nouvel objet Sorcier au modèle pour un éventuel enregistrement.
@@ -108,10 +169,16 @@ public class SorcierController {
      * 
      * @param id - L'id du sorcier à afficher.
      * @param model - Le modèle Spring.
-     * @return Le nom de la vue à afficher.
+     * @param requete - La requête, pour répondre 304 si la page n'a pas changé.
+     * @return Le nom de la vue à afficher, ou null pour une réponse 304.
      */
     @GetMapping("/sorciers/detailler")
-    public String afficherSorcier(@RequestParam("id") int id, Model model) {
+    public String afficherSorcier(@RequestParam("id") int id, Model model, WebRequest requete) {
+        // Répond 304 sans lire la base si le navigateur a déjà cette version de la page.
+        if (versionsDonnees.nonModifie(requete, true)) {
+            return null;
+        }
+        
         // Récupére le sorcier demandé via le service.
         Sorcier sorcierDemande = sorcierService.recupererSorcier(id);
         
@@ -168,15 +235,21 @@ public class SorcierController {
      * 
      * @param motARechercher - Le mot clé utilisé pour la recherche.
      * @param model - Le modèle pour passer des données à la vue.
-     * @return Vue de la liste des sorciers avec les résultats de la recherche.
+     * @return Vue de la liste des sorciers avec les résultats de la recherche, ou la liste paginée si le mot clé est vide.
      */
     @PostMapping("/sorciers/rechercher")
     public String rechercherSorciers(@RequestParam("motARechercher") String motARechercher, Model model) {
+        // Un mot clé vide affiche toute la liste, page par page, et non les premiers résultats d'une recherche bornée.
+        if (motARechercher.isBlank()) {
+            return "redirect:/sorciers/lister";
+        }
+        
         // Recherche des sorciers utilisant le mot clé fourni.
         List<Sorcier> sorciers = sorcierService.rechercherSorciers(motARechercher);
         
-        // Ajoute la liste des sorciers trouvés au modèle.
-        model.addAttribute("sorciersALister", sorciers);
+        // Ajoute les lignes des sorciers trouvés au modèle, rendues sans cache.
+        model.addAttribute("lignesSorciers",
+                cacheFragments.rendreSansCache("lignes_sorciers", "lignes", Map.of("sorciers", sorciers)));
         
         // Ajoute la liste des maisons au modèle pour affichage.
         model.addAttribute("maisonsALister", maisonService.recupererMaisons());
@@ -187,4 +260,51 @@ public class SorcierController {
         // Renvoie le nom de la vue qui affiche la liste des sorciers avec les résultats de recherche.
         return "liste_sorciers";
     }
+
+    /**
+     * Méthode GET pour exporter tous les sorciers en CSV ou en NDJSON.
+     * Les sorciers sont écrits dans la réponse au fil de leur lecture en base,
+     * sans être chargés en mémoire.
+     * 
+     * @param format - Le format de l'export : csv ou ndjson.
+     * @param gzip - Indique si le fichier doit être compressé.
+     * @param response - La réponse HTTP dans laquelle écrire l'export.
+     * @throws IOException Si l'écriture de la réponse échoue.
+     */
+    @GetMapping("/admin/sorciers/export")
+    public void exporterSorciers(
+    		@RequestParam(value = "format", defaultValue = "csv") String format,
+    		@RequestParam(value = "gzip", defaultValue = "false") boolean gzip,
+    		HttpServletResponse response
+    ) throws IOException {
+        // Vérifie que le format demandé est pris en charge.
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Format d'export inconnu : " + format);
+        }
+        
+        // Prépare les en-têtes du fichier téléchargé.
+        String fichier = "sorciers." + (csv ? "csv" : "ndjson") + (gzip ? ".gz" : "");
+        response.setContentType(gzip ? "application/gzip" : (csv ? "text/csv" : "application/x-ndjson"));
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Content-Disposition", "attachment; filename=\"" + fichier + "\"");
+        
+        // Écrit les sorciers au fil de la lecture, compressés si demandé.
+        OutputStream sortie = gzip ? new GZIPOutputStream(response.getOutputStream(), 8192) : response.getOutputStream();
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(sortie, StandardCharsets.UTF_8))) {
+            if (csv) {
+                writer.write(ExportMetier.ENTETE_CSV);
+                writer.write('\n');
+            }
+            sorcierService.exporterSorciers(sorcier -> {
+                try {
+                    writer.write(csv ? ExportMetier.ligneCsv(sorcier) : ExportMetier.ligneNdjson(sorcier));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    // Interrompt la lecture si le client a fermé la connexion.
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
 }
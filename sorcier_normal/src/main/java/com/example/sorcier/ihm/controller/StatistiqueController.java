@@ -0,0 +1,47 @@
+package com.example.sorcier.ihm.controller;
+
+// Importe les annotations pour définir les contrôleurs dans Spring MVC.
+import org.springframework.stereotype.Controller;
+// Importe les classes pour la gestion des modèles dans les vues.
+import org.springframework.ui.Model;
+// Importe les annotations pour la gestion des requêtes GET.
+import org.springframework.web.bind.annotation.GetMapping;
+
+// Importe le service de statistiques.
+import com.example.sorcier.bll.StatistiqueService;
+
+/**
+ * Contrôleur Spring MVC pour afficher les statistiques des sorciers par maison.
+ */
+@Controller
+public class StatistiqueController {
+    private StatistiqueService statistiqueService;
+
+    /**
+     * Constructeur pour initialiser le service de statistiques.
+     *
+     * @param statistiqueService - Le service de statistiques.
+     */
+    public StatistiqueController(StatistiqueService statistiqueService) {
+        // Initialise le service de statistiques.
+        this.statistiqueService = statistiqueService;
+    }
+
+    /**
+     * Méthode GET pour afficher les statistiques.
+     *
+     * @param model - Le modèle Spring pour passer des données à la vue.
+     * @return Le nom de la vue à afficher.
+     */
+    @GetMapping("/statistiques")
+    public String afficherStatistiques(Model model) {
+        // Ajoute le nombre total de sorciers au modèle.
+        model.addAttribute("nombreSorciers", statistiqueService.compterSorciers());
+
+        // Ajoute les statistiques par maison au modèle.
+        model.addAttribute("statistiquesMaisons", statistiqueService.recupererStatistiquesParMaison());
+
+        // Renvoie le nom de la vue qui affiche les statistiques.
+        return "statistiques";
+    }
+}
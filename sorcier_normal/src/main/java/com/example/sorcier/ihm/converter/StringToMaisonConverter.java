@@ -29,7 +29,7 @@ public class StringToMaisonConverter implements Converter<String, Maison> {
      * Convertit l'ID de type String en un objet Maison.
      * 
      * @param id - L'id de la maison sous forme de chaîne de caractères.
-     * @return L'objet Maison correspondant à l'ID ou null si non trouvé.
+     * @return Une copie de l'objet Maison correspondant à l'ID ou null si non trouvé.
      */
     @Override
     public Maison convert(String id) {
@@ -39,7 +39,8 @@ public class StringToMaisonConverter implements Converter<String, Maison> {
         // Récupère l'objet Maison à partir de son ID via le service.
         Maison maisonRetour = maisonService.recupererMaison(id_maison);
         
-        // Retourne l'objet Maison récupéré.
-        return maisonRetour;
+        // Retourne une copie : le data binder peut lier les champs de la maison (maison.nom),
+        // qui ne doivent pas modifier la maison gardée par le service.
+        return maisonRetour != null ? new Maison(maisonRetour) : null;
     }
 }
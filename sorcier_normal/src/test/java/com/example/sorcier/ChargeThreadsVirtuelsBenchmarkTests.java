@@ -0,0 +1,124 @@
+package com.example.sorcier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+/**
+ * Test de charge : 2 000 utilisateurs simultanés parcourent la liste des sorciers,
+ * avec le profil sqlserver sur une base H2. Compare le débit des threads Tomcat
+ * classiques (200 au plus) et des threads virtuels, le pool de 20 connexions
+ * restant la limite de concurrence dans les deux cas.
+ * La tâche benchmark lance les mesures sur une JVM 21, que demandent les threads virtuels.
+ * Exclu du build par défaut : ./gradlew benchmark
+ */
+@Tag("benchmark")
+class ChargeThreadsVirtuelsBenchmarkTests {
+
+	private static final String URL = "jdbc:h2:mem:charge;MODE=MSSQLServer;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1";
+	private static final int UTILISATEURS = 2_000;
+	private static final int REQUETES_PAR_UTILISATEUR = 10;
+
+	@BeforeAll
+	static void remplirBase() {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(URL, "sa", "");
+		new ResourceDatabasePopulator(new ClassPathResource("sqlserver/schema_h2.sql")).execute(dataSource);
+
+		// Complète le jeu de données pour que chaque page demande un vrai travail à la base.
+		new JdbcTemplate(dataSource).update("INSERT INTO Sorcier (nom, prenom, id_maison, attaque, sante, modifiable) "
+				+ "SELECT CONCAT('Nom', X), CONCAT('Prenom', X), 1 + MOD(X, 6), MOD(X, 20), 100 + MOD(X, 150), 1 "
+				+ "FROM SYSTEM_RANGE(1, 10000)");
+	}
+
+	/**
+	 * Démarre l'application, lance les utilisateurs simultanés puis affiche le débit obtenu.
+	 */
+	private long mesurer(boolean threadsVirtuels) throws Exception {
+		try (ConfigurableApplicationContext contexte = new SpringApplicationBuilder(SorcierNormalApplication.class)
+				.profiles("sqlserver")
+				.properties("server.port=0",
+						"spring.datasource.url=" + URL,
+						"spring.datasource.username=sa",
+						"spring.datasource.password=",
+						"spring.jpa.show-sql=false",
+						"sorcier.pool.taille-max=20",
+						"spring.threads.virtual.enabled=" + threadsVirtuels)
+				.run()) {
+			String adresse = "http://localhost:" + contexte.getEnvironment().getProperty("local.server.port")
+					+ "/sorciers/lister";
+			HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build();
+			HttpRequest requete = HttpRequest.newBuilder(URI.create(adresse)).timeout(Duration.ofSeconds(60)).build();
+
+			// Une requête de chauffe avant la mesure.
+			assertEquals(200, client.send(requete, HttpResponse.BodyHandlers.discarding()).statusCode());
+
+			// Chaque utilisateur attend le départ commun, puis enchaîne ses requêtes.
+			AtomicInteger reussies = new AtomicInteger();
+			AtomicInteger echecs = new AtomicInteger();
+			CountDownLatch depart = new CountDownLatch(1);
+			ExecutorService utilisateurs = Executors.newFixedThreadPool(UTILISATEURS);
+			List<Future<?>> fins = new ArrayList<>();
+			for (int i = 0; i < UTILISATEURS; i++) {
+				fins.add(utilisateurs.submit(() -> {
+					depart.await();
+					for (int j = 0; j < REQUETES_PAR_UTILISATEUR; j++) {
+						try {
+							int statut = client.send(requete, HttpResponse.BodyHandlers.discarding()).statusCode();
+							(statut == 200 ? reussies : echecs).incrementAndGet();
+						} catch (Exception e) {
+							echecs.incrementAndGet();
+						}
+					}
+					return null;
+				}));
+			}
+
+			long debut = System.nanoTime();
+			depart.countDown();
+			for (Future<?> fin : fins) {
+				fin.get();
+			}
+			long duree = System.nanoTime() - debut;
+			utilisateurs.shutdown();
+
+			long requetesParSeconde = reussies.get() * 1_000_000_000L / duree;
+			System.out.println("BENCH : " + (threadsVirtuels ? "Threads virtuels" : "Threads Tomcat") + " : "
+					+ requetesParSeconde + " requetes/s (" + duree / 1_000_000 + " ms), " + reussies.get()
+					+ " reussies, " + echecs.get() + " en echec");
+			return requetesParSeconde;
+		}
+	}
+
+	@Test
+	void debitAvecEtSansThreadsVirtuels() throws Exception {
+		// Sans Java 21, les threads virtuels seraient ignorés et la comparaison ne mesurerait rien.
+		assertTrue(Runtime.version().feature() >= 21, "Java 21 requis : lancer ./gradlew benchmark");
+		long classiques = mesurer(false);
+		long virtuels = mesurer(true);
+		System.out.println("BENCH : Threads virtuels / threads Tomcat : "
+				+ String.format(Locale.ROOT, "%.2f", virtuels / (double) classiques));
+	}
+}
@@ -0,0 +1,142 @@
+package com.example.sorcier.bll;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.sorcier.bll.sqlserver.MaisonServiceSqlserver;
+import com.example.sorcier.bll.sqlserver.SorcierServiceSqlserver;
+import com.example.sorcier.bo.RapportImport;
+import com.example.sorcier.bo.Sorcier;
+import com.example.sorcier.config.VersionsDonnees;
+import com.example.sorcier.dal.mock.VersionRepositoryMock;
+import com.example.sorcier.dal.sqlserver.MaisonRepositorySqlserver;
+import com.example.sorcier.dal.sqlserver.SorcierRepositorySqlserver;
+
+import jakarta.validation.Validation;
+
+class ImportServiceImplTests {
+
+	private static final String URL = "jdbc:h2:mem:import;MODE=MSSQLServer;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1";
+
+	private SorcierRepositorySqlserver sorcierRepositorySqlserver;
+	private ImportServiceImpl importService;
+
+	// Identifiants retournés par chaque appel à ajouterSorciers, dans l'ordre.
+	private final List<List<Integer>> idsRetournes = new ArrayList<>();
+	private final List<List<Sorcier>> sorciersAjoutes = new ArrayList<>();
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void preparer() {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(URL, "sa", "");
+		new ResourceDatabasePopulator(new ClassPathResource("sqlserver/schema_h2.sql")).execute(dataSource);
+
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		NamedParameterJdbcTemplate namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+		sorcierRepositorySqlserver = new SorcierRepositorySqlserver(jdbcTemplate, namedParameterJdbcTemplate);
+		MaisonRepositorySqlserver maisonRepositorySqlserver = new MaisonRepositorySqlserver(jdbcTemplate,
+				namedParameterJdbcTemplate);
+		ReflectionTestUtils.setField(sorcierRepositorySqlserver, "tailleLot", 2);
+		ReflectionTestUtils.setField(sorcierRepositorySqlserver, "clesGenerees", "final-table");
+		ReflectionTestUtils.setField(maisonRepositorySqlserver, "clesGenerees", "final-table");
+
+		// Relève les identifiants retournés par l'insertion par lots.
+		SorcierServiceSqlserver sorcierService = spy(new SorcierServiceSqlserver(sorcierRepositorySqlserver,
+				maisonRepositorySqlserver, new VersionsDonnees(new VersionRepositoryMock())));
+		doAnswer(appel -> {
+			sorciersAjoutes.add(List.copyOf((List<Sorcier>) appel.getArgument(0)));
+			List<Integer> ids = (List<Integer>) appel.callRealMethod();
+			idsRetournes.add(ids);
+			return ids;
+		}).when(sorcierService).ajouterSorciers(any());
+
+		importService = new ImportServiceImpl(sorcierService,
+				new MaisonServiceSqlserver(maisonRepositorySqlserver, sorcierRepositorySqlserver),
+				Validation.buildDefaultValidatorFactory().getValidator());
+		ReflectionTestUtils.setField(importService, "tailleLot", 10);
+	}
+
+	private RapportImport importer(String csv) {
+		return importService.importerSorciers(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), "csv");
+	}
+
+	@Test
+	void identifiantsRetournesParLInsertion() {
+		RapportImport rapport = importer("""
+				nom,prenom,maison,attaque,sante
+				Weasley,Ron,Gryffondor,7,110
+				Weasley,Ginny,gryffondor,8,100
+				Londubat,Neville,Gryffondor,5,130
+				""");
+
+		assertEquals(3, rapport.getLignesImportees());
+		assertEquals(0, rapport.getNombreErreurs());
+
+		// Chaque identifiant retourné désigne le sorcier inséré à la même place.
+		assertEquals(1, idsRetournes.size());
+		List<Integer> ids = idsRetournes.get(0);
+		List<Sorcier> sorciers = sorciersAjoutes.get(0);
+		assertEquals(3, ids.size());
+		for (int i = 0; i < ids.size(); i++) {
+			assertEquals(sorciers.get(i).getPrenom(), sorcierRepositorySqlserver.findById(ids.get(i)).getPrenom());
+		}
+	}
+
+	@Test
+	void lotEnEchecRejoueLigneALigne() {
+		// Potter Harry existe déjà : le lot échoue, puis chaque ligne est rejouée seule.
+		RapportImport rapport = importer("""
+				nom,prenom,maison,attaque,sante
+				Weasley,Ron,Gryffondor,7,110
+				Potter,Harry,Gryffondor,10,100
+				Londubat,Neville,Poufsouffle,5,130
+				""");
+
+		assertEquals(2, rapport.getLignesImportees());
+		assertEquals(1, rapport.getNombreErreurs());
+		assertEquals(3, rapport.getErreurs().get(0).getLigne());
+
+		// Les deux lignes rejouées ont chacune reçu l'identifiant de leur sorcier.
+		assertEquals(List.of("Ron", "Neville"), idsRetournes.stream()
+				.map(ids -> sorcierRepositorySqlserver.findById(ids.get(0)).getPrenom())
+				.toList());
+	}
+
+	@Test
+	void compteRenduEcritDansUnFichier(@TempDir Path dossier) throws Exception {
+		ReflectionTestUtils.setField(importService, "dossierRapports", dossier.toString());
+		RapportImport rapport = importer("""
+				nom,prenom,maison,attaque,sante
+				Weasley,Ron,Gryffondor,7,110
+				Malefoy,Drago,Inconnue,6,90
+				""");
+
+		// Le fichier reprend le résumé et le détail des erreurs.
+		Path fichier = Path.of(rapport.getFichier());
+		assertEquals(dossier, fichier.getParent());
+		assertTrue(fichier.getFileName().toString().startsWith("import-sorciers-"));
+		List<String> lignes = Files.readAllLines(fichier, StandardCharsets.UTF_8);
+		assertEquals(rapport.toString(), lignes.get(0));
+		assertEquals(List.of("Ligne 3 : Maison inconnue : Inconnue"), lignes.subList(1, lignes.size()));
+	}
+}
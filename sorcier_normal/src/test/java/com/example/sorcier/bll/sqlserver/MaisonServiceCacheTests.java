@@ -0,0 +1,103 @@
+package com.example.sorcier.bll.sqlserver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.sorcier.bo.InstantaneMaisons;
+import com.example.sorcier.bo.Maison;
+import com.example.sorcier.config.EtatCache;
+import com.example.sorcier.config.VersionsDonnees;
+import com.example.sorcier.dal.mock.VersionRepositoryMock;
+
+class MaisonServiceCacheTests {
+
+	private final Maison gryffondor = new Maison(1, "Gryffondor", 3, 10, true);
+	private final Maison serdaigle = new Maison(2, "Serdaigle", 1, 20, true);
+	private final Maison poufsouffle = new Maison(3, "Poufsouffle", 2, 15, true);
+
+	private MaisonServiceSqlserver base;
+	private MaisonServiceCache cache;
+
+	@BeforeEach
+	void preparer() {
+		// La base contient une maison de plus que la photographie, écrite par une autre instance.
+		base = mock(MaisonServiceSqlserver.class);
+		when(base.recupererMaisons()).thenReturn(List.of(gryffondor, serdaigle));
+		when(base.recupererMaison(3)).thenReturn(poufsouffle);
+		when(base.recupererMaisonsParNoms(any())).thenReturn(List.of(poufsouffle));
+
+		cache = new MaisonServiceCache(base, new VersionsDonnees(new VersionRepositoryMock()));
+		ReflectionTestUtils.setField(cache, "cacheMax", 100L);
+		ReflectionTestUtils.setField(cache, "cacheDureeS", 60L);
+		cache.afterPropertiesSet();
+		cache.chargerAuDemarrage();
+	}
+
+	@Test
+	void maisonsServiesDepuisLaPhotographie() {
+		assertEquals(List.of(gryffondor, serdaigle), cache.recupererMaisons());
+		assertSame(cache.recupererMaisons(), cache.recupererMaisons());
+		assertEquals("Gryffondor", cache.recupererMaison(1).getNom());
+		verify(base, times(1)).recupererMaisons();
+		verify(base, never()).recupererMaison(anyInt());
+	}
+
+	@Test
+	void maisonHorsPhotographieGardeeEnCache() {
+		assertEquals("Poufsouffle", cache.recupererMaison(3).getNom());
+		assertEquals("Poufsouffle", cache.recupererMaison(3).getNom());
+		verify(base, times(1)).recupererMaison(3);
+
+		EtatCache parId = cache.getEtats().get(0);
+		assertEquals(1, parId.getSucces());
+		assertEquals(1, parId.getEchecs());
+	}
+
+	@Test
+	void nomsSansTenirCompteDeLaCasse() {
+		assertEquals(List.of(gryffondor), cache.recupererMaisonsParNoms(List.of("GRYFFONDOR", "gryffondor")));
+		verify(base, never()).recupererMaisonsParNoms(any());
+
+		// Seul le nom absent de la photographie est cherché en base, une fois.
+		assertEquals(List.of(serdaigle, poufsouffle), cache.recupererMaisonsParNoms(List.of("serdaigle", "Poufsouffle")));
+		assertEquals(List.of(poufsouffle), cache.recupererMaisonsParNoms(List.of("poufsouffle")));
+		verify(base, times(1)).recupererMaisonsParNoms(any());
+	}
+
+	@Test
+	void ecritureRemplaceLaPhotographie() {
+		InstantaneMaisons avant = cache.getInstantane();
+
+		cache.modifierMaison(gryffondor);
+		verify(base).modifierMaison(gryffondor);
+		verify(base, times(2)).recupererMaisons();
+		assertNotSame(avant, cache.getInstantane());
+
+		// La photographie publiée reste inchangée pour qui la lisait déjà.
+		assertEquals(2, avant.getMaisons().size());
+	}
+
+	@Test
+	void maisonRetourneeEstUneCopie() {
+		// Une maison liée à un formulaire (maison.nom=X) ne modifie pas la photographie.
+		cache.recupererMaison(1).setNom("X");
+		cache.recupererMaison(3).setNom("X");
+		assertEquals("Gryffondor", cache.recupererMaison(1).getNom());
+		assertEquals("Poufsouffle", cache.recupererMaison(3).getNom());
+		assertEquals("Gryffondor", cache.recupererMaisons().get(0).getNom());
+	}
+}
@@ -0,0 +1,148 @@
+package com.example.sorcier.bll.sqlserver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.sorcier.bo.MotDePasse;
+import com.example.sorcier.bo.ResultatInsertion;
+import com.example.sorcier.bo.Utilisateur;
+import com.example.sorcier.bo.UtilisateurConnecte;
+import com.example.sorcier.config.VersionsDonnees;
+import com.example.sorcier.dal.mock.VersionRepositoryMock;
+import com.example.sorcier.dal.sqlserver.RoleRepositorySqlserver;
+import com.example.sorcier.dal.sqlserver.UtilisateurRepositorySqlserver;
+
+class UtilisateurServiceSqlserverTests {
+
+	private final VersionRepositoryMock versionRepository = new VersionRepositoryMock();
+	private final VersionsDonnees versions = new VersionsDonnees(versionRepository);
+	private UtilisateurRepositorySqlserver base;
+	private RoleRepositorySqlserver roles;
+	private UtilisateurServiceSqlserver service;
+
+	// Vrai pendant l'exécution du rappel de la transaction.
+	private boolean enTransaction;
+
+	/**
+	 * Transactions qui exécutent leur rappel, en retenant qu'il est en cours.
+	 */
+	private final TransactionTemplate transactions = new TransactionTemplate() {
+		@Override
+		public <T> T execute(TransactionCallback<T> action) {
+			enTransaction = true;
+			try {
+				return action.doInTransaction(new SimpleTransactionStatus());
+			} finally {
+				enTransaction = false;
+			}
+		}
+	};
+
+	@BeforeEach
+	void preparer() {
+		base = mock(UtilisateurRepositorySqlserver.class);
+		roles = mock(RoleRepositorySqlserver.class);
+		service = creerService(versions);
+	}
+
+	private UtilisateurServiceSqlserver creerService(VersionsDonnees versionsDonnees) {
+		UtilisateurServiceSqlserver autre = new UtilisateurServiceSqlserver(base, roles, versionsDonnees, transactions);
+		ReflectionTestUtils.setField(autre, "cacheMax", 100);
+		ReflectionTestUtils.setField(autre, "cacheDureeS", 60L);
+		autre.afterPropertiesSet();
+		return autre;
+	}
+
+	private UtilisateurConnecte albus(String mdpHash) {
+		return new UtilisateurConnecte(new Utilisateur(1, "albus", "albus@poudlard.fr", mdpHash, 1, new Date()),
+				List.of("ROLE_INSCRIT"));
+	}
+
+	@Test
+	void utilisateurGardeJusquAUneEcritureDesSorciers() {
+		when(base.findConnexionByName("albus")).thenReturn(albus("ancien"));
+		service.loadUserByUsername("albus");
+		service.loadUserByUsername("albus");
+		verify(base, times(1)).findConnexionByName("albus");
+
+		versions.sorciersModifies();
+		service.loadUserByUsername("albus");
+		verify(base, times(2)).findConnexionByName("albus");
+	}
+
+	@Test
+	void chargementCommenceAvantUneModificationNonGarde() {
+		// La modification du mot de passe aboutit pendant la lecture de l'ancien hachage.
+		Utilisateur modifie = new Utilisateur(1, "albus", "albus@poudlard.fr", "nouveau", 1, new Date());
+		when(base.findConnexionByName("albus")).thenAnswer(appel -> {
+			service.modifierSorcier(modifie);
+			return albus("ancien");
+		}).thenReturn(albus("nouveau"));
+
+		assertEquals("ancien", service.loadUserByUsername("albus").getPassword());
+
+		// L'ancien hachage n'a pas été gardé : la connexion suivante relit la base.
+		assertEquals("nouveau", service.loadUserByUsername("albus").getPassword());
+		verify(base, times(2)).findConnexionByName("albus");
+	}
+
+	@Test
+	void suppressionParUneAutreInstanceRetireLUtilisateurDuCache() {
+		when(base.findConnexionByName("albus")).thenReturn(albus("ancien"));
+		when(base.findById(1)).thenReturn(albus("ancien"));
+		service.loadUserByUsername("albus");
+
+		// Une autre instance, sur les mêmes versions partagées, supprime l'utilisateur par son id.
+		VersionsDonnees autresVersions = new VersionsDonnees(versionRepository);
+		creerService(autresVersions).supprimerUtilisateur(1);
+		verify(base).removeById(1);
+
+		// Cette instance relit les versions et ne sert plus l'utilisateur supprimé.
+		ReflectionTestUtils.setField(versions, "relectureMs", 0L);
+		service.loadUserByUsername("albus");
+		verify(base, times(2)).findConnexionByName("albus");
+	}
+
+	@Test
+	void inscriptionEnUneTransactionApresLeHachage() {
+		// Le hachage est fait hors de la transaction, qui ne retient pas de connexion pendant ce temps.
+		PasswordEncoder encodeur = mock(PasswordEncoder.class);
+		when(encodeur.encode("secret")).thenAnswer(appel -> {
+			assertFalse(enTransaction);
+			return "hache";
+		});
+		ReflectionTestUtils.setField(service, "passwordEncoder", encodeur);
+
+		// L'utilisateur et ses rôles sont enregistrés dans la transaction.
+		when(base.insertIfAbsent(any())).thenAnswer(appel -> {
+			assertTrue(enTransaction);
+			Utilisateur insere = appel.getArgument(0);
+			assertEquals("hache", insere.getMdpHash());
+			insere.setId(7);
+			return new ResultatInsertion(7, true);
+		});
+		Utilisateur utilisateur = new Utilisateur();
+		utilisateur.setNom("albus");
+		utilisateur.setMotDePasse(new MotDePasse("secret", "secret"));
+
+		service.ajouterUtilisateur(utilisateur, "ADMIN");
+		verify(roles).saveAll(7, List.of("ROLE_ADMIN", "ROLE_INSCRIT"));
+	}
+}
@@ -0,0 +1,92 @@
+package com.example.sorcier.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import com.example.sorcier.bo.Maison;
+import com.example.sorcier.bo.Sorcier;
+import com.example.sorcier.dal.mock.VersionRepositoryMock;
+
+class CacheFragmentsTests {
+
+	private final VersionRepositoryMock versionRepository = new VersionRepositoryMock();
+	private final VersionsDonnees versions = new VersionsDonnees(versionRepository);
+	private CacheFragments cache;
+	private int chargements;
+
+	@BeforeEach
+	void preparer() {
+		ClassLoaderTemplateResolver resolveur = new ClassLoaderTemplateResolver();
+		resolveur.setPrefix("templates/");
+		resolveur.setSuffix(".html");
+		SpringTemplateEngine moteur = new SpringTemplateEngine();
+		moteur.setTemplateResolver(resolveur);
+
+		cache = new CacheFragments(moteur, versions);
+		ReflectionTestUtils.setField(cache, "caracteresMax", 100000L);
+		ReflectionTestUtils.setField(cache, "racine", "/poudlard");
+		cache.afterPropertiesSet();
+	}
+
+	@AfterEach
+	void nettoyer() {
+		SecurityContextHolder.clearContext();
+	}
+
+	private CacheFragments.Rendu<List<Sorcier>> lignes() {
+		return cache.rendre("lignes_sorciers", "lignes", "NOM", () -> {
+			chargements++;
+			return List.of(new Sorcier(7, "Potter", "Harry", new Maison(1, "Gryffondor", 3, 10, true), 10, 100, true));
+		}, sorciers -> Map.of("sorciers", sorciers));
+	}
+
+	@Test
+	void fragmentGardeJusquALaProchaineEcriture() {
+		CacheFragments.Rendu<List<Sorcier>> rendu = lignes();
+		assertTrue(rendu.html().contains("Potter"));
+		assertFalse(rendu.html().contains("/sorciers/detailler"));
+		assertSame(rendu, lignes());
+		assertEquals(1, chargements);
+
+		versions.sorciersModifies();
+		lignes();
+		assertEquals(2, chargements);
+		assertEquals(1, cache.getEtat().getSucces());
+	}
+
+	@Test
+	void fragmentDistinctParRoles() {
+		lignes();
+		SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("harry", null,
+				AuthorityUtils.createAuthorityList("ROLE_INSCRIT")));
+		String inscrit = lignes().html();
+		assertEquals(2, chargements);
+		assertTrue(inscrit.contains("href=\"/poudlard/sorciers/detailler?id=7\""));
+		assertFalse(inscrit.contains("/admin/sorciers/supprimer"));
+	}
+
+	@Test
+	void fragmentRenduObsoleteParUneAutreInstance() {
+		lignes();
+		// Une autre instance écrit les sorciers ; cette instance relit les versions à chaque rendu.
+		ReflectionTestUtils.setField(versions, "relectureMs", 0L);
+		new VersionsDonnees(versionRepository).sorciersModifies();
+		lignes();
+		assertEquals(2, chargements);
+	}
+}
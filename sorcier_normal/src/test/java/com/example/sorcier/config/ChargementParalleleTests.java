@@ -0,0 +1,96 @@
+package com.example.sorcier.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.StatementCallback;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+class ChargementParalleleTests {
+
+	private ChargementParallele chargementParallele;
+
+	@BeforeEach
+	void demarrer() {
+		chargementParallele = new ChargementParallele();
+		ReflectionTestUtils.setField(chargementParallele, "threads", 2);
+		ReflectionTestUtils.setField(chargementParallele, "file", 10);
+		ReflectionTestUtils.setField(chargementParallele, "delaiMs", 500L);
+		chargementParallele.afterPropertiesSet();
+	}
+
+	@AfterEach
+	void arreter() {
+		chargementParallele.destroy();
+	}
+
+	// Simule une requête lente.
+	private static String attendre(long ms, String resultat) {
+		try {
+			Thread.sleep(ms);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return resultat;
+	}
+
+	@Test
+	void chargeEnParallele() {
+		long debut = System.nanoTime();
+		try (ChargementParallele.Groupe chargements = chargementParallele.groupe()) {
+			Future<String> maisons = chargements.lancer(() -> attendre(200, "maisons"));
+			String sorciers = attendre(200, "sorciers");
+			assertEquals("maisons", chargements.attendre(maisons));
+			assertEquals("sorciers", sorciers);
+		}
+		// La page coûte le plus long des deux chargements, pas leur somme.
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - debut) < 380);
+	}
+
+	@Test
+	void annuleAuDelaDuDelai() throws Exception {
+		CountDownLatch interrompu = new CountDownLatch(1);
+		try (ChargementParallele.Groupe chargements = chargementParallele.groupe()) {
+			Future<String> lent = chargements.lancer(() -> {
+				try {
+					Thread.sleep(10_000);
+				} catch (InterruptedException e) {
+					interrompu.countDown();
+				}
+				return "trop tard";
+			});
+			ResponseStatusException erreur = assertThrows(ResponseStatusException.class, () -> chargements.attendre(lent));
+			assertEquals(HttpStatus.SERVICE_UNAVAILABLE, erreur.getStatusCode());
+		}
+		// Le chargement dépassé a été interrompu.
+		assertTrue(interrompu.await(1, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void requetesBorneesParLEcheance() {
+		JdbcTemplate jdbcTemplate = new JdbcTemplateEcheance(
+				new DriverManagerDataSource("jdbc:h2:mem:echeance;DB_CLOSE_DELAY=-1", "sa", ""));
+		StatementCallback<Integer> delai = statement -> statement.getQueryTimeout();
+
+		try (ChargementParallele.Groupe chargements = chargementParallele.groupe()) {
+			// Le délai de 500 ms devient un délai JDBC d'une seconde, sur le pool comme sur la requête.
+			Future<Integer> lance = chargements.lancer(() -> jdbcTemplate.execute(delai));
+			assertEquals(1, chargements.attendre(lance));
+			assertEquals(1, chargements.charger(() -> jdbcTemplate.execute(delai)));
+		}
+		// Hors d'une page, la requête garde son délai habituel.
+		assertEquals(0, jdbcTemplate.execute(delai));
+	}
+}
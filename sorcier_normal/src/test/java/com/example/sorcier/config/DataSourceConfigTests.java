@@ -0,0 +1,99 @@
+package com.example.sorcier.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+class DataSourceConfigTests {
+
+	// Construit la configuration comme le ferait Spring à partir des propriétés.
+	private DataSourceConfig creerConfig(int tailleMin, int tailleMax) {
+		DataSourceConfig config = new DataSourceConfig();
+		ReflectionTestUtils.setField(config, "username", "sa");
+		ReflectionTestUtils.setField(config, "password", "");
+		ReflectionTestUtils.setField(config, "tailleMin", tailleMin);
+		ReflectionTestUtils.setField(config, "tailleMax", tailleMax);
+		ReflectionTestUtils.setField(config, "attenteMaxMs", 500L);
+		ReflectionTestUtils.setField(config, "validationMs", 250L);
+		ReflectionTestUtils.setField(config, "dureeVieMs", 1800000L);
+		return config;
+	}
+
+	@Test
+	void prechauffeLePoolAuDemarrage() {
+		MetriquesPool metriques = new MetriquesPool();
+		try (HikariDataSource dataSource = creerConfig(3, 5).creerPool("test-prechauffage",
+				"jdbc:h2:mem:prechauffage;DB_CLOSE_DELAY=-1", metriques)) {
+			// Les connexions minimales sont ouvertes et disponibles.
+			MetriquesPool.EtatPool etat = metriques.getEtat("test-prechauffage");
+			assertEquals(3, etat.getTotal());
+			assertEquals(3, etat.getInactives());
+			assertEquals(0, etat.getActives());
+		}
+	}
+
+	@Test
+	void suitLesEmpruntsEtLesExpirations() throws Exception {
+		MetriquesPool metriques = new MetriquesPool();
+		try (HikariDataSource dataSource = creerConfig(1, 1).creerPool("test-metriques",
+				"jdbc:h2:mem:metriques;DB_CLOSE_DELAY=-1", metriques)) {
+			new JdbcTemplate(dataSource).queryForObject("SELECT 1", Integer.class);
+
+			// La seule connexion est empruntée : la demande suivante expire.
+			try (Connection connexion = dataSource.getConnection()) {
+				assertEquals(1, metriques.getEtat("test-metriques").getActives());
+				try (Connection refusee = dataSource.getConnection()) {
+				} catch (Exception e) {
+					// Attendu : le pool est saturé.
+				}
+			}
+
+			MetriquesPool.EtatPool etat = metriques.getEtat("test-metriques");
+			assertTrue(etat.getEmprunts() >= 2);
+			assertEquals(1, etat.getExpirations());
+			assertEquals(0, etat.getActives());
+		}
+	}
+
+	@Test
+	void routeLesLecturesVersLeReplica() {
+		// Deux bases embarquées tiennent lieu de primaire et de réplica.
+		DriverManagerDataSource primaire = new DriverManagerDataSource("jdbc:h2:mem:primaire;DB_CLOSE_DELAY=-1", "sa", "");
+		DriverManagerDataSource replica = new DriverManagerDataSource("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1", "sa", "");
+		for (DriverManagerDataSource base : List.of(primaire, replica)) {
+			JdbcTemplate jdbcTemplate = new JdbcTemplate(base);
+			jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS Lieu (nom VARCHAR(20))");
+			jdbcTemplate.update("INSERT INTO Lieu (nom) VALUES (?)", base == primaire ? "primaire" : "replica");
+		}
+
+		RoutageDataSource routage = new RoutageDataSource(primaire, List.of(replica));
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(routage);
+		TransactionTemplate ecriture = new TransactionTemplate(new DataSourceTransactionManager(routage));
+		TransactionTemplate lecture = new TransactionTemplate(new DataSourceTransactionManager(routage));
+		lecture.setReadOnly(true);
+
+		// Les lectures vont au réplica, les écritures et les appels hors transaction à la primaire.
+		assertEquals("replica", lecture.execute(s -> jdbcTemplate.queryForObject("SELECT nom FROM Lieu", String.class)));
+		assertEquals("primaire", ecriture.execute(s -> jdbcTemplate.queryForObject("SELECT nom FROM Lieu", String.class)));
+		assertEquals("primaire", jdbcTemplate.queryForObject("SELECT nom FROM Lieu", String.class));
+
+		// Lecture après écriture : la primaire est imposée au thread.
+		RoutageDataSource.imposerPrimaire();
+		try {
+			assertEquals("primaire", lecture.execute(s -> jdbcTemplate.queryForObject("SELECT nom FROM Lieu", String.class)));
+		} finally {
+			RoutageDataSource.liberer();
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package com.example.sorcier.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+
+import jakarta.servlet.http.HttpServlet;
+
+class EchecConnexionHandlerTests {
+
+	/**
+	 * Encodeur dont le pool est saturé, ou qui refuse tous les mots de passe.
+	 */
+	private static PasswordEncoder encodeur(boolean sature) {
+		return new PasswordEncoder() {
+			@Override
+			public String encode(CharSequence motDePasse) {
+				if (sature) {
+					throw new HachageSatureException(null);
+				}
+				return "hash";
+			}
+
+			@Override
+			public boolean matches(CharSequence motDePasse, String hash) {
+				if (sature) {
+					throw new HachageSatureException(null);
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Envoie le formulaire de connexion à travers le filtre de saturation et celui de connexion.
+	 */
+	private MockHttpServletResponse connecter(UserDetailsService utilisateurs, PasswordEncoder encodeur) throws Exception {
+		DaoAuthenticationProvider fournisseur = new DaoAuthenticationProvider();
+		fournisseur.setPasswordEncoder(encodeur);
+		fournisseur.setUserDetailsService(utilisateurs);
+		UsernamePasswordAuthenticationFilter connexion = new UsernamePasswordAuthenticationFilter(new ProviderManager(fournisseur));
+		connexion.setAuthenticationFailureHandler(new EchecConnexionHandler());
+
+		MockHttpServletRequest requete = new MockHttpServletRequest("POST", "/login");
+		requete.setServletPath("/login");
+		requete.addParameter("username", "albus");
+		requete.addParameter("password", "secret");
+		MockHttpServletResponse reponse = new MockHttpServletResponse();
+		new HachageSatureFilter().doFilter(requete, reponse, new MockFilterChain(new HttpServlet() {
+			private static final long serialVersionUID = 1L;
+		}, connexion));
+		return reponse;
+	}
+
+	@Test
+	void saturationEnveloppeeParLaSecuriteRepond503() throws Exception {
+		// L'erreur du chargement de l'utilisateur est enveloppée par Spring Security.
+		MockHttpServletResponse reponse = connecter(nom -> {
+			throw new HachageSatureException(null);
+		}, encodeur(false));
+		assertEquals(503, reponse.getStatus());
+		assertEquals("1", reponse.getHeader("Retry-After"));
+	}
+
+	@Test
+	void saturationPourUnUtilisateurInconnuRepond503() throws Exception {
+		// Le hachage factice contre la mesure du temps de réponse est lui aussi refusé.
+		MockHttpServletResponse reponse = connecter(nom -> {
+			throw new UsernameNotFoundException(nom);
+		}, encodeur(true));
+		assertEquals(503, reponse.getStatus());
+	}
+
+	@Test
+	void mauvaisMotDePasseRetourneAuFormulaire() throws Exception {
+		MockHttpServletResponse reponse = connecter(nom -> User.withUsername(nom).password("hash").roles("INSCRIT").build(),
+				encodeur(false));
+		assertEquals(302, reponse.getStatus());
+		assertEquals("/connexion?error", reponse.getRedirectedUrl());
+	}
+}
@@ -0,0 +1,89 @@
+package com.example.sorcier.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class EncodeurMotsDePasseTests {
+
+	private EncodeurMotsDePasse encodeur;
+
+	@BeforeEach
+	void demarrer() {
+		encodeur = new EncodeurMotsDePasse();
+		ReflectionTestUtils.setField(encodeur, "threads", 1);
+		ReflectionTestUtils.setField(encodeur, "file", 1);
+		ReflectionTestUtils.setField(encodeur, "cibleMs", 1L);
+		ReflectionTestUtils.setField(encodeur, "coutMin", 10);
+		ReflectionTestUtils.setField(encodeur, "coutMax", 12);
+		encodeur.afterPropertiesSet();
+	}
+
+	@AfterEach
+	void arreter() {
+		encodeur.destroy();
+	}
+
+	@Test
+	void encodeEtVerifieSurLePool() {
+		String hash = encodeur.encode("secret");
+		assertTrue(encodeur.matches("secret", hash));
+		assertFalse(encodeur.matches("autre", hash));
+		assertEquals(3, encodeur.getEtat().getOperations());
+	}
+
+	@Test
+	void refaitLesHachagesAnciens() {
+		// Une cible très courte retient le coût minimal.
+		assertEquals(10, encodeur.getCout());
+
+		// Un hachage sans préfixe ou d'un coût inférieur est reconnu, puis à refaire.
+		String ancien = new BCryptPasswordEncoder(4).encode("secret");
+		assertTrue(encodeur.matches("secret", ancien));
+		assertTrue(encodeur.upgradeEncoding(ancien));
+		assertTrue(encodeur.upgradeEncoding("{bcrypt}" + ancien));
+
+		// Un hachage actuel est conservé.
+		String actuel = encodeur.encode("secret");
+		assertTrue(actuel.startsWith("{bcrypt}$2a$10$"));
+		assertFalse(encodeur.upgradeEncoding(actuel));
+	}
+
+	@Test
+	void refuseLorsqueLePoolEstSature() throws Exception {
+		// Un thread et une place en file : des hachages simultanés finissent par être refusés.
+		ExecutorService clients = Executors.newFixedThreadPool(8);
+		List<Future<Boolean>> resultats = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			resultats.add(clients.submit(() -> {
+				try {
+					encodeur.encode("secret");
+					return true;
+				} catch (HachageSatureException e) {
+					return false;
+				}
+			}));
+		}
+		int refus = 0;
+		for (Future<Boolean> resultat : resultats) {
+			refus += resultat.get() ? 0 : 1;
+		}
+		clients.shutdown();
+
+		assertTrue(refus > 0);
+		assertEquals(refus, encodeur.getEtat().getRefus());
+		assertEquals(8 - refus, encodeur.getEtat().getOperations());
+	}
+}
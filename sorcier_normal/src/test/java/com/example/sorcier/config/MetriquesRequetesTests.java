@@ -0,0 +1,89 @@
+package com.example.sorcier.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class MetriquesRequetesTests {
+
+	@Test
+	void estimeLesPercentilesParTranche() {
+		MetriquesRequetes metriques = new MetriquesRequetes();
+		// 98 requêtes rapides (50 µs) et 2 lentes (100 ms).
+		for (int i = 0; i < 98; i++) {
+			metriques.enregistrer("Repo.methode", "SELECT 1", TimeUnit.MICROSECONDS.toNanos(50), 1);
+		}
+		metriques.enregistrer("Repo.methode", "SELECT 1", TimeUnit.MILLISECONDS.toNanos(100), 1);
+		metriques.enregistrer("Repo.methode", "SELECT 1", TimeUnit.MILLISECONDS.toNanos(100), 1);
+
+		MetriquesRequetes.EtatRequete etat = metriques.getEtat("Repo.methode");
+		assertEquals(100, etat.getAppels());
+		assertEquals(100, etat.getLignes());
+		// La médiane tombe dans la première tranche, le p99 dans celle qui contient 100 ms.
+		assertEquals(0.064, etat.getP50Ms(), 1e-9);
+		assertTrue(etat.getP99Ms() >= 100 && etat.getP99Ms() < 200);
+		assertEquals(100.0, etat.getMaxMs(), 1e-9);
+	}
+
+	@Test
+	void mesureUneSeuleFoisLesRequetesImbriquees() {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:requetes;DB_CLOSE_DELAY=-1", "sa", "");
+		MetriquesRequetes metriques = new MetriquesRequetes();
+		SuiviRequetesAspect aspect = new SuiviRequetesAspect(metriques);
+		ReflectionTestUtils.setField(aspect, "seuilLentMs", 0L);
+
+		// Branche l'aspect sur les deux templates, comme pour les partitions, qui ne sont pas des beans.
+		NamedParameterJdbcTemplate namedParameterJdbcTemplate = aspect.instrumenter(dataSource);
+		JdbcTemplate jdbcTemplate = namedParameterJdbcTemplate.getJdbcTemplate();
+
+		jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS Mesure (id INT)");
+		namedParameterJdbcTemplate.batchUpdate("INSERT INTO Mesure (id) VALUES (:id)", new MapSqlParameterSource[] {
+				new MapSqlParameterSource("id", 1), new MapSqlParameterSource("id", 2) });
+		List<Map<String, Object>> lignes = namedParameterJdbcTemplate.queryForList(
+				"SELECT id FROM Mesure WHERE id > :id", new MapSqlParameterSource("id", 0));
+		assertEquals(2, lignes.size());
+
+		// Hors repository : execute, batchUpdate et queryForList comptent chacun une fois.
+		MetriquesRequetes.EtatRequete etat = metriques.getEtat("(hors repository)");
+		assertEquals(3, etat.getAppels());
+		assertEquals(4, etat.getLignes());
+		assertEquals("SELECT id FROM Mesure WHERE id > :id", etat.getSql());
+	}
+
+	@Test
+	void methodeAppelanteTransmiseAuxAutresThreads() throws Exception {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:requetes;DB_CLOSE_DELAY=-1", "sa", "");
+		MetriquesRequetes metriques = new MetriquesRequetes();
+		SuiviRequetesAspect aspect = new SuiviRequetesAspect(metriques);
+		JdbcTemplate jdbcTemplate = aspect.instrumenter(dataSource).getJdbcTemplate();
+
+		// La tâche, créée pendant la méthode de repository, s'exécute sur un autre thread.
+		@SuppressWarnings("unchecked")
+		ThreadLocal<String> methodeCourante = (ThreadLocal<String>) ReflectionTestUtils.getField(aspect, "methodeCourante");
+		methodeCourante.set("SorcierRepositoryPartition.count");
+		Runnable tache = aspect.transmettreMethode(() -> jdbcTemplate.queryForObject("SELECT 1", Integer.class));
+		methodeCourante.remove();
+		Thread thread = new Thread(tache);
+		thread.start();
+		thread.join();
+
+		assertEquals(1, metriques.getEtat("SorcierRepositoryPartition.count").getAppels());
+	}
+
+	@Test
+	void masqueLesValeursDesParametres() {
+		String description = SuiviRequetesAspect.decrireParametres(new Object[] {
+				"SELECT * FROM Utilisateur WHERE nom = :nom", new MapSqlParameterSource("nom", "albus") });
+		assertEquals("[nom=?]", description);
+	}
+}
@@ -0,0 +1,69 @@
+package com.example.sorcier.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class SeauxJetonsTests {
+
+	// Une minute, en microsecondes.
+	private static final long MINUTE = 60_000_000L;
+
+	@Test
+	void permetLaRafalePuisLeDebit() {
+		SeauxJetons seaux = new SeauxJetons(1024, 6, 3);
+		long debut = 10 * MINUTE;
+
+		// Trois essais consécutifs, puis refus.
+		assertTrue(seaux.prendre("harry", debut));
+		assertTrue(seaux.prendre("harry", debut));
+		assertTrue(seaux.prendre("harry", debut));
+		assertFalse(seaux.prendre("harry", debut));
+
+		// Une autre clé a son propre seau.
+		assertTrue(seaux.prendre("hermione", debut));
+
+		// Un jeton revient toutes les 10 secondes (6 par minute).
+		assertFalse(seaux.prendre("harry", debut + MINUTE / 6 - 1));
+		assertTrue(seaux.prendre("harry", debut + MINUTE / 6));
+		assertFalse(seaux.prendre("harry", debut + MINUTE / 6));
+	}
+
+	@Test
+	void resteExactSousConcurrence() throws Exception {
+		SeauxJetons seaux = new SeauxJetons(16, 1, 50);
+		long maintenant = 10 * MINUTE;
+		AtomicInteger pris = new AtomicInteger();
+
+		// 8 threads se disputent le même seau de 50 jetons.
+		ExecutorService threads = Executors.newFixedThreadPool(8);
+		for (int i = 0; i < 8; i++) {
+			threads.execute(() -> {
+				for (int j = 0; j < 100; j++) {
+					if (seaux.prendre("draco", maintenant)) {
+						pris.incrementAndGet();
+					}
+				}
+			});
+		}
+		threads.shutdown();
+		assertTrue(threads.awaitTermination(10, TimeUnit.SECONDS));
+		assertEquals(50, pris.get());
+	}
+
+	@Test
+	void seauxPleinsDesLaCreation() {
+		// Le premier essai passe quelle que soit l'origine de System.nanoTime().
+		SeauxJetons seaux = new SeauxJetons(16, 1, 1);
+		assertTrue(seaux.prendre("ron"));
+		assertFalse(seaux.prendre("ron"));
+		assertTrue(seaux.prendre("ginny", 0));
+	}
+}
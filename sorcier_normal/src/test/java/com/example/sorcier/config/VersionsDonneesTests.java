@@ -0,0 +1,128 @@
+package com.example.sorcier.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.example.sorcier.dal.mock.VersionRepositoryMock;
+
+class VersionsDonneesTests {
+
+	private final VersionRepositoryMock versionRepository = new VersionRepositoryMock();
+	private final VersionsDonnees versions = new VersionsDonnees(versionRepository);
+	private final MockHttpSession session = new MockHttpSession();
+
+	@AfterEach
+	void nettoyer() {
+		SecurityContextHolder.clearContext();
+	}
+
+	/**
+	 * Envoie une requête GET de la session, avec l'ETag déjà connu du navigateur.
+	 * Retourne l'ETag de la réponse, ou "304" si la page n'a pas changé.
+	 */
+	private String demander(String etagConnu, boolean avecSorciers) {
+		MockHttpServletRequest requete = new MockHttpServletRequest("GET", "/sorciers/lister");
+		requete.setSession(session);
+		if (etagConnu != null) {
+			requete.addHeader("If-None-Match", etagConnu);
+		}
+		MockHttpServletResponse reponse = new MockHttpServletResponse();
+		if (versions.nonModifie(new ServletWebRequest(requete, reponse), avecSorciers)) {
+			assertEquals(304, reponse.getStatus());
+			return "304";
+		}
+		assertEquals("private, no-cache", reponse.getHeader("Cache-Control"));
+		return reponse.getHeader("ETag");
+	}
+
+	@Test
+	void pageNonModifieeJusquALaProchaineEcriture() {
+		String etag = demander(null, true);
+		assertEquals("304", demander(etag, true));
+
+		// Une écriture des maisons change aussi les pages des sorciers.
+		versions.maisonsModifiees();
+		String apres = demander(etag, true);
+		assertNotEquals("304", apres);
+		assertEquals("304", demander(apres, true));
+
+		// Une écriture des sorciers ne change pas les pages des maisons.
+		String maisons = demander(null, false);
+		versions.sorciersModifies();
+		assertEquals("304", demander(maisons, false));
+		assertNotEquals("304", demander(apres, true));
+	}
+
+	@Test
+	void variantesParRoleEtSansSession() {
+		String anonyme = demander(null, true);
+
+		SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("albus", null,
+				AuthorityUtils.createAuthorityList("ROLE_ADMIN", "ROLE_INSCRIT")));
+		String admin = demander(anonyme, true);
+		assertNotEquals("304", admin);
+		assertNotEquals(anonyme, admin);
+
+		// Sans session, la page est toujours produite, sans ETag.
+		MockHttpServletResponse reponse = new MockHttpServletResponse();
+		assertFalse(versions.nonModifie(new ServletWebRequest(new MockHttpServletRequest("GET", "/"), reponse), true));
+		assertNull(reponse.getHeader("ETag"));
+	}
+
+	@Test
+	void versionIncrementeeALaFinDeLaTransaction() {
+		long avant = versions.getVersionSorciers();
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			versions.sorciersModifies();
+			assertEquals(avant, versions.getVersionSorciers());
+
+			for (TransactionSynchronization synchronisation : TransactionSynchronizationManager.getSynchronizations()) {
+				synchronisation.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+			}
+			assertEquals(avant + 1, versions.getVersionSorciers());
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void ecouteursAppelesApresEcritureDesMaisons() {
+		int[] appels = new int[1];
+		versions.surMaisonsModifiees(() -> appels[0]++);
+		versions.sorciersModifies();
+		versions.maisonsModifiees();
+		assertEquals(1, appels[0]);
+		assertTrue(versions.getVersionMaisons() > 0);
+	}
+
+	@Test
+	void ecritureDUneAutreInstanceVueSansReponse304() {
+		// Deux instances partagent la même base de versions.
+		VersionsDonnees autreInstance = new VersionsDonnees(versionRepository);
+		int[] appels = new int[1];
+		versions.surSorciersModifies(() -> appels[0]++);
+
+		String etag = demander(null, true);
+		autreInstance.sorciersModifies();
+
+		// La page est produite à nouveau, et les caches de cette instance sont prévenus.
+		assertNotEquals("304", demander(etag, true));
+		assertEquals(1, appels[0]);
+	}
+}
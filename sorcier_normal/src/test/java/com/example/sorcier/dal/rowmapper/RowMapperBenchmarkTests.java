@@ -0,0 +1,113 @@
+package com.example.sorcier.dal.rowmapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import com.example.sorcier.bo.Maison;
+import com.example.sorcier.bo.Sorcier;
+
+/**
+ * Mesure du débit des mappers sur 100 000 sorciers, en base H2.
+ * Compare la lecture par réflexion (BeanPropertyRowMapper), la lecture par libellé
+ * de colonne (ancien SorcierRowMapper) et la lecture par position (RowMapperIndexe),
+ * qui partage aussi les instances de Maison. Les trois lisent la requête des repositories,
+ * jointure sur les maisons comprise, avec un nouveau mapper par requête.
+ * Exclu du build par défaut : ./gradlew benchmark
+ */
+@Tag("benchmark")
+class RowMapperBenchmarkTests {
+
+	private static final String URL = "jdbc:h2:mem:benchmark;MODE=MSSQLServer;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1";
+	private static final int LIGNES = 100_000;
+	private static final int MESURES = 5;
+
+	private static final String SQL_JOINTURE = "SELECT "
+			+ "s.id AS sorcier_id, s.nom AS sorcier_nom, s.prenom AS sorcier_prenom, "
+			+ "s.attaque AS sorcier_attaque, s.sante AS sorcier_sante, s.modifiable AS sorcier_modifiable, "
+			+ "m.id AS maison_id, m.nom AS maison_nom, m.bonusAttaque AS maison_bonusAttaque, "
+			+ "m.bonusSante AS maison_bonusSante, m.modifiable AS maison_modifiable "
+			+ "FROM sorcier s INNER JOIN maison m ON s.id_maison = m.id";
+
+	// Même jointure, colonnes du sorcier sous leur nom de propriété pour BeanPropertyRowMapper.
+	private static final String SQL_JOINTURE_PROPRIETES = "SELECT "
+			+ "s.id, s.nom, s.prenom, s.attaque, s.sante, s.modifiable, "
+			+ "m.id AS maison_id, m.nom AS maison_nom, m.bonusAttaque AS maison_bonusAttaque, "
+			+ "m.bonusSante AS maison_bonusSante, m.modifiable AS maison_modifiable "
+			+ "FROM sorcier s INNER JOIN maison m ON s.id_maison = m.id";
+
+	private static JdbcTemplate jdbcTemplate;
+
+	@BeforeAll
+	static void remplirBase() {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(URL, "sa", "");
+		new ResourceDatabasePopulator(new ClassPathResource("sqlserver/schema_h2.sql")).execute(dataSource);
+		jdbcTemplate = new JdbcTemplate(dataSource);
+
+		// Complète le jeu de données jusqu'à 100 000 sorciers, répartis dans les maisons.
+		jdbcTemplate.update("INSERT INTO Sorcier (nom, prenom, id_maison, attaque, sante, modifiable) "
+				+ "SELECT CONCAT('Nom', X), CONCAT('Prenom', X), 1 + MOD(X, 6), MOD(X, 20), 100 + MOD(X, 150), 1 "
+				+ "FROM SYSTEM_RANGE(1, " + (LIGNES - 10) + ")");
+	}
+
+	/**
+	 * Mapper lisant les colonnes par libellé à chaque ligne, comme avant RowMapperIndexe.
+	 */
+	private static final RowMapper<Sorcier> PAR_LIBELLE = (rs, rowNum) -> new Sorcier(
+			rs.getInt("sorcier_id"),
+			rs.getString("sorcier_nom"),
+			rs.getString("sorcier_prenom"),
+			new Maison(rs.getInt("maison_id"), rs.getString("maison_nom"), rs.getInt("maison_bonusAttaque"),
+					rs.getInt("maison_bonusSante"), rs.getBoolean("maison_modifiable")),
+			rs.getInt("sorcier_attaque"),
+			rs.getInt("sorcier_sante"),
+			rs.getBoolean("sorcier_modifiable"));
+
+	/**
+	 * Exécute la requête plusieurs fois et affiche le meilleur débit obtenu,
+	 * ainsi que le nombre d'instances de Maison distinctes en mémoire.
+	 */
+	private long mesurer(String nom, String sql, Supplier<RowMapper<Sorcier>> fabrique) {
+		long meilleur = Long.MAX_VALUE;
+		int maisons = 0;
+		// Deux passages de chauffe, puis les passages mesurés.
+		for (int i = 0; i < MESURES + 2; i++) {
+			long debut = System.nanoTime();
+			List<Sorcier> sorciers = jdbcTemplate.query(sql, fabrique.get());
+			long duree = System.nanoTime() - debut;
+			assertEquals(LIGNES, sorciers.size());
+			if (i >= 2) {
+				meilleur = Math.min(meilleur, duree);
+			}
+			// Compte les instances de Maison distinctes (par identité, pas par égalité).
+			Set<Maison> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+			sorciers.forEach(s -> instances.add(s.getMaison()));
+			maisons = instances.size();
+		}
+		long lignesParSeconde = LIGNES * 1_000_000_000L / meilleur;
+		System.out.println("BENCH : " + nom + " : " + lignesParSeconde + " lignes/s (" + meilleur / 1_000_000 + " ms), "
+				+ maisons + " instance(s) de Maison");
+		return lignesParSeconde;
+	}
+
+	@Test
+	void debitDesMappers() {
+		mesurer("BeanPropertyRowMapper", SQL_JOINTURE_PROPRIETES, () -> new BeanPropertyRowMapper<>(Sorcier.class));
+		mesurer("Lecture par libelle", SQL_JOINTURE, () -> PAR_LIBELLE);
+		mesurer("SorcierRowMapper par position", SQL_JOINTURE, SorcierRowMapper::new);
+	}
+}
@@ -0,0 +1,50 @@
+package com.example.sorcier.dal.sqlserver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+
+import com.example.sorcier.bo.ResultatInsertion;
+
+class InsertionSiAbsenteTests {
+
+	private int insertions;
+
+	@Test
+	void ligneExistanteRetrouvee() {
+		ResultatInsertion resultat = InsertionSiAbsente.inserer(() -> {
+			insertions++;
+			throw new DuplicateKeyException("doublon");
+		}, () -> 4);
+		assertEquals(4, resultat.getId());
+		assertFalse(resultat.isCree());
+		assertEquals(1, insertions);
+	}
+
+	@Test
+	void ligneSupprimeeAvantSaRelectureInsereeANouveau() {
+		// La première insertion est refusée, puis la ligne en conflit disparaît avant d'être relue.
+		ResultatInsertion resultat = InsertionSiAbsente.inserer(() -> {
+			if (++insertions == 1) {
+				throw new DuplicateKeyException("doublon");
+			}
+			return 9;
+		}, () -> null);
+		assertEquals(9, resultat.getId());
+		assertTrue(resultat.isCree());
+		assertEquals(2, insertions);
+	}
+
+	@Test
+	void abandonApresPlusieursTentatives() {
+		assertThrows(DuplicateKeyException.class, () -> InsertionSiAbsente.inserer(() -> {
+			insertions++;
+			throw new DuplicateKeyException("doublon");
+		}, () -> null));
+		assertEquals(InsertionSiAbsente.TENTATIVES, insertions);
+	}
+}
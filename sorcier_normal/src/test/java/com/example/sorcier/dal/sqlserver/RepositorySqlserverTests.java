@@ -0,0 +1,263 @@
+package com.example.sorcier.dal.sqlserver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.sorcier.bo.Maison;
+import com.example.sorcier.bo.ResultatInsertion;
+import com.example.sorcier.bo.Sorcier;
+import com.example.sorcier.bo.StatistiqueMaison;
+import com.example.sorcier.bo.Tri;
+import com.example.sorcier.bo.Utilisateur;
+import com.example.sorcier.bo.UtilisateurConnecte;
+
+/**
+ * Tests des repositories SQL Server sur une base H2 en mode de compatibilité MSSQLServer.
+ */
+class RepositorySqlserverTests {
+
+	private static final String URL = "jdbc:h2:mem:sorciers;MODE=MSSQLServer;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1";
+
+	private JdbcTemplate jdbcTemplate;
+	private SorcierRepositorySqlserver sorcierRepositorySqlserver;
+	private MaisonRepositorySqlserver maisonRepositorySqlserver;
+
+	@BeforeEach
+	void preparerBase() {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(URL, "sa", "");
+
+		// Recrée le schéma et le jeu de données avant chaque test.
+		new ResourceDatabasePopulator(new ClassPathResource("sqlserver/schema_h2.sql")).execute(dataSource);
+
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		NamedParameterJdbcTemplate namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+		sorcierRepositorySqlserver = new SorcierRepositorySqlserver(jdbcTemplate, namedParameterJdbcTemplate);
+		maisonRepositorySqlserver = new MaisonRepositorySqlserver(jdbcTemplate, namedParameterJdbcTemplate);
+
+		// Des lots de petite taille pour couvrir le découpage.
+		ReflectionTestUtils.setField(sorcierRepositorySqlserver, "tailleLot", 3);
+		ReflectionTestUtils.setField(maisonRepositorySqlserver, "tailleLot", 3);
+
+		// H2 ne connaît pas OUTPUT : les clés générées sont lues par FINAL TABLE.
+		ReflectionTestUtils.setField(sorcierRepositorySqlserver, "clesGenerees", InsertionParLots.FINAL_TABLE);
+		ReflectionTestUtils.setField(maisonRepositorySqlserver, "clesGenerees", InsertionParLots.FINAL_TABLE);
+	}
+
+	private List<String> noms(List<Sorcier> sorciers) {
+		return sorciers.stream().map(Sorcier::getNom).toList();
+	}
+
+	@Test
+	void rechercheSansTenirCompteDeLaCasse() {
+		// Le terme correspond au nom de la maison des deux sorciers.
+		assertEquals(List.of("Granger", "Potter"), noms(sorcierRepositorySqlserver.search("GRY", 10)));
+
+		// Le terme correspond au prénom.
+		assertEquals(List.of("Potter"), noms(sorcierRepositorySqlserver.search("har", 10)));
+	}
+
+	@Test
+	void rechercheBorneeEtJokersEchappes() {
+		assertEquals(3, sorcierRepositorySqlserver.search("p", 3).size());
+		// Le terme doit commencer la colonne : "otter" ne trouve pas Potter.
+		assertTrue(sorcierRepositorySqlserver.search("otter", 10).isEmpty());
+		assertTrue(sorcierRepositorySqlserver.search("%", 10).isEmpty());
+		assertTrue(sorcierRepositorySqlserver.search("_", 10).isEmpty());
+	}
+
+	@Test
+	void rechercheDesMaisons() {
+		List<Maison> maisons = maisonRepositorySqlserver.search("SERP", 10);
+		assertEquals(1, maisons.size());
+		assertEquals("Serpentard", maisons.get(0).getNom());
+	}
+
+	@Test
+	void paginationSurCurseur() {
+		// Première page, triée par attaque.
+		assertEquals(List.of("Lovegood", "Patil", "Sword"),
+				noms(sorcierRepositorySqlserver.findPage(Tri.ATTAQUE, null, null, 3)));
+
+		// Après Chourave (id 6) : l'égalité d'attaque avec McGregor est départagée par l'id.
+		assertEquals(List.of("McGregor", "Granger"),
+				noms(sorcierRepositorySqlserver.findPage(Tri.ATTAQUE, 6, null, 2)));
+
+		// Avant McGregor (id 9) : la page est rendue dans l'ordre du tri.
+		assertEquals(List.of("Diggory", "Chourave"),
+				noms(sorcierRepositorySqlserver.findPage(Tri.ATTAQUE, null, 9, 2)));
+	}
+
+	@Test
+	void insertionParLots() {
+		Maison licorne = new Maison("Licorne", 2, 15, true);
+		maisonRepositorySqlserver.saveAll(List.of(licorne));
+
+		List<Sorcier> sorciers = new ArrayList<>();
+		for (int i = 0; i < 7; i++) {
+			sorciers.add(new Sorcier("Weasley", "Enfant" + (char) ('a' + i), licorne, 6, 110, true));
+		}
+		List<Integer> ids = sorcierRepositorySqlserver.saveAll(sorciers);
+
+		// Une clé par sorcier, dans l'ordre, affectée à chaque objet.
+		assertEquals(7, ids.size());
+		for (int i = 0; i < ids.size(); i++) {
+			assertEquals(ids.get(i).intValue(), sorciers.get(i).getId());
+			Sorcier relu = sorcierRepositorySqlserver.findById(ids.get(i));
+			assertEquals(sorciers.get(i).getPrenom(), relu.getPrenom());
+			assertEquals("Licorne", relu.getMaison().getNom());
+		}
+	}
+
+	@Test
+	void insertionRefuseUneTailleDeLotNulle() {
+		ReflectionTestUtils.setField(maisonRepositorySqlserver, "tailleLot", 0);
+		assertThrows(IllegalArgumentException.class,
+				() -> maisonRepositorySqlserver.saveAll(List.of(new Maison("Licorne", 2, 15, true))));
+	}
+
+	@Test
+	void parcoursCompletParOrdreDId() {
+		List<Integer> ids = new ArrayList<>();
+		sorcierRepositorySqlserver.streamAll(s -> ids.add(s.getId()));
+		assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10), ids);
+	}
+
+	@Test
+	void maisonsParNomsSansTenirCompteDeLaCasse() {
+		List<Maison> maisons = maisonRepositorySqlserver.findByNames(List.of("gryffondor", "MOLDU", "Inconnue"));
+		assertEquals(2, maisons.size());
+		assertTrue(maisonRepositorySqlserver.findByNames(List.of()).isEmpty());
+	}
+
+	@Test
+	void statistiquesGroupeesParMaison() {
+		maisonRepositorySqlserver.save(new Maison("Basilic", 1, 1, true));
+
+		assertEquals(10, sorcierRepositorySqlserver.count());
+		List<StatistiqueMaison> stats = sorcierRepositorySqlserver.statsByMaison();
+		assertEquals(7, stats.size());
+
+		// Une maison sans sorcier est présente, sans agrégats.
+		StatistiqueMaison basilic = stats.get(0);
+		assertEquals("Basilic", basilic.getMaison().getNom());
+		assertEquals(0, basilic.getNombreSorciers());
+		assertNull(basilic.getAttaqueMoyenne());
+		assertNull(basilic.getSanteMax());
+
+		// Gryffondor : Harry (10, 100) et Hermione (9, 120).
+		StatistiqueMaison gryffondor = stats.get(1);
+		assertEquals("Gryffondor", gryffondor.getMaison().getNom());
+		assertEquals(2, gryffondor.getNombreSorciers());
+		assertEquals(9.5, gryffondor.getAttaqueMoyenne(), 0.001);
+		assertEquals(9, gryffondor.getAttaqueMin().intValue());
+		assertEquals(10, gryffondor.getAttaqueMax().intValue());
+		assertEquals(110.0, gryffondor.getSanteMoyenne(), 0.001);
+		assertEquals(100, gryffondor.getSanteMin().intValue());
+		assertEquals(120, gryffondor.getSanteMax().intValue());
+	}
+
+	@Test
+	void suppressionsConditionnelles() {
+		// Gryffondor (id 1) a des sorciers : elle n'est pas supprimée.
+		assertFalse(maisonRepositorySqlserver.removeIfUnused(1));
+		assertEquals(6, maisonRepositorySqlserver.findAll().size());
+
+		Maison vide = new Maison("Basilic", 1, 1, true);
+		maisonRepositorySqlserver.save(vide);
+		assertTrue(maisonRepositorySqlserver.removeIfUnused(vide.getId()));
+		assertFalse(maisonRepositorySqlserver.removeIfUnused(vide.getId()));
+
+		// Harry (id 1) est choisi par un utilisateur, Hermione (id 2) ne l'est pas.
+		jdbcTemplate.update("INSERT INTO Utilisateur (nom, email, mdpHash, niveau, id_sorcier, dateInscription) "
+				+ "VALUES ('harry', 'harry@poudlard.fr', 'x', 1, 1, CURRENT_TIMESTAMP)");
+		assertFalse(sorcierRepositorySqlserver.removeIfUnused(1));
+		assertTrue(sorcierRepositorySqlserver.removeIfUnused(2));
+		assertEquals(9, sorcierRepositorySqlserver.count());
+	}
+
+	@Test
+	void maisonPartageeDansUnResultat() {
+		List<Sorcier> gryffondors = sorcierRepositorySqlserver.findByMaison(1);
+		assertEquals(2, gryffondors.size());
+		assertSame(gryffondors.get(0).getMaison(), gryffondors.get(1).getMaison());
+
+		// Une autre requête construit ses propres instances.
+		assertTrue(gryffondors.get(0).getMaison() != sorcierRepositorySqlserver.findById(1).getMaison());
+	}
+
+	@Test
+	void insertionSiAbsent() {
+		// Harry Potter existe déjà (id 1) : aucune ligne n'est ajoutée.
+		Maison gryffondor = maisonRepositorySqlserver.findById(1);
+		ResultatInsertion existant = sorcierRepositorySqlserver.insertIfAbsent(
+				new Sorcier("Potter", "Harry", gryffondor, 1, 1, true));
+		assertFalse(existant.isCree());
+		assertEquals(1, existant.getId());
+		assertEquals(10, sorcierRepositorySqlserver.count());
+
+		Sorcier ginny = new Sorcier("Weasley", "Ginny", gryffondor, 7, 110, true);
+		ResultatInsertion cree = sorcierRepositorySqlserver.insertIfAbsent(ginny);
+		assertTrue(cree.isCree());
+		assertEquals(ginny.getId(), cree.getId());
+
+		ResultatInsertion maison = maisonRepositorySqlserver.insertIfAbsent(new Maison("Serdaigle", 0, 0, true));
+		assertFalse(maison.isCree());
+		assertEquals(2, maison.getId());
+	}
+
+	@Test
+	void inscriptionAvecRolesEnUnLot() {
+		NamedParameterJdbcTemplate namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+		UtilisateurRepositorySqlserver utilisateurRepositorySqlserver = new UtilisateurRepositorySqlserver(namedParameterJdbcTemplate);
+		RoleRepositorySqlserver roleRepositorySqlserver = new RoleRepositorySqlserver(jdbcTemplate, namedParameterJdbcTemplate);
+
+		Utilisateur utilisateur = new Utilisateur(0, "albus", "albus@poudlard.fr", "hash", 1, new Date(), null);
+		ResultatInsertion cree = utilisateurRepositorySqlserver.insertIfAbsent(utilisateur);
+		assertTrue(cree.isCree());
+		assertEquals(cree.getId(), utilisateur.getId());
+		roleRepositorySqlserver.saveAll(utilisateur.getId(), List.of("ROLE_ADMIN", "ROLE_INSCRIT"));
+		assertEquals(2, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM Roles WHERE id_utilisateur = ?", Integer.class, utilisateur.getId()).intValue());
+
+		// Le même nom est refusé et l'id existant est retourné.
+		Utilisateur homonyme = new Utilisateur(0, "albus", "autre@poudlard.fr", "hash", 1, new Date(), null);
+		ResultatInsertion existant = utilisateurRepositorySqlserver.insertIfAbsent(homonyme);
+		assertFalse(existant.isCree());
+		assertEquals(utilisateur.getId(), existant.getId());
+	}
+
+	@Test
+	void connexionEnUneRequeteAvecSorcierEtRoles() {
+		UtilisateurRepositorySqlserver utilisateurRepositorySqlserver = new UtilisateurRepositorySqlserver(
+				new NamedParameterJdbcTemplate(jdbcTemplate));
+		jdbcTemplate.update("INSERT INTO Utilisateur (nom, email, mdpHash, niveau, id_sorcier, dateInscription) "
+				+ "VALUES ('harry', 'harry@poudlard.fr', 'x', 1, 1, CURRENT_TIMESTAMP)");
+		jdbcTemplate.update("INSERT INTO Roles (id_utilisateur, role) SELECT id, 'ROLE_ADMIN' FROM Utilisateur");
+		jdbcTemplate.update("INSERT INTO Roles (id_utilisateur, role) SELECT id, 'ROLE_INSCRIT' FROM Utilisateur");
+
+		UtilisateurConnecte harry = utilisateurRepositorySqlserver.findConnexionByName("harry");
+		assertEquals("x", harry.getPassword());
+		assertEquals(List.of("ROLE_ADMIN", "ROLE_INSCRIT"), harry.getRoles().stream().sorted().toList());
+		assertEquals("Potter", harry.getSorcier().getNom());
+		assertEquals("Gryffondor", harry.getSorcier().getMaison().getNom());
+
+		assertNull(utilisateurRepositorySqlserver.findConnexionByName("inconnu"));
+	}
+}
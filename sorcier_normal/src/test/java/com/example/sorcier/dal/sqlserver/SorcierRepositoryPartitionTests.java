@@ -0,0 +1,198 @@
+package com.example.sorcier.dal.sqlserver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.sorcier.bo.Maison;
+import com.example.sorcier.bo.Sorcier;
+import com.example.sorcier.bo.Tri;
+
+/**
+ * Tests du repository des sorciers partitionnés, sur une base principale
+ * et deux partitions H2 en mode de compatibilité MSSQLServer.
+ */
+class SorcierRepositoryPartitionTests {
+
+	private static final String OPTIONS = ";MODE=MSSQLServer;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1";
+
+	private JdbcTemplate catalogueJdbc;
+	private List<DataSource> partitions;
+	private AnnuairePartitions annuairePartitions;
+	private MaisonRepositorySqlserver maisonRepositorySqlserver;
+	private SorcierRepositoryPartition sorcierRepositoryPartition;
+
+	@BeforeEach
+	void preparerBases() {
+		// La base principale garde les maisons, l'annuaire et la séquence.
+		DriverManagerDataSource catalogue = new DriverManagerDataSource("jdbc:h2:mem:catalogue" + OPTIONS, "sa", "");
+		new ResourceDatabasePopulator(new ClassPathResource("sqlserver/schema_h2.sql"),
+				new ClassPathResource("sqlserver/partition_catalogue_h2.sql")).execute(catalogue);
+
+		// Chaque partition ne contient que la table sorcier.
+		partitions = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			DriverManagerDataSource partition = new DriverManagerDataSource("jdbc:h2:mem:partition" + i + OPTIONS, "sa", "");
+			new ResourceDatabasePopulator(new ClassPathResource("sqlserver/partition_h2.sql")).execute(partition);
+			partitions.add(partition);
+		}
+
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(catalogue);
+		catalogueJdbc = jdbcTemplate;
+		NamedParameterJdbcTemplate namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(catalogue);
+		annuairePartitions = new AnnuairePartitions(namedParameterJdbcTemplate, partitions);
+		maisonRepositorySqlserver = new MaisonRepositorySqlserver(jdbcTemplate, namedParameterJdbcTemplate);
+		sorcierRepositoryPartition = new SorcierRepositoryPartition(jdbcTemplate, namedParameterJdbcTemplate,
+				annuairePartitions, maisonRepositorySqlserver);
+
+		// Des lots de petite taille pour couvrir le découpage.
+		ReflectionTestUtils.setField(sorcierRepositoryPartition, "tailleLot", 2);
+		ReflectionTestUtils.setField(sorcierRepositoryPartition, "tailleFetch", 10);
+
+		// Répartit les sorciers du jeu de données sur les partitions.
+		List<Sorcier> sorciers = new ArrayList<>();
+		for (Sorcier sorcier : new SorcierRepositorySqlserver(jdbcTemplate, namedParameterJdbcTemplate).findAll()) {
+			sorciers.add(new Sorcier(sorcier.getNom(), sorcier.getPrenom(), sorcier.getMaison(), sorcier.getAttaque(),
+					sorcier.getSante(), sorcier.isModifiable()));
+		}
+		sorcierRepositoryPartition.saveAll(sorciers);
+	}
+
+	@AfterEach
+	void fermerAnnuaire() {
+		annuairePartitions.close();
+	}
+
+	private Maison maison(String nom) {
+		return maisonRepositorySqlserver.findAll().stream().filter(m -> m.getNom().equals(nom)).findFirst().orElseThrow();
+	}
+
+	@Test
+	void enregistreChaqueSorcierSurLaPartitionDeSaMaison() {
+		// Les maisons d'id impair vont sur la partition 1, les autres sur la partition 0.
+		assertEquals(List.of(5, 5), sorcierRepositoryPartition.countParPartition());
+
+		Sorcier sorcier = new Sorcier("Weasley", "Ron", maison("Gryffondor"), 8, 110, true);
+		sorcierRepositoryPartition.save(sorcier);
+		assertEquals(List.of(5, 6), sorcierRepositoryPartition.countParPartition());
+
+		// Le bloc de l'identifiant est réservé à la maison : la lecture ne vise qu'une partition.
+		assertEquals(maison("Gryffondor").getId(), catalogueJdbc.queryForObject(
+				"SELECT id_maison FROM bloc_maison WHERE bloc = ?", Integer.class,
+				sorcier.getId() / AnnuairePartitions.TAILLE_BLOC));
+		Sorcier relu = sorcierRepositoryPartition.findById(sorcier.getId());
+		assertEquals("Weasley", relu.getNom());
+		assertEquals("Gryffondor", relu.getMaison().getNom());
+	}
+
+	@Test
+	void identifiantsAllouesParBlocsSansLimiteDeMaisons() {
+		// Une maison d'id quelconque reçoit des identifiants consécutifs d'un bloc qui lui est réservé.
+		int premier = annuairePartitions.nouvelId(123456);
+		assertEquals(premier + 1, annuairePartitions.nouvelId(123456));
+		assertEquals(123456, catalogueJdbc.queryForObject("SELECT id_maison FROM bloc_maison WHERE bloc = ?",
+				Integer.class, premier / AnnuairePartitions.TAILLE_BLOC));
+	}
+
+	@Test
+	void fusionneLesPagesDesPartitions() {
+		assertEquals(10, sorcierRepositoryPartition.count());
+
+		// Première page puis page suivante, triées par nom sur toutes les partitions.
+		List<Sorcier> premiere = sorcierRepositoryPartition.findPage(Tri.NOM, null, null, 4);
+		assertEquals(List.of("Chourave", "Diggory", "Granger", "Lovegood"),
+				premiere.stream().map(Sorcier::getNom).toList());
+		List<Sorcier> suivante = sorcierRepositoryPartition.findPage(Tri.NOM, premiere.get(3).getId(), null, 4);
+		assertEquals(List.of("Malfoy", "McGregor", "Patil", "Potter"),
+				suivante.stream().map(Sorcier::getNom).toList());
+
+		// La page précédente revient au début.
+		List<Sorcier> precedente = sorcierRepositoryPartition.findPage(Tri.NOM, null, suivante.get(0).getId(), 4);
+		assertEquals(premiere.stream().map(Sorcier::getId).toList(), precedente.stream().map(Sorcier::getId).toList());
+	}
+
+	@Test
+	void deplaceUneMaisonVersUneAutrePartition() {
+		Maison gryffondor = maison("Gryffondor");
+		Sorcier potter = sorcierRepositoryPartition.findByName(new Sorcier("Potter", "Harry", gryffondor, 0, 0, false));
+		assertNotNull(potter);
+
+		// Les deux sorciers de Gryffondor passent de la partition 1 à la partition 0.
+		assertEquals(2, sorcierRepositoryPartition.deplacerMaison(gryffondor.getId(), 0));
+		assertEquals(List.of(7, 3), sorcierRepositoryPartition.countParPartition());
+		assertEquals(0, annuairePartitions.partitionDe(gryffondor.getId()));
+
+		// Le sorcier reste accessible par son identifiant.
+		assertEquals("Potter", sorcierRepositoryPartition.findById(potter.getId()).getNom());
+		assertEquals(2, sorcierRepositoryPartition.findByMaison(gryffondor.getId()).size());
+	}
+
+	@Test
+	void deplacementParUneAutreInstanceVuSansRedemarrer() {
+		Maison gryffondor = maison("Gryffondor");
+		assertEquals(2, sorcierRepositoryPartition.findByMaison(gryffondor.getId()).size());
+
+		// Une autre instance, avec son propre annuaire, déplace Gryffondor.
+		NamedParameterJdbcTemplate catalogue = new NamedParameterJdbcTemplate(catalogueJdbc);
+		try (AnnuairePartitions autreAnnuaire = new AnnuairePartitions(catalogue, partitions)) {
+			SorcierRepositoryPartition autreInstance = new SorcierRepositoryPartition(catalogueJdbc, catalogue,
+					autreAnnuaire, maisonRepositorySqlserver);
+			ReflectionTestUtils.setField(autreInstance, "tailleLot", 2);
+			autreInstance.deplacerMaison(gryffondor.getId(), 0);
+		}
+
+		// Cette instance relit l'affectation : lectures et écritures vont sur la nouvelle partition.
+		assertEquals(2, sorcierRepositoryPartition.findByMaison(gryffondor.getId()).size());
+		sorcierRepositoryPartition.save(new Sorcier("Weasley", "Ron", gryffondor, 8, 110, true));
+		assertEquals(List.of(8, 3), sorcierRepositoryPartition.countParPartition());
+	}
+
+	@Test
+	void ecritureRefuseePendantLeDeplacement() {
+		// Gryffondor est fermée aux écritures sur sa partition, comme au début d'un déplacement.
+		Maison gryffondor = maison("Gryffondor");
+		annuairePartitions.partition(1).getJdbcTemplate().update("INSERT INTO maison_absente (id_maison) VALUES (?)",
+				gryffondor.getId());
+
+		assertThrows(CannotAcquireLockException.class,
+				() -> sorcierRepositoryPartition.save(new Sorcier("Weasley", "Ron", gryffondor, 8, 110, true)));
+		Sorcier potter = sorcierRepositoryPartition.findByName(new Sorcier("Potter", "Harry", gryffondor, 0, 0, false));
+		assertThrows(CannotAcquireLockException.class, () -> sorcierRepositoryPartition.removeById(potter.getId()));
+		assertEquals(List.of(5, 5), sorcierRepositoryPartition.countParPartition());
+	}
+
+	@Test
+	void identifiantQuelconqueSansEcritureDansLAnnuaire() {
+		Integer affectations = catalogueJdbc.queryForObject("SELECT COUNT(*) FROM partition_maison", Integer.class);
+
+		// Un identifiant sans maison connue, ou négatif, ne trouve rien et n'enregistre rien.
+		assertThrows(EmptyResultDataAccessException.class, () -> sorcierRepositoryPartition.findById(123456));
+		assertThrows(EmptyResultDataAccessException.class, () -> sorcierRepositoryPartition.findById(-7));
+		assertEquals(affectations, catalogueJdbc.queryForObject("SELECT COUNT(*) FROM partition_maison", Integer.class));
+	}
+
+	@Test
+	void identifiantAnterieurAuPartitionnementCherchePartout() {
+		// Sorcier recopié avec son ancien identifiant, qui n'appartient à aucun bloc de l'annuaire.
+		annuairePartitions.partition(0).getJdbcTemplate().update("INSERT INTO sorcier (id, nom, prenom, id_maison, "
+				+ "attaque, sante, modifiable) VALUES (5, 'Lupin', 'Remus', ?, 9, 150, 1)", maison("Gryffondor").getId());
+		assertEquals("Lupin", sorcierRepositoryPartition.findById(5).getNom());
+	}
+}
@@ -0,0 +1,17 @@
+-- Annuaire des partitions et séquence des identifiants, ajoutés à la base principale des tests.
+
+DROP TABLE IF EXISTS partition_maison;
+DROP TABLE IF EXISTS bloc_maison;
+DROP SEQUENCE IF EXISTS sorcier_seq;
+
+CREATE TABLE partition_maison (
+    id_maison INT PRIMARY KEY,
+    numero_partition INT NOT NULL
+);
+
+CREATE TABLE bloc_maison (
+    bloc BIGINT PRIMARY KEY,
+    id_maison INT NOT NULL
+);
+
+CREATE SEQUENCE sorcier_seq START WITH 1 INCREMENT BY 1;
@@ -0,0 +1,22 @@
+-- Schéma d'une partition de la table sorcier pour les tests.
+
+DROP TABLE IF EXISTS Sorcier;
+DROP TABLE IF EXISTS maison_absente;
+
+CREATE TABLE Sorcier (
+    id INT PRIMARY KEY,
+    nom VARCHAR(255),
+    prenom VARCHAR(255),
+    id_maison INT NOT NULL,
+    attaque INT,
+    sante INT,
+    modifiable INT
+);
+
+CREATE INDEX IX_sorcier_nom_id ON Sorcier (nom, id);
+CREATE INDEX IX_sorcier_prenom_id ON Sorcier (prenom, id);
+CREATE UNIQUE INDEX UX_sorcier_nom_prenom ON Sorcier (nom, prenom);
+
+CREATE TABLE maison_absente (
+    id_maison INT PRIMARY KEY
+);
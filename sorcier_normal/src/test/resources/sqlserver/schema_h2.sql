@@ -0,0 +1,70 @@
+-- Schéma et jeu de données des tests de la couche SQL Server,
+-- exécutés sur H2 en mode de compatibilité MSSQLServer.
+
+DROP TABLE IF EXISTS Roles;
+DROP TABLE IF EXISTS Utilisateur;
+DROP TABLE IF EXISTS Sorcier;
+DROP TABLE IF EXISTS Maison;
+
+CREATE TABLE Maison (
+    id INT PRIMARY KEY IDENTITY,
+    nom VARCHAR(255) NOT NULL,
+    bonusAttaque INT,
+    bonusSante INT,
+    modifiable INT
+);
+
+CREATE TABLE Sorcier (
+    id INT PRIMARY KEY IDENTITY,
+    nom VARCHAR(255),
+    prenom VARCHAR(255),
+    id_maison INT,
+    attaque INT,
+    sante INT,
+    modifiable INT,
+    FOREIGN KEY (id_maison) REFERENCES Maison(id)
+);
+
+CREATE TABLE Utilisateur (
+    id INT PRIMARY KEY IDENTITY,
+    nom VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    mdpHash VARCHAR(255) NOT NULL,
+    niveau INT,
+    id_sorcier INT,
+    dateInscription DATETIME2 NOT NULL,
+    FOREIGN KEY (id_sorcier) REFERENCES Sorcier(id)
+);
+
+CREATE TABLE Roles (
+    id_utilisateur INT,
+    role VARCHAR(50) NOT NULL,
+    PRIMARY KEY (id_utilisateur, role),
+    FOREIGN KEY (id_utilisateur) REFERENCES Utilisateur(id)
+);
+
+CREATE INDEX IX_sorcier_nom_id ON Sorcier (nom, id);
+CREATE INDEX IX_sorcier_prenom_id ON Sorcier (prenom, id);
+CREATE UNIQUE INDEX UX_sorcier_nom_prenom ON Sorcier (nom, prenom);
+CREATE UNIQUE INDEX UX_maison_nom ON Maison (nom);
+CREATE UNIQUE INDEX UX_utilisateur_nom ON Utilisateur (nom);
+
+INSERT INTO Maison (nom, bonusAttaque, bonusSante, modifiable) VALUES
+('Gryffondor', 5, 10, 0),
+('Serdaigle', 1, 30, 0),
+('Poufsouffle', 4, 20, 0),
+('Serpentard', 8, 0, 0),
+('Hippogriffe', 4, 25, 1),
+('Moldu', 3, 20, 1);
+
+INSERT INTO Sorcier (nom, prenom, id_maison, attaque, sante, modifiable) VALUES
+('Potter', 'Harry', 1, 10, 100, 0),
+('Granger', 'Hermione', 1, 9, 120, 0),
+('Lovegood', 'Luna', 2, 3, 200, 0),
+('Patil', 'Padma', 2, 4, 170, 0),
+('Diggory', 'Cedric', 3, 7, 150, 0),
+('Chourave', 'Pomona', 3, 8, 140, 0),
+('Rogue', 'Severus', 4, 15, 80, 0),
+('Malfoy', 'Draco', 4, 11, 60, 0),
+('McGregor', 'Edward', 5, 8, 150, 1),
+('Sword', 'William', 6, 5, 250, 1);